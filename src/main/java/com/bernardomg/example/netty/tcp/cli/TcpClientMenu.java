@@ -24,24 +24,44 @@
 
 package com.bernardomg.example.netty.tcp.cli;
 
+import java.io.File;
+
+import com.bernardomg.example.netty.tcp.cli.command.LoadCommand;
+import com.bernardomg.example.netty.tcp.cli.command.ReplayCommand;
+import com.bernardomg.example.netty.tcp.cli.command.ScenarioCommand;
 import com.bernardomg.example.netty.tcp.cli.command.SendEmptyMessageCommand;
 import com.bernardomg.example.netty.tcp.cli.command.SendMessageCommand;
 import com.bernardomg.example.netty.tcp.cli.command.SendMultipleMessagesCommand;
 import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.PropertiesDefaultProvider;
+import picocli.CommandLine.Spec;
 
 /**
  * TCP client menu.
+ * <p>
+ * The options of all the commands can be read from a properties file, with the {@code --config} option. Each key is
+ * the option name without the dashes, such as {@code tcp-no-delay=false}. Options in the command line take precedence.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
  */
 @Command(description = "TCP client",
-        subcommands = { SendMessageCommand.class, SendEmptyMessageCommand.class, SendMultipleMessagesCommand.class },
+        subcommands = { SendMessageCommand.class, SendEmptyMessageCommand.class, SendMultipleMessagesCommand.class,
+                LoadCommand.class, ScenarioCommand.class, ReplayCommand.class },
         mixinStandardHelpOptions = true, versionProvider = ManifestVersionProvider.class)
 public class TcpClientMenu {
 
+    /**
+     * Command specification. Used to set the default values.
+     */
+    @Spec
+    private CommandSpec spec;
+
     /**
      * Default constructor.
      */
@@ -49,4 +69,22 @@ public TcpClientMenu() {
         super();
     }
 
+    /**
+     * Reads the default values for the options from the received properties file. It must be set before the command,
+     * as the command options are parsed after this.
+     *
+     * @param file
+     *            properties file with the default values
+     */
+    @Option(names = { "--config" }, paramLabel = "file",
+            description = "Properties file with the default values for the options, keyed by option name.")
+    public final void setConfig(final File file) {
+        if (!file.canRead()) {
+            throw new ParameterException(spec.commandLine(), String.format("Can't read config file %s", file));
+        }
+
+        spec.commandLine()
+            .setDefaultValueProvider(new PropertiesDefaultProvider(file));
+    }
+
 }
@@ -25,6 +25,7 @@
 package com.bernardomg.example.netty.tcp.cli;
 
 import java.io.PrintWriter;
+import java.time.Duration;
 import java.util.Objects;
 
 import com.bernardomg.example.netty.tcp.client.TransactionListener;
@@ -60,6 +61,11 @@ public TransactionPrinterListener(final String hst, final Integer prt, final Pri
         writer = Objects.requireNonNull(wrt);
     }
 
+    @Override
+    public final void onDisconnect() {
+        writer.println("Connection lost");
+    }
+
     @Override
     public final void onReceive(final String message) {
         if (message.isEmpty()) {
@@ -70,6 +76,18 @@ public final void onReceive(final String message) {
         }
     }
 
+    @Override
+    public final void onReconnect() {
+        writer.printf("Reconnected to %s:%d", host, port);
+        writer.println();
+    }
+
+    @Override
+    public final void onReconnecting(final int attempt, final Duration delay) {
+        writer.printf("Reconnecting in %d ms, attempt %d", delay.toMillis(), attempt);
+        writer.println();
+    }
+
     @Override
     public final void onSend(final String message) {
         if (message.isEmpty()) {
@@ -91,4 +109,13 @@ public final void onStop() {
         writer.println("Stopping connection");
     }
 
+    @Override
+    public final void onWritabilityChanged(final boolean writable) {
+        if (writable) {
+            writer.println("Connection writable again");
+        } else {
+            writer.println("Connection not writable, waiting for the server");
+        }
+    }
+
 }
@@ -0,0 +1,328 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.command;
+
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+
+import com.bernardomg.example.netty.tcp.cli.option.BalancingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.CorrelationOptions;
+import com.bernardomg.example.netty.tcp.cli.option.MetricsOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ProfilingOptions;
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.balance.BalancedNettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.balance.BalancingSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.ClientMetrics;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsTransactionListener;
+import com.bernardomg.example.netty.tcp.client.metrics.PrintMetricsReporter;
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+import com.bernardomg.example.netty.tcp.client.profiling.PipelineProfiler;
+
+/**
+ * Creates the clients for the commands, along with what measures them: the connection metrics exported through JMX,
+ * the transaction metrics and the pipeline profiler. Each of them only exists if its options enable it.
+ * <p>
+ * Everything is opened on creation, and should be closed once the clients are closed, to print what was measured.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+final class ClientFactory {
+
+    /**
+     * Connection metrics, exported through JMX. May be {@code null}.
+     */
+    private final ClientMetrics       clientMetrics;
+
+    /**
+     * Response correlation options.
+     */
+    private final CorrelationOptions  correlation;
+
+    /**
+     * Listener for the clients. Counts the messages if the transaction metrics are enabled, otherwise it does nothing.
+     */
+    private final TransactionListener listener;
+
+    /**
+     * Metrics options. May be {@code null}.
+     */
+    private final MetricsOptions      metrics;
+
+    /**
+     * Writer for the transaction metrics. May be {@code null}.
+     */
+    private final PrintWriter         metricsWriter;
+
+    /**
+     * Pipeline profiler. May be {@code null}.
+     */
+    private final PipelineProfiler    profiler;
+
+    /**
+     * Profiling options.
+     */
+    private final ProfilingOptions    profiling;
+
+    /**
+     * Transaction metrics. May be {@code null}.
+     */
+    private final TransactionMetrics  transactionMetrics;
+
+    /**
+     * Constructs a factory which measures the clients as the received options tell.
+     *
+     * @param name
+     *            name for the connection metrics in JMX
+     * @param crrltn
+     *            response correlation options
+     * @param mtrcs
+     *            metrics options
+     * @param prflng
+     *            profiling options
+     * @param writer
+     *            console writer
+     */
+    ClientFactory(final String name, final CorrelationOptions crrltn, final MetricsOptions mtrcs,
+            final ProfilingOptions prflng, final PrintWriter writer) {
+        super();
+
+        correlation = Objects.requireNonNull(crrltn);
+        metrics = Objects.requireNonNull(mtrcs);
+        profiling = Objects.requireNonNull(prflng);
+
+        // Exported while running
+        clientMetrics = metrics.openClientMetrics(name);
+        // Profiles the pipelines of all the connections
+        profiler = profiling.openProfiler();
+        if (metrics.isEnabled()) {
+            metricsWriter = metrics.openWriter(writer);
+            transactionMetrics = new TransactionMetrics(metrics.getInterval(),
+                new PrintMetricsReporter(metricsWriter, metrics.getFormat()));
+            // Keeps no state, so all the connections share it
+            listener = new MetricsTransactionListener(transactionMetrics);
+        } else {
+            metricsWriter = null;
+            transactionMetrics = null;
+            listener = silentListener();
+        }
+    }
+
+    /**
+     * Constructs a factory which only profiles the clients, if the received options tell so.
+     *
+     * @param crrltn
+     *            response correlation options
+     * @param prflng
+     *            profiling options
+     */
+    ClientFactory(final CorrelationOptions crrltn, final ProfilingOptions prflng) {
+        super();
+
+        correlation = Objects.requireNonNull(crrltn);
+        metrics = null;
+        profiling = Objects.requireNonNull(prflng);
+
+        clientMetrics = null;
+        // Profiles the pipelines of all the connections
+        profiler = profiling.openProfiler();
+        metricsWriter = null;
+        transactionMetrics = null;
+        listener = silentListener();
+    }
+
+    /**
+     * Prints the latency percentiles of a histogram, transformed from nanoseconds into the received unit.
+     *
+     * @param writer
+     *            writer to print into
+     * @param title
+     *            title for the percentiles, including the unit
+     * @param histogram
+     *            histogram, in nanoseconds
+     * @param percentiles
+     *            percentiles to print
+     * @param unit
+     *            unit to print the percentiles in
+     */
+    static final void printPercentiles(final PrintWriter writer, final String title, final Histogram histogram,
+            final double[] percentiles, final TimeUnit unit) {
+        final double nanos;
+
+        nanos = unit.toNanos(1);
+
+        writer.println(title);
+        for (final double percentile : percentiles) {
+            writer.printf("  p%-6s %10.1f", percentile, histogram.getValueAtPercentile(percentile) / nanos);
+            writer.println();
+        }
+        writer.printf("  %-7s %10.1f", "max", histogram.getMaxValue() / nanos);
+        writer.println();
+    }
+
+    /**
+     * Silent listener. Printing each message would slow down the client.
+     *
+     * @return a listener which does nothing
+     */
+    private static final TransactionListener silentListener() {
+        return new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        };
+    }
+
+    /**
+     * Stops measuring, and prints what was measured. Should be called once the clients are closed.
+     *
+     * @param writer
+     *            writer to print into
+     */
+    final void close(final PrintWriter writer) {
+        if (transactionMetrics != null) {
+            transactionMetrics.stop();
+            if (metricsWriter != writer) {
+                metricsWriter.close();
+            }
+        }
+        if (metrics != null) {
+            metrics.closeClientMetrics(clientMetrics, writer);
+        }
+        profiling.closeProfiler(profiler, writer);
+    }
+
+    /**
+     * Adds the connection and transaction metrics, and the profiler, into the received configuration.
+     *
+     * @param config
+     *            configuration to measure
+     * @return a copy of the configuration, with the metrics and profiler
+     */
+    final ClientConfiguration configure(final ClientConfiguration config) {
+        return config.toBuilder()
+            .metrics(clientMetrics)
+            .profiler(profiler)
+            .transactionMetrics(transactionMetrics)
+            .build();
+    }
+
+    /**
+     * Returns a factory for the clients of the received hosts. With several hosts, each client spreads its requests
+     * across all of them.
+     *
+     * @param hosts
+     *            server hosts
+     * @param port
+     *            server port, for the hosts without one
+     * @param balancing
+     *            load balancing options, used with several hosts
+     * @param configuration
+     *            client configuration
+     * @param listeners
+     *            creates the listener for each client
+     * @return a factory for the clients
+     */
+    final Supplier<Client> createClients(final List<String> hosts, final Integer port, final BalancingOptions balancing,
+            final ClientConfiguration configuration, final Supplier<TransactionListener> listeners) {
+        final Supplier<ResponseCorrelator> correlators;
+        final List<InetSocketAddress>      addresses;
+        final BalancingSettings            balancingSettings;
+        final Supplier<Client>             clients;
+
+        correlators = getCorrelators();
+        if (hosts.size() == 1) {
+            clients = () -> new NettyTcpClient(hosts.get(0), port, listeners.get(), configuration, correlators);
+        } else {
+            addresses = balancing.toAddresses(hosts, port);
+            balancingSettings = balancing.toSettings();
+            clients = () -> new BalancedNettyTcpClient(addresses, listeners.get(), configuration, balancingSettings,
+                correlators);
+        }
+
+        return clients;
+    }
+
+    /**
+     * Returns the factory for the response correlator of each connection, as the correlation options tell. If the
+     * transaction metrics are enabled, the latencies are taken from the matched responses.
+     *
+     * @return the factory for the response correlators
+     */
+    final Supplier<ResponseCorrelator> getCorrelators() {
+        final Supplier<ResponseCorrelator> correlators;
+        final Supplier<ResponseCorrelator> matching;
+
+        matching = correlation.toCorrelators();
+        if (transactionMetrics == null) {
+            correlators = matching;
+        } else {
+            correlators = () -> new MetricsResponseCorrelator(matching.get(), transactionMetrics);
+        }
+
+        return correlators;
+    }
+
+    /**
+     * Returns the listener for the clients. Counts the messages if the transaction metrics are enabled, otherwise it
+     * does nothing.
+     *
+     * @return the listener for the clients
+     */
+    final TransactionListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Starts reporting the transaction metrics, if they are enabled.
+     */
+    final void start() {
+        if (transactionMetrics != null) {
+            transactionMetrics.start();
+        }
+    }
+
+}
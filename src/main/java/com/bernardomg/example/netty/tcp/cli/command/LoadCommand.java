@@ -0,0 +1,347 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.command;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import com.bernardomg.example.netty.tcp.cli.option.BalancingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.CorrelationOptions;
+import com.bernardomg.example.netty.tcp.cli.option.EventLoopOptions;
+import com.bernardomg.example.netty.tcp.cli.option.MetricsOptions;
+import com.bernardomg.example.netty.tcp.cli.option.PipelineOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ProfilingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ReconnectOptions;
+import com.bernardomg.example.netty.tcp.cli.option.RecordingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.SocketOptions;
+import com.bernardomg.example.netty.tcp.cli.option.TlsOptions;
+import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.load.LoadGenerator;
+import com.bernardomg.example.netty.tcp.client.load.LoadReport;
+import com.bernardomg.example.netty.tcp.client.load.LoadSettings;
+import com.bernardomg.example.netty.tcp.client.recording.TrafficRecorder;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.channel.EventLoopGroup;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+/**
+ * Load command. Will send requests to the server at a fixed rate, and print the throughput and latency percentiles.
+ * <p>
+ * The server should answer each request, and a framing mode should be used, so responses are matched with their
+ * requests.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Command(name = "load", description = "Sends TCP requests at a fixed rate, and measures the latency",
+        mixinStandardHelpOptions = true, versionProvider = ManifestVersionProvider.class)
+@Slf4j
+public final class LoadCommand implements Runnable {
+
+    /**
+     * Percentiles to print.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    /**
+     * Load balancing options. Used when there are several hosts.
+     */
+    @Mixin
+    private BalancingOptions      balancing;
+
+    /**
+     * Number of connections.
+     */
+    @Option(names = { "-c", "--connections" }, paramLabel = "connections", description = "Number of connections.",
+            defaultValue = "1", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   connections;
+
+    /**
+     * Response correlation options.
+     */
+    @Mixin
+    private CorrelationOptions    correlation;
+
+    /**
+     * Debug flag. Shows debug logs.
+     */
+    @Option(names = { "--debug" }, paramLabel = "flag", description = "Enable debug logs.", defaultValue = "false")
+    private boolean               debug;
+
+    /**
+     * Maximum requests waiting for a response on each connection.
+     */
+    @Option(names = { "--depth" }, paramLabel = "requests",
+            description = "Maximum requests waiting for a response on each connection.", defaultValue = "1",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   depth;
+
+    /**
+     * Measured time, in seconds.
+     */
+    @Option(names = { "-d", "--duration" }, paramLabel = "seconds", description = "Measured time, after the warm-up.",
+            defaultValue = "10", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   duration;
+
+    /**
+     * Event loop options.
+     */
+    @Mixin
+    private EventLoopOptions      eventLoop;
+
+    /**
+     * Server hosts. With several of them, requests are spread across all of them.
+     */
+    @Option(names = { "-h", "--host" }, paramLabel = "URL",
+            description = "Server host. Repeat, or separate with commas, to spread the requests across several hosts.",
+            required = true, split = ",")
+    private List<String>          hosts;
+
+    /**
+     * Size of each request.
+     */
+    @Option(names = { "--payload-size" }, paramLabel = "bytes", description = "Size of each request.",
+            defaultValue = "64", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   payloadSize;
+
+    /**
+     * Metrics options.
+     */
+    @Mixin
+    private MetricsOptions        metrics;
+
+    /**
+     * Pipeline options.
+     */
+    @Mixin
+    private PipelineOptions       pipeline;
+
+    /**
+     * Server port.
+     */
+    @Option(names = { "-p", "--port" }, paramLabel = "port", description = "Server port.", required = true)
+    private Integer               port;
+
+    /**
+     * Profiling options.
+     */
+    @Mixin
+    private ProfilingOptions      profiling;
+
+    /**
+     * Requests sent each second.
+     */
+    @Option(names = { "-r", "--rate" }, paramLabel = "requests", description = "Requests sent each second.",
+            defaultValue = "1000", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   rate;
+
+    /**
+     * Reconnection options.
+     */
+    @Mixin
+    private ReconnectOptions      reconnect;
+
+    /**
+     * Recording options.
+     */
+    @Mixin
+    private RecordingOptions      recording;
+
+    /**
+     * Socket options.
+     */
+    @Mixin
+    private SocketOptions         socket;
+
+    /**
+     * Command specification. Used to get the line output.
+     */
+    @Spec
+    private CommandSpec           spec;
+
+    /**
+     * Time to wait for each response, in seconds.
+     */
+    @Option(names = { "--timeout" }, paramLabel = "seconds", description = "Time to wait for each response.",
+            defaultValue = "5", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   timeout;
+
+    /**
+     * TLS options.
+     */
+    @Mixin
+    private TlsOptions            tls;
+
+    /**
+     * Transport to use. If the chosen transport is not available, NIO is used.
+     */
+    @Option(names = { "--transport" }, paramLabel = "transport",
+            description = "Transport to use. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "AUTO",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Transport             transport;
+
+    /**
+     * Warm-up time, in seconds.
+     */
+    @Option(names = { "--warm-up" }, paramLabel = "seconds",
+            description = "Time during which requests are sent, but not measured.", defaultValue = "2",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   warmUp;
+
+    /**
+     * Default constructor.
+     */
+    public LoadCommand() {
+        super();
+    }
+
+    @Override
+    public final void run() {
+        final PrintWriter                   writer;
+        final ClientFactory                 factory;
+        final ClientConfiguration           configuration;
+        final EventLoopGroup                eventLoopGroup;
+        final PipelineSettings              pipelineSettings;
+        final LoadSettings                  settings;
+        final LoadReport                    report;
+        final Supplier<Client>              clients;
+        final TrafficRecorder               recorder;
+        final Supplier<TransactionListener> connectionListeners;
+        final AtomicInteger                 connectionIds;
+
+        if (debug) {
+            activateDebugLog();
+        }
+
+        writer = spec.commandLine()
+            .getOut();
+
+        pipelineSettings = pipeline.toSettings(debug);
+        if (Framing.NONE.equals(pipelineSettings.getFraming())) {
+            writer.println("No framing, responses may be split or merged, and matched with the wrong requests");
+        }
+        // All the connections share the event loop threads
+        eventLoopGroup = transport.createEventLoopGroup(eventLoop.toSettings());
+        factory = new ClientFactory("load", correlation, metrics, profiling, writer);
+        configuration = factory.configure(ClientConfiguration.builder()
+            .transport(transport)
+            .eventLoopGroup(eventLoopGroup)
+            .pipeline(pipelineSettings)
+            .reconnect(reconnect.toSettings())
+            .socket(socket.toSettings())
+            .tls(tls.toSettings())
+            .build());
+
+        settings = LoadSettings.builder()
+            .rate(rate)
+            .connections(connections)
+            .depth(depth)
+            .duration(Duration.ofSeconds(duration))
+            .warmUp(Duration.ofSeconds(warmUp))
+            .payloadSize(payloadSize)
+            .timeout(Duration.ofSeconds(timeout))
+            .build();
+
+        writer.printf("Sending %d requests per second to %s:%d for %d seconds, after %d seconds of warm-up", rate,
+            String.join(",", hosts), port, duration, warmUp);
+        writer.println();
+        writer.flush();
+
+        factory.start();
+
+        // Each connection records with an id of its own
+        if (recording.isEnabled()) {
+            recorder = recording.openRecorder();
+        } else {
+            recorder = null;
+        }
+        connectionIds = new AtomicInteger();
+        connectionListeners = () -> recording.wrap(factory.getListener(), recorder, connectionIds.getAndIncrement());
+        // With several hosts, each connection is spread across all of them
+        clients = factory.createClients(hosts, port, balancing, configuration, connectionListeners);
+
+        report = new LoadGenerator(clients, settings)
+            .run();
+
+        eventLoopGroup.shutdownGracefully();
+
+        // Close recorder, once all the messages are recorded
+        recording.closeRecorder(recorder, writer);
+
+        // Close measures, once the clients are closed
+        factory.close(writer);
+
+        printReport(writer, report);
+
+        // Close writer
+        writer.close();
+    }
+
+    /**
+     * Activates debug logs for the application.
+     */
+    private final void activateDebugLog() {
+        Configurator.setLevel("com.bernardomg.example", Level.DEBUG);
+        Configurator.setLevel("io.netty.handler.logging", Level.DEBUG);
+    }
+
+    /**
+     * Prints the load results.
+     *
+     * @param writer
+     *            writer to print into
+     * @param report
+     *            load results
+     */
+    private final void printReport(final PrintWriter writer, final LoadReport report) {
+        writer.printf("Requests: %d sent, %d completed, %d failed", report.getSent(), report.getCompleted(),
+            report.getFailed());
+        writer.println();
+        writer.printf("Throughput: %.1f requests/s", report.getThroughput());
+        writer.println();
+        ClientFactory.printPercentiles(writer, "Latency (us):", report.getLatencies(), PERCENTILES,
+            TimeUnit.MICROSECONDS);
+    }
+
+}
@@ -0,0 +1,339 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.command;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import com.bernardomg.example.netty.tcp.cli.TransactionPrinterListener;
+import com.bernardomg.example.netty.tcp.cli.option.CorrelationOptions;
+import com.bernardomg.example.netty.tcp.cli.option.DispatchOptions;
+import com.bernardomg.example.netty.tcp.cli.option.EventLoopOptions;
+import com.bernardomg.example.netty.tcp.cli.option.PipelineOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ProfilingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ReconnectOptions;
+import com.bernardomg.example.netty.tcp.cli.option.RecordingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.SocketOptions;
+import com.bernardomg.example.netty.tcp.cli.option.TlsOptions;
+import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.completion.Completion;
+import com.bernardomg.example.netty.tcp.client.completion.CompletionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.AsyncTransactionListener;
+import com.bernardomg.example.netty.tcp.client.recording.TrafficRecorder;
+import com.bernardomg.example.netty.tcp.client.replay.CaptureFormat;
+import com.bernardomg.example.netty.tcp.client.replay.ReplayReport;
+import com.bernardomg.example.netty.tcp.client.replay.ReplaySettings;
+import com.bernardomg.example.netty.tcp.client.replay.Replayer;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+/**
+ * Replay command. Will send the messages in a capture file to the server, keeping their original timing, a multiple
+ * of it, or as fast as possible.
+ * <p>
+ * The capture file is memory mapped, so captures of any size can be replayed.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Command(name = "replay", description = "Replays the TCP messages in a capture file", mixinStandardHelpOptions = true,
+        versionProvider = ManifestVersionProvider.class)
+@Slf4j
+public final class ReplayCommand implements Runnable {
+
+    /**
+     * Capture file.
+     */
+    @Option(names = { "-f", "--capture" }, paramLabel = "file", description = "Capture file with the messages.",
+            required = true)
+    private Path               capture;
+
+    /**
+     * Response correlation options.
+     */
+    @Mixin
+    private CorrelationOptions correlation;
+
+    /**
+     * Debug flag. Shows debug logs.
+     */
+    @Option(names = { "--debug" }, paramLabel = "flag", description = "Enable debug logs.", defaultValue = "false")
+    private boolean            debug;
+
+    /**
+     * Listener dispatch options.
+     */
+    @Mixin
+    private DispatchOptions    dispatch;
+
+    /**
+     * Event loop options.
+     */
+    @Mixin
+    private EventLoopOptions   eventLoop;
+
+    /**
+     * Capture format.
+     */
+    @Option(names = { "--format" }, paramLabel = "format",
+            description = "Capture format. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "LINE",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private CaptureFormat      format;
+
+    /**
+     * Server host.
+     */
+    @Option(names = { "-h", "--host" }, paramLabel = "URL", description = "Server host.", required = true)
+    private String             host;
+
+    /**
+     * Pipeline options.
+     */
+    @Mixin
+    private PipelineOptions    pipeline;
+
+    /**
+     * Server port.
+     */
+    @Option(names = { "-p", "--port" }, paramLabel = "port", description = "Server port.", required = true)
+    private Integer            port;
+
+    /**
+     * Profiling options.
+     */
+    @Mixin
+    private ProfilingOptions   profiling;
+
+    /**
+     * Reconnection options.
+     */
+    @Mixin
+    private ReconnectOptions   reconnect;
+
+    /**
+     * Recording options.
+     */
+    @Mixin
+    private RecordingOptions   recording;
+
+    /**
+     * Socket options.
+     */
+    @Mixin
+    private SocketOptions      socket;
+
+    /**
+     * Command specification. Used to get the line output.
+     */
+    @Spec
+    private CommandSpec        spec;
+
+    /**
+     * Replay speed, as a multiple of the original speed.
+     */
+    @Option(names = { "--speed" }, paramLabel = "multiple",
+            description = "Replay speed, as a multiple of the original speed. Zero to send as fast as possible.",
+            defaultValue = "1", showDefaultValue = Help.Visibility.ALWAYS)
+    private double             speed;
+
+    /**
+     * TLS options.
+     */
+    @Mixin
+    private TlsOptions         tls;
+
+    /**
+     * Transport to use. If the chosen transport is not available, NIO is used.
+     */
+    @Option(names = { "--transport" }, paramLabel = "transport",
+            description = "Transport to use. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "AUTO",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Transport          transport;
+
+    /**
+     * Verbose mode. If active prints each message into the console. Inactive by default, as captures can be large.
+     */
+    @Option(names = { "--verbose" }, paramLabel = "flag", description = "Print each message to console.",
+            defaultValue = "false", showDefaultValue = Help.Visibility.ALWAYS)
+    private boolean            verbose;
+
+    /**
+     * Response wait time. This is the maximum number of seconds to wait for responses.
+     */
+    @Option(names = { "-w", "--wait" }, paramLabel = "seconds",
+            description = "Maximum seconds to wait for the responses, after replaying. Ends earlier if the connection goes idle.",
+            defaultValue = "2", showDefaultValue = Help.Visibility.ALWAYS)
+    private Integer            wait;
+
+    /**
+     * Maximum size of the mapped part of the capture, in megabytes.
+     */
+    @Option(names = { "--window-size" }, paramLabel = "megabytes",
+            description = "Size of the mapped part of the capture. Records can't be longer than this.",
+            defaultValue = "64", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                windowSize;
+
+    /**
+     * Default constructor.
+     */
+    public ReplayCommand() {
+        super();
+    }
+
+    @Override
+    public final void run() {
+        final PrintWriter              writer;
+        final ClientFactory            factory;
+        final ClientConfiguration      configuration;
+        final NettyTcpClient           client;
+        final AsyncTransactionListener listener;
+        final CompletionListener       tracker;
+        final TrafficRecorder          recorder;
+        final ReplaySettings           settings;
+        final ReplayReport             report;
+        final Completion               completion;
+
+        if (debug) {
+            activateDebugLog();
+        }
+
+        if (verbose) {
+            // Prints to console
+            writer = spec.commandLine()
+                .getOut();
+        } else {
+            // Prints nothing
+            writer = new PrintWriter(OutputStream.nullOutputStream(), false, Charset.defaultCharset());
+        }
+
+        // Create client
+        // Prints in a thread of its own, so the event loop never waits for the console
+        listener = dispatch.toListener(new TransactionPrinterListener(host, port, writer));
+        factory = new ClientFactory(correlation, profiling);
+        configuration = factory.configure(ClientConfiguration.builder()
+            .transport(transport)
+            .eventLoop(eventLoop.toSettings())
+            .pipeline(pipeline.toSettings(debug))
+            .reconnect(reconnect.toSettings())
+            .socket(socket.toSettings())
+            .tls(tls.toSettings())
+            .build());
+        // The number of responses is not known, so only idle periods and closed connections end the wait
+        tracker = new CompletionListener(listener, 0, configuration.getReconnect()
+            .isEnabled());
+        // Records in the event loop, as it only queues the messages
+        if (recording.isEnabled()) {
+            recorder = recording.openRecorder();
+        } else {
+            recorder = null;
+        }
+        client = new NettyTcpClient(host, port, recording.wrap(tracker, recorder, 0), configuration,
+            factory.getCorrelators());
+
+        settings = ReplaySettings.builder()
+            .format(format)
+            .speed(speed)
+            .windowSize(windowSize * 1024 * 1024)
+            .build();
+
+        client.connect();
+
+        report = new Replayer(client, settings).run(capture);
+
+        // Waits until the connection goes idle or is closed, or the time runs out
+        log.debug("Waiting up to {} seconds for responses", wait);
+        completion = tracker.await(Duration.ofSeconds(wait));
+        log.debug("Finished waiting, {}", completion.getDescription());
+
+        printReport(spec.commandLine()
+            .getOut(), report);
+
+        // Close client
+        client.close();
+
+        // Close listener, once all the events are printed
+        listener.close();
+
+        // Close recorder, once all the messages are recorded
+        recording.closeRecorder(recorder, spec.commandLine()
+            .getOut());
+
+        // Close measures, once the client is closed
+        factory.close(spec.commandLine()
+            .getOut());
+
+        // Close writer
+        writer.close();
+    }
+
+    /**
+     * Activates debug logs for the application.
+     */
+    private final void activateDebugLog() {
+        Configurator.setLevel("com.bernardomg.example", Level.DEBUG);
+        Configurator.setLevel("io.netty.handler.logging", Level.DEBUG);
+    }
+
+    /**
+     * Prints the replay results.
+     *
+     * @param out
+     *            writer for the report
+     * @param report
+     *            replay results
+     */
+    private final void printReport(final PrintWriter out, final ReplayReport report) {
+        out.printf("Replayed %d messages, %d bytes, in %d ms", report.getRecords(), report.getBytes(),
+            report.getElapsed()
+                .toMillis());
+        out.println();
+        if (report.getSkipped() > 0) {
+            out.printf("Skipped %d messages, as the server was not reading", report.getSkipped());
+            out.println();
+        }
+        if (speed > 0) {
+            out.printf("Maximum lag behind the capture timing: %d ms", report.getMaxLag()
+                .toMillis());
+            out.println();
+        }
+        out.flush();
+    }
+
+}
@@ -0,0 +1,332 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.command;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import com.bernardomg.example.netty.tcp.cli.option.BalancingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.CorrelationOptions;
+import com.bernardomg.example.netty.tcp.cli.option.EventLoopOptions;
+import com.bernardomg.example.netty.tcp.cli.option.MetricsOptions;
+import com.bernardomg.example.netty.tcp.cli.option.PipelineOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ProfilingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.SocketOptions;
+import com.bernardomg.example.netty.tcp.cli.option.TlsOptions;
+import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioReport;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioRunner;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioSettings;
+import com.bernardomg.example.netty.tcp.client.scenario.SessionThreads;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.channel.EventLoopGroup;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+/**
+ * Scenario command. Runs many sessions at the same time, each one sending messages one after the other, and waiting
+ * for each response before the next message.
+ * <p>
+ * The server should answer each message, and a framing mode should be used, so responses are matched with their
+ * requests.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Command(name = "scenario", description = "Runs many sequential TCP sessions at the same time",
+        mixinStandardHelpOptions = true, versionProvider = ManifestVersionProvider.class)
+@Slf4j
+public final class ScenarioCommand implements Runnable {
+
+    /**
+     * Percentiles to print.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    /**
+     * Load balancing options. Used when there are several hosts.
+     */
+    @Mixin
+    private BalancingOptions      balancing;
+
+    /**
+     * Number of connections.
+     */
+    @Option(names = { "-c", "--connections" }, paramLabel = "connections",
+            description = "Number of connections, shared by the sessions.", defaultValue = "1",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   connections;
+
+    /**
+     * Response correlation options.
+     */
+    @Mixin
+    private CorrelationOptions    correlation;
+
+    /**
+     * Messages sent by each session.
+     */
+    @Option(names = { "-n", "--count" }, paramLabel = "messages", description = "Messages sent by each session.",
+            defaultValue = "10", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   count;
+
+    /**
+     * Debug flag. Shows debug logs.
+     */
+    @Option(names = { "--debug" }, paramLabel = "flag", description = "Enable debug logs.", defaultValue = "false")
+    private boolean               debug;
+
+    /**
+     * Event loop options.
+     */
+    @Mixin
+    private EventLoopOptions      eventLoop;
+
+    /**
+     * Server hosts. With several of them, requests are spread across all of them.
+     */
+    @Option(names = { "-h", "--host" }, paramLabel = "URL",
+            description = "Server host. Repeat, or separate with commas, to spread the requests across several hosts.",
+            required = true, split = ",")
+    private List<String>          hosts;
+
+    /**
+     * Maximum platform threads, when not using virtual threads.
+     */
+    @Option(names = { "--max-platform-threads" }, paramLabel = "threads",
+            description = "Maximum platform threads, when not using virtual threads.", defaultValue = "256",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   maxPlatformThreads;
+
+    /**
+     * Metrics options.
+     */
+    @Mixin
+    private MetricsOptions        metrics;
+
+    /**
+     * Pipeline options.
+     */
+    @Mixin
+    private PipelineOptions       pipeline;
+
+    /**
+     * Server port.
+     */
+    @Option(names = { "-p", "--port" }, paramLabel = "port", description = "Server port.", required = true)
+    private Integer               port;
+
+    /**
+     * Profiling options.
+     */
+    @Mixin
+    private ProfilingOptions      profiling;
+
+    /**
+     * Number of sessions.
+     */
+    @Option(names = { "-s", "--sessions" }, paramLabel = "sessions",
+            description = "Number of sessions, all of them running at the same time.", defaultValue = "100",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   sessions;
+
+    /**
+     * Socket options.
+     */
+    @Mixin
+    private SocketOptions         socket;
+
+    /**
+     * Command specification. Used to get the line output.
+     */
+    @Spec
+    private CommandSpec           spec;
+
+    /**
+     * Message template.
+     */
+    @Option(names = { "--template" }, paramLabel = "template",
+            description = "Message template. The session and message numbers replace the first and second %%d.",
+            defaultValue = "Session %d message %d", showDefaultValue = Help.Visibility.ALWAYS)
+    private String                template;
+
+    /**
+     * Time between a response and the next message, in milliseconds.
+     */
+    @Option(names = { "--think-time" }, paramLabel = "millis",
+            description = "Time between a response and the next message, in milliseconds.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long                  thinkTime;
+
+    /**
+     * Threads running the sessions.
+     */
+    @Option(names = { "--threads" }, paramLabel = "threads",
+            description = "Threads running the sessions. One of: ${COMPLETION-CANDIDATES}. Virtual threads require Java 21.",
+            defaultValue = "AUTO", showDefaultValue = Help.Visibility.ALWAYS)
+    private SessionThreads        threads;
+
+    /**
+     * Time to wait for each response, in seconds.
+     */
+    @Option(names = { "--timeout" }, paramLabel = "seconds", description = "Time to wait for each response.",
+            defaultValue = "5", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                   timeout;
+
+    /**
+     * TLS options.
+     */
+    @Mixin
+    private TlsOptions            tls;
+
+    /**
+     * Transport to use. If the chosen transport is not available, NIO is used.
+     */
+    @Option(names = { "--transport" }, paramLabel = "transport",
+            description = "Transport to use. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "AUTO",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Transport             transport;
+
+    /**
+     * Default constructor.
+     */
+    public ScenarioCommand() {
+        super();
+    }
+
+    @Override
+    public final void run() {
+        final PrintWriter         writer;
+        final ClientFactory       factory;
+        final ClientConfiguration configuration;
+        final EventLoopGroup      eventLoopGroup;
+        final PipelineSettings    pipelineSettings;
+        final ScenarioSettings    settings;
+        final ScenarioReport      report;
+        final Supplier<Client>    clients;
+
+        if (debug) {
+            activateDebugLog();
+        }
+
+        writer = spec.commandLine()
+            .getOut();
+
+        pipelineSettings = pipeline.toSettings(debug);
+        if (Framing.NONE.equals(pipelineSettings.getFraming())) {
+            writer.println("No framing, responses may be split or merged, and matched with the wrong requests");
+        }
+        // All the connections share the event loop threads
+        eventLoopGroup = transport.createEventLoopGroup(eventLoop.toSettings());
+        factory = new ClientFactory("scenario", correlation, metrics, profiling, writer);
+        configuration = factory.configure(ClientConfiguration.builder()
+            .transport(transport)
+            .eventLoopGroup(eventLoopGroup)
+            .pipeline(pipelineSettings)
+            .socket(socket.toSettings())
+            .tls(tls.toSettings())
+            .build());
+
+        settings = ScenarioSettings.builder()
+            .sessions(sessions)
+            .connections(connections)
+            .threads(threads)
+            .maxPlatformThreads(maxPlatformThreads)
+            .timeout(Duration.ofSeconds(timeout))
+            .build();
+
+        writer.printf("Running %d sessions of %d messages against %s:%d, using %s threads", sessions, count,
+            String.join(",", hosts), port, threads.resolve());
+        writer.println();
+        writer.flush();
+
+        factory.start();
+
+        // With several hosts, each connection is spread across all of them
+        clients = factory.createClients(hosts, port, balancing, configuration, factory::getListener);
+
+        report = new ScenarioRunner(clients, settings).run((client, session) -> {
+            for (int i = 0; i < count; i++) {
+                if ((i > 0) && (thinkTime > 0)) {
+                    // Only parks the session thread
+                    Thread.sleep(thinkTime);
+                }
+                client.exchange(String.format(template, session, i));
+            }
+        });
+
+        eventLoopGroup.shutdownGracefully();
+
+        // Close measures, once the clients are closed
+        factory.close(writer);
+
+        printReport(writer, report);
+
+        // Close writer
+        writer.close();
+    }
+
+    /**
+     * Activates debug logs for the application.
+     */
+    private final void activateDebugLog() {
+        Configurator.setLevel("com.bernardomg.example", Level.DEBUG);
+        Configurator.setLevel("io.netty.handler.logging", Level.DEBUG);
+    }
+
+    /**
+     * Prints the scenario results.
+     *
+     * @param writer
+     *            writer to print into
+     * @param report
+     *            scenario results
+     */
+    private final void printReport(final PrintWriter writer, final ScenarioReport report) {
+        writer.printf("Sessions: %d completed, %d failed, in %d ms", report.getCompleted(), report.getFailed(),
+            report.getElapsed()
+                .toMillis());
+        writer.println();
+        ClientFactory.printPercentiles(writer, "Session duration (ms):", report.getDurations(), PERCENTILES,
+            TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -27,20 +27,35 @@
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 
 import com.bernardomg.example.netty.tcp.cli.TransactionPrinterListener;
+import com.bernardomg.example.netty.tcp.cli.option.BalancingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.DispatchOptions;
+import com.bernardomg.example.netty.tcp.cli.option.EventLoopOptions;
+import com.bernardomg.example.netty.tcp.cli.option.PipelineOptions;
+import com.bernardomg.example.netty.tcp.cli.option.SocketOptions;
+import com.bernardomg.example.netty.tcp.cli.option.TlsOptions;
 import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
 import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
 import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
-import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.balance.BalancedNettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.completion.Completion;
+import com.bernardomg.example.netty.tcp.client.completion.CompletionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.dispatch.AsyncTransactionListener;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
 
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Help;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Spec;
@@ -56,50 +71,104 @@
 @Slf4j
 public final class SendMessageCommand implements Runnable {
 
+    /**
+     * Load balancing options. Used when there are several hosts.
+     */
+    @Mixin
+    private BalancingOptions balancing;
+
     /**
      * Debug flag. Shows debug logs.
      */
     @Option(names = { "--debug" }, paramLabel = "flag", description = "Enable debug logs.", defaultValue = "false")
-    private boolean     debug;
+    private boolean          debug;
+
+    /**
+     * Listener dispatch options.
+     */
+    @Mixin
+    private DispatchOptions  dispatch;
+
+    /**
+     * Event loop options.
+     */
+    @Mixin
+    private EventLoopOptions eventLoop;
+
+    /**
+     * Number of responses expected.
+     */
+    @Option(names = { "--expect" }, paramLabel = "responses",
+            description = "Responses expected, stops waiting once they arrive. Zero to wait for the idle timeout or the wait time. "
+                    + "By default one with framing. Ignored without framing, as the responses can't be counted.")
+    private Integer          expected;
 
     /**
-     * Server host.
+     * Server hosts. With several of them, requests are spread across all of them.
      */
-    @Option(names = { "-h", "--host" }, paramLabel = "URL", description = "Server host.", required = true)
-    private String      host;
+    @Option(names = { "-h", "--host" }, paramLabel = "URL",
+            description = "Server host. Repeat, or separate with commas, to spread the requests across several hosts.",
+            required = true, split = ",")
+    private List<String>     hosts;
 
     /**
      * Message to send.
      */
     @Option(names = { "-m", "--message" }, paramLabel = "text", description = "Message to send.", required = true)
-    private String      message;
+    private String           message;
+
+    /**
+     * Pipeline options.
+     */
+    @Mixin
+    private PipelineOptions  pipeline;
 
     /**
      * Server port.
      */
     @Option(names = { "-p", "--port" }, paramLabel = "port", description = "Server port.", required = true)
-    private Integer     port;
+    private Integer          port;
+
+    /**
+     * Socket options.
+     */
+    @Mixin
+    private SocketOptions    socket;
 
     /**
      * Command specification. Used to get the line output.
      */
     @Spec
-    private CommandSpec spec;
+    private CommandSpec      spec;
+
+    /**
+     * TLS options.
+     */
+    @Mixin
+    private TlsOptions       tls;
+
+    /**
+     * Transport to use. If the chosen transport is not available, NIO is used.
+     */
+    @Option(names = { "--transport" }, paramLabel = "transport",
+            description = "Transport to use. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "AUTO",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Transport        transport;
 
     /**
      * Verbose mode. If active prints info into the console. Active by default.
      */
     @Option(names = { "--verbose" }, paramLabel = "flag", description = "Print information to console.",
             defaultValue = "true", showDefaultValue = Help.Visibility.ALWAYS)
-    private boolean     verbose;
+    private boolean          verbose;
 
     /**
-     * Response wait time. This is the number of seconds to wait for responses.
+     * Response wait time. This is the maximum number of seconds to wait for responses.
      */
     @Option(names = { "-w", "--wait" }, paramLabel = "seconds",
-            description = "Wait received seconds, to wait for responses.", defaultValue = "2",
+            description = "Maximum seconds to wait for the responses.", defaultValue = "2",
             showDefaultValue = Help.Visibility.ALWAYS)
-    private Integer     wait;
+    private Integer          wait;
 
     /**
      * Default constructor.
@@ -110,9 +179,13 @@ public SendMessageCommand() {
 
     @Override
     public final void run() {
-        final PrintWriter         writer;
-        final Client              client;
-        final TransactionListener listener;
+        final PrintWriter              writer;
+        final ClientConfiguration      configuration;
+        final Client                   client;
+        final AsyncTransactionListener listener;
+        final CompletionListener       tracker;
+        final int                      responses;
+        final Completion               completion;
 
         if (debug) {
             activateDebugLog();
@@ -128,30 +201,53 @@ public final void run() {
         }
 
         // Create client
-        listener = new TransactionPrinterListener(host, port, writer);
-        client = new NettyTcpClient(host, port, listener);
+        // Prints in a thread of its own, so the event loop never waits for the console
+        listener = dispatch.toListener(new TransactionPrinterListener(String.join(",", hosts), port, writer));
+        configuration = ClientConfiguration.builder()
+            .transport(transport)
+            .eventLoop(eventLoop.toSettings())
+            .pipeline(pipeline.toSettings(debug))
+            .socket(socket.toSettings())
+            .tls(tls.toSettings())
+            .build();
+        // Without framing reads are not responses, so they can't be counted
+        if (Framing.NONE.equals(configuration.getPipeline()
+            .getFraming())) {
+            if (expected != null) {
+                writer.println("No framing, responses can't be counted, waiting until nothing is read instead");
+            }
+            responses = 0;
+        } else if (expected == null) {
+            responses = 1;
+        } else {
+            responses = expected;
+        }
+        // Tells when there is no need to keep waiting
+        tracker = new CompletionListener(listener, responses);
+        if (hosts.size() == 1) {
+            client = new NettyTcpClient(hosts.get(0), port, tracker, configuration, FifoResponseCorrelator::new);
+        } else {
+            client = new BalancedNettyTcpClient(balancing.toAddresses(hosts, port), tracker, configuration,
+                balancing.toSettings(), FifoResponseCorrelator::new);
+        }
 
         client.connect();
 
         // Send message
         client.request(message);
 
-        // Give time to the server for responses
-        log.debug("Waiting {} seconds for responses", wait);
-        writer.printf("Waiting %d seconds for responses", wait);
+        // Waits for the responses, at most for the waiting time
+        log.debug("Waiting up to {} seconds for responses", wait);
+        completion = tracker.await(Duration.ofSeconds(wait));
+        writer.printf("Finished waiting, %s", completion.getDescription());
         writer.println();
-        try {
-            TimeUnit.SECONDS.sleep(wait);
-        } catch (final InterruptedException e) {
-            log.error(e.getLocalizedMessage(), e);
-            throw new RuntimeException(e);
-        }
-        writer.println("finished waiting");
-        log.debug("Finished waiting for responses");
 
         // Close client
         client.close();
 
+        // Close listener, once all the events are printed
+        listener.close();
+
         // Close writer
         writer.close();
     }
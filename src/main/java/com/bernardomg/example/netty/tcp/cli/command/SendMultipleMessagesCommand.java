@@ -24,29 +24,62 @@
 
 package com.bernardomg.example.netty.tcp.cli.command;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 
 import com.bernardomg.example.netty.tcp.cli.TransactionPrinterListener;
+import com.bernardomg.example.netty.tcp.cli.option.CorrelationOptions;
+import com.bernardomg.example.netty.tcp.cli.option.DispatchOptions;
+import com.bernardomg.example.netty.tcp.cli.option.EventLoopOptions;
+import com.bernardomg.example.netty.tcp.cli.option.PipelineOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ProfilingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.ReconnectOptions;
+import com.bernardomg.example.netty.tcp.cli.option.RecordingOptions;
+import com.bernardomg.example.netty.tcp.cli.option.SocketOptions;
+import com.bernardomg.example.netty.tcp.cli.option.TlsOptions;
 import com.bernardomg.example.netty.tcp.cli.version.ManifestVersionProvider;
-import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
 import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
-import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.completion.Completion;
+import com.bernardomg.example.netty.tcp.client.completion.CompletionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.AsyncTransactionListener;
+import com.bernardomg.example.netty.tcp.client.recording.TrafficRecorder;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
 
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Help;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Spec;
 
 /**
  * Send multiple messages command. Will send multiple messages to the server through TCP.
+ * <p>
+ * The messages are pipelined through a single connection, each one is sent without waiting for the previous response.
+ * The command ends once all the responses arrive, or once the waiting time runs out, and reports the total time.
+ * <p>
+ * Without framing there is no way to tell where each response ends, so the responses are not matched with their
+ * messages. Only the messages sent are counted, and the command waits until the connection goes idle or is closed, or
+ * the waiting time runs out.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -56,44 +89,136 @@
 @Slf4j
 public final class SendMultipleMessagesCommand implements Runnable {
 
+    /**
+     * Response correlation options.
+     */
+    @Mixin
+    private CorrelationOptions correlation;
+
+    /**
+     * Number of messages to send.
+     */
+    @Option(names = { "-n", "--count" }, paramLabel = "messages", description = "Number of messages to send.",
+            defaultValue = "5", showDefaultValue = Help.Visibility.ALWAYS)
+    private int                count;
+
     /**
      * Debug flag. Shows debug logs.
      */
     @Option(names = { "--debug" }, paramLabel = "flag", description = "Enable debug logs.", defaultValue = "false")
-    private boolean     debug;
+    private boolean            debug;
+
+    /**
+     * Delay between messages, in milliseconds.
+     */
+    @Option(names = { "--delay" }, paramLabel = "millis",
+            description = "Delay between messages, in milliseconds. Zero to send them all at once.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long               delay;
+
+    /**
+     * Listener dispatch options.
+     */
+    @Mixin
+    private DispatchOptions    dispatch;
+
+    /**
+     * Event loop options.
+     */
+    @Mixin
+    private EventLoopOptions   eventLoop;
 
     /**
      * Server host.
      */
     @Option(names = { "-h", "--host" }, paramLabel = "URL", description = "Server host.", required = true)
-    private String      host;
+    private String             host;
+
+    /**
+     * File with the messages to send, one for each line.
+     */
+    @Option(names = { "--payload-file" }, paramLabel = "file",
+            description = "File with the messages to send, one for each line. Used in a loop, until all the messages are sent.")
+    private Path               payloadFile;
+
+    /**
+     * Pipeline options.
+     */
+    @Mixin
+    private PipelineOptions    pipeline;
 
     /**
      * Server port.
      */
     @Option(names = { "-p", "--port" }, paramLabel = "port", description = "Server port.", required = true)
-    private Integer     port;
+    private Integer            port;
+
+    /**
+     * Profiling options.
+     */
+    @Mixin
+    private ProfilingOptions   profiling;
+
+    /**
+     * Reconnection options.
+     */
+    @Mixin
+    private ReconnectOptions   reconnect;
+
+    /**
+     * Recording options.
+     */
+    @Mixin
+    private RecordingOptions   recording;
+
+    /**
+     * Socket options.
+     */
+    @Mixin
+    private SocketOptions      socket;
 
     /**
      * Command specification. Used to get the line output.
      */
     @Spec
-    private CommandSpec spec;
+    private CommandSpec        spec;
+
+    /**
+     * Message template. Receives the message number.
+     */
+    @Option(names = { "--template" }, paramLabel = "template",
+            description = "Message template. The message number replaces %%d.", defaultValue = "Message %d",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private String             template;
+
+    /**
+     * TLS options.
+     */
+    @Mixin
+    private TlsOptions         tls;
+
+    /**
+     * Transport to use. If the chosen transport is not available, NIO is used.
+     */
+    @Option(names = { "--transport" }, paramLabel = "transport",
+            description = "Transport to use. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "AUTO",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Transport          transport;
 
     /**
      * Verbose mode. If active prints info into the console. Active by default.
      */
     @Option(names = { "--verbose" }, paramLabel = "flag", description = "Print information to console.",
             defaultValue = "true", showDefaultValue = Help.Visibility.ALWAYS)
-    private boolean     verbose;
+    private boolean            verbose;
 
     /**
-     * Response wait time. This is the number of seconds to wait for responses.
+     * Response wait time. This is the maximum number of seconds to wait for responses.
      */
     @Option(names = { "-w", "--wait" }, paramLabel = "seconds",
-            description = "Wait received seconds, to wait for responses.", defaultValue = "2",
+            description = "Maximum seconds to wait for the responses, after sending.", defaultValue = "2",
             showDefaultValue = Help.Visibility.ALWAYS)
-    private Integer     wait;
+    private Integer            wait;
 
     /**
      * Default constructor.
@@ -104,9 +229,21 @@ public SendMultipleMessagesCommand() {
 
     @Override
     public final void run() {
-        final PrintWriter         writer;
-        final Client              client;
-        final TransactionListener listener;
+        final PrintWriter                     writer;
+        final ClientFactory                   factory;
+        final ClientConfiguration             configuration;
+        final NettyTcpClient                  client;
+        final AsyncTransactionListener        listener;
+        final CompletionListener              tracker;
+        final TrafficRecorder                 recorder;
+        final Completion                      completion;
+        final IntFunction<String>             messages;
+        final List<CompletableFuture<String>> responses;
+        final boolean                         framed;
+        final long                            startTime;
+        final long                            elapsed;
+        final long                            received;
+        long                                  sent;
 
         if (debug) {
             activateDebugLog();
@@ -122,34 +259,96 @@ public final void run() {
         }
 
         // Create client
-        listener = new TransactionPrinterListener(host, port, writer);
-        client = new NettyTcpClient(host, port, listener);
+        // Prints in a thread of its own, so the event loop never waits for the console
+        listener = dispatch.toListener(new TransactionPrinterListener(host, port, writer));
+        factory = new ClientFactory(correlation, profiling);
+        configuration = factory.configure(ClientConfiguration.builder()
+            .transport(transport)
+            .eventLoop(eventLoop.toSettings())
+            .pipeline(pipeline.toSettings(debug))
+            .reconnect(reconnect.toSettings())
+            .socket(socket.toSettings())
+            .tls(tls.toSettings())
+            .build());
+        // Without framing reads are not responses, so they can't be counted
+        framed = !Framing.NONE.equals(configuration.getPipeline()
+            .getFraming());
+        // Tells when there is no need to keep waiting
+        // When reconnecting a closed connection is not the end
+        tracker = new CompletionListener(listener, framed ? count : 0, configuration.getReconnect()
+            .isEnabled());
+        // Records in the event loop, as it only queues the messages
+        if (recording.isEnabled()) {
+            recorder = recording.openRecorder();
+        } else {
+            recorder = null;
+        }
+        client = new NettyTcpClient(host, port, recording.wrap(tracker, recorder, 0), configuration,
+            factory.getCorrelators());
+
+        messages = readMessages();
+
+        if (!framed) {
+            writer.println("No framing, responses can't be told apart, only the messages sent are counted");
+        }
 
         client.connect();
 
         // Send messages
-        client.request("Message 1");
-        for (Integer i = 2; i <= 5; i++) {
-            waitOneSec();
-            client.request(String.format("Message %d", i));
+        // Pipelined, each message is sent without waiting for the previous response
+        responses = new ArrayList<>(count);
+        sent = 0;
+        startTime = System.nanoTime();
+        for (int i = 1; i <= count; i++) {
+            if ((i > 1) && (delay > 0)) {
+                sleep(delay);
+            }
+            if (framed) {
+                responses.add(send(client, messages.apply(i), writer));
+            } else if (request(client, messages.apply(i), writer)) {
+                sent++;
+            }
         }
 
-        // Give time to the server for responses
-        log.debug("Waiting {} seconds for responses", wait);
-        writer.printf("Waiting %d seconds for responses", wait);
-        writer.println();
-        try {
-            TimeUnit.SECONDS.sleep(wait);
-        } catch (final InterruptedException e) {
-            log.error(e.getLocalizedMessage(), e);
-            throw new RuntimeException(e);
+        if (framed) {
+            // Waits until all the responses arrive, the connection goes idle or is closed, or the time runs out
+            log.debug("Waiting up to {} seconds for responses", wait);
+            completion = tracker.await(Duration.ofSeconds(wait));
+            if (!Completion.RESPONSES.equals(completion)) {
+                writer.printf("Not all the responses arrived, %s", completion.getDescription());
+                writer.println();
+            }
+            elapsed = System.nanoTime() - startTime;
+
+            received = responses.stream()
+                .filter(r -> r.isDone() && !r.isCompletedExceptionally())
+                .count();
+            printReport(spec.commandLine()
+                .getOut(), "Received %d of %d responses in %d ms", received, elapsed);
+        } else {
+            elapsed = System.nanoTime() - startTime;
+            printReport(spec.commandLine()
+                .getOut(), "Sent %d of %d messages in %d ms", sent, elapsed);
+
+            // Waits for the server to answer, until the connection goes idle or is closed, or the time runs out
+            log.debug("Waiting up to {} seconds for the server", wait);
+            tracker.await(Duration.ofSeconds(wait));
         }
-        writer.println("finished waiting");
-        log.debug("Finished waiting for responses");
 
         // Close client
         client.close();
 
+        // Close listener, once all the events are printed
+        listener.close();
+
+        // Close recorder, once all the messages are recorded
+        recording.closeRecorder(recorder, spec.commandLine()
+            .getOut());
+
+        // Close measures, once the client is closed
+        factory.close(spec.commandLine()
+            .getOut());
+
         // Close writer
         writer.close();
     }
@@ -163,11 +362,125 @@ private final void activateDebugLog() {
     }
 
     /**
-     * Wait for one second.
+     * Prints the total time and throughput.
+     *
+     * @param out
+     *            writer for the report
+     * @param summary
+     *            summary format, receives the messages done, the messages expected and the time in milliseconds
+     * @param done
+     *            number of messages done, either responses received or messages sent
+     * @param elapsed
+     *            time since the first message was sent, in nanoseconds
+     */
+    private final void printReport(final PrintWriter out, final String summary, final long done, final long elapsed) {
+        final double seconds;
+
+        seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf(summary, done, count, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        out.println();
+        out.printf(Locale.ROOT, "Throughput: %.1f messages/s", done / seconds);
+        out.println();
+        out.flush();
+    }
+
+    /**
+     * Returns the function which creates each message from its number. The messages are taken from the payload file,
+     * if there is one, or built from the template otherwise.
+     *
+     * @return the function creating each message
+     */
+    private final IntFunction<String> readMessages() {
+        final IntFunction<String> messages;
+        final List<String>        lines;
+
+        if (payloadFile == null) {
+            messages = i -> String.format(template, i);
+        } else {
+            try {
+                lines = Files.readAllLines(payloadFile);
+            } catch (final IOException e) {
+                log.error(e.getLocalizedMessage(), e);
+                throw new RuntimeException(e);
+            }
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException(String.format("No messages in %s", payloadFile));
+            }
+            messages = i -> lines.get((i - 1) % lines.size());
+        }
+
+        return messages;
+    }
+
+    /**
+     * Sends the message once the connection is writable, without waiting for a response. If the server doesn't read
+     * for the waiting time, the message is skipped.
+     *
+     * @param client
+     *            client sending the message
+     * @param message
+     *            message to send
+     * @param writer
+     *            writer for the command output
+     * @return {@code true} if the message was sent, {@code false} if it was skipped
+     */
+    private final boolean request(final NettyTcpClient client, final String message, final PrintWriter writer) {
+        final boolean sent;
+
+        // Waits while the server doesn't read, instead of piling up messages
+        sent = client.request(message, Duration.ofSeconds(wait));
+        if (!sent) {
+            writer.printf("Server not reading, skipped message: %s", message);
+            writer.println();
+        }
+
+        return sent;
+    }
+
+    /**
+     * Sends the message once the connection is writable, and waits for its response. If the server doesn't read for
+     * the waiting time, the message is skipped.
+     *
+     * @param client
+     *            client sending the message
+     * @param message
+     *            message to send
+     * @param writer
+     *            writer for the command output
+     * @return the response to the message
+     */
+    private final CompletableFuture<String> send(final NettyTcpClient client, final String message,
+            final PrintWriter writer) {
+        CompletableFuture<String> response;
+
+        // Waits while the server doesn't read, instead of piling up messages
+        try {
+            client.whenWritable()
+                .get(wait, TimeUnit.SECONDS);
+            response = client.exchange(message, Duration.ofSeconds(wait));
+        } catch (final TimeoutException e) {
+            writer.printf("Server not reading, skipped message: %s", message);
+            writer.println();
+            response = CompletableFuture.failedFuture(e);
+        } catch (final ExecutionException e) {
+            response = CompletableFuture.failedFuture(e.getCause());
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+
+        return response;
+    }
+
+    /**
+     * Waits for the received time.
+     *
+     * @param millis
+     *            time to wait, in milliseconds
      */
-    private final void waitOneSec() {
+    private final void sleep(final long millis) {
         try {
-            TimeUnit.SECONDS.sleep(1);
+            TimeUnit.MILLISECONDS.sleep(millis);
         } catch (final InterruptedException e) {
             log.error(e.getLocalizedMessage(), e);
             throw new RuntimeException(e);
@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bernardomg.example.netty.tcp.client.balance.Balancing;
+import com.bernardomg.example.netty.tcp.client.balance.BalancingSettings;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Load balancing options. Mixed into the commands which can send requests to several hosts.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class BalancingOptions {
+
+    /**
+     * Load balancing strategy.
+     */
+    @Option(names = { "--balancing" }, paramLabel = "strategy",
+            description = "Load balancing across hosts. One of: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "ROUND_ROBIN", showDefaultValue = Help.Visibility.ALWAYS)
+    private Balancing balancing;
+
+    /**
+     * Time for the first ejection, in milliseconds.
+     */
+    @Option(names = { "--ejection-time" }, paramLabel = "millis",
+            description = "Time for the first ejection of a failing host, in milliseconds.", defaultValue = "30000",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long      ejectionTime;
+
+    /**
+     * Consecutive failures which eject a host.
+     */
+    @Option(names = { "--eject-after" }, paramLabel = "failures",
+            description = "Consecutive failures which eject a host. Zero to never eject.", defaultValue = "5",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int       failureThreshold;
+
+    /**
+     * Maximum percentage of ejected hosts.
+     */
+    @Option(names = { "--max-ejected" }, paramLabel = "percent",
+            description = "Maximum percentage of the hosts ejected at the same time.", defaultValue = "50",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int       maxEjectedPercent;
+
+    /**
+     * Default constructor.
+     */
+    public BalancingOptions() {
+        super();
+    }
+
+    /**
+     * Returns the addresses for the received hosts. Each host may include its own port, as in {@code host:port},
+     * otherwise the default port is used. IPv6 addresses with a port should be enclosed in brackets, as in
+     * {@code [::1]:8080}.
+     *
+     * @param hosts
+     *            hosts to parse
+     * @param port
+     *            default port
+     * @return the address for each host
+     */
+    public final List<InetSocketAddress> toAddresses(final List<String> hosts, final int port) {
+        final List<InetSocketAddress> addresses;
+        String                        host;
+        int                           hostPort;
+        int                           separator;
+
+        addresses = new ArrayList<>(hosts.size());
+        for (final String value : hosts) {
+            separator = value.lastIndexOf(':');
+            if ((separator > 0) && ((value.indexOf(':') == separator) || (value.charAt(separator - 1) == ']'))) {
+                host = value.substring(0, separator);
+                hostPort = Integer.parseInt(value.substring(separator + 1));
+            } else {
+                // No port, or an IPv6 address without brackets
+                host = value;
+                hostPort = port;
+            }
+            if (host.startsWith("[") && host.endsWith("]")) {
+                host = host.substring(1, host.length() - 1);
+            }
+            addresses.add(InetSocketAddress.createUnresolved(host, hostPort));
+        }
+
+        return addresses;
+    }
+
+    /**
+     * Returns the load balancing settings defined by the options.
+     *
+     * @return the load balancing settings
+     */
+    public final BalancingSettings toSettings() {
+        return BalancingSettings.builder()
+            .balancing(balancing)
+            .ejectionTime(Duration.ofMillis(ejectionTime))
+            .failureThreshold(failureThreshold)
+            .maxEjectedPercent(maxEjectedPercent)
+            .build();
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.KeyedResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+import picocli.CommandLine.Option;
+
+/**
+ * Response correlation options. Mixed into the commands which wait for the responses to their requests.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class CorrelationOptions {
+
+    /**
+     * Pattern for the message ids. If not set, the responses are matched by their order.
+     */
+    @Option(names = { "--correlation-id" }, paramLabel = "regex",
+            description = "Pattern for the id carried by each message. Responses are matched to the request with the "
+                    + "same id. The first group is the id, or the whole match if there are no groups. Messages not "
+                    + "matching are their own id. By default responses are matched by their order.")
+    private Pattern idPattern;
+
+    /**
+     * Default constructor.
+     */
+    public CorrelationOptions() {
+        super();
+    }
+
+    /**
+     * Returns the factory for the response correlator of each connection.
+     *
+     * @return the factory for the response correlators
+     */
+    public final Supplier<ResponseCorrelator> toCorrelators() {
+        final Supplier<ResponseCorrelator> correlators;
+        final Function<String, String>     ids;
+
+        if (idPattern == null) {
+            correlators = FifoResponseCorrelator::new;
+        } else {
+            ids = this::getId;
+            correlators = () -> new KeyedResponseCorrelator(ids);
+        }
+
+        return correlators;
+    }
+
+    /**
+     * Returns the id carried by the message.
+     *
+     * @param message
+     *            message to read the id from
+     * @return the id carried by the message
+     */
+    private final String getId(final String message) {
+        final Matcher matcher;
+        final String  id;
+
+        matcher = idPattern.matcher(message);
+        if (!matcher.find()) {
+            id = message;
+        } else if (matcher.groupCount() == 0) {
+            id = matcher.group();
+        } else {
+            id = matcher.group(1);
+        }
+
+        return id;
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.AsyncTransactionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.OverflowPolicy;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Listener dispatch options. Mixed into the commands which print the transaction events.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class DispatchOptions {
+
+    /**
+     * What to do with the events which don't fit into the queue.
+     */
+    @Option(names = { "--listener-overflow" }, paramLabel = "policy",
+            description = "What to do with events when the listener queue is full. One of: ${COMPLETION-CANDIDATES}. "
+                    + "Events from the network threads never block, for them BLOCK is the same as COALESCE.",
+            defaultValue = "COALESCE", showDefaultValue = Help.Visibility.ALWAYS)
+    private OverflowPolicy overflow;
+
+    /**
+     * Maximum events waiting for the listener.
+     */
+    @Option(names = { "--listener-queue" }, paramLabel = "events",
+            description = "Maximum events waiting for the listener.", defaultValue = "1024",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int            queueSize;
+
+    /**
+     * Default constructor.
+     */
+    public DispatchOptions() {
+        super();
+    }
+
+    /**
+     * Returns a listener which hands the events to the received one, in a thread of its own.
+     *
+     * @param listener
+     *            listener receiving the events
+     * @return an asynchronous listener
+     */
+    public final AsyncTransactionListener toListener(final TransactionListener listener) {
+        return new AsyncTransactionListener(listener, queueSize, overflow);
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import com.bernardomg.example.netty.tcp.client.transport.EventLoopSettings;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Event loop options. Mixed into the commands which open connections.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class EventLoopOptions {
+
+    /**
+     * Prefix for the thread names.
+     */
+    @Option(names = { "--event-loop-name" }, paramLabel = "name",
+            description = "Prefix for the name of the event loop threads.", defaultValue = "client",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private String threadName;
+
+    /**
+     * Number of threads.
+     */
+    @Option(names = { "--event-loop-threads" }, paramLabel = "threads",
+            description = "Number of event loop threads. Zero for twice the number of cores.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int    threads;
+
+    /**
+     * Default constructor.
+     */
+    public EventLoopOptions() {
+        super();
+    }
+
+    /**
+     * Returns the event loop settings defined by the options.
+     *
+     * @return the event loop settings
+     */
+    public final EventLoopSettings toSettings() {
+        return EventLoopSettings.builder()
+            .threadName(threadName)
+            .threads(threads)
+            .build();
+    }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.bernardomg.example.netty.tcp.client.metrics.ClientMetrics;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsFormat;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Metrics options. Mixed into the commands which can report transaction metrics.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class MetricsOptions {
+
+    /**
+     * File where the metrics are written. If not set, they are printed into the console.
+     */
+    @Option(names = { "--metrics-file" }, paramLabel = "path",
+            description = "File where the metrics are written. By default they are printed into the console.")
+    private Path          file;
+
+    /**
+     * Metrics format.
+     */
+    @Option(names = { "--metrics-format" }, paramLabel = "format",
+            description = "Metrics format. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "TEXT",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private MetricsFormat format;
+
+    /**
+     * Time between metrics reports, in seconds.
+     */
+    @Option(names = { "--metrics-interval" }, paramLabel = "seconds",
+            description = "Time between metrics reports. Zero disables metrics.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int           interval;
+
+    /**
+     * Exports the connection metrics through JMX.
+     */
+    @Option(names = { "--jmx" }, description = "Exports the connection metrics through JMX.", defaultValue = "false")
+    private boolean       jmx;
+
+    /**
+     * Default constructor.
+     */
+    public MetricsOptions() {
+        super();
+    }
+
+    /**
+     * Prints a summary of the connection metrics, and removes them from JMX. Does nothing if there are no connection
+     * metrics.
+     *
+     * @param clientMetrics
+     *            connection metrics to close, may be {@code null}
+     * @param writer
+     *            writer to print into
+     */
+    public final void closeClientMetrics(final ClientMetrics clientMetrics, final PrintWriter writer) {
+        if (clientMetrics != null) {
+            clientMetrics.unregisterMBean();
+            writer.printf("Connections: %d opened, %d failed, %d us max connect time", clientMetrics.getConnects(),
+                clientMetrics.getConnectFailures(), clientMetrics.getConnectTimeMax());
+            writer.println();
+            writer.printf("Wire: %d bytes read, %d bytes written, %d writes failed", clientMetrics.getBytesRead(),
+                clientMetrics.getBytesWritten(), clientMetrics.getWriteFailures());
+            writer.println();
+        }
+    }
+
+    /**
+     * Returns the metrics format.
+     *
+     * @return the metrics format
+     */
+    public final MetricsFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the time between metrics reports.
+     *
+     * @return the time between metrics reports
+     */
+    public final Duration getInterval() {
+        return Duration.ofSeconds(interval);
+    }
+
+    /**
+     * Indicates if the metrics are enabled.
+     *
+     * @return {@code true} if the metrics are enabled, {@code false} otherwise
+     */
+    public final boolean isEnabled() {
+        return interval > 0;
+    }
+
+    /**
+     * Returns the connection metrics, registered in JMX with the received name. They are only created when exported
+     * through JMX, otherwise this returns {@code null}.
+     *
+     * @param name
+     *            name for the metrics in JMX
+     * @return the connection metrics, or {@code null} if they are not exported
+     */
+    public final ClientMetrics openClientMetrics(final String name) {
+        final ClientMetrics clientMetrics;
+
+        if (jmx) {
+            clientMetrics = new ClientMetrics();
+            clientMetrics.registerMBean(name);
+        } else {
+            clientMetrics = null;
+        }
+
+        return clientMetrics;
+    }
+
+    /**
+     * Returns the writer for the metrics. This is the metrics file, if there is one, or the console otherwise.
+     *
+     * @param console
+     *            console writer
+     * @return the writer for the metrics
+     */
+    public final PrintWriter openWriter(final PrintWriter console) {
+        final PrintWriter writer;
+
+        if (file == null) {
+            writer = console;
+        } else {
+            try {
+                writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        return writer;
+    }
+
+}
@@ -0,0 +1,205 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.time.Duration;
+
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.Payload;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Pipeline options. Mixed into the commands which create a client.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class PipelineOptions {
+
+    /**
+     * Read idle timeout without framing, if none is chosen. Without framing there is no way to count the responses, so
+     * the read idle timeout tells when the server is done.
+     */
+    private static final long UNFRAMED_IDLE_TIMEOUT = 500;
+
+    /**
+     * Flushes batched together, at most.
+     */
+    @Option(names = { "--flush-after-messages" }, paramLabel = "messages",
+            description = "Flushes batched together, at most. Zero for no limit with a flush delay, or no batching.",
+            defaultValue = "0", showDefaultValue = Help.Visibility.ALWAYS)
+    private int               flushAfterMessages;
+
+    /**
+     * Flush delay, in microseconds.
+     */
+    @Option(names = { "--flush-after-micros" }, paramLabel = "micros",
+            description = "Time flushes can be delayed, to batch them. Zero for no delay.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long              flushAfterMicros;
+
+    /**
+     * Framing mode.
+     */
+    @Option(names = { "--framing" }, paramLabel = "mode",
+            description = "Message framing. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "NONE",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private Framing           framing;
+
+    /**
+     * Frame length, for fixed length framing.
+     */
+    @Option(names = { "--frame-length" }, paramLabel = "bytes",
+            description = "Length of each message, for fixed length framing.", defaultValue = "256",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               frameLength;
+
+    /**
+     * Read idle timeout, in milliseconds.
+     */
+    @Option(names = { "--idle-timeout" }, paramLabel = "millis",
+            description = "Stop waiting for responses after reading nothing for this time, in milliseconds. Zero to disable. "
+                    + "By default " + UNFRAMED_IDLE_TIMEOUT + " without framing, and disabled otherwise.")
+    private Long              idleTimeout;
+
+    /**
+     * Length prefix size, for length field framing.
+     */
+    @Option(names = { "--length-field-length" }, paramLabel = "bytes",
+            description = "Size of the length prefix, for length field framing.", defaultValue = "4",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               lengthFieldLength;
+
+    /**
+     * Maximum length for received messages.
+     */
+    @Option(names = { "--max-frame-length" }, paramLabel = "bytes", description = "Maximum received message length.",
+            defaultValue = "1048576", showDefaultValue = Help.Visibility.ALWAYS)
+    private int               maxFrameLength;
+
+    /**
+     * Payload mode.
+     */
+    @Option(names = { "--payload" }, paramLabel = "mode",
+            description = "Payload mode. One of: ${COMPLETION-CANDIDATES}. Binary skips the string codecs.",
+            defaultValue = "TEXT", showDefaultValue = Help.Visibility.ALWAYS)
+    private Payload           payload;
+
+    /**
+     * Wire logging mode.
+     */
+    @Option(names = { "--wire-logging" }, paramLabel = "mode",
+            description = "Wire logging. One of: ${COMPLETION-CANDIDATES}. Debug mode uses FULL, unless other is chosen.",
+            defaultValue = "NONE", showDefaultValue = Help.Visibility.ALWAYS)
+    private WireLogging       wireLogging;
+
+    /**
+     * Maximum bytes dumped for each sampled buffer.
+     */
+    @Option(names = { "--wire-log-max-bytes" }, paramLabel = "bytes",
+            description = "Maximum bytes dumped for each buffer, when sampling.", defaultValue = "64",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               wireLogMaxBytes;
+
+    /**
+     * Buffers seen for each one logged, when sampling.
+     */
+    @Option(names = { "--wire-log-sample-rate" }, paramLabel = "buffers",
+            description = "Buffers seen for each one logged, when sampling.", defaultValue = "100",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               wireLogSampleRate;
+
+    /**
+     * Outbound bytes over which the connection stops being writable.
+     */
+    @Option(names = { "--write-buffer-high" }, paramLabel = "bytes",
+            description = "Outbound bytes over which the connection stops being writable.", defaultValue = "65536",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               writeBufferHigh;
+
+    /**
+     * Outbound bytes under which the connection is writable again.
+     */
+    @Option(names = { "--write-buffer-low" }, paramLabel = "bytes",
+            description = "Outbound bytes under which the connection is writable again.", defaultValue = "32768",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int               writeBufferLow;
+
+    /**
+     * Default constructor.
+     */
+    public PipelineOptions() {
+        super();
+    }
+
+    /**
+     * Returns the pipeline settings built from these options. In debug mode, wire logging is enabled unless a mode was
+     * chosen. Without framing, the read idle timeout is enabled unless a timeout was chosen.
+     *
+     * @param debug
+     *            debug mode flag
+     * @return the pipeline settings
+     */
+    public final PipelineSettings toSettings(final boolean debug) {
+        final WireLogging logging;
+        final long        idle;
+
+        if (debug && (wireLogging == WireLogging.NONE)) {
+            logging = WireLogging.FULL;
+        } else {
+            logging = wireLogging;
+        }
+
+        if (idleTimeout != null) {
+            idle = idleTimeout;
+        } else if (framing == Framing.NONE) {
+            // Responses can't be counted, so idle periods tell when the server is done
+            idle = UNFRAMED_IDLE_TIMEOUT;
+        } else {
+            idle = 0;
+        }
+
+        return PipelineSettings.builder()
+            .flushAfterMessages(flushAfterMessages)
+            .flushAfterMicros(flushAfterMicros)
+            .framing(framing)
+            .frameLength(frameLength)
+            .lengthFieldLength(lengthFieldLength)
+            .maxFrameLength(maxFrameLength)
+            .payload(payload)
+            .readIdleTimeout(Duration.ofMillis(idle))
+            .wireLogging(logging)
+            .wireLogMaxBytes(wireLogMaxBytes)
+            .wireLogSampleRate(wireLogSampleRate)
+            .writeBufferHighWaterMark(writeBufferHigh)
+            .writeBufferLowWaterMark(writeBufferLow)
+            .build();
+    }
+
+}
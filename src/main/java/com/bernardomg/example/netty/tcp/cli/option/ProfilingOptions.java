@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.bernardomg.example.netty.tcp.client.profiling.PipelineProfiler;
+import com.bernardomg.example.netty.tcp.client.profiling.ProfileReport;
+import com.bernardomg.example.netty.tcp.client.profiling.StageReport;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Profiling options. Mixed into the commands which can profile the pipeline.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class ProfilingOptions {
+
+    /**
+     * Profiles the pipeline.
+     */
+    @Option(names = { "--profile" },
+            description = "Measures the time and allocation of each pipeline stage, and the event loop lag. "
+                    + "Slows down the client.",
+            defaultValue = "false")
+    private boolean enabled;
+
+    /**
+     * Time between event loop lag probes, in milliseconds.
+     */
+    @Option(names = { "--profile-lag-interval" }, paramLabel = "millis",
+            description = "Time between event loop lag probes.", defaultValue = "10",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long    lagInterval;
+
+    /**
+     * Default constructor.
+     */
+    public ProfilingOptions() {
+        super();
+    }
+
+    /**
+     * Stops the profiler, and prints the profile. Does nothing if there is no profiler.
+     *
+     * @param profiler
+     *            profiler to close, may be {@code null}
+     * @param writer
+     *            writer to print into
+     */
+    public final void closeProfiler(final PipelineProfiler profiler, final PrintWriter writer) {
+        final ProfileReport report;
+
+        if (profiler != null) {
+            profiler.stop();
+            report = profiler.report();
+
+            writer.println("Pipeline stages, excluding the following ones (us):");
+            writer.printf("  %-40s %10s %10s %10s %10s %12s", "stage", "events", "p50", "p99", "max", "bytes/event");
+            writer.println();
+            for (final StageReport stage : report.getStages()) {
+                writer.printf("  %-40s %10d %10.1f %10.1f %10.1f %12s", stage.getName(), stage.getTime()
+                    .getTotalCount(), toMicros(stage.getTime(), 50), toMicros(stage.getTime(), 99),
+                    toMicros(stage.getTime(), 100), allocation(report, stage));
+                writer.println();
+            }
+            writer.printf("Event loop lag (us): %d probes, p50 %.1f, p99 %.1f, max %.1f", report.getLag()
+                .getTotalCount(), toMicros(report.getLag(), 50), toMicros(report.getLag(), 99),
+                toMicros(report.getLag(), 100));
+            writer.println();
+        }
+    }
+
+    /**
+     * Indicates if profiling is enabled.
+     *
+     * @return {@code true} if profiling is enabled, {@code false} otherwise
+     */
+    public final boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the profiler, if profiling is enabled. Otherwise this returns {@code null}.
+     *
+     * @return the profiler, or {@code null} if profiling is disabled
+     */
+    public final PipelineProfiler openProfiler() {
+        final PipelineProfiler profiler;
+
+        if (enabled) {
+            profiler = new PipelineProfiler(Duration.ofMillis(lagInterval));
+        } else {
+            profiler = null;
+        }
+
+        return profiler;
+    }
+
+    /**
+     * Returns the mean bytes allocated for each event by the stage, or a dash if allocation was not measured.
+     *
+     * @param report
+     *            pipeline profile
+     * @param stage
+     *            stage profile
+     * @return the mean bytes allocated for each event
+     */
+    private final String allocation(final ProfileReport report, final StageReport stage) {
+        final String allocation;
+
+        if (report.isAllocationMeasured()) {
+            allocation = String.format("%.0f", stage.getAllocation()
+                .getMean());
+        } else {
+            allocation = "-";
+        }
+
+        return allocation;
+    }
+
+    /**
+     * Returns a percentile of the histogram, transformed from nanoseconds into microseconds.
+     *
+     * @param histogram
+     *            histogram, in nanoseconds
+     * @param percentile
+     *            percentile to read
+     * @return the percentile in microseconds
+     */
+    private final double toMicros(final Histogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.time.Duration;
+
+import com.bernardomg.example.netty.tcp.client.ReconnectSettings;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Reconnection options. Mixed into the commands which keep the connection open for a while.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class ReconnectOptions {
+
+    /**
+     * Maximum requests kept while reconnecting.
+     */
+    @Option(names = { "--reconnect-buffer" }, paramLabel = "requests",
+            description = "Maximum requests kept while reconnecting.", defaultValue = "1024",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int     bufferSize;
+
+    /**
+     * Flags reconnecting when the connection is lost.
+     */
+    @Option(names = { "--reconnect" }, description = "Reconnect when the connection is lost.", defaultValue = "false")
+    private boolean enabled;
+
+    /**
+     * Delay before the first attempt, in milliseconds.
+     */
+    @Option(names = { "--reconnect-initial-delay" }, paramLabel = "millis",
+            description = "Delay before the first reconnection attempt, in milliseconds.", defaultValue = "100",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long    initialDelay;
+
+    /**
+     * Maximum attempts.
+     */
+    @Option(names = { "--reconnect-max-attempts" }, paramLabel = "attempts",
+            description = "Maximum reconnection attempts. Zero for no limit.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int     maxAttempts;
+
+    /**
+     * Maximum delay between attempts, in milliseconds.
+     */
+    @Option(names = { "--reconnect-max-delay" }, paramLabel = "millis",
+            description = "Maximum delay between reconnection attempts, in milliseconds.", defaultValue = "30000",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long    maxDelay;
+
+    /**
+     * Default constructor.
+     */
+    public ReconnectOptions() {
+        super();
+    }
+
+    /**
+     * Returns the reconnection settings defined by the options.
+     *
+     * @return the reconnection settings
+     */
+    public final ReconnectSettings toSettings() {
+        final ReconnectSettings settings;
+
+        if (enabled) {
+            settings = ReconnectSettings.builder()
+                .bufferSize(bufferSize)
+                .initialDelay(Duration.ofMillis(initialDelay))
+                .maxAttempts(maxAttempts)
+                .maxDelay(Duration.ofMillis(maxDelay))
+                .build();
+        } else {
+            settings = ReconnectSettings.DISABLED;
+        }
+
+        return settings;
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.recording.RecordingFormat;
+import com.bernardomg.example.netty.tcp.client.recording.RecordingSettings;
+import com.bernardomg.example.netty.tcp.client.recording.RecordingTransactionListener;
+import com.bernardomg.example.netty.tcp.client.recording.TrafficRecorder;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Recording options. Mixed into the commands which can record the messages into files.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class RecordingOptions {
+
+    /**
+     * Recording file. If not set, nothing is recorded.
+     */
+    @Option(names = { "--record" }, paramLabel = "path",
+            description = "File where the messages sent and received are recorded. By default nothing is recorded.")
+    private Path            file;
+
+    /**
+     * Recording format.
+     */
+    @Option(names = { "--record-format" }, paramLabel = "format",
+            description = "Recording format. One of: ${COMPLETION-CANDIDATES}.", defaultValue = "NDJSON",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private RecordingFormat format;
+
+    /**
+     * Rotated files kept.
+     */
+    @Option(names = { "--record-max-files" }, paramLabel = "files",
+            description = "Rotated files kept, older ones are deleted. Zero to keep all of them.", defaultValue = "10",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int             maxFiles;
+
+    /**
+     * Size after which the file is rotated, in megabytes.
+     */
+    @Option(names = { "--record-max-file-size" }, paramLabel = "megabytes",
+            description = "Size after which the file is rotated. Zero to never rotate.", defaultValue = "256",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long            maxFileSize;
+
+    /**
+     * Default constructor.
+     */
+    public RecordingOptions() {
+        super();
+    }
+
+    /**
+     * Closes the recorder, once all the messages are recorded, and prints how many were recorded. Does nothing if there
+     * is no recorder.
+     *
+     * @param recorder
+     *            recorder to close, may be {@code null}
+     * @param out
+     *            writer for the summary
+     */
+    public final void closeRecorder(final TrafficRecorder recorder, final PrintWriter out) {
+        if (recorder != null) {
+            recorder.close();
+            out.printf("Recorded %d messages into %s, %d dropped", recorder.getRecorded(), file,
+                recorder.getDropped());
+            out.println();
+            out.flush();
+        }
+    }
+
+    /**
+     * Indicates if the recording is enabled.
+     *
+     * @return {@code true} if the recording is enabled, {@code false} otherwise
+     */
+    public final boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * Returns a recorder for these options. It starts recording at once.
+     *
+     * @return a recorder for these options
+     */
+    public final TrafficRecorder openRecorder() {
+        return new TrafficRecorder(RecordingSettings.builder()
+            .file(file)
+            .format(format)
+            .maxFiles(maxFiles)
+            .maxFileSize(maxFileSize * 1024 * 1024)
+            .build());
+    }
+
+    /**
+     * Returns a listener which records the messages of a connection, and passes all the events to the received
+     * listener. If there is no recorder, the received listener is returned.
+     *
+     * @param listener
+     *            listener receiving all the events
+     * @param recorder
+     *            recorder for the messages, may be {@code null}
+     * @param connection
+     *            id of the connection
+     * @return a listener recording the messages
+     */
+    public final TransactionListener wrap(final TransactionListener listener, final TrafficRecorder recorder,
+            final int connection) {
+        final TransactionListener wrapped;
+
+        if (recorder == null) {
+            wrapped = listener;
+        } else {
+            wrapped = new RecordingTransactionListener(listener, recorder, connection);
+        }
+
+        return wrapped;
+    }
+
+}
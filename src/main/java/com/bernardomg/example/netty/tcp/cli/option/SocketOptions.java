@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.time.Duration;
+
+import com.bernardomg.example.netty.tcp.client.SocketSettings;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * Socket options. Mixed into the commands which open connections.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class SocketOptions {
+
+    /**
+     * Maximum time to connect, in milliseconds.
+     */
+    @Option(names = { "--connect-timeout" }, paramLabel = "millis",
+            description = "Maximum time to connect, in milliseconds.", defaultValue = "30000",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long    connectTimeout;
+
+    /**
+     * TCP fast open flag.
+     */
+    @Option(names = { "--fast-open-connect" }, description = "Use TCP fast open. Only for native transports.",
+            defaultValue = "false")
+    private boolean fastOpenConnect;
+
+    /**
+     * TCP keep alive flag.
+     */
+    @Option(names = { "--keep-alive" }, negatable = true, description = "Use TCP keep alive.", defaultValue = "true",
+            fallbackValue = "true", showDefaultValue = Help.Visibility.ALWAYS)
+    private boolean keepAlive;
+
+    /**
+     * Pooled buffers flag.
+     */
+    @Option(names = { "--pooled-allocator" }, negatable = true, description = "Use pooled buffers.",
+            defaultValue = "true", fallbackValue = "true", showDefaultValue = Help.Visibility.ALWAYS)
+    private boolean pooledAllocator;
+
+    /**
+     * TCP quick ack flag.
+     */
+    @Option(names = { "--quick-ack" }, description = "Use TCP quick ack. Only for native transports.",
+            defaultValue = "false")
+    private boolean quickAck;
+
+    /**
+     * Size of each read buffer.
+     */
+    @Option(names = { "--read-buffer" }, paramLabel = "bytes",
+            description = "Size of each read buffer. Zero for an adaptive size.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int     readBufferSize;
+
+    /**
+     * Socket receive buffer size.
+     */
+    @Option(names = { "--receive-buffer" }, paramLabel = "bytes",
+            description = "Socket receive buffer size. Zero for the system default.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int     receiveBufferSize;
+
+    /**
+     * Socket send buffer size.
+     */
+    @Option(names = { "--send-buffer" }, paramLabel = "bytes",
+            description = "Socket send buffer size. Zero for the system default.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private int     sendBufferSize;
+
+    /**
+     * TCP no delay flag.
+     */
+    @Option(names = { "--tcp-no-delay" }, negatable = true, description = "Disable Nagle's algorithm.",
+            defaultValue = "true", fallbackValue = "true", showDefaultValue = Help.Visibility.ALWAYS)
+    private boolean tcpNoDelay;
+
+    /**
+     * Default constructor.
+     */
+    public SocketOptions() {
+        super();
+    }
+
+    /**
+     * Returns the socket settings defined by the options.
+     *
+     * @return the socket settings
+     */
+    public final SocketSettings toSettings() {
+        return SocketSettings.builder()
+            .connectTimeout(Duration.ofMillis(connectTimeout))
+            .fastOpenConnect(fastOpenConnect)
+            .keepAlive(keepAlive)
+            .pooledAllocator(pooledAllocator)
+            .quickAck(quickAck)
+            .readBufferSize(readBufferSize)
+            .receiveBufferSize(receiveBufferSize)
+            .sendBufferSize(sendBufferSize)
+            .tcpNoDelay(tcpNoDelay)
+            .build();
+    }
+
+}
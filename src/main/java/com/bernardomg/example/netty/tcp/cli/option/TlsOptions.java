@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.cli.option;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bernardomg.example.netty.tcp.client.tls.TlsProvider;
+import com.bernardomg.example.netty.tcp.client.tls.TlsSettings;
+
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Option;
+
+/**
+ * TLS options. Mixed into all the commands.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class TlsOptions {
+
+    /**
+     * Application protocols offered through ALPN.
+     */
+    @Option(names = { "--alpn" }, paramLabel = "protocols", split = ",",
+            description = "Application protocols offered through ALPN, separated by commas.")
+    private List<String> applicationProtocols = new ArrayList<>();
+
+    /**
+     * Cipher suites.
+     */
+    @Option(names = { "--tls-ciphers" }, paramLabel = "ciphers", split = ",",
+            description = "Cipher suites, separated by commas. By default those of the provider.")
+    private List<String> ciphers              = new ArrayList<>();
+
+    /**
+     * Flags using TLS.
+     */
+    @Option(names = { "--tls" }, description = "Encrypt the connection with TLS.", defaultValue = "false")
+    private boolean      enabled;
+
+    /**
+     * Flags trusting any certificate.
+     */
+    @Option(names = { "--tls-insecure" },
+            description = "Trust any server certificate, and skip the host name verification. Only for testing.",
+            defaultValue = "false")
+    private boolean      insecure;
+
+    /**
+     * Protocol versions.
+     */
+    @Option(names = { "--tls-protocols" }, paramLabel = "protocols", split = ",",
+            description = "Protocol versions, such as TLSv1.3, separated by commas. By default those of the provider.")
+    private List<String> protocols            = new ArrayList<>();
+
+    /**
+     * TLS engine provider.
+     */
+    @Option(names = { "--tls-provider" }, paramLabel = "provider",
+            description = "TLS engine. One of: ${COMPLETION-CANDIDATES}. If not available, the JDK is used.",
+            defaultValue = "AUTO", showDefaultValue = Help.Visibility.ALWAYS)
+    private TlsProvider  provider;
+
+    /**
+     * Maximum sessions cached.
+     */
+    @Option(names = { "--tls-session-cache" }, paramLabel = "sessions",
+            description = "Maximum sessions cached for resumption. Zero for the provider default.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long         sessionCacheSize;
+
+    /**
+     * Time a session can be resumed, in seconds.
+     */
+    @Option(names = { "--tls-session-timeout" }, paramLabel = "seconds",
+            description = "Time a cached session can be resumed. Zero for the provider default.", defaultValue = "0",
+            showDefaultValue = Help.Visibility.ALWAYS)
+    private long         sessionTimeout;
+
+    /**
+     * Certificates to trust.
+     */
+    @Option(names = { "--tls-trust" }, paramLabel = "file",
+            description = "PEM file with the certificates to trust. By default those trusted by the JDK.")
+    private Path         trustCertificates;
+
+    /**
+     * Default constructor.
+     */
+    public TlsOptions() {
+        super();
+    }
+
+    /**
+     * Returns the TLS settings defined by the options.
+     *
+     * @return the TLS settings
+     */
+    public final TlsSettings toSettings() {
+        final TlsSettings settings;
+
+        if (enabled) {
+            settings = TlsSettings.builder()
+                .applicationProtocols(applicationProtocols)
+                .ciphers(ciphers)
+                .insecure(insecure)
+                .protocols(protocols)
+                .provider(provider)
+                .sessionCacheSize(sessionCacheSize)
+                .sessionTimeout(Duration.ofSeconds(sessionTimeout))
+                .trustCertificates(trustCertificates)
+                .build();
+        } else {
+            settings = TlsSettings.DISABLED;
+        }
+
+        return settings;
+    }
+
+}
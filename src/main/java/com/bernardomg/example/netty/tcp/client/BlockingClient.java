@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Synchronous facade over a {@link Client}. Each exchange blocks the calling thread until the response arrives, so
+ * scenarios can be written as plain sequential code.
+ * <p>
+ * The wait parks the thread, without spinning. When called from a virtual thread, only the virtual thread is parked,
+ * and its carrier thread is free to run other sessions. So a single JVM can keep many thousands of blocked sessions.
+ * <p>
+ * It can be shared between threads, as long as the wrapped client can.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class BlockingClient implements AutoCloseable {
+
+    /**
+     * Wrapped client.
+     */
+    private final Client   client;
+
+    /**
+     * Time to wait for each response, unless another is given.
+     */
+    private final Duration timeout;
+
+    /**
+     * Constructs a blocking client over the received client.
+     *
+     * @param clnt
+     *            wrapped client
+     * @param tmt
+     *            time to wait for each response
+     */
+    public BlockingClient(final Client clnt, final Duration tmt) {
+        super();
+
+        client = Objects.requireNonNull(clnt);
+        timeout = Objects.requireNonNull(tmt);
+    }
+
+    /**
+     * Closes the wrapped client.
+     */
+    @Override
+    public final void close() {
+        client.close();
+    }
+
+    /**
+     * Connects the wrapped client.
+     */
+    public final void connect() {
+        client.connect();
+    }
+
+    /**
+     * Sends the message, and waits for its response.
+     *
+     * @param message
+     *            message to send
+     * @return the response
+     * @throws RuntimeException
+     *             if the response doesn't arrive in time, or if the connection is closed
+     */
+    public final String exchange(final String message) {
+        return exchange(message, timeout);
+    }
+
+    /**
+     * Sends the message, and waits for its response up to the received time.
+     *
+     * @param message
+     *            message to send
+     * @param wait
+     *            time to wait for the response
+     * @return the response
+     * @throws RuntimeException
+     *             if the response doesn't arrive in time, or if the connection is closed
+     */
+    public final String exchange(final String message, final Duration wait) {
+        final String response;
+
+        try {
+            // The future already times out, so it is not needed here
+            response = client.exchange(message, wait)
+                .get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+
+        return response;
+    }
+
+    /**
+     * Returns the wrapped client.
+     *
+     * @return the wrapped client
+     */
+    public final Client getClient() {
+        return client;
+    }
+
+    /**
+     * Sends the message, without waiting for a response.
+     *
+     * @param message
+     *            message to send
+     */
+    public final void send(final String message) {
+        client.request(message);
+    }
+
+}
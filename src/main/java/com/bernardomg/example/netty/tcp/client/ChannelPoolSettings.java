@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for the channel pools kept by {@link PooledNettyTcpClient}. Each pool holds the channels to a single
+ * host:port.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class ChannelPoolSettings {
+
+    /**
+     * Time to wait for a channel before the acquire fails.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration acquireTimeout     = Duration.ofSeconds(5);
+
+    /**
+     * Time after which an idle channel is closed. Zero disables eviction.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration idleTimeout        = Duration.ofSeconds(60);
+
+    /**
+     * Maximum number of channels for each host.
+     */
+    @Builder.Default
+    private final int      maxConnections     = 8;
+
+    /**
+     * Maximum number of acquires waiting for a channel for each host. Once reached, new acquires fail.
+     */
+    @Builder.Default
+    private final int      maxPendingAcquires = 1024;
+
+}
@@ -24,8 +24,16 @@
 
 package com.bernardomg.example.netty.tcp.client;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+
+import io.netty.buffer.ByteBuf;
+
 /**
- * Generic client. Can start a connection, close said connection and send messages.
+ * Generic client. Can start a connection, close said connection and send messages. Messages can be sent one by one,
+ * or written in batches which are sent when flushing.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
@@ -42,6 +50,34 @@ public interface Client {
      */
     public void connect();
 
+    /**
+     * Sends all the messages written since the last flush.
+     */
+    public void flush();
+
+    /**
+     * Sends the message through the connection, and returns its response. The future completes exceptionally if the
+     * response doesn't arrive before the timeout, or if the connection is closed.
+     *
+     * @param message
+     *            message to send
+     * @param timeout
+     *            time to wait for the response
+     * @return a future with the response
+     */
+    public CompletableFuture<String> exchange(final String message, final Duration timeout);
+
+    /**
+     * Sends the buffer through the connection, as it is. The client takes ownership of the buffer, which is released
+     * once written.
+     * <p>
+     * The listener receives the buffer, so nothing is decoded unless the listener does it.
+     *
+     * @param message
+     *            message to send
+     */
+    public void request(final ByteBuf message);
+
     /**
      * Sends the message through the connection.
      *
@@ -50,4 +86,28 @@ public interface Client {
      */
     public void request(final String message);
 
+    /**
+     * Changes the wire logging mode. This can be done while the client is connected, the logging handler is added to or
+     * removed from the pipelines as needed. Connections opened afterwards, such as when reconnecting, use the new mode.
+     * <p>
+     * Profiling probes are placed when a connection is opened, so they don't measure a logging handler added to it
+     * afterwards.
+     *
+     * @param mode
+     *            wire logging mode
+     */
+    public void setWireLogging(final WireLogging mode);
+
+    /**
+     * Writes the message into the connection, without flushing it. The message won't be sent until calling
+     * {@link #flush()}, or until the pipeline flushes on its own.
+     * <p>
+     * This allows sending several messages with a single system call. Messages not flushed when closing the client may
+     * be lost.
+     *
+     * @param message
+     *            message to write
+     */
+    public void write(final String message);
+
 }
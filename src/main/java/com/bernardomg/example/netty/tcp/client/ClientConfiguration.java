@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.metrics.ClientMetrics;
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+import com.bernardomg.example.netty.tcp.client.profiling.PipelineProfiler;
+import com.bernardomg.example.netty.tcp.client.tls.TlsSettings;
+import com.bernardomg.example.netty.tcp.client.transport.EventLoopSettings;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.channel.EventLoopGroup;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Client configuration. Groups the transport, event loop, socket, pipeline, TLS and reconnection settings.
+ * <p>
+ * Clients create an event loop group of their own, unless a shared one is received. A shared group belongs to whoever
+ * created it, so closing the client won't shut it down. It must match the transport, for example an epoll group for the
+ * epoll transport.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder(toBuilder = true)
+public final class ClientConfiguration {
+
+    /**
+     * Default configuration. Best transport available, default socket and pipeline settings, and no reconnection.
+     */
+    public static final ClientConfiguration DEFAULT   = ClientConfiguration.builder()
+        .build();
+
+    /**
+     * Settings for the event loop group created by the client. Ignored when there is a shared event loop group.
+     */
+    @NonNull
+    @Builder.Default
+    private final EventLoopSettings         eventLoop = EventLoopSettings.DEFAULT;
+
+    /**
+     * Shared event loop group. If set, the client uses it instead of creating its own, and won't shut it down.
+     */
+    private final EventLoopGroup            eventLoopGroup;
+
+    /**
+     * Metrics for the connections. Can be shared by several clients. If {@code null}, the connections are not measured.
+     */
+    private final ClientMetrics             metrics;
+
+    /**
+     * Pipeline settings.
+     */
+    @NonNull
+    @Builder.Default
+    private final PipelineSettings          pipeline  = PipelineSettings.DEFAULT;
+
+    /**
+     * Profiler for the pipelines. Can be shared by several clients. If {@code null}, the pipelines are not profiled.
+     */
+    private final PipelineProfiler          profiler;
+
+    /**
+     * Reconnection settings. Pooled clients ignore them, as the pool opens new connections when needed.
+     */
+    @NonNull
+    @Builder.Default
+    private final ReconnectSettings         reconnect = ReconnectSettings.DISABLED;
+
+    /**
+     * Socket options.
+     */
+    @NonNull
+    @Builder.Default
+    private final SocketSettings            socket    = SocketSettings.DEFAULT;
+
+    /**
+     * TLS settings.
+     */
+    @NonNull
+    @Builder.Default
+    private final TlsSettings               tls       = TlsSettings.DISABLED;
+
+    /**
+     * Metrics for the transactions. Can be shared by several clients. If {@code null}, the bytes of each message are not
+     * measured.
+     */
+    private final TransactionMetrics        transactionMetrics;
+
+    /**
+     * Transport. If it is not available, NIO is used instead.
+     */
+    @NonNull
+    @Builder.Default
+    private final Transport                 transport = Transport.AUTO;
+
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * Encodes messages into buffers taken from an allocator. With a pooled allocator this avoids creating a new array for
+ * each message.
+ * <p>
+ * Messages are always UTF-8 on the wire, whatever the platform charset. The pipeline codecs use the same
+ * {@link #CHARSET}, so what is sent by any path is read back the same way.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class MessageBuffers {
+
+    /**
+     * Charset for the messages on the wire.
+     */
+    public static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * Encodes the message with the wire charset, straight into a direct buffer.
+     *
+     * @param allocator
+     *            allocator for the buffer
+     * @param message
+     *            message to encode
+     * @return the encoded message
+     */
+    public static final ByteBuf encode(final ByteBufAllocator allocator, final String message) {
+        return encodeUtf8(allocator, message);
+    }
+
+    /**
+     * Encodes the message as UTF-8, straight into a direct buffer.
+     *
+     * @param allocator
+     *            allocator for the buffer
+     * @param message
+     *            message to encode
+     * @return the encoded message
+     */
+    public static final ByteBuf encodeUtf8(final ByteBufAllocator allocator, final CharSequence message) {
+        final ByteBuf buffer;
+
+        buffer = allocator.directBuffer(ByteBufUtil.utf8MaxBytes(message));
+        ByteBufUtil.writeUtf8(buffer, message);
+
+        return buffer;
+    }
+
+    /**
+     * Utility class.
+     */
+    private MessageBuffers() {
+        super();
+    }
+
+}
@@ -24,19 +24,37 @@
 
 package com.bernardomg.example.netty.tcp.client;
 
-import java.nio.charset.Charset;
+import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
 import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelInitializer;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.channel.ResponseCorrelationHandler;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.channel.WritabilityHandler;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
 
 import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.internal.PlatformDependent;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -49,32 +67,100 @@
 public final class NettyTcpClient implements Client {
 
     /**
-     * Main channel. For sending messages and reacting to responses.
+     * Bootstrap used for the first connection. Cloned for each reconnection attempt.
      */
-    private Channel                   channel;
+    private Bootstrap                               bootstrap;
 
     /**
-     * Client event loop. Used when closing the client.
+     * Main channel. For sending messages and reacting to responses. Replaced after reconnecting.
      */
-    private final EventLoopGroup      eventLoopGroup = new NioEventLoopGroup();
+    private volatile Channel                        channel;
+
+    /**
+     * Flags the client is being closed, so losing the connection is expected.
+     */
+    private volatile boolean                        closing;
+
+    /**
+     * Client configuration. Applied to each connection.
+     */
+    private final ClientConfiguration               configuration;
+
+    /**
+     * Flags the responses are correlated. Without framing reads are not responses, so they can't be correlated.
+     */
+    private final boolean                           correlating;
+
+    /**
+     * Creates the response correlator for the channel.
+     */
+    private final Supplier<ResponseCorrelator>      correlatorFactory;
+
+    /**
+     * Client event loop. Shut down when closing the client, unless it is shared.
+     */
+    private final EventLoopGroup                    eventLoopGroup;
 
     /**
      * Host for the server to which this client will connect.
      */
-    private final String              host;
+    private final String                            host;
+
+    /**
+     * Initializes the channel, and those opened when reconnecting.
+     */
+    private final MessageListenerChannelInitializer initializer;
 
     /**
      * Transaction listener. Reacts to events during the request.
      */
-    private final TransactionListener listener;
+    private final TransactionListener               listener;
+
+    /**
+     * Requests kept while reconnecting. Sent once the connection is recovered. {@code null} if nothing is kept.
+     */
+    private final Queue<Runnable>                   pending;
 
     /**
      * Port for the server to which this client will connect.
      */
-    private final Integer             port;
+    private final Integer                           port;
+
+    /**
+     * Flags the connection was lost and the client is trying to recover it.
+     */
+    private volatile boolean                        reconnecting;
+
+    /**
+     * Reconnection settings.
+     */
+    private final ReconnectSettings                 reconnectSettings;
+
+    /**
+     * Flags the event loop group is shared. If so, it is not shut down when closing.
+     */
+    private final boolean                           sharedEventLoopGroup;
+
+    /**
+     * Socket options. Applied to each connection.
+     */
+    private final SocketSettings                    socketSettings;
+
+    /**
+     * Creates the TLS handler for the channel. Kept between reconnections, so they resume the TLS session. {@code null}
+     * if the connection is plaintext.
+     */
+    private final TlsHandlerFactory                 tlsHandlers;
+
+    /**
+     * Transport used by the client. Defines the event loop and channel implementations.
+     */
+    private final Transport                         transport;
 
     /**
      * Constructs a client for the received host. The transaction listener will react to events when calling the server.
+     * <p>
+     * The best transport available will be used.
      *
      * @param hst
      *            host for the client to connect
@@ -84,27 +170,90 @@ public final class NettyTcpClient implements Client {
      *            transaction listener
      */
     public NettyTcpClient(final String hst, final Integer prt, final TransactionListener lst) {
+        this(hst, prt, lst, ClientConfiguration.DEFAULT, FifoResponseCorrelator::new);
+    }
+
+    /**
+     * Constructs a client for the received host, using the received configuration and response correlation. The
+     * transaction listener will react to events when calling the server.
+     * <p>
+     * If the transport is not available, NIO will be used instead.
+     *
+     * @param hst
+     *            host for the client to connect
+     * @param prt
+     *            host port to connect
+     * @param lst
+     *            transaction listener
+     * @param config
+     *            client configuration
+     * @param correlators
+     *            creates the response correlator for the channel
+     */
+    public NettyTcpClient(final String hst, final Integer prt, final TransactionListener lst,
+            final ClientConfiguration config, final Supplier<ResponseCorrelator> correlators) {
         super();
 
         port = Objects.requireNonNull(prt);
         host = Objects.requireNonNull(hst);
         listener = Objects.requireNonNull(lst);
+        correlatorFactory = Objects.requireNonNull(correlators);
+        configuration = Objects.requireNonNull(config);
+        correlating = !Framing.NONE.equals(config.getPipeline()
+            .getFraming());
+        reconnectSettings = config.getReconnect();
+        socketSettings = config.getSocket();
+        transport = config.getTransport()
+            .resolve();
+
+        if (config.getEventLoopGroup() == null) {
+            eventLoopGroup = transport.createEventLoopGroup(config.getEventLoop());
+            sharedEventLoopGroup = false;
+        } else {
+            // Belongs to someone else, who will shut it down
+            eventLoopGroup = config.getEventLoopGroup();
+            sharedEventLoopGroup = true;
+        }
+
+        if (reconnectSettings.isEnabled() && (reconnectSettings.getBufferSize() > 0)) {
+            pending = PlatformDependent.newFixedMpscQueue(reconnectSettings.getBufferSize());
+        } else {
+            pending = null;
+        }
+
+        if (config.getTls()
+            .isEnabled()) {
+            tlsHandlers = new TlsHandlerFactory(config.getTls());
+        } else {
+            tlsHandlers = null;
+        }
+
+        // Kept for the channels opened when reconnecting
+        initializer = new MessageListenerChannelInitializer(listener, correlatorFactory, configuration, tlsHandlers,
+            InetSocketAddress.createUnresolved(host, port));
     }
 
     @Override
     public final void close() {
         log.trace("Stopping client");
 
+        // Set before closing the connection, so it is not recovered
+        closing = true;
+
         listener.onStop();
 
-        eventLoopGroup.shutdownGracefully();
+        if (!sharedEventLoopGroup) {
+            // Closes the connection too
+            eventLoopGroup.shutdownGracefully();
+        } else if (channel != null) {
+            channel.close();
+        }
 
         log.trace("Stopped client");
     }
 
     @Override
     public final void connect() {
-        final Bootstrap     bootstrap;
         final ChannelFuture channelFuture;
 
         log.trace("Starting client");
@@ -116,14 +265,14 @@ public final void connect() {
             // Registers groups
             .group(eventLoopGroup)
             // Defines channel
-            .channel(NioSocketChannel.class)
-            // Configuration
-            .option(ChannelOption.SO_KEEPALIVE, true)
+            .channel(transport.getChannelClass())
             // Sets channel initializer which listens for responses
-            .handler(new MessageListenerChannelInitializer(listener));
+            .handler(initializer);
+        // Configuration
+        socketSettings.apply(bootstrap, transport);
 
         try {
-            log.debug("Connecting to {}:{}", host, port);
+            log.debug("Connecting to {}:{} using {} transport", host, port, transport);
             channelFuture = bootstrap.connect(host, port)
                 .sync();
         } catch (final InterruptedException e) {
@@ -132,23 +281,432 @@ public final void connect() {
         }
 
         channel = channelFuture.channel();
+        watch(channel);
 
         log.trace("Started client");
     }
 
+    @Override
+    public final CompletableFuture<String> exchange(final String message, final Duration timeout) {
+        final CompletableFuture<String> response;
+
+        log.trace("Exchanging {}", message);
+
+        response = new CompletableFuture<String>().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        submit(() -> {
+            final Channel ch;
+
+            ch = channel;
+            // Registered and written in the event loop, so the correlator sees the requests in the same order as the
+            // server
+            ch.eventLoop()
+                .execute(() -> {
+                    final ResponseCorrelator correlator;
+
+                    correlator = ch.attr(ResponseCorrelationHandler.CORRELATOR)
+                        .get();
+                    correlator.register(message, response);
+                    response.whenComplete((result, error) -> {
+                        if ((error instanceof TimeoutException) && correlator.expire(response)) {
+                            log.warn("Too many requests timed out, closing channel");
+                            ch.close();
+                        }
+                    });
+                    ch.writeAndFlush(MessageBuffers.encode(ch.alloc(), message))
+                        .addListener(future -> {
+                            if (future.isSuccess()) {
+                                listener.onSend(message);
+                            } else {
+                                log.error("Request failed");
+                                correlator.unregister(response);
+                                response.completeExceptionally(future.cause());
+                            }
+                        });
+                });
+        }, () -> response.completeExceptionally(new RejectedExecutionException("Reconnection buffer is full")));
+
+        return response;
+    }
+
+    @Override
+    public final void flush() {
+        log.trace("Flushing");
+
+        // While reconnecting writes are kept, and flushed once reconnected
+        if (!reconnecting) {
+            channel.flush();
+        }
+    }
+
+    @Override
+    public final void request(final ByteBuf message) {
+        final ByteBuf sent;
+
+        log.trace("Sending {} bytes", message.readableBytes());
+
+        // Kept until the write ends, for the listener
+        sent = message.retainedSlice();
+
+        // send message to server
+        submit(() -> {
+            final Channel ch;
+
+            ch = channel;
+            // Written in the event loop, so the correlator sees the requests in the same order as the server
+            ch.eventLoop()
+                .execute(() -> {
+                    skip(ch);
+                    ch.writeAndFlush(message)
+                        .addListener(future -> {
+                            try {
+                                if (future.isSuccess()) {
+                                    listener.onSend(sent);
+                                } else {
+                                    log.error("Request failed");
+                                }
+                            } finally {
+                                sent.release();
+                            }
+                        });
+                });
+        }, () -> {
+                log.error("Request rejected, reconnection buffer is full");
+                sent.release();
+                message.release();
+            });
+    }
+
+    /**
+     * Sends the message through the connection, encoded as UTF-8.
+     * <p>
+     * The message is encoded straight into a pooled direct buffer, so no intermediate array is created.
+     *
+     * @param message
+     *            message to send
+     */
+    public final void request(final CharSequence message) {
+        log.trace("Sending {}", message);
+
+        // send message to server
+        submit(() -> {
+            final Channel ch;
+
+            ch = channel;
+            // Written in the event loop, so the correlator sees the requests in the same order as the server
+            ch.eventLoop()
+                .execute(() -> {
+                    skip(ch);
+                    ch.writeAndFlush(MessageBuffers.encodeUtf8(ch.alloc(), message))
+                        .addListener(future -> {
+                            if (future.isSuccess()) {
+                                listener.onSend(message.toString());
+                            } else {
+                                log.error("Request failed");
+                            }
+                        });
+                });
+        }, () -> log.error("Request rejected, reconnection buffer is full"));
+    }
+
     @Override
     public final void request(final String message) {
-        log.debug("Sending {}", message);
+        log.trace("Sending {}", message);
 
         // send message to server
-        channel.writeAndFlush(Unpooled.wrappedBuffer(message.getBytes(Charset.defaultCharset())))
-            .addListener(future -> {
-                if (future.isSuccess()) {
-                    listener.onSend(message);
-                } else {
-                    log.error("Request failed");
+        submit(() -> {
+            final Channel ch;
+
+            ch = channel;
+            // Written in the event loop, so the correlator sees the requests in the same order as the server
+            ch.eventLoop()
+                .execute(() -> {
+                    skip(ch);
+                    ch.writeAndFlush(MessageBuffers.encode(ch.alloc(), message))
+                        .addListener(future -> {
+                            if (future.isSuccess()) {
+                                listener.onSend(message);
+                            } else {
+                                log.error("Request failed");
+                            }
+                        });
+                });
+        }, () -> log.error("Request rejected, reconnection buffer is full"));
+    }
+
+    /**
+     * Sends the message through the connection, once it is writable. Waits until the outbound buffer is under its low
+     * water mark, so a fast producer is slowed down to the pace of the server.
+     * <p>
+     * Blocks the calling thread, so it can't be called from the event loop.
+     *
+     * @param message
+     *            message to send
+     * @param timeout
+     *            maximum time to wait for the connection to be writable
+     * @return {@code true} if the message was sent, {@code false} if the connection wasn't writable in time
+     */
+    public final boolean request(final String message, final Duration timeout) {
+        boolean writable;
+
+        if (channel.eventLoop()
+            .inEventLoop()) {
+            throw new IllegalStateException("Can't wait for writability from the event loop");
+        }
+
+        try {
+            whenWritable().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            writable = true;
+        } catch (final TimeoutException e) {
+            log.debug("Connection not writable after {}", timeout);
+            writable = false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        if (writable) {
+            request(message);
+        }
+
+        return writable;
+    }
+
+    @Override
+    public final void setWireLogging(final WireLogging mode) {
+        final PipelineSettings pipeline;
+        final Channel          ch;
+
+        // Kept for the channels opened when reconnecting
+        initializer.setWireLogging(mode);
+
+        ch = channel;
+        if (ch != null) {
+            pipeline = configuration.getPipeline();
+            MessageListenerChannelInitializer.setWireLogging(ch.pipeline(), mode, pipeline.getWireLogSampleRate(),
+                pipeline.getWireLogMaxBytes());
+        }
+    }
+
+    /**
+     * Returns a future which completes once the connection is writable. Producers can chain their requests to it, to
+     * stop sending while the server is not reading.
+     * <p>
+     * While reconnecting the future is completed at once, as requests are kept by the client.
+     *
+     * @return a future completed once the connection is writable
+     */
+    public final CompletableFuture<Void> whenWritable() {
+        final Channel                 ch;
+        final WritabilityHandler      handler;
+        final CompletableFuture<Void> writable;
+
+        ch = channel;
+        handler = ch.pipeline()
+            .get(WritabilityHandler.class);
+        if (reconnecting || (handler == null)) {
+            writable = CompletableFuture.completedFuture(null);
+        } else {
+            writable = handler.whenWritable();
+        }
+
+        return writable;
+    }
+
+    @Override
+    public final void write(final String message) {
+        log.trace("Writing {}", message);
+
+        // write message, it is sent on the next flush
+        submit(() -> {
+            final Channel ch;
+
+            ch = channel;
+            // Written in the event loop, so the correlator sees the requests in the same order as the server
+            ch.eventLoop()
+                .execute(() -> {
+                    skip(ch);
+                    ch.write(MessageBuffers.encode(ch.alloc(), message))
+                        .addListener(future -> {
+                            if (future.isSuccess()) {
+                                listener.onSend(message);
+                            } else {
+                                log.error("Write failed");
+                            }
+                        });
+                });
+        }, () -> log.error("Write rejected, reconnection buffer is full"));
+    }
+
+    /**
+     * Returns the delay before the received reconnection attempt. It grows exponentially up to the maximum delay, and
+     * then the jitter is applied.
+     *
+     * @param attempt
+     *            attempt number, starting at 1
+     * @return delay before the attempt
+     */
+    private final Duration backoff(final int attempt) {
+        final double base;
+        final double jitter;
+        final double factor;
+
+        base = Math.min(reconnectSettings.getMaxDelay()
+            .toNanos(),
+            reconnectSettings.getInitialDelay()
+                .toNanos() * Math.pow(reconnectSettings.getMultiplier(), attempt - 1));
+        jitter = reconnectSettings.getJitter();
+        factor = (1 - jitter) + (ThreadLocalRandom.current()
+            .nextDouble() * 2 * jitter);
+
+        return Duration.ofNanos((long) (base * factor));
+    }
+
+    /**
+     * Sends all the requests kept while reconnecting. Should be called from the event loop.
+     */
+    private final void drainPending() {
+        Runnable action;
+
+        if (pending != null) {
+            action = pending.poll();
+            while (action != null) {
+                action.run();
+                action = pending.poll();
+            }
+            channel.flush();
+        }
+    }
+
+    /**
+     * Reacts to the channel being closed. Unless the client is closing, the connection is recovered.
+     *
+     * @param closed
+     *            closed channel
+     */
+    private final void onChannelClosed(final Channel closed) {
+        if (!closing) {
+            log.warn("Lost connection to {}:{}", host, port);
+            listener.onDisconnect();
+            if (reconnectSettings.isEnabled()) {
+                reconnecting = true;
+                reconnect(closed.eventLoop(), 1);
+            }
+        }
+    }
+
+    /**
+     * Reacts to the connection being recovered. The kept requests are sent through the new channel.
+     *
+     * @param recovered
+     *            new channel
+     */
+    private final void onReconnected(final Channel recovered) {
+        log.info("Reconnected to {}:{}", host, port);
+
+        channel = recovered;
+        watch(recovered);
+
+        listener.onReconnect();
+
+        drainPending();
+        reconnecting = false;
+        // Requests may have been kept while the flag changed
+        drainPending();
+    }
+
+    /**
+     * Schedules a reconnection attempt. Each failed attempt schedules the next one, until the maximum attempts are
+     * reached.
+     *
+     * @param loop
+     *            event loop for the new channel
+     * @param attempt
+     *            attempt number, starting at 1
+     */
+    private final void reconnect(final EventLoop loop, final int attempt) {
+        final Duration delay;
+        final int      maxAttempts;
+
+        maxAttempts = reconnectSettings.getMaxAttempts();
+        if (closing) {
+            log.debug("Client closing, stopped reconnecting");
+        } else if ((maxAttempts > 0) && (attempt > maxAttempts)) {
+            log.error("Gave up reconnecting to {}:{} after {} attempts", host, port, maxAttempts);
+            reconnecting = false;
+            // Kept requests fail on the closed channel
+            drainPending();
+        } else {
+            delay = backoff(attempt);
+            log.debug("Reconnection attempt {} in {}", attempt, delay);
+            listener.onReconnecting(attempt, delay);
+            loop.schedule(() -> {
+                if (!closing) {
+                    // Cloned into the same loop, so the kept requests stay on a single thread
+                    bootstrap.clone(loop)
+                        .connect(host, port)
+                        .addListener((ChannelFutureListener) future -> {
+                            if (future.isSuccess()) {
+                                onReconnected(future.channel());
+                            } else {
+                                log.debug("Reconnection attempt {} failed: {}", attempt, future.cause()
+                                    .getLocalizedMessage());
+                                reconnect(loop, attempt + 1);
+                            }
+                        });
                 }
-            });
+            }, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Keeps the place of a request which doesn't wait for a response in the channel correlator. Without framing reads
+     * are not responses, so nothing is kept. Should be called from the event loop, right before writing the request.
+     *
+     * @param ch
+     *            channel the request is written into
+     */
+    private final void skip(final Channel ch) {
+        if (correlating) {
+            ch.attr(ResponseCorrelationHandler.CORRELATOR)
+                .get()
+                .skip();
+        }
+    }
+
+    /**
+     * Runs the send action. While reconnecting the action is kept until the connection is recovered, unless there is no
+     * more space for it, in which case it is rejected.
+     *
+     * @param action
+     *            sends the request
+     * @param rejection
+     *            reacts to the request being rejected
+     */
+    private final void submit(final Runnable action, final Runnable rejection) {
+        if (!reconnecting) {
+            action.run();
+        } else if ((pending == null) || !pending.offer(action)) {
+            rejection.run();
+        } else if (!reconnecting) {
+            // Reconnected while keeping the request, it may have been missed
+            channel.eventLoop()
+                .execute(this::drainPending);
+        }
+    }
+
+    /**
+     * Watches the channel, to react when it is closed.
+     *
+     * @param watched
+     *            channel to watch
+     */
+    private final void watch(final Channel watched) {
+        watched.closeFuture()
+            .addListener(future -> onChannelClosed(watched));
     }
 
 }
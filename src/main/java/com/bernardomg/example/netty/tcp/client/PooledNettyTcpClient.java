@@ -0,0 +1,502 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelPoolHandler;
+import com.bernardomg.example.netty.tcp.client.channel.ResponseCorrelationHandler;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.pool.FixedChannelPool.AcquireTimeoutAction;
+import io.netty.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Netty based TCP client which keeps a pool of channels for each host. All the pools share a single event loop group.
+ * <p>
+ * Each request acquires a channel from the pool, and releases it once the message has been written. Channels are
+ * checked before being handed, and those which stay idle for too long are closed.
+ * <p>
+ * Written messages are batched by host. The first write to a host acquires a channel, which is kept for the writes
+ * that follow, and released when flushing.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class PooledNettyTcpClient implements Client {
+
+    /**
+     * Default address. Used by the requests which don't specify an address.
+     */
+    private final InetSocketAddress                                     address;
+
+    /**
+     * Channels holding written messages which haven't been flushed, by address.
+     */
+    private final Map<InetSocketAddress, Future<Channel>>               batches = new ConcurrentHashMap<>();
+
+    /**
+     * Client configuration. Applied to each channel.
+     */
+    private final ClientConfiguration                                   configuration;
+
+    /**
+     * Flags the responses are correlated. Without framing reads are not responses, so they can't be correlated.
+     */
+    private final boolean                                               correlating;
+
+    /**
+     * Creates the response correlator for each channel.
+     */
+    private final Supplier<ResponseCorrelator>                          correlatorFactory;
+
+    /**
+     * Client event loop. Shared by all the pools. Shut down when closing the client, unless it is shared with other
+     * clients.
+     */
+    private final EventLoopGroup                                        eventLoopGroup;
+
+    /**
+     * Transaction listener. Reacts to events during the request.
+     */
+    private final TransactionListener                                   listener;
+
+    /**
+     * Channel pools, one for each host.
+     */
+    private AbstractChannelPoolMap<InetSocketAddress, FixedChannelPool> pools;
+
+    /**
+     * Channel pool settings.
+     */
+    private final ChannelPoolSettings                                   settings;
+
+    /**
+     * Flags the event loop group is shared. If so, it is not shut down when closing.
+     */
+    private final boolean                                               sharedEventLoopGroup;
+
+    /**
+     * Socket options. Applied to each connection.
+     */
+    private final SocketSettings                                        socketSettings;
+
+    /**
+     * Creates the TLS handler for each channel. Shared by all the pools, so new channels resume the TLS sessions of
+     * previous ones. {@code null} if the connections are plaintext.
+     */
+    private final TlsHandlerFactory                                     tlsHandlers;
+
+    /**
+     * Wire logging mode. Applied to new channels, and to pooled channels when acquired.
+     */
+    private volatile WireLogging                                        wireLogging;
+
+    /**
+     * Transport used by the client. Defines the event loop and channel implementations.
+     */
+    private final Transport                                             transport;
+
+    /**
+     * Constructs a pooled client for the received host, using the received configuration and response correlation.
+     * The transaction listener will react to events when calling the server.
+     * <p>
+     * The reconnection settings are ignored, as the pool opens new connections when needed.
+     *
+     * @param hst
+     *            default host for the client to connect
+     * @param prt
+     *            default host port to connect
+     * @param lst
+     *            transaction listener
+     * @param config
+     *            client configuration
+     * @param sttngs
+     *            channel pool settings
+     * @param correlators
+     *            creates the response correlator for each channel
+     */
+    public PooledNettyTcpClient(final String hst, final Integer prt, final TransactionListener lst,
+            final ClientConfiguration config, final ChannelPoolSettings sttngs,
+            final Supplier<ResponseCorrelator> correlators) {
+        super();
+
+        address = InetSocketAddress.createUnresolved(Objects.requireNonNull(hst), Objects.requireNonNull(prt));
+        listener = Objects.requireNonNull(lst);
+        transport = config.getTransport()
+            .resolve();
+        settings = Objects.requireNonNull(sttngs);
+        correlatorFactory = Objects.requireNonNull(correlators);
+        configuration = Objects.requireNonNull(config);
+        wireLogging = config.getPipeline()
+            .getWireLogging();
+        correlating = !Framing.NONE.equals(config.getPipeline()
+            .getFraming());
+        socketSettings = config.getSocket();
+
+        if (config.getTls()
+            .isEnabled()) {
+            tlsHandlers = new TlsHandlerFactory(config.getTls());
+        } else {
+            tlsHandlers = null;
+        }
+
+        if (config.getEventLoopGroup() == null) {
+            eventLoopGroup = transport.createEventLoopGroup(config.getEventLoop());
+            sharedEventLoopGroup = false;
+        } else {
+            // Belongs to someone else, who will shut it down
+            eventLoopGroup = config.getEventLoopGroup();
+            sharedEventLoopGroup = true;
+        }
+    }
+
+    @Override
+    public final void close() {
+        log.trace("Stopping client");
+
+        listener.onStop();
+
+        if (pools != null) {
+            pools.close();
+        }
+        if (!sharedEventLoopGroup) {
+            eventLoopGroup.shutdownGracefully();
+        }
+
+        log.trace("Stopped client");
+    }
+
+    @Override
+    public final void connect() {
+        final Bootstrap bootstrap;
+
+        log.trace("Starting client");
+
+        listener.onStart();
+
+        bootstrap = new Bootstrap();
+        bootstrap
+            // Registers groups
+            .group(eventLoopGroup)
+            // Defines channel
+            .channel(transport.getChannelClass());
+        // Configuration
+        socketSettings.apply(bootstrap, transport);
+
+        pools = new AbstractChannelPoolMap<>() {
+
+            @Override
+            protected final FixedChannelPool newPool(final InetSocketAddress key) {
+                log.debug("Creating pool for {}:{} using {} transport", key.getHostString(), key.getPort(), transport);
+                return new FixedChannelPool(bootstrap.clone()
+                    .remoteAddress(key), new MessageListenerChannelPoolHandler(listener, correlatorFactory,
+                        configuration, () -> wireLogging, settings.getIdleTimeout(), tlsHandlers, key),
+                    ChannelHealthChecker.ACTIVE, AcquireTimeoutAction.FAIL, settings.getAcquireTimeout()
+                        .toMillis(),
+                    settings.getMaxConnections(), settings.getMaxPendingAcquires(), true, true);
+            }
+
+        };
+
+        log.trace("Started client");
+    }
+
+    /**
+     * Sends the message to the received address, and returns its response. A channel is taken from the pool of said
+     * address, and returned once the message is written.
+     *
+     * @param target
+     *            address to send the message to
+     * @param message
+     *            message to send
+     * @param timeout
+     *            time to wait for the response
+     * @return a future with the response
+     */
+    public final CompletableFuture<String> exchange(final InetSocketAddress target, final String message,
+            final Duration timeout) {
+        final CompletableFuture<String> response;
+        final FixedChannelPool          pool;
+
+        log.trace("Exchanging {} with {}", message, target);
+
+        response = new CompletableFuture<String>().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        pool = pools.get(target);
+        pool.acquire()
+            .addListener((final Future<Channel> acquired) -> {
+                final Channel            channel;
+                final ResponseCorrelator correlator;
+
+                if (acquired.isSuccess()) {
+                    channel = acquired.getNow();
+                    correlator = channel.attr(ResponseCorrelationHandler.CORRELATOR)
+                        .get();
+                    // The channel is held until the write ends, so requests are registered in writing order
+                    correlator.register(message, response);
+                    response.whenComplete((result, error) -> {
+                        if ((error instanceof TimeoutException) && correlator.expire(response)) {
+                            log.warn("Too many requests timed out, closing channel");
+                            channel.close();
+                        }
+                    });
+                    channel.writeAndFlush(MessageBuffers.encode(channel.alloc(), message))
+                        .addListener(future -> {
+                            pool.release(channel);
+                            if (future.isSuccess()) {
+                                listener.onSend(message);
+                            } else {
+                                log.error("Request failed: {}", future.cause()
+                                    .getLocalizedMessage());
+                                correlator.unregister(response);
+                                response.completeExceptionally(future.cause());
+                            }
+                        });
+                } else {
+                    log.error("Could not acquire channel to {}", target, acquired.cause());
+                    response.completeExceptionally(acquired.cause());
+                }
+            });
+
+        return response;
+    }
+
+    @Override
+    public final CompletableFuture<String> exchange(final String message, final Duration timeout) {
+        return exchange(address, message, timeout);
+    }
+
+    @Override
+    public final void flush() {
+        Future<Channel> batch;
+
+        log.trace("Flushing");
+
+        for (final InetSocketAddress target : batches.keySet()) {
+            batch = batches.remove(target);
+            if (batch != null) {
+                // Runs after the writes listening to the same acquisition
+                batch.addListener((final Future<Channel> acquired) -> {
+                    final Channel channel;
+
+                    if (acquired.isSuccess()) {
+                        channel = acquired.getNow();
+                        channel.flush();
+                        pools.get(target)
+                            .release(channel);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Sends the buffer to the received address, as it is. A channel is taken from the pool of said address, and
+     * returned once the buffer is written.
+     * <p>
+     * The client takes ownership of the buffer, which is released once written.
+     *
+     * @param target
+     *            address to send the buffer to
+     * @param message
+     *            message to send
+     */
+    public final void request(final InetSocketAddress target, final ByteBuf message) {
+        final FixedChannelPool pool;
+        final ByteBuf          sent;
+
+        log.trace("Sending {} bytes to {}", message.readableBytes(), target);
+
+        // Kept until the write ends, for the listener
+        sent = message.retainedSlice();
+
+        pool = pools.get(target);
+        pool.acquire()
+            .addListener((final Future<Channel> acquired) -> {
+                final Channel channel;
+
+                if (acquired.isSuccess()) {
+                    channel = acquired.getNow();
+                    // The channel is held until the write ends, so the request keeps its place in the correlator
+                    skip(channel);
+                    // send message to server
+                    channel.writeAndFlush(message)
+                        .addListener(future -> {
+                            pool.release(channel);
+                            try {
+                                if (future.isSuccess()) {
+                                    listener.onSend(sent);
+                                } else {
+                                    log.error("Request failed: {}", future.cause()
+                                        .getLocalizedMessage());
+                                }
+                            } finally {
+                                sent.release();
+                            }
+                        });
+                } else {
+                    log.error("Could not acquire channel to {}", target, acquired.cause());
+                    sent.release();
+                    message.release();
+                }
+            });
+    }
+
+    /**
+     * Sends the message to the received address. A channel is taken from the pool of said address, and returned once
+     * the message is written.
+     *
+     * @param target
+     *            address to send the message to
+     * @param message
+     *            message to send
+     */
+    public final void request(final InetSocketAddress target, final String message) {
+        final FixedChannelPool pool;
+
+        log.trace("Sending {} to {}", message, target);
+
+        pool = pools.get(target);
+        pool.acquire()
+            .addListener((final Future<Channel> acquired) -> {
+                final Channel channel;
+
+                if (acquired.isSuccess()) {
+                    channel = acquired.getNow();
+                    // The channel is held until the write ends, so the request keeps its place in the correlator
+                    skip(channel);
+                    // send message to server
+                    channel.writeAndFlush(MessageBuffers.encode(channel.alloc(), message))
+                        .addListener(future -> {
+                            pool.release(channel);
+                            if (future.isSuccess()) {
+                                listener.onSend(message);
+                            } else {
+                                log.error("Request failed: {}", future.cause()
+                                    .getLocalizedMessage());
+                            }
+                        });
+                } else {
+                    log.error("Could not acquire channel to {}", target, acquired.cause());
+                }
+            });
+    }
+
+    @Override
+    public final void request(final ByteBuf message) {
+        request(address, message);
+    }
+
+    @Override
+    public final void request(final String message) {
+        request(address, message);
+    }
+
+    @Override
+    public final void setWireLogging(final WireLogging mode) {
+        // Pooled channels change once acquired
+        wireLogging = Objects.requireNonNull(mode);
+    }
+
+    /**
+     * Writes the message to the received address, without flushing it. The channel for the address batch is acquired on
+     * the first write, and released on the next flush.
+     *
+     * @param target
+     *            address to write the message to
+     * @param message
+     *            message to write
+     */
+    public final void write(final InetSocketAddress target, final String message) {
+        final Future<Channel> batch;
+
+        log.trace("Writing {} to {}", message, target);
+
+        batch = batches.computeIfAbsent(target, key -> pools.get(key)
+            .acquire());
+        batch.addListener((final Future<Channel> acquired) -> {
+            final Channel channel;
+
+            if (acquired.isSuccess()) {
+                channel = acquired.getNow();
+                skip(channel);
+                // write message, it is sent on the next flush
+                channel.write(MessageBuffers.encode(channel.alloc(), message))
+                    .addListener(future -> {
+                        if (future.isSuccess()) {
+                            listener.onSend(message);
+                        } else {
+                            log.error("Write failed");
+                        }
+                    });
+            } else {
+                log.error("Could not acquire channel to {}", target, acquired.cause());
+            }
+        });
+    }
+
+    @Override
+    public final void write(final String message) {
+        write(address, message);
+    }
+
+    /**
+     * Keeps the place of a request which doesn't wait for a response in the channel correlator. Without framing reads
+     * are not responses, so nothing is kept. Should be called right before writing the request.
+     *
+     * @param channel
+     *            channel the request is written into
+     */
+    private final void skip(final Channel channel) {
+        if (correlating) {
+            channel.attr(ResponseCorrelationHandler.CORRELATOR)
+                .get()
+                .skip();
+        }
+    }
+
+}
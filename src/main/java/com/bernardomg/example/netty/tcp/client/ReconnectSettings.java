@@ -0,0 +1,95 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for reconnecting when the connection is lost. The delay between attempts grows exponentially, with some
+ * random jitter so several clients don't retry at the same time.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class ReconnectSettings {
+
+    /**
+     * No reconnection. Once the connection is lost, requests fail.
+     */
+    public static final ReconnectSettings DISABLED     = ReconnectSettings.builder()
+        .enabled(false)
+        .build();
+
+    /**
+     * Maximum requests kept while reconnecting. Once reached, new requests are rejected.
+     */
+    @Builder.Default
+    private final int                     bufferSize   = 1024;
+
+    /**
+     * Flags that the client should reconnect.
+     */
+    @Builder.Default
+    private final boolean                 enabled      = true;
+
+    /**
+     * Delay before the first attempt.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration                initialDelay = Duration.ofMillis(100);
+
+    /**
+     * Random variation for each delay, as a fraction of it. With 0.2, delays vary between 80% and 120%.
+     */
+    @Builder.Default
+    private final double                  jitter       = 0.2;
+
+    /**
+     * Maximum number of attempts. Zero for no limit.
+     */
+    @Builder.Default
+    private final int                     maxAttempts  = 0;
+
+    /**
+     * Maximum delay between attempts.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration                maxDelay     = Duration.ofSeconds(30);
+
+    /**
+     * Factor applied to the delay after each failed attempt.
+     */
+    @Builder.Default
+    private final double                  multiplier   = 2;
+
+}
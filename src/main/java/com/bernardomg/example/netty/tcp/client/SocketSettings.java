@@ -0,0 +1,155 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client;
+
+import java.time.Duration;
+
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedRecvByteBufAllocator;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Socket options for the client connections. These allow tuning the latency/throughput trade-off.
+ * <p>
+ * Buffer sizes set to zero are left to the system. The quick ack and fast open options are only supported by the
+ * native transports, and are ignored otherwise.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+@Slf4j
+public final class SocketSettings {
+
+    /**
+     * Default settings. No delay, keep alive and pooled buffers.
+     */
+    public static final SocketSettings DEFAULT           = SocketSettings.builder()
+        .build();
+
+    /**
+     * Maximum time to establish the connection.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration             connectTimeout    = Duration.ofSeconds(30);
+
+    /**
+     * Sends data with the SYN packet when connecting, with TCP fast open.
+     */
+    @Builder.Default
+    private final boolean              fastOpenConnect   = false;
+
+    /**
+     * Enables TCP keep alive.
+     */
+    @Builder.Default
+    private final boolean              keepAlive         = true;
+
+    /**
+     * Uses pooled buffers. Otherwise each buffer is allocated on its own.
+     */
+    @Builder.Default
+    private final boolean              pooledAllocator   = true;
+
+    /**
+     * Acknowledges received data at once, instead of delaying the ack.
+     */
+    @Builder.Default
+    private final boolean              quickAck          = false;
+
+    /**
+     * Size of the buffer for each read, in bytes. Zero for an adaptive size, which grows and shrinks with the reads.
+     */
+    @Builder.Default
+    private final int                  readBufferSize    = 0;
+
+    /**
+     * Socket receive buffer size, in bytes. Zero for the system default.
+     */
+    @Builder.Default
+    private final int                  receiveBufferSize = 0;
+
+    /**
+     * Socket send buffer size, in bytes. Zero for the system default.
+     */
+    @Builder.Default
+    private final int                  sendBufferSize    = 0;
+
+    /**
+     * Disables Nagle's algorithm, so small writes are sent at once.
+     */
+    @Builder.Default
+    private final boolean              tcpNoDelay        = true;
+
+    /**
+     * Applies the socket options to the bootstrap.
+     *
+     * @param bootstrap
+     *            bootstrap to configure
+     * @param transport
+     *            transport used by the bootstrap
+     */
+    public final void apply(final Bootstrap bootstrap, final Transport transport) {
+        bootstrap.option(ChannelOption.SO_KEEPALIVE, keepAlive)
+            .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+
+        if (pooledAllocator) {
+            bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        } else {
+            bootstrap.option(ChannelOption.ALLOCATOR, UnpooledByteBufAllocator.DEFAULT);
+        }
+
+        if (readBufferSize > 0) {
+            bootstrap.option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(readBufferSize));
+        } else {
+            bootstrap.option(ChannelOption.RCVBUF_ALLOCATOR, new AdaptiveRecvByteBufAllocator());
+        }
+
+        if (receiveBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+        if (sendBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+
+        if ((quickAck || fastOpenConnect) && !transport.setNativeTcpOptions(bootstrap, quickAck, fastOpenConnect)) {
+            log.warn("Quick ack and fast open are not supported by the {} transport, ignoring them",
+                transport.resolve());
+        }
+    }
+
+}
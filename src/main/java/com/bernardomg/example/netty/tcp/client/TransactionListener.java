@@ -24,14 +24,44 @@
 
 package com.bernardomg.example.netty.tcp.client;
 
+import java.time.Duration;
+
+import io.netty.buffer.ByteBuf;
+
 /**
  * Transaction listener. Allows reacting to the events of a message transaction.
+ * <p>
+ * Messages may arrive as strings or, with binary payloads, as buffers. By default buffers are decoded with the default
+ * charset and handed to the string methods, so listeners only need to override the buffer methods to skip decoding.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
  */
 public interface TransactionListener {
 
+    /**
+     * Reacts to the connection being lost. If reconnecting is enabled, attempts will follow.
+     */
+    public default void onDisconnect() {}
+
+    /**
+     * Reacts to nothing being read for the read idle timeout. Repeated for as long as nothing is read.
+     */
+    public default void onIdle() {}
+
+    /**
+     * Reacts to a message being received as a buffer.
+     * <p>
+     * The buffer is only valid during the call, as it is released afterwards. It should not be released by the
+     * listener, and has to be retained or copied to keep it.
+     *
+     * @param message
+     *            message received
+     */
+    public default void onReceive(final ByteBuf message) {
+        onReceive(message.toString(MessageBuffers.CHARSET));
+    }
+
     /**
      * Reacts to a message being received.
      *
@@ -40,6 +70,34 @@ public interface TransactionListener {
      */
     public void onReceive(final String message);
 
+    /**
+     * Reacts to the connection being recovered.
+     */
+    public default void onReconnect() {}
+
+    /**
+     * Reacts to a reconnection attempt being scheduled.
+     *
+     * @param attempt
+     *            attempt number, starting at 1
+     * @param delay
+     *            time until the attempt
+     */
+    public default void onReconnecting(final int attempt, final Duration delay) {}
+
+    /**
+     * Reacts to a message being sent as a buffer.
+     * <p>
+     * The buffer is only valid during the call, as it is released afterwards. It should not be released by the
+     * listener, and has to be retained or copied to keep it.
+     *
+     * @param message
+     *            message sent
+     */
+    public default void onSend(final ByteBuf message) {
+        onSend(message.toString(MessageBuffers.CHARSET));
+    }
+
     /**
      * Reacts to a message being sent.
      *
@@ -58,4 +116,13 @@ public interface TransactionListener {
      */
     public void onStop();
 
+    /**
+     * Reacts to the connection writability changing. Once not writable, the outbound buffer is over its high water
+     * mark, and producers should slow down until it is writable again.
+     *
+     * @param writable
+     *            {@code true} if the connection is writable
+     */
+    public default void onWritabilityChanged(final boolean writable) {}
+
 }
@@ -0,0 +1,570 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Netty based TCP client which spreads the requests across several servers. There is a connection to each server, and
+ * all of them share a single event loop group.
+ * <p>
+ * The load balancer chooses the endpoint for each request. Exchanges track the health of the endpoints: those which
+ * fail too many requests in a row are ejected for a while, and receive no requests. If all the endpoints are ejected,
+ * requests go to any of them, as it is better than failing for sure. Requests and writes expect no response, so they
+ * don't change the endpoint health. With framing they still count as in flight until a response is read, so the load
+ * balancer sees all the traffic. Without framing reads are not responses, so only exchanges are counted.
+ * <p>
+ * Endpoints which can't be reached when connecting are ejected, and connected again once the ejection ends. Each
+ * failed attempt ejects them again, for longer.
+ * <p>
+ * Responses are told to the same listener, no matter which endpoint they come from. The listener sees a single client:
+ * it is told once about starting and stopping, about the connection being lost once no endpoint is connected, and
+ * about it being recovered once the first endpoint reconnects. Reconnection attempts of each endpoint are not told, as
+ * they say nothing about the client as a whole. Endpoints which lose their connection receive no requests until they
+ * reconnect.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class BalancedNettyTcpClient implements Client {
+
+    /**
+     * Listener for the client of a single endpoint. Keeps the endpoint connection state, and tells the client listener
+     * only about the events which concern the client as a whole.
+     *
+     * @author Bernardo Mart&iacute;nez Garrido
+     *
+     */
+    private final class EndpointListener implements TransactionListener {
+
+        /**
+         * Endpoint the events come from.
+         */
+        private final Endpoint endpoint;
+
+        /**
+         * Constructs a listener for the received endpoint.
+         *
+         * @param endpnt
+         *            endpoint the events come from
+         */
+        public EndpointListener(final Endpoint endpnt) {
+            super();
+
+            endpoint = Objects.requireNonNull(endpnt);
+        }
+
+        @Override
+        public final void onDisconnect() {
+            if (markDisconnected(endpoint)) {
+                listener.onDisconnect();
+            }
+        }
+
+        @Override
+        public final void onIdle() {
+            listener.onIdle();
+        }
+
+        @Override
+        public final void onReceive(final ByteBuf message) {
+            endpoint.onResponse();
+            listener.onReceive(message);
+        }
+
+        @Override
+        public final void onReceive(final String message) {
+            endpoint.onResponse();
+            listener.onReceive(message);
+        }
+
+        @Override
+        public final void onReconnect() {
+            if (markConnected(endpoint)) {
+                listener.onReconnect();
+            }
+        }
+
+        @Override
+        public final void onSend(final ByteBuf message) {
+            listener.onSend(message);
+        }
+
+        @Override
+        public final void onSend(final String message) {
+            listener.onSend(message);
+        }
+
+        @Override
+        public final void onStart() {
+            // Told once by the balanced client
+        }
+
+        @Override
+        public final void onStop() {
+            // Told once by the balanced client
+        }
+
+        @Override
+        public final void onWritabilityChanged(final boolean writable) {
+            listener.onWritabilityChanged(writable);
+        }
+
+    }
+
+    /**
+     * Chooses the endpoint for each request.
+     */
+    private final LoadBalancer          balancer;
+
+    /**
+     * Client for each endpoint.
+     */
+    private final Map<Endpoint, Client> clients   = new HashMap<>();
+
+    /**
+     * Flags the client is closing. Stops connecting to the unreachable endpoints.
+     */
+    private volatile boolean            closing;
+
+    /**
+     * Number of endpoints connected.
+     */
+    private final AtomicInteger         connected = new AtomicInteger();
+
+    /**
+     * Endpoints receiving the requests.
+     */
+    private final List<Endpoint>        endpoints = new ArrayList<>();
+
+    /**
+     * Client event loop. Shared by all the endpoints. Shut down when closing the client, unless it is shared with other
+     * clients.
+     */
+    private final EventLoopGroup        eventLoopGroup;
+
+    /**
+     * Flags the responses are counted. Without framing reads are not responses, so plain requests are not counted as
+     * in flight, as nothing would take them out.
+     */
+    private final boolean               framed;
+
+    /**
+     * Transaction listener. Reacts to events from all the endpoints.
+     */
+    private final TransactionListener   listener;
+
+    /**
+     * Load balancing settings.
+     */
+    private final BalancingSettings     settings;
+
+    /**
+     * Flags the event loop group is shared. If so, it is not shut down when closing.
+     */
+    private final boolean               sharedEventLoopGroup;
+
+    /**
+     * Constructs a client for the received servers, using the received configuration and response correlation. The
+     * transaction listener will react to events from all the servers.
+     *
+     * @param addresses
+     *            servers to connect
+     * @param lst
+     *            transaction listener
+     * @param config
+     *            client configuration, applied to each endpoint
+     * @param sttngs
+     *            load balancing settings
+     * @param correlators
+     *            creates the response correlator for each connection
+     */
+    public BalancedNettyTcpClient(final List<InetSocketAddress> addresses, final TransactionListener lst,
+            final ClientConfiguration config, final BalancingSettings sttngs,
+            final Supplier<ResponseCorrelator> correlators) {
+        super();
+
+        final ClientConfiguration endpointConfig;
+        Endpoint                  endpoint;
+
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+
+        listener = Objects.requireNonNull(lst);
+        settings = Objects.requireNonNull(sttngs);
+        framed = !Framing.NONE.equals(config.getPipeline()
+            .getFraming());
+        balancer = settings.getBalancing()
+            .createLoadBalancer();
+
+        if (config.getEventLoopGroup() == null) {
+            eventLoopGroup = config.getTransport()
+                .resolve()
+                .createEventLoopGroup(config.getEventLoop());
+            sharedEventLoopGroup = false;
+        } else {
+            // Belongs to someone else, who will shut it down
+            eventLoopGroup = config.getEventLoopGroup();
+            sharedEventLoopGroup = true;
+        }
+
+        // The endpoints share the event loop group, and none of them shuts it down
+        endpointConfig = config.toBuilder()
+            .eventLoopGroup(eventLoopGroup)
+            .build();
+        for (final InetSocketAddress address : addresses) {
+            endpoint = new Endpoint(address);
+            endpoints.add(endpoint);
+            clients.put(endpoint, new NettyTcpClient(address.getHostString(), address.getPort(),
+                new EndpointListener(endpoint), endpointConfig, correlators));
+        }
+    }
+
+    @Override
+    public final void close() {
+        log.trace("Stopping client");
+
+        closing = true;
+        listener.onStop();
+
+        clients.values()
+            .forEach(Client::close);
+        if (!sharedEventLoopGroup) {
+            eventLoopGroup.shutdownGracefully();
+        }
+
+        log.trace("Stopped client");
+    }
+
+    /**
+     * Connects to all the endpoints. Those which can't be reached are ejected, and connected again once the ejection
+     * ends. Fails only if no endpoint can be reached.
+     */
+    @Override
+    public final void connect() {
+        final List<Endpoint> unreachable;
+        RuntimeException     failure;
+
+        log.trace("Starting client");
+
+        listener.onStart();
+
+        unreachable = new ArrayList<>();
+        failure = null;
+        for (final Endpoint endpoint : endpoints) {
+            try {
+                clients.get(endpoint)
+                    .connect();
+                markConnected(endpoint);
+            } catch (final Exception e) {
+                // Netty rethrows connection errors as they are, even the checked ones
+                log.warn("Could not connect to {}: {}", endpoint, e.getLocalizedMessage());
+                unreachable.add(endpoint);
+                failure = new RuntimeException(e);
+            }
+        }
+
+        if (unreachable.size() == endpoints.size()) {
+            throw failure;
+        }
+
+        unreachable.forEach(this::ejectUnreachable);
+
+        log.trace("Started client");
+    }
+
+    @Override
+    public final CompletableFuture<String> exchange(final String message, final Duration timeout) {
+        final Endpoint endpoint;
+
+        endpoint = choose();
+        log.trace("Exchanging {} with {}", message, endpoint);
+
+        // Taken out of flight by its response, or by failing
+
+        endpoint.onRequest();
+        return clients.get(endpoint)
+            .exchange(message, timeout)
+            .whenComplete((response, error) -> {
+                if (error == null) {
+                    endpoint.onSuccess();
+                } else {
+                    onFailure(endpoint);
+                }
+            });
+    }
+
+    @Override
+    public final void flush() {
+        log.trace("Flushing");
+
+        for (final Endpoint endpoint : endpoints) {
+            if (endpoint.isConnected()) {
+                clients.get(endpoint)
+                    .flush();
+            }
+        }
+    }
+
+    /**
+     * Returns the endpoints receiving the requests.
+     *
+     * @return the endpoints
+     */
+    public final List<Endpoint> getEndpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    @Override
+    public final void request(final ByteBuf message) {
+        final Endpoint endpoint;
+
+        try {
+            endpoint = choose();
+        } catch (final IllegalStateException e) {
+            // The buffer is owned by the client, even if it can't be sent
+            message.release();
+            throw e;
+        }
+
+        send(endpoint);
+        clients.get(endpoint)
+            .request(message);
+    }
+
+    @Override
+    public final void request(final String message) {
+        final Endpoint endpoint;
+
+        endpoint = choose();
+        send(endpoint);
+        clients.get(endpoint)
+            .request(message);
+    }
+
+    @Override
+    public final void setWireLogging(final WireLogging mode) {
+        // Applied to all the endpoints, even those not connected, so they use it once connected
+        clients.values()
+            .forEach(c -> c.setWireLogging(mode));
+    }
+
+    @Override
+    public final void write(final String message) {
+        final Endpoint endpoint;
+
+        endpoint = choose();
+        send(endpoint);
+        clients.get(endpoint)
+            .write(message);
+    }
+
+    /**
+     * Checks if another endpoint can be ejected, without going over the maximum ejected percentage.
+     *
+     * @return {@code true} if another endpoint can be ejected, {@code false} otherwise
+     */
+    private final boolean canEject() {
+        final long now;
+        final long ejected;
+        final long allowed;
+
+        now = System.nanoTime();
+        ejected = endpoints.stream()
+            .filter(e -> e.isEjected(now))
+            .count();
+        allowed = ((long) endpoints.size() * settings.getMaxEjectedPercent()) / 100;
+
+        return ejected < allowed;
+    }
+
+    /**
+     * Chooses the endpoint for the next request. Only the available endpoints are taken into account, unless all of
+     * them are ejected.
+     *
+     * @return the endpoint for the next request
+     */
+    private final Endpoint choose() {
+        final List<Endpoint> available;
+        final long           now;
+
+        now = System.nanoTime();
+        available = new ArrayList<>(endpoints.size());
+        for (final Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available.add(endpoint);
+            }
+        }
+
+        if (available.isEmpty()) {
+            // All of them ejected, any of them is better than failing for sure
+            for (final Endpoint endpoint : endpoints) {
+                if (endpoint.isConnected()) {
+                    available.add(endpoint);
+                }
+            }
+        }
+        if (available.isEmpty()) {
+            throw new IllegalStateException("No endpoint connected");
+        }
+
+        return balancer.choose(available);
+    }
+
+    /**
+     * Connects to an endpoint which couldn't be reached before. If it can't be reached again, it is ejected again.
+     *
+     * @param endpoint
+     *            endpoint to connect
+     */
+    private final void connectUnreachable(final Endpoint endpoint) {
+        if (closing) {
+            log.debug("Client closing, stopped connecting to {}", endpoint);
+        } else {
+            try {
+                clients.get(endpoint)
+                    .connect();
+                log.info("Connected to {}", endpoint);
+                if (markConnected(endpoint)) {
+                    listener.onReconnect();
+                }
+            } catch (final Exception e) {
+                log.warn("Could not connect to {}: {}", endpoint, e.getLocalizedMessage());
+                ejectUnreachable(endpoint);
+            }
+        }
+    }
+
+    /**
+     * Ejects an endpoint which can't be reached, and tries to connect again once the ejection ends.
+     *
+     * @param endpoint
+     *            endpoint which can't be reached
+     */
+    private final void ejectUnreachable(final Endpoint endpoint) {
+        final long delay;
+
+        endpoint.eject(settings.getEjectionTime(), settings.getMaxEjectionTime());
+        delay = Math.max(endpoint.getEjectedUntil() - System.nanoTime(), 0);
+        log.debug("Connecting again to {} in {} ms", endpoint, TimeUnit.NANOSECONDS.toMillis(delay));
+        // Connecting blocks, so it can't run in the event loop
+        GlobalEventExecutor.INSTANCE.schedule(() -> connectUnreachable(endpoint), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Marks an endpoint as connected.
+     *
+     * @param endpoint
+     *            endpoint connected
+     * @return {@code true} if it is the only endpoint connected, {@code false} otherwise
+     */
+    private final boolean markConnected(final Endpoint endpoint) {
+        final boolean first;
+
+        if (endpoint.isConnected()) {
+            first = false;
+        } else {
+            endpoint.setConnected(true);
+            first = (connected.incrementAndGet() == 1);
+        }
+
+        return first;
+    }
+
+    /**
+     * Marks an endpoint as disconnected.
+     *
+     * @param endpoint
+     *            endpoint disconnected
+     * @return {@code true} if no endpoint is left connected, {@code false} otherwise
+     */
+    private final boolean markDisconnected(final Endpoint endpoint) {
+        final boolean last;
+
+        if (endpoint.isConnected()) {
+            endpoint.setConnected(false);
+            last = (connected.decrementAndGet() == 0);
+        } else {
+            last = false;
+        }
+
+        return last;
+    }
+
+    /**
+     * Handles a failed request. Ejects the endpoint after too many consecutive failures.
+     *
+     * @param endpoint
+     *            endpoint which failed the request
+     */
+    private final void onFailure(final Endpoint endpoint) {
+        final int failures;
+
+        failures = endpoint.onFailure();
+        if ((settings.getFailureThreshold() > 0) && (failures >= settings.getFailureThreshold()) && canEject()
+                && endpoint.eject(settings.getEjectionTime(), settings.getMaxEjectionTime())) {
+            log.warn("Ejected {} after {} consecutive failures", endpoint, failures);
+        }
+    }
+
+    /**
+     * Marks a plain request, which doesn't wait for a response, as sent to the endpoint. With framing it is in flight
+     * until a response is read.
+     *
+     * @param endpoint
+     *            endpoint receiving the request
+     */
+    private final void send(final Endpoint endpoint) {
+        if (framed) {
+            endpoint.onRequest();
+        }
+    }
+
+}
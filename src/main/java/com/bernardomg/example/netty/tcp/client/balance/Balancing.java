@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+/**
+ * Load balancing strategy. Each one creates its load balancer.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum Balancing {
+
+    /**
+     * Chooses the endpoint with less requests in flight.
+     */
+    LEAST_IN_FLIGHT {
+
+        @Override
+        public final LoadBalancer createLoadBalancer() {
+            return new LeastInFlightLoadBalancer();
+        }
+
+    },
+    /**
+     * Picks two endpoints at random, and chooses the one with less requests in flight.
+     */
+    POWER_OF_TWO_CHOICES {
+
+        @Override
+        public final LoadBalancer createLoadBalancer() {
+            return new PowerOfTwoChoicesLoadBalancer();
+        }
+
+    },
+    /**
+     * Takes the endpoints in turns.
+     */
+    ROUND_ROBIN {
+
+        @Override
+        public final LoadBalancer createLoadBalancer() {
+            return new RoundRobinLoadBalancer();
+        }
+
+    };
+
+    /**
+     * Creates a load balancer for this strategy. Each client needs its own load balancer.
+     *
+     * @return a new load balancer
+     */
+    public abstract LoadBalancer createLoadBalancer();
+
+}
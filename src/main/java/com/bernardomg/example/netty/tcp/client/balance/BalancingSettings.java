@@ -0,0 +1,87 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for spreading the requests across several endpoints, and for ejecting those which keep failing.
+ * <p>
+ * An endpoint is ejected after a number of consecutive failed requests. The first ejection lasts the ejection time,
+ * and each one in a row lasts longer, up to the maximum. A limit on the ejected endpoints keeps a widespread problem
+ * from ejecting all of them.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class BalancingSettings {
+
+    /**
+     * Default settings. Round robin, ejecting after 5 consecutive failures for 30 seconds, and at most half the
+     * endpoints.
+     */
+    public static final BalancingSettings DEFAULT           = BalancingSettings.builder()
+        .build();
+
+    /**
+     * Load balancing strategy.
+     */
+    @NonNull
+    @Builder.Default
+    private final Balancing               balancing         = Balancing.ROUND_ROBIN;
+
+    /**
+     * Time for the first ejection.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration                ejectionTime      = Duration.ofSeconds(30);
+
+    /**
+     * Consecutive failures which eject an endpoint. Zero to never eject.
+     */
+    @Builder.Default
+    private final int                     failureThreshold  = 5;
+
+    /**
+     * Maximum percentage of the endpoints which can be ejected at the same time.
+     */
+    @Builder.Default
+    private final int                     maxEjectedPercent = 50;
+
+    /**
+     * Maximum time for any ejection.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration                maxEjectionTime   = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,240 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server which can receive requests, along with its load and health.
+ * <p>
+ * The load is the number of requests in flight, sent and still waiting for a response. As responses to plain
+ * requests can't be told apart, any response read takes a request out of flight, and so do requests failing without
+ * one. So the load is approximate, but it counts all the traffic. The health is the number of consecutive failed
+ * requests. Once there are too many the endpoint is ejected, and receives no requests until the
+ * ejection time passes. Each ejection in a row lasts longer than the previous one, until a request succeeds.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class Endpoint {
+
+    /**
+     * Server address.
+     */
+    private final InetSocketAddress address;
+
+    /**
+     * Flags the endpoint is connected. Endpoints which are not connected receive no requests.
+     */
+    private volatile boolean        connected;
+
+    /**
+     * Failed requests since the last successful one.
+     */
+    private final AtomicInteger     consecutiveFailures = new AtomicInteger();
+
+    /**
+     * Flags the endpoint is ejected.
+     */
+    private volatile boolean        ejected;
+
+    /**
+     * Time when the ejection ends, in nanoseconds.
+     */
+    private volatile long           ejectedUntil;
+
+    /**
+     * Ejections since the last successful request.
+     */
+    private int                     ejections;
+
+    /**
+     * Requests waiting for a response.
+     */
+    private final AtomicInteger     inFlight            = new AtomicInteger();
+
+    /**
+     * Constructs an endpoint for the received address.
+     *
+     * @param addrss
+     *            server address
+     */
+    public Endpoint(final InetSocketAddress addrss) {
+        super();
+
+        address = Objects.requireNonNull(addrss);
+    }
+
+    /**
+     * Ejects the endpoint, unless it is already ejected. Each ejection in a row multiplies the ejection time, up to the
+     * received maximum.
+     *
+     * @param ejectionTime
+     *            time for the first ejection
+     * @param maxEjectionTime
+     *            maximum time for any ejection
+     * @return {@code true} if the endpoint was ejected, {@code false} if it was already ejected
+     */
+    public final synchronized boolean eject(final Duration ejectionTime, final Duration maxEjectionTime) {
+        final boolean ejecting;
+        final long    now;
+        final long    time;
+
+        now = System.nanoTime();
+        // An ejection which has passed doesn't count, the endpoint is back until ejected again
+        ejecting = !isEjected(now);
+        if (ejecting) {
+            ejections++;
+            time = Math.min(ejectionTime.toNanos() * ejections, maxEjectionTime.toNanos());
+            ejectedUntil = now + time;
+            ejected = true;
+            consecutiveFailures.set(0);
+        }
+
+        return ejecting;
+    }
+
+    /**
+     * Returns the server address.
+     *
+     * @return the server address
+     */
+    public final InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Returns the time when the ejection ends, in nanoseconds. Only meaningful while the endpoint is ejected.
+     *
+     * @return the time when the ejection ends
+     */
+    public final long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    /**
+     * Returns the number of requests waiting for a response.
+     *
+     * @return the number of requests in flight
+     */
+    public final int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Checks if the endpoint can receive requests at the received time. It should be connected, and not ejected. Once
+     * the ejection time has passed, the endpoint is available again.
+     *
+     * @param now
+     *            current time, in nanoseconds
+     * @return {@code true} if the endpoint can receive requests, {@code false} otherwise
+     */
+    public final boolean isAvailable(final long now) {
+        return connected && !isEjected(now);
+    }
+
+    /**
+     * Checks if the endpoint is connected.
+     *
+     * @return {@code true} if the endpoint is connected, {@code false} otherwise
+     */
+    public final boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Checks if the endpoint is ejected at the received time.
+     *
+     * @param now
+     *            current time, in nanoseconds
+     * @return {@code true} if the endpoint is ejected, {@code false} otherwise
+     */
+    public final boolean isEjected(final long now) {
+        return ejected && ((now - ejectedUntil) < 0);
+    }
+
+    /**
+     * Marks a request as failed. No response is coming for it, so it is no longer in flight.
+     *
+     * @return the number of consecutive failures, including this one
+     */
+    public final int onFailure() {
+        decreaseInFlight();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Marks a request as sent, and waiting for a response.
+     */
+    public final void onRequest() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Marks a response as received. Takes a request out of flight.
+     */
+    public final void onResponse() {
+        decreaseInFlight();
+    }
+
+    /**
+     * Marks a request as successful. Resets the failures and ejections. Its response already took it out of flight.
+     */
+    public final synchronized void onSuccess() {
+        consecutiveFailures.set(0);
+        ejections = 0;
+        ejected = false;
+    }
+
+    /**
+     * Sets the endpoint as connected or disconnected. Requests in flight are lost along with the connection.
+     *
+     * @param cnnctd
+     *            connection flag
+     */
+    public final void setConnected(final boolean cnnctd) {
+        connected = cnnctd;
+        if (!cnnctd) {
+            inFlight.set(0);
+        }
+    }
+
+    @Override
+    public final String toString() {
+        return address.getHostString() + ":" + address.getPort();
+    }
+
+    /**
+     * Takes a request out of flight. Responses to requests already taken out, such as late responses to the ones
+     * which timed out, are ignored.
+     */
+    private final void decreaseInFlight() {
+        inFlight.updateAndGet(count -> Math.max(count - 1, 0));
+    }
+
+}
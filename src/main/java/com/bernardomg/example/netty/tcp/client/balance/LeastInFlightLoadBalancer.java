@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.util.List;
+
+/**
+ * Load balancer which chooses the endpoint with less requests waiting for a response.
+ * <p>
+ * Slow servers end up with more requests in flight, and so receive less new requests. Ties go to the first endpoint.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class LeastInFlightLoadBalancer implements LoadBalancer {
+
+    /**
+     * Default constructor.
+     */
+    public LeastInFlightLoadBalancer() {
+        super();
+    }
+
+    @Override
+    public final Endpoint choose(final List<Endpoint> endpoints) {
+        Endpoint chosen;
+
+        chosen = endpoints.get(0);
+        for (final Endpoint endpoint : endpoints) {
+            if (endpoint.getInFlight() < chosen.getInFlight()) {
+                chosen = endpoint;
+            }
+        }
+
+        return chosen;
+    }
+
+}
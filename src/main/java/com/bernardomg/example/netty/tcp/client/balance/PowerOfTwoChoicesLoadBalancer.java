@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancer which picks two endpoints at random, and chooses the one with less requests waiting for a response.
+ * <p>
+ * Almost as good as checking all the endpoints, but without scanning them for each request, and without sending all
+ * the requests to the same endpoint when several clients see the same counts.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class PowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+
+    /**
+     * Default constructor.
+     */
+    public PowerOfTwoChoicesLoadBalancer() {
+        super();
+    }
+
+    @Override
+    public final Endpoint choose(final List<Endpoint> endpoints) {
+        final ThreadLocalRandom random;
+        final Endpoint          first;
+        final Endpoint          second;
+        final Endpoint          chosen;
+        final int               size;
+        final int               firstIndex;
+        int                     secondIndex;
+
+        size = endpoints.size();
+        if (size == 1) {
+            chosen = endpoints.get(0);
+        } else {
+            random = ThreadLocalRandom.current();
+            firstIndex = random.nextInt(size);
+            // Picks from the other endpoints, so both choices are different
+            secondIndex = random.nextInt(size - 1);
+            if (secondIndex >= firstIndex) {
+                secondIndex++;
+            }
+
+            first = endpoints.get(firstIndex);
+            second = endpoints.get(secondIndex);
+            if (second.getInFlight() < first.getInFlight()) {
+                chosen = second;
+            } else {
+                chosen = first;
+            }
+        }
+
+        return chosen;
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.balance;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load balancer which takes the endpoints in turns.
+ * <p>
+ * Cheap and fair as long as all the servers answer at the same speed. Slow servers keep receiving their share, so
+ * requests pile up on them.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class RoundRobinLoadBalancer implements LoadBalancer {
+
+    /**
+     * Next turn.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     */
+    public RoundRobinLoadBalancer() {
+        super();
+    }
+
+    @Override
+    public final Endpoint choose(final List<Endpoint> endpoints) {
+        // The counter may overflow, which floorMod handles
+        return endpoints.get(Math.floorMod(next.getAndIncrement(), endpoints.size()));
+    }
+
+}
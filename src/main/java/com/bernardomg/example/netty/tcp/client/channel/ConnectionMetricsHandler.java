@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.net.SocketAddress;
+import java.util.Objects;
+
+import com.bernardomg.example.netty.tcp.client.metrics.ConnectionMetrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Connection metrics channel handler. Measures the connection time, and counts the bytes read from and written into
+ * the socket.
+ * <p>
+ * It goes at the head of the pipeline, so it sees the bytes as they are on the wire, after framing and encryption. The
+ * messages are counted by the {@link MessageMetricsHandler}.
+ * <p>
+ * It measures a single channel, so it can't be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class ConnectionMetricsHandler extends ChannelDuplexHandler {
+
+    /**
+     * Metrics for the channel.
+     */
+    private final ConnectionMetrics metrics;
+
+    /**
+     * Constructs a handler which updates the received metrics.
+     *
+     * @param mtrcs
+     *            metrics for the channel
+     */
+    public ConnectionMetricsHandler(final ConnectionMetrics mtrcs) {
+        super();
+
+        metrics = Objects.requireNonNull(mtrcs);
+    }
+
+    @Override
+    public final void channelActive(final ChannelHandlerContext ctx) throws Exception {
+        metrics.recordOpened();
+
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public final void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        metrics.recordClosed();
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        metrics.recordBytesRead(size(msg));
+
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public final void connect(final ChannelHandlerContext ctx, final SocketAddress remoteAddress,
+            final SocketAddress localAddress, final ChannelPromise promise) throws Exception {
+        final long start;
+
+        start = System.nanoTime();
+        promise.addListener(future -> {
+            if (future.isSuccess()) {
+                metrics.recordConnect(System.nanoTime() - start);
+            } else {
+                metrics.recordConnectFailure();
+            }
+        });
+
+        super.connect(ctx, remoteAddress, localAddress, promise);
+    }
+
+    @Override
+    public final void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        // Counted when handed to the transport, the bytes not yet written are in the outbound buffer
+        metrics.recordBytesWritten(size(msg));
+
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Returns the size of the message, in bytes.
+     *
+     * @param msg
+     *            message to measure
+     * @return the size of the message
+     */
+    private final long size(final Object msg) {
+        final long size;
+
+        if (msg instanceof ByteBuf) {
+            size = ((ByteBuf) msg).readableBytes();
+        } else if (msg instanceof ByteBufHolder) {
+            size = ((ByteBufHolder) msg).content()
+                .readableBytes();
+        } else {
+            size = 0;
+        }
+
+        return size;
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Delays flushes, so the messages written during a time window go out together. The pending messages are flushed once
+ * the delay passes since the first flush, or once the maximum number of pending flushes is reached, whatever comes
+ * first.
+ * <p>
+ * Should be the first handler in the pipeline, so it receives the flushes after the messages are encoded.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class DelayedFlushHandler extends ChannelDuplexHandler {
+
+    /**
+     * Delay for the flushes, in nanoseconds.
+     */
+    private final long delay;
+
+    /**
+     * Flushes which are delayed, at most, before flushing. Zero for no limit.
+     */
+    private final int  maxPending;
+
+    /**
+     * Flushes delayed since the last actual flush.
+     */
+    private int        pending;
+
+    /**
+     * Scheduled flush.
+     */
+    private Future<?>  scheduled;
+
+    /**
+     * Constructs a handler with the received delay and limit.
+     *
+     * @param delayMicros
+     *            delay for the flushes, in microseconds
+     * @param maxPndng
+     *            flushes delayed, at most, before flushing. Zero for no limit
+     */
+    public DelayedFlushHandler(final long delayMicros, final int maxPndng) {
+        super();
+
+        if (delayMicros <= 0) {
+            throw new IllegalArgumentException("The delay should be positive");
+        }
+        if (maxPndng < 0) {
+            throw new IllegalArgumentException("The maximum pending flushes can't be negative");
+        }
+
+        delay = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+        maxPending = maxPndng;
+    }
+
+    @Override
+    public final void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        // The pending messages may be what fills the buffer, they should be sent
+        if (!ctx.channel()
+            .isWritable()) {
+            flushPending(ctx);
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public final void close(final ChannelHandlerContext ctx, final ChannelPromise promise) throws Exception {
+        flushPending(ctx);
+        super.close(ctx, promise);
+    }
+
+    @Override
+    public final void disconnect(final ChannelHandlerContext ctx, final ChannelPromise promise) throws Exception {
+        flushPending(ctx);
+        super.disconnect(ctx, promise);
+    }
+
+    @Override
+    public final void flush(final ChannelHandlerContext ctx) throws Exception {
+        pending++;
+        if ((maxPending > 0) && (pending >= maxPending)) {
+            flushNow(ctx);
+        } else if (scheduled == null) {
+            scheduled = ctx.executor()
+                .schedule(() -> flushNow(ctx), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public final void handlerRemoved(final ChannelHandlerContext ctx) throws Exception {
+        flushPending(ctx);
+    }
+
+    /**
+     * Flushes the pending messages, if there are any.
+     *
+     * @param ctx
+     *            channel context
+     */
+    private final void flushPending(final ChannelHandlerContext ctx) {
+        if (pending > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    /**
+     * Flushes, and cancels any scheduled flush.
+     *
+     * @param ctx
+     *            channel context
+     */
+    private final void flushNow(final ChannelHandlerContext ctx) {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        pending = 0;
+        ctx.flush();
+    }
+
+}
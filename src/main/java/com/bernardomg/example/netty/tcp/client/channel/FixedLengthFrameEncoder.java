@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+/**
+ * Fixed length frame encoder. Pads each message with zeros up to the frame length.
+ * <p>
+ * The padding is sent as a separate buffer, so the message is not copied. Messages longer than the frame length are
+ * rejected.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Sharable
+public final class FixedLengthFrameEncoder extends MessageToMessageEncoder<ByteBuf> {
+
+    /**
+     * Length of each frame.
+     */
+    private final int frameLength;
+
+    /**
+     * Constructs an encoder for the received frame length.
+     *
+     * @param length
+     *            length of each frame
+     */
+    public FixedLengthFrameEncoder(final int length) {
+        super();
+
+        frameLength = length;
+    }
+
+    @Override
+    protected final void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out)
+            throws Exception {
+        final int padding;
+
+        padding = frameLength - msg.readableBytes();
+        if (padding < 0) {
+            throw new EncoderException(
+                String.format("Message length %d exceeds frame length %d", msg.readableBytes(), frameLength));
+        }
+
+        out.add(msg.retain());
+        if (padding > 0) {
+            out.add(ctx.alloc()
+                .buffer(padding)
+                .writeZero(padding));
+        }
+    }
+
+}
@@ -28,18 +28,26 @@
 
 import com.bernardomg.example.netty.tcp.client.TransactionListener;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Message listener channel handler. Will send any message to the contained listener.
+ * Message listener channel handler. Will send any message to the contained listener. Strings and buffers are both
+ * accepted, the later coming from binary payloads.
+ * <p>
+ * It keeps no state, so it can be shared between channels.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
  */
 @Slf4j
-public final class MessageListenerChannelHandler extends SimpleChannelInboundHandler<String> {
+@Sharable
+public final class MessageListenerChannelHandler extends SimpleChannelInboundHandler<Object> {
 
     /**
      * Transaction listener. Reacts to events during the request.
@@ -59,10 +67,40 @@ public MessageListenerChannelHandler(final TransactionListener lstn) {
     }
 
     @Override
-    public final void channelRead0(final ChannelHandlerContext ctx, final String message) throws Exception {
-        log.debug("Received message {}", message);
+    public final boolean acceptInboundMessage(final Object msg) throws Exception {
+        return (msg instanceof String) || (msg instanceof ByteBuf);
+    }
+
+    @Override
+    public final void channelRead0(final ChannelHandlerContext ctx, final Object message) throws Exception {
+        if (message instanceof ByteBuf) {
+            log.trace("Received {} bytes", ((ByteBuf) message).readableBytes());
+
+            // Released once the listener returns
+            listener.onReceive((ByteBuf) message);
+        } else {
+            log.trace("Received message {}", message);
+
+            listener.onReceive((String) message);
+        }
+    }
+
+    @Override
+    public final void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        listener.onWritabilityChanged(ctx.channel()
+            .isWritable());
 
-        listener.onReceive(message);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public final void userEventTriggered(final ChannelHandlerContext ctx, final Object evt) throws Exception {
+        if ((evt instanceof IdleStateEvent) && (((IdleStateEvent) evt).state() == IdleState.READER_IDLE)) {
+            log.trace("Nothing read for the idle timeout");
+            listener.onIdle();
+        } else {
+            super.userEventTriggered(ctx, evt);
+        }
     }
 
 }
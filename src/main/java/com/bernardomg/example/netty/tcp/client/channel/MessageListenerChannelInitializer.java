@@ -24,54 +24,386 @@
 
 package com.bernardomg.example.netty.tcp.client.channel;
 
+import java.net.InetSocketAddress;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.MessageBuffers;
 import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.ClientMetrics;
+import com.bernardomg.example.netty.tcp.client.metrics.ConnectionMetrics;
+import com.bernardomg.example.netty.tcp.client.profiling.PipelineProfiler;
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.codec.FixedLengthFrameDecoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.string.StringDecoder;
 import io.netty.handler.codec.string.StringEncoder;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.timeout.IdleStateHandler;
 
 /**
  * Initializes the channel with handlers for listening to transactions.
  * <p>
  * It takes care of:
  * <ul>
- * <li>Encoding/decoding messages to/from string</li>
- * <li>Activating Netty logging</li>
+ * <li>Batching flushes, according to the flush settings</li>
+ * <li>Logging the bytes on the wire, according to the wire logging mode</li>
+ * <li>Encrypting the connection, if there is a TLS handler factory</li>
+ * <li>Watching for read idle periods, according to the read idle timeout</li>
+ * <li>Splitting the stream into messages, according to the framing mode</li>
+ * <li>Counting the bytes of each message, if there are transaction metrics</li>
+ * <li>Encoding/decoding messages to/from string, unless the payload mode is binary</li>
+ * <li>Correlating responses with their requests</li>
+ * <li>Letting producers wait for the channel to be writable, through a {@link WritabilityHandler}</li>
  * <li>Adding a {@link MessageListenerChannelHandler}</li>
  * </ul>
+ * <p>
+ * Any channel is accepted, so the same pipeline can be built over an embedded channel.
  *
  * @author Bernardo Mart&iacute;nez Garrido
  *
  */
-public final class MessageListenerChannelInitializer extends ChannelInitializer<SocketChannel> {
+public final class MessageListenerChannelInitializer extends ChannelInitializer<Channel> {
+
+    /**
+     * Name of the flush batching handler.
+     */
+    private static final String                FLUSH_BATCHING     = "flushBatching";
+
+    /**
+     * Name of the TLS handler.
+     */
+    public static final String                 TLS                = "tls";
+
+    /**
+     * Name of the writability handler.
+     */
+    public static final String                 WRITABILITY        = "writability";
+
+    /**
+     * Name of the wire logging handler.
+     */
+    private static final String                WIRE_LOGGING       = "wireLogging";
+
+    /**
+     * Sends any message received to the listener.
+     */
+    private final ChannelHandler               channelHandler;
+
+    /**
+     * Creates the response correlator for each channel.
+     */
+    private final Supplier<ResponseCorrelator> correlatorFactory;
+
+    /**
+     * Correlates responses with their requests.
+     */
+    private final ChannelHandler               correlationHandler = new ResponseCorrelationHandler();
 
-    private final ChannelHandler channelHandler;
+    /**
+     * Metrics for the connections. If {@code null}, they are not measured.
+     */
+    private final ClientMetrics                metrics;
+
+    /**
+     * Server address. Used to resume TLS sessions.
+     */
+    private final InetSocketAddress            peer;
+
+    /**
+     * Measures the time and allocation of each pipeline stage. If {@code null}, the pipeline is not profiled.
+     */
+    private final PipelineProfiler             profiler;
+
+    /**
+     * Pipeline settings.
+     */
+    private final PipelineSettings             settings;
 
     /**
-     * Constructs a channel initializer with the received listener.
+     * Creates the TLS handler for each channel. If {@code null}, the connection is plaintext.
+     */
+    private final TlsHandlerFactory            tlsHandlers;
+
+    /**
+     * Counts the bytes of each message. If {@code null}, they are not counted.
+     */
+    private final ChannelHandler               transactionMetricsHandler;
+
+    /**
+     * Wire logging mode for new channels. Starts as the one in the pipeline settings, and can be changed afterwards.
+     */
+    private volatile WireLogging               wireLogging;
+
+    /**
+     * Constructs a channel initializer with the received listener. Responses will be correlated in FIFO order.
      *
      * @param listnr
      *            transaction listener
      */
     public MessageListenerChannelInitializer(final TransactionListener listnr) {
+        this(listnr, FifoResponseCorrelator::new, ClientConfiguration.DEFAULT);
+    }
+
+    /**
+     * Constructs a channel initializer with the received listener, correlator factory and configuration. The connection
+     * is plaintext.
+     *
+     * @param listnr
+     *            transaction listener
+     * @param correlators
+     *            creates the response correlator for each channel
+     * @param config
+     *            client configuration, with the pipeline settings, metrics and profiler
+     */
+    public MessageListenerChannelInitializer(final TransactionListener listnr,
+            final Supplier<ResponseCorrelator> correlators, final ClientConfiguration config) {
+        this(listnr, correlators, config, null, null);
+    }
+
+    /**
+     * Constructs a channel initializer with the received listener, correlator factory and configuration, which
+     * encrypts the connection to the received server.
+     * <p>
+     * The TLS handler factory is received instead of being created from the configuration, so the client can keep it
+     * between connections and resume the TLS sessions.
+     *
+     * @param listnr
+     *            transaction listener
+     * @param correlators
+     *            creates the response correlator for each channel
+     * @param config
+     *            client configuration, with the pipeline settings, metrics and profiler
+     * @param tls
+     *            creates the TLS handler for each channel, {@code null} for plaintext
+     * @param server
+     *            server address, to resume TLS sessions. Only required with TLS
+     */
+    public MessageListenerChannelInitializer(final TransactionListener listnr,
+            final Supplier<ResponseCorrelator> correlators, final ClientConfiguration config,
+            final TlsHandlerFactory tls, final InetSocketAddress server) {
         super();
 
         channelHandler = new MessageListenerChannelHandler(listnr);
+        correlatorFactory = Objects.requireNonNull(correlators);
+        settings = config.getPipeline();
+        wireLogging = settings.getWireLogging();
+        metrics = config.getMetrics();
+        profiler = config.getProfiler();
+        if (config.getTransactionMetrics() == null) {
+            transactionMetricsHandler = null;
+        } else {
+            transactionMetricsHandler = new TransactionMetricsHandler(config.getTransactionMetrics());
+        }
+        tlsHandlers = tls;
+        if (tlsHandlers == null) {
+            peer = server;
+        } else {
+            peer = Objects.requireNonNull(server);
+        }
+    }
+
+    /**
+     * Sets the wire logging mode for the pipeline. Any previous wire logging handler is replaced, so this can be used to
+     * change the logging of a channel which is already active.
+     * <p>
+     * The handler goes right after flush batching, so it sees the bytes as they are read from and written to the
+     * socket. If the pipeline is profiled, the probes are placed when initializing the channel, so a handler added
+     * afterwards is not measured on its own, its time counts for the stage next to it.
+     *
+     * @param pipeline
+     *            pipeline to change
+     * @param mode
+     *            wire logging mode
+     * @param sampleRate
+     *            buffers seen for each one logged, when sampling
+     * @param maxDumpBytes
+     *            maximum bytes dumped for each logged buffer, when sampling
+     */
+    public static final void setWireLogging(final ChannelPipeline pipeline, final WireLogging mode,
+            final int sampleRate, final int maxDumpBytes) {
+        final ChannelHandler handler;
+
+        if (pipeline.get(WIRE_LOGGING) != null) {
+            pipeline.remove(WIRE_LOGGING);
+        }
+
+        switch (mode) {
+            case FULL:
+                handler = new LoggingHandler(LogLevel.DEBUG);
+                break;
+            case SAMPLED:
+                handler = new SampledLoggingHandler(sampleRate, maxDumpBytes);
+                break;
+            case NONE:
+            default:
+                handler = null;
+                break;
+        }
+
+        if (handler == null) {
+            // No handler, so messages don't go through an extra step
+        } else if (pipeline.get(FLUSH_BATCHING) == null) {
+            pipeline.addFirst(WIRE_LOGGING, handler);
+        } else {
+            pipeline.addAfter(FLUSH_BATCHING, WIRE_LOGGING, handler);
+        }
+    }
+
+    /**
+     * Sets the wire logging mode for the channels initialized from now on, such as those opened when reconnecting.
+     * Channels already initialized keep their mode, use {@link #setWireLogging(ChannelPipeline, WireLogging, int, int)}
+     * to change them.
+     *
+     * @param mode
+     *            wire logging mode
+     */
+    public final void setWireLogging(final WireLogging mode) {
+        wireLogging = Objects.requireNonNull(mode);
     }
 
     @Override
-    protected final void initChannel(final SocketChannel channel) throws Exception {
+    protected final void initChannel(final Channel channel) throws Exception {
+        final ConnectionMetrics connectionMetrics;
+
+        channel.attr(ResponseCorrelationHandler.CORRELATOR)
+            .set(correlatorFactory.get());
+
+        // Bounds the outbound buffer
+        channel.config()
+            .setWriteBufferWaterMark(new WriteBufferWaterMark(settings.getWriteBufferLowWaterMark(),
+                settings.getWriteBufferHighWaterMark()));
+
+        // Batches flushes
+        addFlushBatching(channel.pipeline());
+
+        // Logs the bytes on the wire
+        setWireLogging(channel.pipeline(), wireLogging, settings.getWireLogSampleRate(),
+            settings.getWireLogMaxBytes());
+
+        // Encrypts the connection
+        // Goes after wire logging, so the logs show the bytes actually on the wire
+        if (tlsHandlers != null) {
+            channel.pipeline()
+                .addLast(TLS, tlsHandlers.create(channel.alloc(), peer.getHostString(), peer.getPort()));
+        }
+
+        // Watches for read idle periods
+        if (!settings.getReadIdleTimeout()
+            .isZero()) {
+            channel.pipeline()
+                .addLast("readIdle", new IdleStateHandler(settings.getReadIdleTimeout()
+                    .toNanos(), 0, 0, TimeUnit.NANOSECONDS));
+        }
+
+        // Splits the stream into messages
+        addFraming(channel.pipeline());
+
+        // Counts the bytes of each message, once framed and before decoding
+        if (transactionMetricsHandler != null) {
+            channel.pipeline()
+                .addLast("transactionMetrics", transactionMetricsHandler);
+        }
+
+        // Transforms message into a string
+        // Binary payloads skip this, and reach the listener as buffers
+        if (settings.getPayload() == Payload.TEXT) {
+            channel.pipeline()
+                .addLast("encoder", new StringEncoder(MessageBuffers.CHARSET))
+                .addLast("decoder", new StringDecoder(MessageBuffers.CHARSET));
+        }
+
+        // Counts the messages, once framed and decoded
+        if (metrics == null) {
+            connectionMetrics = null;
+        } else {
+            connectionMetrics = metrics.connection(channel);
+            channel.pipeline()
+                .addLast("messageMetrics", new MessageMetricsHandler(connectionMetrics));
+        }
         channel.pipeline()
-            // Transforms message into a string
-            .addLast("encoder", new StringEncoder())
-            .addLast("decoder", new StringDecoder())
-            // Logging handler
-            .addLast(new LoggingHandler())
+            // Matches responses with their requests
+            .addLast(correlationHandler)
+            // Releases producers waiting for the channel to be writable
+            .addLast(WRITABILITY, new WritabilityHandler())
             // Sends any message received by the channel to the listener
             .addLast(channelHandler);
+        // Counts the bytes on the wire
+        // Goes first, so it sees them as read from and written into the socket
+        if (connectionMetrics != null) {
+            channel.pipeline()
+                .addFirst("connectionMetrics", new ConnectionMetricsHandler(connectionMetrics));
+        }
+        // Measures each stage
+        // Goes last, so all the handlers are measured
+        if (profiler != null) {
+            profiler.instrument(channel);
+        }
+    }
+
+    /**
+     * Adds the flush batching handler, if any. It goes first, so it receives the flushes after the messages are encoded.
+     * <p>
+     * When there is a flush delay, the {@link DelayedFlushHandler} takes care of both the delay and the message limit.
+     * Otherwise, a {@link FlushConsolidationHandler} flushes after the message limit, or when the event loop runs out
+     * of pending writes.
+     *
+     * @param pipeline
+     *            pipeline where the handler is added
+     */
+    private final void addFlushBatching(final ChannelPipeline pipeline) {
+        if (settings.getFlushAfterMicros() > 0) {
+            pipeline.addLast(FLUSH_BATCHING,
+                new DelayedFlushHandler(settings.getFlushAfterMicros(), settings.getFlushAfterMessages()));
+        } else if (settings.getFlushAfterMessages() > 0) {
+            pipeline.addLast(FLUSH_BATCHING, new FlushConsolidationHandler(settings.getFlushAfterMessages(), true));
+        }
+    }
+
+    /**
+     * Adds the frame decoder and encoder for the framing mode.
+     *
+     * @param pipeline
+     *            pipeline where the handlers are added
+     */
+    private final void addFraming(final ChannelPipeline pipeline) {
+        final int lengthFieldLength;
+
+        switch (settings.getFraming()) {
+            case LENGTH_FIELD:
+                lengthFieldLength = settings.getLengthFieldLength();
+                pipeline
+                    .addLast("frameDecoder",
+                        new LengthFieldBasedFrameDecoder(settings.getMaxFrameLength(), 0, lengthFieldLength, 0,
+                            lengthFieldLength))
+                    .addLast("frameEncoder", new LengthFieldPrepender(lengthFieldLength));
+                break;
+            case LINE:
+                pipeline.addLast("frameDecoder", new LineBasedFrameDecoder(settings.getMaxFrameLength()))
+                    .addLast("frameEncoder", new LineFrameEncoder());
+                break;
+            case FIXED_LENGTH:
+                pipeline.addLast("frameDecoder", new FixedLengthFrameDecoder(settings.getFrameLength()))
+                    .addLast("frameEncoder", new FixedLengthFrameEncoder(settings.getFrameLength()));
+                break;
+            case NONE:
+            default:
+                break;
+        }
     }
 
 }
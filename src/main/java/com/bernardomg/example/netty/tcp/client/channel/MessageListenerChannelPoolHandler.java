@@ -0,0 +1,180 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Channel pool handler which prepares each new pooled channel for listening to transactions.
+ * <p>
+ * It takes care of:
+ * <ul>
+ * <li>Closing the channel after it has been idle for too long</li>
+ * <li>Adding a {@link MessageListenerChannelInitializer}</li>
+ * <li>Keeping the wire logging mode of pooled channels up to date, when they are acquired</li>
+ * </ul>
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class MessageListenerChannelPoolHandler extends AbstractChannelPoolHandler {
+
+    /**
+     * Channel attribute holding the wire logging mode of the channel.
+     */
+    private static final AttributeKey<WireLogging> WIRE_LOGGING = AttributeKey
+        .valueOf(MessageListenerChannelPoolHandler.class, "wireLogging");
+
+    /**
+     * Client configuration. Applied to each channel.
+     */
+    private final ClientConfiguration              configuration;
+
+    /**
+     * Creates the response correlator for each channel.
+     */
+    private final Supplier<ResponseCorrelator>     correlatorFactory;
+
+    /**
+     * Closes channels once they are idle.
+     */
+    private final ChannelHandler                   idleCloser   = new IdleChannelCloser();
+
+    /**
+     * Time after which an idle channel is closed.
+     */
+    private final Duration                         idleTimeout;
+
+    /**
+     * Transaction listener. Reacts to events during the request.
+     */
+    private final TransactionListener              listener;
+
+    /**
+     * Server address. Used to resume TLS sessions.
+     */
+    private final InetSocketAddress                peer;
+
+    /**
+     * Creates the TLS handler for each channel. If {@code null}, the connection is plaintext.
+     */
+    private final TlsHandlerFactory                tlsHandlers;
+
+    /**
+     * Returns the current wire logging mode.
+     */
+    private final Supplier<WireLogging>            wireLogging;
+
+    /**
+     * Constructs a pool handler with the received listener and configuration, which encrypts the connections to the
+     * received server. All the channels share the TLS handler factory, so they can resume the sessions of previous
+     * channels.
+     *
+     * @param listnr
+     *            transaction listener
+     * @param correlators
+     *            creates the response correlator for each channel
+     * @param config
+     *            client configuration, with the pipeline settings, metrics and profiler
+     * @param logging
+     *            returns the current wire logging mode, which may differ from the one in the configuration
+     * @param idle
+     *            time after which an idle channel is closed, zero to never close them
+     * @param tls
+     *            creates the TLS handler for each channel, {@code null} for plaintext
+     * @param server
+     *            server address, to resume TLS sessions. Only required with TLS
+     */
+    public MessageListenerChannelPoolHandler(final TransactionListener listnr,
+            final Supplier<ResponseCorrelator> correlators, final ClientConfiguration config,
+            final Supplier<WireLogging> logging, final Duration idle, final TlsHandlerFactory tls,
+            final InetSocketAddress server) {
+        super();
+
+        listener = Objects.requireNonNull(listnr);
+        correlatorFactory = Objects.requireNonNull(correlators);
+        configuration = Objects.requireNonNull(config);
+        wireLogging = Objects.requireNonNull(logging);
+        idleTimeout = Objects.requireNonNull(idle);
+        tlsHandlers = tls;
+        peer = server;
+    }
+
+    @Override
+    public final void channelAcquired(final Channel channel) throws Exception {
+        final PipelineSettings settings;
+        final WireLogging      mode;
+
+        // Changed since the channel was acquired last time
+        mode = wireLogging.get();
+        if (channel.attr(WIRE_LOGGING)
+            .getAndSet(mode) != mode) {
+            settings = configuration.getPipeline();
+            MessageListenerChannelInitializer.setWireLogging(channel.pipeline(), mode, settings.getWireLogSampleRate(),
+                settings.getWireLogMaxBytes());
+        }
+    }
+
+    @Override
+    public final void channelCreated(final Channel channel) throws Exception {
+        final MessageListenerChannelInitializer initializer;
+        final WireLogging                       mode;
+
+        log.debug("Created pooled channel {}", channel);
+
+        if (!idleTimeout.isZero()) {
+            channel.pipeline()
+                // Evicts idle channels
+                .addLast(new IdleStateHandler(0, 0, idleTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .addLast(idleCloser);
+        }
+        mode = wireLogging.get();
+        initializer = new MessageListenerChannelInitializer(listener, correlatorFactory, configuration, tlsHandlers,
+            peer);
+        initializer.setWireLogging(mode);
+        channel.attr(WIRE_LOGGING)
+            .set(mode);
+        channel.pipeline()
+            .addLast(initializer);
+    }
+
+}
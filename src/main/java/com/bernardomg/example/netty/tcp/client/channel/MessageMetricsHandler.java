@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.util.Objects;
+
+import com.bernardomg.example.netty.tcp.client.metrics.ConnectionMetrics;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Message metrics channel handler. Counts the messages read and written, and the writes which failed.
+ * <p>
+ * It goes after framing and decoding, so each read is a whole message.
+ * <p>
+ * It measures a single channel, so it can't be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class MessageMetricsHandler extends ChannelDuplexHandler {
+
+    /**
+     * Counts failed writes. Reused for all the writes.
+     */
+    private final ChannelFutureListener failureListener;
+
+    /**
+     * Metrics for the channel.
+     */
+    private final ConnectionMetrics     metrics;
+
+    /**
+     * Constructs a handler which updates the received metrics.
+     *
+     * @param mtrcs
+     *            metrics for the channel
+     */
+    public MessageMetricsHandler(final ConnectionMetrics mtrcs) {
+        super();
+
+        metrics = Objects.requireNonNull(mtrcs);
+        failureListener = future -> {
+            if (!future.isSuccess()) {
+                metrics.recordWriteFailure();
+            }
+        };
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        metrics.recordMessageRead();
+
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public final void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        metrics.recordMessageWritten();
+        // Void promises take no listeners, and never report failures
+        if (!promise.isVoid()) {
+            promise.addListener(failureListener);
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for the handlers added to each channel pipeline.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class PipelineSettings {
+
+    /**
+     * Default settings. No framing, text payloads, no wire logging, and each write is flushed at once.
+     */
+    public static final PipelineSettings DEFAULT                  = PipelineSettings.builder()
+        .build();
+
+    /**
+     * Flushes which can be batched together, at most. Zero for no limit when there is a flush delay, or for no batching
+     * otherwise.
+     */
+    @Builder.Default
+    private final int                    flushAfterMessages       = 0;
+
+    /**
+     * Time which flushes can be delayed, in microseconds. Zero for no delay.
+     */
+    @Builder.Default
+    private final long                   flushAfterMicros         = 0;
+
+    /**
+     * Framing mode.
+     */
+    @NonNull
+    @Builder.Default
+    private final Framing                framing                  = Framing.NONE;
+
+    /**
+     * Length of each message, when using fixed length framing.
+     */
+    @Builder.Default
+    private final int                    frameLength              = 256;
+
+    /**
+     * Number of bytes of the length prefix, when using length field framing. Can be 1, 2, 3, 4 or 8.
+     */
+    @Builder.Default
+    private final int                    lengthFieldLength        = 4;
+
+    /**
+     * Maximum length of a received message. Longer messages are rejected.
+     */
+    @Builder.Default
+    private final int                    maxFrameLength           = 1024 * 1024;
+
+    /**
+     * Payload mode.
+     */
+    @NonNull
+    @Builder.Default
+    private final Payload                payload                  = Payload.TEXT;
+
+    /**
+     * Time without reading after which the listener is told the channel is idle. Zero for no read idle timeout.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration               readIdleTimeout          = Duration.ZERO;
+
+    /**
+     * Wire logging mode.
+     */
+    @NonNull
+    @Builder.Default
+    private final WireLogging            wireLogging              = WireLogging.NONE;
+
+    /**
+     * Maximum bytes dumped for each logged buffer, when sampling.
+     */
+    @Builder.Default
+    private final int                    wireLogMaxBytes          = 64;
+
+    /**
+     * Buffers seen for each one logged, when sampling.
+     */
+    @Builder.Default
+    private final int                    wireLogSampleRate        = 100;
+
+    /**
+     * Outbound bytes over which the channel stops being writable.
+     */
+    @Builder.Default
+    private final int                    writeBufferHighWaterMark = 64 * 1024;
+
+    /**
+     * Outbound bytes under which the channel is writable again.
+     */
+    @Builder.Default
+    private final int                    writeBufferLowWaterMark  = 32 * 1024;
+
+}
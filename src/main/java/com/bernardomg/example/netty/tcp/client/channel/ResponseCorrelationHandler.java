@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.nio.channels.ClosedChannelException;
+
+import com.bernardomg.example.netty.tcp.client.MessageBuffers;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+
+/**
+ * Response correlation channel handler. Hands each message received to the channel's {@link ResponseCorrelator}, and
+ * then passes it along the pipeline.
+ * <p>
+ * Buffers, from binary payloads, are only decoded when there are requests waiting for a response. Otherwise they pass
+ * untouched.
+ * <p>
+ * The correlator is taken from the channel attribute {@link #CORRELATOR}. When the channel is closed, all the requests
+ * still in flight are failed.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Sharable
+public final class ResponseCorrelationHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * Channel attribute holding the channel correlator.
+     */
+    public static final AttributeKey<ResponseCorrelator> CORRELATOR = AttributeKey
+        .valueOf(ResponseCorrelationHandler.class, "correlator");
+
+    /**
+     * Default constructor.
+     */
+    public ResponseCorrelationHandler() {
+        super();
+    }
+
+    @Override
+    public final void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        ctx.channel()
+            .attr(CORRELATOR)
+            .get()
+            .failAll(new ClosedChannelException());
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        final ResponseCorrelator correlator;
+
+        correlator = ctx.channel()
+            .attr(CORRELATOR)
+            .get();
+        if (msg instanceof String) {
+            correlator.complete((String) msg);
+        } else if ((msg instanceof ByteBuf) && !correlator.isEmpty()) {
+            correlator.complete(((ByteBuf) msg).toString(MessageBuffers.CHARSET));
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs one in each N buffers read or written, with a hex dump limited to a maximum size. Meant for diagnostics under
+ * load, where logging every buffer would cost too much.
+ * <p>
+ * Buffers are logged at debug level. Unsampled buffers only cost a counter increment.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class SampledLoggingHandler extends ChannelDuplexHandler {
+
+    /**
+     * Buffers seen since the last one logged.
+     */
+    private int       count;
+
+    /**
+     * Maximum bytes included in the hex dump.
+     */
+    private final int maxDumpBytes;
+
+    /**
+     * Buffers seen for each one logged.
+     */
+    private final int sampleRate;
+
+    /**
+     * Constructs a handler logging one in each N buffers.
+     *
+     * @param rate
+     *            buffers seen for each one logged
+     * @param maxBytes
+     *            maximum bytes included in the hex dump
+     */
+    public SampledLoggingHandler(final int rate, final int maxBytes) {
+        super();
+
+        if (rate <= 0) {
+            throw new IllegalArgumentException("The sample rate should be positive");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The dump size can't be negative");
+        }
+
+        sampleRate = rate;
+        maxDumpBytes = maxBytes;
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        sample(ctx, "READ", msg);
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public final void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        sample(ctx, "WRITE", msg);
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Logs the message if it's a buffer, and it's the one to sample.
+     *
+     * @param ctx
+     *            channel context
+     * @param event
+     *            event name
+     * @param msg
+     *            message to log
+     */
+    private final void sample(final ChannelHandlerContext ctx, final String event, final Object msg) {
+        final ByteBuf buffer;
+        final int     length;
+
+        if (msg instanceof ByteBuf) {
+            count++;
+            if (count >= sampleRate) {
+                count = 0;
+                if (log.isDebugEnabled()) {
+                    buffer = (ByteBuf) msg;
+                    length = Math.min(buffer.readableBytes(), maxDumpBytes);
+                    log.debug("{} {}: {}B, showing {}B (1 in {} sampled)\n{}", ctx.channel(), event,
+                        buffer.readableBytes(), length, sampleRate,
+                        ByteBufUtil.prettyHexDump(buffer, buffer.readerIndex(), length));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.util.Objects;
+
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Transaction metrics channel handler. Counts the bytes of the messages read and written, by the readable bytes of
+ * their buffers, so they are measured as sent, whatever the charset of the string codec.
+ * <p>
+ * It goes after framing and before the string codec, so each read is a whole message, and the framing, such as
+ * delimiters and length fields, is not counted.
+ * <p>
+ * It keeps no state, so it can be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Sharable
+public final class TransactionMetricsHandler extends ChannelDuplexHandler {
+
+    /**
+     * Metrics where the bytes are recorded.
+     */
+    private final TransactionMetrics metrics;
+
+    /**
+     * Constructs a handler which records into the received metrics.
+     *
+     * @param mtrcs
+     *            metrics where the bytes are recorded
+     */
+    public TransactionMetricsHandler(final TransactionMetrics mtrcs) {
+        super();
+
+        metrics = Objects.requireNonNull(mtrcs);
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (msg instanceof ByteBuf) {
+            metrics.recordBytesReceived(((ByteBuf) msg).readableBytes());
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public final void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        if (msg instanceof ByteBuf) {
+            metrics.recordBytesSent(((ByteBuf) msg).readableBytes());
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
+}
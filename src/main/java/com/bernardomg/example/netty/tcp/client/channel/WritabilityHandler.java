@@ -0,0 +1,147 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.channel;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writability channel handler. Lets producers wait until the channel is writable, instead of piling up writes in the
+ * outbound buffer.
+ * <p>
+ * The channel stops being writable once the outbound buffer goes over the high water mark, and is writable again once
+ * it goes under the low water mark. Waiters are also released when the channel is closed, so the following write
+ * reports the failure.
+ * <p>
+ * It keeps the waiters of a single channel, so it can't be shared.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class WritabilityHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * Future for channels which are already writable.
+     */
+    private static final CompletableFuture<Void> WRITABLE = CompletableFuture.completedFuture(null);
+
+    /**
+     * Channel being watched.
+     */
+    private Channel                              channel;
+
+    /**
+     * Producers waiting for the channel to be writable.
+     */
+    private final Queue<CompletableFuture<Void>> waiters  = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Default constructor.
+     */
+    public WritabilityHandler() {
+        super();
+    }
+
+    @Override
+    public final void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        release();
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public final void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel()
+            .isWritable()) {
+            log.trace("Channel writable, releasing waiters");
+            release();
+        } else {
+            log.trace("Channel not writable");
+        }
+
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public final void handlerAdded(final ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+    }
+
+    /**
+     * Returns a future which completes once the channel is writable. If it already is, the future is completed.
+     * <p>
+     * Can be called from any thread.
+     *
+     * @return a future completed once the channel is writable
+     */
+    public final CompletableFuture<Void> whenWritable() {
+        final CompletableFuture<Void> writable;
+
+        if (isReady()) {
+            writable = WRITABLE;
+        } else {
+            writable = new CompletableFuture<>();
+            waiters.offer(writable);
+
+            // The channel may have changed while registering
+            if (isReady()) {
+                release();
+            }
+        }
+
+        return writable;
+    }
+
+    /**
+     * Checks if producers don't need to wait. This is when the channel is writable, or when it is closed, as nothing
+     * will change then.
+     *
+     * @return {@code true} if producers don't need to wait
+     */
+    private final boolean isReady() {
+        return channel.isWritable() || !channel.isActive();
+    }
+
+    /**
+     * Releases all the waiters.
+     */
+    private final void release() {
+        CompletableFuture<Void> waiter;
+
+        waiter = waiters.poll();
+        while (waiter != null) {
+            waiter.complete(null);
+            waiter = waiters.poll();
+        }
+    }
+
+}
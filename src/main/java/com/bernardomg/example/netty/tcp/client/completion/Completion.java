@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.completion;
+
+/**
+ * Reason for a transaction to be complete.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum Completion {
+
+    /**
+     * The connection was closed by the server.
+     */
+    CLOSED("connection closed by the server"),
+    /**
+     * Nothing was read for the read idle timeout.
+     */
+    IDLE("nothing read for the idle timeout"),
+    /**
+     * All the expected responses were received.
+     */
+    RESPONSES("all responses received"),
+    /**
+     * The maximum waiting time ran out.
+     */
+    TIMEOUT("waiting time ran out");
+
+    /**
+     * Human readable description.
+     */
+    private final String description;
+
+    /**
+     * Constructs a completion with the received description.
+     *
+     * @param dscrptn
+     *            human readable description
+     */
+    private Completion(final String dscrptn) {
+        description = dscrptn;
+    }
+
+    /**
+     * Returns a human readable description of the completion.
+     *
+     * @return the completion description
+     */
+    public final String getDescription() {
+        return description;
+    }
+
+}
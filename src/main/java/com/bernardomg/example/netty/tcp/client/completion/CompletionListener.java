@@ -0,0 +1,210 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.completion;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+
+import io.netty.buffer.ByteBuf;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transaction listener which tracks when the transaction is complete, and passes all the events to another listener.
+ * <p>
+ * The transaction is complete once the expected number of responses is received, nothing is read for the read idle
+ * timeout, or the server closes the connection. Whichever comes first.
+ * <p>
+ * The read idle timeout should be longer than any pause between messages, or the transaction may be complete while
+ * still sending.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class CompletionListener implements TransactionListener {
+
+    /**
+     * Completed once the transaction is complete.
+     */
+    private final CompletableFuture<Completion> completion = new CompletableFuture<>();
+
+    /**
+     * Listener receiving all the events.
+     */
+    private final TransactionListener           delegate;
+
+    /**
+     * Flags the client reconnects. If so, losing the connection doesn't complete the transaction.
+     */
+    private final boolean                       reconnects;
+
+    /**
+     * Responses still expected.
+     */
+    private final AtomicInteger                 remaining;
+
+    /**
+     * Constructs a listener which waits for the received number of responses.
+     *
+     * @param dlgt
+     *            listener receiving all the events
+     * @param expected
+     *            number of responses expected. If zero, only idle periods and closed connections complete the
+     *            transaction
+     */
+    public CompletionListener(final TransactionListener dlgt, final int expected) {
+        this(dlgt, expected, false);
+    }
+
+    /**
+     * Constructs a listener which waits for the received number of responses. If the client reconnects, the
+     * transaction is not complete when the connection is lost, as the client will recover it.
+     *
+     * @param dlgt
+     *            listener receiving all the events
+     * @param expected
+     *            number of responses expected. If zero, only idle periods and closed connections complete the
+     *            transaction
+     * @param reconnect
+     *            flags the client reconnects
+     */
+    public CompletionListener(final TransactionListener dlgt, final int expected, final boolean reconnect) {
+        super();
+
+        delegate = Objects.requireNonNull(dlgt);
+        reconnects = reconnect;
+        if (expected < 0) {
+            throw new IllegalArgumentException("Expected responses can't be negative");
+        }
+        remaining = new AtomicInteger(expected);
+    }
+
+    /**
+     * Waits until the transaction is complete, at most for the received time.
+     *
+     * @param timeout
+     *            maximum time to wait
+     * @return the reason for the transaction to be complete
+     */
+    public final Completion await(final Duration timeout) {
+        Completion result;
+
+        try {
+            result = completion.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            result = Completion.TIMEOUT;
+        } catch (final InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        log.debug("Transaction complete: {}", result);
+
+        return result;
+    }
+
+    @Override
+    public final void onDisconnect() {
+        if (!reconnects) {
+            completion.complete(Completion.CLOSED);
+        }
+        delegate.onDisconnect();
+    }
+
+    @Override
+    public final void onIdle() {
+        completion.complete(Completion.IDLE);
+        delegate.onIdle();
+    }
+
+    @Override
+    public final void onReceive(final ByteBuf message) {
+        // The delegate goes first, so the response is handled before anyone stops waiting
+        delegate.onReceive(message);
+        received();
+    }
+
+    @Override
+    public final void onReceive(final String message) {
+        // The delegate goes first, so the response is handled before anyone stops waiting
+        delegate.onReceive(message);
+        received();
+    }
+
+    @Override
+    public final void onReconnect() {
+        delegate.onReconnect();
+    }
+
+    @Override
+    public final void onReconnecting(final int attempt, final Duration delay) {
+        delegate.onReconnecting(attempt, delay);
+    }
+
+    @Override
+    public final void onSend(final ByteBuf message) {
+        delegate.onSend(message);
+    }
+
+    @Override
+    public final void onSend(final String message) {
+        delegate.onSend(message);
+    }
+
+    @Override
+    public final void onStart() {
+        delegate.onStart();
+    }
+
+    @Override
+    public final void onStop() {
+        delegate.onStop();
+    }
+
+    @Override
+    public final void onWritabilityChanged(final boolean writable) {
+        delegate.onWritabilityChanged(writable);
+    }
+
+    /**
+     * Counts a response, and completes once all the expected responses are received.
+     */
+    private final void received() {
+        if (remaining.decrementAndGet() == 0) {
+            completion.complete(Completion.RESPONSES);
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.correlation;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FIFO response correlator. For protocols where the server answers the requests in the same order it receives them.
+ * <p>
+ * Requests which time out are kept in the queue, as their response is still expected, and would otherwise be matched
+ * with the next request. Their late response is discarded when it arrives. Against a server which stops answering
+ * these would pile up, so once too many requests are waiting after timing out the channel should be closed.
+ * <p>
+ * Requests which don't wait for a response are skipped, keeping their place in the queue. So the server should answer
+ * all the messages, otherwise these places are never freed, and the responses are matched with the wrong requests.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class FifoResponseCorrelator implements ResponseCorrelator {
+
+    /**
+     * Default maximum number of timed out requests waiting for their response.
+     */
+    public static final int                        DEFAULT_MAX_TIMED_OUT = 128;
+
+    /**
+     * Place kept for a request which doesn't wait for its response. Never completed.
+     */
+    private static final CompletableFuture<String> SKIPPED               = new CompletableFuture<>();
+
+    /**
+     * Requests waiting for a response, in the order they were sent.
+     */
+    private final Queue<CompletableFuture<String>> inFlight              = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Maximum number of timed out requests waiting for their response.
+     */
+    private final int                              maxTimedOut;
+
+    /**
+     * Timed out requests waiting for their response.
+     */
+    private final AtomicInteger                    timedOut              = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     */
+    public FifoResponseCorrelator() {
+        this(DEFAULT_MAX_TIMED_OUT);
+    }
+
+    /**
+     * Constructs a correlator which allows up to the received number of timed out requests waiting for their response.
+     *
+     * @param maxTmdOut
+     *            maximum number of timed out requests waiting for their response
+     */
+    public FifoResponseCorrelator(final int maxTmdOut) {
+        super();
+
+        if (maxTmdOut <= 0) {
+            throw new IllegalArgumentException("The maximum number of timed out requests should be positive");
+        }
+
+        maxTimedOut = maxTmdOut;
+    }
+
+    @Override
+    public final boolean complete(final String response) {
+        final CompletableFuture<String> request;
+        final boolean                   matched;
+
+        request = inFlight.poll();
+        if (request == null) {
+            log.trace("Received response with no request waiting for it");
+            matched = false;
+        } else if (request == SKIPPED) {
+            // Expected for plain requests, which don't wait for a response
+            log.trace("Received response for a request not waiting for it");
+            matched = false;
+        } else {
+            matched = request.complete(response);
+            if (!matched) {
+                // Late response
+                release(request);
+            }
+        }
+
+        return matched;
+    }
+
+    @Override
+    public final boolean expire(final CompletableFuture<String> response) {
+        // Released once removed from the queue, which may have happened already
+        return timedOut.incrementAndGet() >= maxTimedOut;
+    }
+
+    @Override
+    public final void failAll(final Throwable cause) {
+        CompletableFuture<String> request;
+
+        request = inFlight.poll();
+        while (request != null) {
+            if ((request != SKIPPED) && !request.completeExceptionally(cause)) {
+                release(request);
+            }
+            request = inFlight.poll();
+        }
+    }
+
+    @Override
+    public final int getInFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return inFlight.isEmpty();
+    }
+
+    @Override
+    public final void register(final String request, final CompletableFuture<String> response) {
+        inFlight.add(response);
+    }
+
+    @Override
+    public final void skip() {
+        inFlight.add(SKIPPED);
+    }
+
+    @Override
+    public final void unregister(final CompletableFuture<String> response) {
+        if (inFlight.remove(response)) {
+            release(response);
+        }
+    }
+
+    /**
+     * Stops counting a request removed from the queue, if it had timed out.
+     *
+     * @param request
+     *            request removed from the queue
+     */
+    private final void release(final CompletableFuture<String> request) {
+        final boolean expired;
+
+        // Resolved at once if the request is completed, otherwise it didn't time out
+        expired = request.handle((result, error) -> error instanceof TimeoutException)
+            .getNow(false);
+        if (expired) {
+            timedOut.decrementAndGet();
+        }
+    }
+
+}
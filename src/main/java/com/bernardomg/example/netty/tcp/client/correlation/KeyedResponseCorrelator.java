@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.correlation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keyed response correlator. For multiplexed protocols, where each message carries an id, and responses may arrive in
+ * any order.
+ * <p>
+ * Requests are removed as soon as they complete, be it by a response, a timeout or a cancellation. Responses arriving
+ * after that are discarded.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class KeyedResponseCorrelator implements ResponseCorrelator {
+
+    /**
+     * Requests waiting for a response, by id.
+     */
+    private final Map<Object, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Extracts the id from a request.
+     */
+    private final Function<String, ?>                    requestId;
+
+    /**
+     * Extracts the id from a response.
+     */
+    private final Function<String, ?>                    responseId;
+
+    /**
+     * Constructs a correlator using the same id extractor for requests and responses.
+     *
+     * @param idExtractor
+     *            id extractor
+     */
+    public KeyedResponseCorrelator(final Function<String, ?> idExtractor) {
+        this(idExtractor, idExtractor);
+    }
+
+    /**
+     * Constructs a correlator using the received id extractors.
+     *
+     * @param requestIdExtractor
+     *            request id extractor
+     * @param responseIdExtractor
+     *            response id extractor
+     */
+    public KeyedResponseCorrelator(final Function<String, ?> requestIdExtractor,
+            final Function<String, ?> responseIdExtractor) {
+        super();
+
+        requestId = Objects.requireNonNull(requestIdExtractor);
+        responseId = Objects.requireNonNull(responseIdExtractor);
+    }
+
+    @Override
+    public final boolean complete(final String response) {
+        final CompletableFuture<String> request;
+        final boolean                   matched;
+        final Object                    id;
+
+        id = responseId.apply(response);
+        request = inFlight.remove(id);
+        if (request == null) {
+            // Expected for plain requests, which don't wait for a response
+            log.trace("Received response with id {}, but no request is waiting for it", id);
+            matched = false;
+        } else {
+            matched = request.complete(response);
+        }
+
+        return matched;
+    }
+
+    @Override
+    public final void failAll(final Throwable cause) {
+        inFlight.values()
+            .forEach(r -> r.completeExceptionally(cause));
+        inFlight.clear();
+    }
+
+    @Override
+    public final int getInFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return inFlight.isEmpty();
+    }
+
+    @Override
+    public final void register(final String request, final CompletableFuture<String> response) {
+        final Object id;
+
+        id = requestId.apply(request);
+        if (inFlight.putIfAbsent(id, response) == null) {
+            // Removed once completed, so timed out and cancelled requests don't stay in memory
+            response.whenComplete((r, e) -> inFlight.remove(id, response));
+        } else {
+            response.completeExceptionally(
+                new IllegalStateException(String.format("A request with id %s is already in flight", id)));
+        }
+    }
+
+    @Override
+    public final void unregister(final CompletableFuture<String> response) {
+        inFlight.values()
+            .remove(response);
+    }
+
+}
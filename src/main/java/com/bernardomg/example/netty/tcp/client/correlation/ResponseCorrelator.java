@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.correlation;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Response correlator. Keeps track of the requests waiting for a response in a single channel, and completes them as
+ * the responses arrive.
+ * <p>
+ * Correlation only makes sense when each message read from the channel is a full response. Otherwise a response may be
+ * split into several reads, or several responses merged into one.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public interface ResponseCorrelator {
+
+    /**
+     * Receives a response, and completes the request it belongs to.
+     *
+     * @param response
+     *            response received
+     * @return {@code true} if the response was matched with a request, {@code false} otherwise
+     */
+    public boolean complete(final String response);
+
+    /**
+     * Receives a registered request which timed out. Its response may still arrive, so the correlator may have to keep
+     * track of it. If too many of them pile up, the channel should be closed, which fails all the requests waiting.
+     *
+     * @param response
+     *            future of the request which timed out
+     * @return {@code true} if the channel should be closed, {@code false} otherwise
+     */
+    public default boolean expire(final CompletableFuture<String> response) {
+        return false;
+    }
+
+    /**
+     * Fails all the requests still waiting for a response. Used when the channel is closed.
+     *
+     * @param cause
+     *            failure cause
+     */
+    public void failAll(final Throwable cause);
+
+    /**
+     * Returns the number of requests waiting for a response.
+     *
+     * @return the number of requests in flight
+     */
+    public int getInFlight();
+
+    /**
+     * Checks if there are no requests waiting for a response. Cheaper than {@link #getInFlight()}, so it is used to
+     * avoid decoding responses nobody is waiting for.
+     *
+     * @return {@code true} if no request is in flight, {@code false} otherwise
+     */
+    public default boolean isEmpty() {
+        return getInFlight() == 0;
+    }
+
+    /**
+     * Registers a request which is going to be sent. The future will be completed with its response.
+     * <p>
+     * Requests must be registered in the same order they are written into the channel.
+     *
+     * @param request
+     *            request to send
+     * @param response
+     *            future to complete with the response
+     */
+    public void register(final String request, final CompletableFuture<String> response);
+
+    /**
+     * Registers a request which is going to be sent, but doesn't wait for a response. Correlators matching the responses
+     * by their order keep its place, so its response is discarded instead of completing the next request.
+     * <p>
+     * Like any other request, it must be registered in the same order it is written into the channel.
+     */
+    public default void skip() {}
+
+    /**
+     * Removes a registered request. Used when the request could not be sent, and so no response will arrive for it.
+     *
+     * @param response
+     *            future of the request to remove
+     */
+    public void unregister(final CompletableFuture<String> response);
+
+}
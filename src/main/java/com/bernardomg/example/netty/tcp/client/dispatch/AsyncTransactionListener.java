@@ -0,0 +1,479 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.dispatch;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.bernardomg.example.netty.tcp.client.MessageBuffers;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.ThreadExecutorMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transaction listener which hands the events to another listener, in a thread of its own. So a slow listener, such as
+ * one printing into the console, doesn't run in the event loop.
+ * <p>
+ * Events go into a bounded multiple producer, single consumer queue, which is drained by the dispatch thread. When the
+ * queue is full, the overflow policy decides what to do with new events. Start and stop events are never lost, as
+ * they always wait for room in the queue. They come from the thread connecting or closing the client, never from the
+ * event loop.
+ * <p>
+ * No event coming from an event loop ever waits for room in the queue. There, the blocking policy falls back to
+ * coalescing, so a slow listener can't stall the socket reads.
+ * <p>
+ * Connection, idle and writability events never wait for room in the queue, unless the policy is to block and they
+ * don't come from an event loop. When they don't fit, only the latest event of each kind is kept, and delivered once
+ * the dispatch thread runs out of queued events. So the listener always ends up with the latest state of the
+ * connection.
+ * <p>
+ * Buffers are retained until delivered, as the event loop releases them once the listener returns. So a full queue may
+ * hold as many buffers as its capacity. When coalescing, buffers which don't fit in the queue are decoded and released
+ * at once.
+ * <p>
+ * Once done, the listener should be closed, so the pending events are delivered and the thread stops.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class AsyncTransactionListener implements TransactionListener, AutoCloseable {
+
+    /**
+     * Maximum time the dispatch thread sleeps while idle, in nanoseconds.
+     */
+    private static final long               IDLE_WAIT            = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Time waited between attempts to queue an event, when blocking, in nanoseconds.
+     */
+    private static final long               BLOCK_WAIT           = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Latest connection event which couldn't be queued. These are the disconnect and reconnect events.
+     */
+    private final AtomicReference<Runnable> coalescedConnection  = new AtomicReference<>();
+
+    /**
+     * Latest idle event which couldn't be queued.
+     */
+    private final AtomicReference<Runnable> coalescedIdle        = new AtomicReference<>();
+
+    /**
+     * Latest received message which couldn't be queued. Only used when coalescing.
+     */
+    private final AtomicReference<String>   coalescedReceive     = new AtomicReference<>();
+
+    /**
+     * Latest sent message which couldn't be queued. Only used when coalescing.
+     */
+    private final AtomicReference<String>   coalescedSend        = new AtomicReference<>();
+
+    /**
+     * Latest writability event which couldn't be queued.
+     */
+    private final AtomicReference<Runnable> coalescedWritability = new AtomicReference<>();
+
+    /**
+     * Listener receiving the events.
+     */
+    private final TransactionListener       delegate;
+
+    /**
+     * Dispatch thread.
+     */
+    private final Thread                    dispatcher;
+
+    /**
+     * Events lost due to a full queue.
+     */
+    private final LongAdder                 dropped              = new LongAdder();
+
+    /**
+     * Flags that the dispatch thread is sleeping.
+     */
+    private volatile boolean                idle;
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    private final OverflowPolicy            overflow;
+
+    /**
+     * Pending events.
+     */
+    private final Queue<Runnable>           queue;
+
+    /**
+     * Flags that the listener is still open.
+     */
+    private volatile boolean                running              = true;
+
+    /**
+     * Constructs an asynchronous listener. It starts the dispatch thread.
+     *
+     * @param dlgt
+     *            listener receiving the events
+     * @param capacity
+     *            maximum pending events
+     * @param ovrflw
+     *            what to do with an event when the queue is full
+     */
+    public AsyncTransactionListener(final TransactionListener dlgt, final int capacity, final OverflowPolicy ovrflw) {
+        super();
+
+        delegate = Objects.requireNonNull(dlgt);
+        overflow = Objects.requireNonNull(ovrflw);
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity should be positive");
+        }
+
+        queue = PlatformDependent.newFixedMpscQueue(capacity);
+
+        dispatcher = new DefaultThreadFactory("listener", true).newThread(this::dispatch);
+        dispatcher.start();
+    }
+
+    /**
+     * Delivers the pending events, and stops the dispatch thread.
+     */
+    @Override
+    public final void close() {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the number of events lost due to a full queue. When coalescing, this counts the replaced events.
+     *
+     * @return the number of events lost
+     */
+    public final long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public final void onDisconnect() {
+        control(delegate::onDisconnect, coalescedConnection);
+    }
+
+    @Override
+    public final void onIdle() {
+        control(delegate::onIdle, coalescedIdle);
+    }
+
+    @Override
+    public final void onReceive(final ByteBuf message) {
+        final ByteBuf  retained;
+        final Runnable event;
+
+        // Kept until delivered
+        retained = message.retainedDuplicate();
+        event = () -> {
+            try {
+                delegate.onReceive(retained);
+            } finally {
+                retained.release();
+            }
+        };
+        if (!queue.offer(event)) {
+            overflow(event, coalescedReceive, retained);
+        }
+        wakeUp();
+    }
+
+    @Override
+    public final void onReceive(final String message) {
+        if (!queue.offer(() -> delegate.onReceive(message))) {
+            overflow(() -> delegate.onReceive(message), coalescedReceive, message);
+        }
+        wakeUp();
+    }
+
+    @Override
+    public final void onReconnect() {
+        control(delegate::onReconnect, coalescedConnection);
+    }
+
+    @Override
+    public final void onReconnecting(final int attempt, final Duration delay) {
+        control(() -> delegate.onReconnecting(attempt, delay), coalescedConnection);
+    }
+
+    @Override
+    public final void onSend(final ByteBuf message) {
+        final ByteBuf  retained;
+        final Runnable event;
+
+        // Kept until delivered
+        retained = message.retainedDuplicate();
+        event = () -> {
+            try {
+                delegate.onSend(retained);
+            } finally {
+                retained.release();
+            }
+        };
+        if (!queue.offer(event)) {
+            overflow(event, coalescedSend, retained);
+        }
+        wakeUp();
+    }
+
+    @Override
+    public final void onSend(final String message) {
+        if (!queue.offer(() -> delegate.onSend(message))) {
+            overflow(() -> delegate.onSend(message), coalescedSend, message);
+        }
+        wakeUp();
+    }
+
+    @Override
+    public final void onStart() {
+        block(delegate::onStart);
+        wakeUp();
+    }
+
+    @Override
+    public final void onStop() {
+        block(delegate::onStop);
+        wakeUp();
+    }
+
+    @Override
+    public final void onWritabilityChanged(final boolean writable) {
+        control(() -> delegate.onWritabilityChanged(writable), coalescedWritability);
+    }
+
+    /**
+     * Waits until the event is queued.
+     *
+     * @param event
+     *            event to queue
+     */
+    private final void block(final Runnable event) {
+        while (!queue.offer(event)) {
+            LockSupport.unpark(dispatcher);
+            // Sleeps instead of spinning, the listener is slow anyway
+            LockSupport.parkNanos(this, BLOCK_WAIT);
+        }
+    }
+
+    /**
+     * Queues a control event. If it doesn't fit, it replaces the latest event of the same kind, unless the policy is to
+     * block. Never waits otherwise, so the event loop is never stalled by the listener.
+     *
+     * @param event
+     *            event to queue
+     * @param coalesced
+     *            latest event of the same kind
+     */
+    private final void control(final Runnable event, final AtomicReference<Runnable> coalesced) {
+        // While an older event waits to be delivered, newer ones replace it, so they are never delivered before it
+        if ((coalesced.get() != null) || !queue.offer(event)) {
+            if (OverflowPolicy.BLOCK.equals(getPolicy())) {
+                block(event);
+            } else if (coalesced.getAndSet(event) != null) {
+                dropped.increment();
+            }
+        }
+        wakeUp();
+    }
+
+    /**
+     * Delivers the coalesced events, if there are any.
+     *
+     * @return {@code true} if any event was delivered
+     */
+    private final boolean deliverCoalesced() {
+        final Runnable connection;
+        final Runnable idleEvent;
+        final Runnable writability;
+        final String   send;
+        final String   receive;
+
+        connection = coalescedConnection.getAndSet(null);
+        if (connection != null) {
+            deliver(connection);
+        }
+        idleEvent = coalescedIdle.getAndSet(null);
+        if (idleEvent != null) {
+            deliver(idleEvent);
+        }
+        writability = coalescedWritability.getAndSet(null);
+        if (writability != null) {
+            deliver(writability);
+        }
+        send = coalescedSend.getAndSet(null);
+        if (send != null) {
+            deliver(() -> delegate.onSend(send));
+        }
+        receive = coalescedReceive.getAndSet(null);
+        if (receive != null) {
+            deliver(() -> delegate.onReceive(receive));
+        }
+
+        return (connection != null) || (idleEvent != null) || (writability != null) || (send != null)
+                || (receive != null);
+    }
+
+    /**
+     * Delivers an event to the listener. Errors are logged, so they don't stop the dispatch thread.
+     *
+     * @param event
+     *            event to deliver
+     */
+    private final void deliver(final Runnable event) {
+        try {
+            event.run();
+        } catch (final RuntimeException e) {
+            log.error("Listener failed", e);
+        }
+    }
+
+    /**
+     * Dispatch loop. Runs until the listener is closed and all the events are delivered.
+     */
+    private final void dispatch() {
+        Runnable event;
+
+        while (running || !queue.isEmpty()) {
+            event = queue.poll();
+            if (event != null) {
+                deliver(event);
+            } else if (!deliverCoalesced() && running) {
+                idle = true;
+                // Checked again, in case an event arrived before flagging
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_WAIT);
+                }
+                idle = false;
+            }
+        }
+        deliverCoalesced();
+    }
+
+    /**
+     * Returns the overflow policy for the current thread. Event loops never block, so for them the blocking policy
+     * becomes coalescing.
+     *
+     * @return the overflow policy to apply
+     */
+    private final OverflowPolicy getPolicy() {
+        final OverflowPolicy policy;
+
+        if (OverflowPolicy.BLOCK.equals(overflow) && (ThreadExecutorMap.currentExecutor() != null)) {
+            policy = OverflowPolicy.COALESCE;
+        } else {
+            policy = overflow;
+        }
+
+        return policy;
+    }
+
+    /**
+     * Applies the overflow policy to a buffer event which didn't fit in the queue. Unless the event is queued, the buffer
+     * is released.
+     *
+     * @param event
+     *            event to queue
+     * @param coalesced
+     *            latest event of the same kind, for coalescing
+     * @param message
+     *            event buffer, retained for the event
+     */
+    private final void overflow(final Runnable event, final AtomicReference<String> coalesced, final ByteBuf message) {
+        switch (getPolicy()) {
+            case BLOCK:
+                block(event);
+                break;
+            case COALESCE:
+                try {
+                    overflow(event, coalesced, message.toString(MessageBuffers.CHARSET));
+                } finally {
+                    message.release();
+                }
+                break;
+            case DROP:
+            default:
+                message.release();
+                dropped.increment();
+                break;
+        }
+    }
+
+    /**
+     * Applies the overflow policy to an event which didn't fit in the queue.
+     *
+     * @param event
+     *            event to queue
+     * @param coalesced
+     *            latest event of the same kind, for coalescing
+     * @param message
+     *            event message
+     */
+    private final void overflow(final Runnable event, final AtomicReference<String> coalesced, final String message) {
+        switch (getPolicy()) {
+            case BLOCK:
+                block(event);
+                break;
+            case COALESCE:
+                if (coalesced.getAndSet(message) != null) {
+                    dropped.increment();
+                }
+                break;
+            case DROP:
+            default:
+                dropped.increment();
+                break;
+        }
+    }
+
+    /**
+     * Wakes up the dispatch thread, if it's sleeping.
+     */
+    private final void wakeUp() {
+        if (idle) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+}
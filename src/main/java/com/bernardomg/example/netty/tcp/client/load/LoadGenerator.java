@@ -0,0 +1,295 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Recorder;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends requests at a fixed rate, through several connections, and measures the latency of their responses.
+ * <p>
+ * The load is open-loop: each request has a scheduled time, which doesn't depend on previous responses. Latencies are
+ * measured from that scheduled time, not from the actual send. So, when the server falls behind and the requests have
+ * to wait for a free slot, that wait counts as latency, instead of being hidden by sending less requests.
+ * <p>
+ * Responses are matched with their requests through {@link Client#exchange(String, Duration)}, so the server is
+ * expected to answer each request, and the pipeline should use framing.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class LoadGenerator {
+
+    /**
+     * Creates the clients. One for each connection.
+     */
+    private final Supplier<Client> clientFactory;
+
+    /**
+     * Load settings.
+     */
+    private final LoadSettings     settings;
+
+    /**
+     * Constructs a load generator with the received client factory and settings.
+     *
+     * @param clients
+     *            creates a client for each connection
+     * @param sttngs
+     *            load settings
+     */
+    public LoadGenerator(final Supplier<Client> clients, final LoadSettings sttngs) {
+        super();
+
+        clientFactory = Objects.requireNonNull(clients);
+        settings = Objects.requireNonNull(sttngs);
+    }
+
+    /**
+     * Runs the load, and returns the results once all the requests are answered, or have timed out.
+     *
+     * @return the load results
+     */
+    public final LoadReport run() {
+        final List<Client>    clients;
+        final List<Semaphore> slots;
+        final Measures        warmUpMeasures;
+        final Measures        measures;
+        final String          payload;
+        final long            start;
+        final long            warmUpEnd;
+        final long            end;
+        long                  scheduled;
+        long                  count;
+        int                   index;
+
+        clients = new ArrayList<>(settings.getConnections());
+        slots = new ArrayList<>(settings.getConnections());
+        for (int i = 0; i < settings.getConnections(); i++) {
+            clients.add(clientFactory.get());
+            slots.add(new Semaphore(settings.getDepth()));
+        }
+        clients.forEach(Client::connect);
+
+        warmUpMeasures = new Measures();
+        measures = new Measures();
+        payload = "x".repeat(settings.getPayloadSize());
+
+        log.debug("Sending {} requests per second through {} connections", settings.getRate(),
+            settings.getConnections());
+
+        start = System.nanoTime();
+        warmUpEnd = start + settings.getWarmUp()
+            .toNanos();
+        end = warmUpEnd + settings.getDuration()
+            .toNanos();
+
+        count = 0;
+        scheduled = start;
+        while (scheduled < end) {
+            waitUntil(scheduled);
+
+            index = (int) (count % settings.getConnections());
+            acquire(slots.get(index));
+            if (scheduled < warmUpEnd) {
+                send(clients.get(index), slots.get(index), payload, scheduled, warmUpMeasures);
+            } else {
+                send(clients.get(index), slots.get(index), payload, scheduled, measures);
+            }
+
+            count++;
+            scheduled = start + getOffset(count);
+        }
+
+        log.debug("Waiting for pending responses");
+        slots.forEach(this::drain);
+        clients.forEach(Client::close);
+
+        return LoadReport.builder()
+            .completed(measures.completed.sum())
+            .failed(measures.failed.sum())
+            .sent(measures.sent.sum())
+            .duration(settings.getDuration())
+            .latencies(measures.recorder.getIntervalHistogram())
+            .build();
+    }
+
+    /**
+     * Takes a slot for a request. Blocks until there is one free.
+     *
+     * @param slots
+     *            free slots in the connection
+     */
+    private final void acquire(final Semaphore slots) {
+        try {
+            slots.acquire();
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Waits until all the slots are free, or until the response timeout passes.
+     *
+     * @param slots
+     *            free slots in the connection
+     */
+    private final void drain(final Semaphore slots) {
+        try {
+            if (!slots.tryAcquire(settings.getDepth(), settings.getTimeout()
+                .toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Some requests are still pending");
+            }
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the time at which the received request is scheduled, counting from the start of the run.
+     * <p>
+     * Each time is computed from the start, instead of adding an interval to the previous one, so the truncation of
+     * the nanoseconds doesn't accumulate into a drift.
+     *
+     * @param count
+     *            index of the request
+     * @return the offset of the request from the start, in nanoseconds
+     */
+    private final long getOffset(final long count) {
+        final long second;
+        final long rate;
+
+        second = TimeUnit.SECONDS.toNanos(1);
+        rate = settings.getRate();
+
+        // Split into whole seconds and the remainder, to avoid overflowing on long runs
+        return ((count / rate) * second) + (((count % rate) * second) / rate);
+    }
+
+    /**
+     * Sends a request, and frees its slot once the response arrives.
+     *
+     * @param client
+     *            client to send the request
+     * @param slots
+     *            free slots in the connection
+     * @param payload
+     *            request to send
+     * @param scheduled
+     *            time for which the request was scheduled, in nanoseconds
+     * @param measures
+     *            where the request is measured
+     */
+    private final void send(final Client client, final Semaphore slots, final String payload, final long scheduled,
+            final Measures measures) {
+        measures.sent.increment();
+        client.exchange(payload, settings.getTimeout())
+            .whenComplete((response, error) -> {
+                slots.release();
+                measures.record(System.nanoTime() - scheduled, error);
+            });
+    }
+
+    /**
+     * Waits until the received time.
+     *
+     * @param time
+     *            time to wait for, in nanoseconds
+     */
+    private final void waitUntil(final long time) {
+        long remaining;
+
+        remaining = time - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = time - System.nanoTime();
+        }
+    }
+
+    /**
+     * Measures for the requests sent during a phase of the run.
+     *
+     * @author Bernardo Mart&iacute;nez Garrido
+     *
+     */
+    private static final class Measures {
+
+        /**
+         * Requests which received a response.
+         */
+        private final LongAdder completed = new LongAdder();
+
+        /**
+         * Requests which failed.
+         */
+        private final LongAdder failed    = new LongAdder();
+
+        /**
+         * Latencies of the completed requests, in nanoseconds.
+         */
+        private final Recorder  recorder  = new Recorder(3);
+
+        /**
+         * Requests sent.
+         */
+        private final LongAdder sent      = new LongAdder();
+
+        /**
+         * Records the outcome of a request.
+         *
+         * @param latency
+         *            time since the request was scheduled, in nanoseconds
+         * @param error
+         *            error, or {@code null} if the request completed
+         */
+        private final void record(final long latency, final Throwable error) {
+            if (error == null) {
+                recorder.recordValue(latency);
+                completed.increment();
+            } else {
+                log.debug("Request failed: {}", error.getLocalizedMessage());
+                failed.increment();
+            }
+        }
+
+    }
+
+}
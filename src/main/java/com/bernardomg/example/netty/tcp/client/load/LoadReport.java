@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.load;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Results of a {@link LoadGenerator} run. Only includes the requests scheduled after the warm-up.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class LoadReport {
+
+    /**
+     * Requests which received a response.
+     */
+    private final long      completed;
+
+    /**
+     * Measured time.
+     */
+    @NonNull
+    private final Duration  duration;
+
+    /**
+     * Requests which failed, or didn't receive a response in time.
+     */
+    private final long      failed;
+
+    /**
+     * Latencies of the completed requests, in nanoseconds. Measured from the time each request was scheduled.
+     */
+    @NonNull
+    private final Histogram latencies;
+
+    /**
+     * Requests sent.
+     */
+    private final long      sent;
+
+    /**
+     * Returns the completed requests for each second.
+     *
+     * @return the completed requests for each second
+     */
+    public final double getThroughput() {
+        return completed * (double) TimeUnit.SECONDS.toNanos(1) / duration.toNanos();
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.load;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for a {@link LoadGenerator} run.
+ * <p>
+ * The rate can't be higher than one request each nanosecond, as that is the resolution used to schedule them.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class LoadSettings {
+
+    /**
+     * Highest rate allowed. One request each nanosecond.
+     */
+    public static final int MAX_RATE = 1_000_000_000;
+
+    /**
+     * Number of connections. Requests are spread evenly among them.
+     */
+    @Builder.Default
+    private final int      connections = 1;
+
+    /**
+     * Maximum number of requests waiting for a response on each connection.
+     */
+    @Builder.Default
+    private final int      depth       = 1;
+
+    /**
+     * Time during which latencies are measured, after the warm-up.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration duration    = Duration.ofSeconds(10);
+
+    /**
+     * Size of each request, in bytes.
+     */
+    @Builder.Default
+    private final int      payloadSize = 64;
+
+    /**
+     * Requests sent each second.
+     */
+    @Builder.Default
+    private final int      rate        = 1000;
+
+    /**
+     * Time to wait for each response.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration timeout     = Duration.ofSeconds(5);
+
+    /**
+     * Time during which requests are sent, but not measured.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration warmUp      = Duration.ofSeconds(2);
+
+    /**
+     * Constructs load settings, validating them.
+     *
+     * @param cnnctns
+     *            number of connections
+     * @param dpth
+     *            maximum number of requests waiting for a response on each connection
+     * @param drtn
+     *            time during which latencies are measured
+     * @param pyldSize
+     *            size of each request
+     * @param rt
+     *            requests sent each second
+     * @param tmt
+     *            time to wait for each response
+     * @param wrmUp
+     *            time during which requests are sent, but not measured
+     */
+    private LoadSettings(final int cnnctns, final int dpth, @NonNull final Duration drtn, final int pyldSize,
+            final int rt, @NonNull final Duration tmt, @NonNull final Duration wrmUp) {
+        super();
+
+        if (rt <= 0) {
+            throw new IllegalArgumentException("The rate should be positive");
+        }
+        if (rt > MAX_RATE) {
+            throw new IllegalArgumentException("The rate can't be higher than " + MAX_RATE);
+        }
+        if (cnnctns <= 0) {
+            throw new IllegalArgumentException("The number of connections should be positive");
+        }
+        if (dpth <= 0) {
+            throw new IllegalArgumentException("The depth should be positive");
+        }
+
+        connections = cnnctns;
+        depth = dpth;
+        duration = drtn;
+        payloadSize = pyldSize;
+        rate = rt;
+        timeout = tmt;
+        warmUp = wrmUp;
+    }
+
+}
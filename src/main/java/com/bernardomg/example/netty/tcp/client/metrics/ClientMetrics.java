@@ -0,0 +1,379 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelId;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Client metrics. Counters aggregated for all the connections, along with the metrics of each open connection.
+ * <p>
+ * Counters are striped, so the event loops of several connections can update them without contending. Gauges, such as
+ * the pending outbound bytes, are computed from the open connections when read.
+ * <p>
+ * They can be exported through JMX, or published into any {@link MetricsRegistry}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class ClientMetrics implements ClientMetricsMXBean {
+
+    /**
+     * Domain for the JMX object names.
+     */
+    public static final String                      JMX_DOMAIN       = "com.bernardomg.example.netty.tcp";
+
+    /**
+     * Prefix for the names of the metrics published into registries.
+     */
+    private static final String                     PREFIX           = "tcp.client.";
+
+    /**
+     * Bytes read from all the connections.
+     */
+    private final LongAdder                         bytesRead        = new LongAdder();
+
+    /**
+     * Bytes written into all the connections.
+     */
+    private final LongAdder                         bytesWritten     = new LongAdder();
+
+    /**
+     * Connection attempts which failed.
+     */
+    private final LongAdder                         connectFailures  = new LongAdder();
+
+    /**
+     * Metrics of the open connections.
+     */
+    private final Map<ChannelId, ConnectionMetrics> connections      = new ConcurrentHashMap<>();
+
+    /**
+     * Successful connection attempts.
+     */
+    private final LongAdder                         connects         = new LongAdder();
+
+    /**
+     * Longest time taken to connect, in microseconds.
+     */
+    private final LongAccumulator                   connectTimeMax   = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Time taken by all the successful connection attempts, in microseconds.
+     */
+    private final LongAdder                         connectTimeTotal = new LongAdder();
+
+    /**
+     * Messages read from all the connections.
+     */
+    private final LongAdder                         messagesRead     = new LongAdder();
+
+    /**
+     * Messages written into all the connections.
+     */
+    private final LongAdder                         messagesWritten  = new LongAdder();
+
+    /**
+     * Name under which the metrics are registered in JMX. {@code null} if they are not registered.
+     */
+    private ObjectName                              objectName;
+
+    /**
+     * Writes which failed in all the connections.
+     */
+    private final LongAdder                         writeFailures    = new LongAdder();
+
+    /**
+     * Default constructor.
+     */
+    public ClientMetrics() {
+        super();
+    }
+
+    /**
+     * Publishes the aggregated metrics into the received registry.
+     *
+     * @param registry
+     *            registry where the metrics are published
+     */
+    public final void bindTo(final MetricsRegistry registry) {
+        registry.gauge(PREFIX + "connections.active", "Open connections", this::getActiveConnections);
+        registry.counter(PREFIX + "bytes.read", "Bytes read", this::getBytesRead);
+        registry.counter(PREFIX + "bytes.written", "Bytes written", this::getBytesWritten);
+        registry.counter(PREFIX + "connects", "Successful connection attempts", this::getConnects);
+        registry.counter(PREFIX + "connects.failed", "Connection attempts which failed", this::getConnectFailures);
+        registry.gauge(PREFIX + "connect.time.max", "Longest time taken to connect, in microseconds",
+            this::getConnectTimeMax);
+        registry.counter(PREFIX + "connect.time.total", "Time taken to connect, in microseconds",
+            this::getConnectTimeTotal);
+        registry.gauge(PREFIX + "event.loop.pending.tasks", "Tasks waiting in the event loops",
+            this::getEventLoopPendingTasks);
+        registry.counter(PREFIX + "messages.read", "Messages read", this::getMessagesRead);
+        registry.counter(PREFIX + "messages.written", "Messages written", this::getMessagesWritten);
+        registry.gauge(PREFIX + "outbound.pending.bytes", "Bytes waiting in the outbound buffers",
+            this::getPendingOutboundBytes);
+        registry.counter(PREFIX + "writes.failed", "Writes which failed", this::getWriteFailures);
+    }
+
+    /**
+     * Creates the metrics for a new connection. They are listed once the connection is opened.
+     *
+     * @param channel
+     *            channel for the connection
+     * @return the metrics for the connection
+     */
+    public final ConnectionMetrics connection(final Channel channel) {
+        return new ConnectionMetrics(this, channel);
+    }
+
+    @Override
+    public final int getActiveConnections() {
+        return connections.size();
+    }
+
+    @Override
+    public final long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public final long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public final List<ConnectionMetrics> getConnections() {
+        return new ArrayList<>(connections.values());
+    }
+
+    @Override
+    public final long getConnectFailures() {
+        return connectFailures.sum();
+    }
+
+    @Override
+    public final long getConnects() {
+        return connects.sum();
+    }
+
+    @Override
+    public final long getConnectTimeMax() {
+        return connectTimeMax.get();
+    }
+
+    @Override
+    public final long getConnectTimeTotal() {
+        return connectTimeTotal.sum();
+    }
+
+    @Override
+    public final long getEventLoopPendingTasks() {
+        final Set<EventExecutor> eventLoops;
+        long                     pending;
+
+        // Several connections may share an event loop
+        eventLoops = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final ConnectionMetrics connection : connections.values()) {
+            eventLoops.add(connection.channel()
+                .eventLoop());
+        }
+
+        pending = 0;
+        for (final EventExecutor eventLoop : eventLoops) {
+            if (eventLoop instanceof SingleThreadEventExecutor) {
+                pending += ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+            }
+        }
+
+        return pending;
+    }
+
+    @Override
+    public final long getMessagesRead() {
+        return messagesRead.sum();
+    }
+
+    @Override
+    public final long getMessagesWritten() {
+        return messagesWritten.sum();
+    }
+
+    @Override
+    public final long getPendingOutboundBytes() {
+        long pending;
+
+        pending = 0;
+        for (final ConnectionMetrics connection : connections.values()) {
+            pending += connection.getPendingOutboundBytes();
+        }
+
+        return pending;
+    }
+
+    @Override
+    public final long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, with the {@link #JMX_DOMAIN} domain and the received name.
+     *
+     * @param name
+     *            name for the metrics, telling apart several clients
+     */
+    public final synchronized void registerMBean(final String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics already registered as " + objectName);
+        }
+
+        try {
+            objectName = ObjectName.getInstance(JMX_DOMAIN + ":type=ClientMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(this, objectName);
+        } catch (final JMException e) {
+            objectName = null;
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+
+        log.debug("Registered metrics as {}", objectName);
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if they were registered.
+     */
+    public final synchronized void unregisterMBean() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+            } catch (final JMException e) {
+                log.warn("Could not unregister metrics {}", objectName, e);
+            }
+            objectName = null;
+        }
+    }
+
+    /**
+     * Lists an open connection.
+     *
+     * @param connection
+     *            connection metrics
+     */
+    final void add(final ConnectionMetrics connection) {
+        connections.put(connection.channel()
+            .id(), connection);
+    }
+
+    /**
+     * Records bytes read.
+     *
+     * @param bytes
+     *            bytes read
+     */
+    final void recordBytesRead(final long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    /**
+     * Records bytes written.
+     *
+     * @param bytes
+     *            bytes written
+     */
+    final void recordBytesWritten(final long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records a successful connection attempt.
+     *
+     * @param micros
+     *            time taken to connect, in microseconds
+     */
+    final void recordConnect(final long micros) {
+        connects.increment();
+        connectTimeTotal.add(micros);
+        connectTimeMax.accumulate(micros);
+    }
+
+    /**
+     * Records a connection attempt which failed.
+     */
+    final void recordConnectFailure() {
+        connectFailures.increment();
+    }
+
+    /**
+     * Records a message read.
+     */
+    final void recordMessageRead() {
+        messagesRead.increment();
+    }
+
+    /**
+     * Records a message written.
+     */
+    final void recordMessageWritten() {
+        messagesWritten.increment();
+    }
+
+    /**
+     * Records a write which failed.
+     */
+    final void recordWriteFailure() {
+        writeFailures.increment();
+    }
+
+    /**
+     * Stops listing a closed connection.
+     *
+     * @param connection
+     *            connection metrics
+     */
+    final void remove(final ConnectionMetrics connection) {
+        connections.remove(connection.channel()
+            .id());
+    }
+
+}
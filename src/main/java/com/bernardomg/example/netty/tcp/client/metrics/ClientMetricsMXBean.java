@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.util.List;
+
+/**
+ * Client metrics, as exported through JMX.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public interface ClientMetricsMXBean {
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return the number of open connections
+     */
+    public int getActiveConnections();
+
+    /**
+     * Returns the bytes read from all the connections.
+     *
+     * @return the bytes read
+     */
+    public long getBytesRead();
+
+    /**
+     * Returns the bytes written into all the connections.
+     *
+     * @return the bytes written
+     */
+    public long getBytesWritten();
+
+    /**
+     * Returns the metrics for each open connection.
+     *
+     * @return the metrics for each open connection
+     */
+    public List<ConnectionMetrics> getConnections();
+
+    /**
+     * Returns the connection attempts which failed.
+     *
+     * @return the connection attempts which failed
+     */
+    public long getConnectFailures();
+
+    /**
+     * Returns the successful connection attempts.
+     *
+     * @return the successful connection attempts
+     */
+    public long getConnects();
+
+    /**
+     * Returns the longest time taken to connect, in microseconds.
+     *
+     * @return the longest time taken to connect
+     */
+    public long getConnectTimeMax();
+
+    /**
+     * Returns the time taken by all the successful connection attempts, in microseconds.
+     *
+     * @return the time taken by all the connection attempts
+     */
+    public long getConnectTimeTotal();
+
+    /**
+     * Returns the tasks waiting in the event loops used by the open connections.
+     *
+     * @return the tasks waiting in the event loops
+     */
+    public long getEventLoopPendingTasks();
+
+    /**
+     * Returns the messages read from all the connections.
+     *
+     * @return the messages read
+     */
+    public long getMessagesRead();
+
+    /**
+     * Returns the messages written into all the connections.
+     *
+     * @return the messages written
+     */
+    public long getMessagesWritten();
+
+    /**
+     * Returns the bytes waiting in the outbound buffers of all the connections.
+     *
+     * @return the pending outbound bytes
+     */
+    public long getPendingOutboundBytes();
+
+    /**
+     * Returns the writes which failed in all the connections.
+     *
+     * @return the writes which failed
+     */
+    public long getWriteFailures();
+
+}
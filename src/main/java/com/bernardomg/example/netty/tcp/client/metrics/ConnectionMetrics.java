@@ -0,0 +1,280 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+
+/**
+ * Metrics for a single connection. Each update is added to the client metrics too, so the aggregated values don't
+ * need to go through all the connections.
+ * <p>
+ * Updated from the channel event loop, and read from any thread.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class ConnectionMetrics {
+
+    /**
+     * Bytes read from the socket.
+     */
+    private final LongAdder     bytesRead       = new LongAdder();
+
+    /**
+     * Bytes written into the socket.
+     */
+    private final LongAdder     bytesWritten    = new LongAdder();
+
+    /**
+     * Measured channel.
+     */
+    private final Channel       channel;
+
+    /**
+     * Aggregated metrics for all the connections.
+     */
+    private final ClientMetrics client;
+
+    /**
+     * Time taken to connect, in microseconds.
+     */
+    private volatile long       connectTime;
+
+    /**
+     * Messages read.
+     */
+    private final LongAdder     messagesRead    = new LongAdder();
+
+    /**
+     * Messages written.
+     */
+    private final LongAdder     messagesWritten = new LongAdder();
+
+    /**
+     * Writes which failed.
+     */
+    private final LongAdder     writeFailures   = new LongAdder();
+
+    /**
+     * Constructs the metrics for the received channel.
+     *
+     * @param clnt
+     *            aggregated metrics for all the connections
+     * @param chnnl
+     *            measured channel
+     */
+    ConnectionMetrics(final ClientMetrics clnt, final Channel chnnl) {
+        super();
+
+        client = Objects.requireNonNull(clnt);
+        channel = Objects.requireNonNull(chnnl);
+    }
+
+    /**
+     * Returns the bytes read from the socket.
+     *
+     * @return the bytes read
+     */
+    public final long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the bytes written into the socket.
+     *
+     * @return the bytes written
+     */
+    public final long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Returns the time taken to connect, in microseconds.
+     *
+     * @return the time taken to connect
+     */
+    public final long getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * Returns the channel id.
+     *
+     * @return the channel id
+     */
+    public final String getId() {
+        return channel.id()
+            .asShortText();
+    }
+
+    /**
+     * Returns the messages read.
+     *
+     * @return the messages read
+     */
+    public final long getMessagesRead() {
+        return messagesRead.sum();
+    }
+
+    /**
+     * Returns the messages written.
+     *
+     * @return the messages written
+     */
+    public final long getMessagesWritten() {
+        return messagesWritten.sum();
+    }
+
+    /**
+     * Returns the bytes waiting in the outbound buffer to be written into the socket.
+     *
+     * @return the pending outbound bytes
+     */
+    public final long getPendingOutboundBytes() {
+        final ChannelOutboundBuffer buffer;
+        final long                  pending;
+
+        // Null once the channel is closed
+        buffer = channel.unsafe()
+            .outboundBuffer();
+        if (buffer == null) {
+            pending = 0;
+        } else {
+            pending = buffer.totalPendingWriteBytes();
+        }
+
+        return pending;
+    }
+
+    /**
+     * Returns the server address.
+     *
+     * @return the server address
+     */
+    public final String getRemoteAddress() {
+        return String.valueOf(channel.remoteAddress());
+    }
+
+    /**
+     * Returns the writes which failed.
+     *
+     * @return the writes which failed
+     */
+    public final long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    /**
+     * Records bytes read from the socket.
+     *
+     * @param bytes
+     *            bytes read
+     */
+    public final void recordBytesRead(final long bytes) {
+        bytesRead.add(bytes);
+        client.recordBytesRead(bytes);
+    }
+
+    /**
+     * Records bytes written into the socket.
+     *
+     * @param bytes
+     *            bytes written
+     */
+    public final void recordBytesWritten(final long bytes) {
+        bytesWritten.add(bytes);
+        client.recordBytesWritten(bytes);
+    }
+
+    /**
+     * Records the connection was closed. It is no longer listed by the client metrics.
+     */
+    public final void recordClosed() {
+        client.remove(this);
+    }
+
+    /**
+     * Records the time taken to connect.
+     *
+     * @param nanos
+     *            time taken to connect, in nanoseconds
+     */
+    public final void recordConnect(final long nanos) {
+        connectTime = nanos / 1000;
+        client.recordConnect(connectTime);
+    }
+
+    /**
+     * Records a connection attempt which failed.
+     */
+    public final void recordConnectFailure() {
+        client.recordConnectFailure();
+    }
+
+    /**
+     * Records a message read.
+     */
+    public final void recordMessageRead() {
+        messagesRead.increment();
+        client.recordMessageRead();
+    }
+
+    /**
+     * Records a message written.
+     */
+    public final void recordMessageWritten() {
+        messagesWritten.increment();
+        client.recordMessageWritten();
+    }
+
+    /**
+     * Records the connection was opened. From now on it is listed by the client metrics.
+     */
+    public final void recordOpened() {
+        client.add(this);
+    }
+
+    /**
+     * Records a write which failed.
+     */
+    public final void recordWriteFailure() {
+        writeFailures.increment();
+        client.recordWriteFailure();
+    }
+
+    /**
+     * Returns the measured channel.
+     *
+     * @return the measured channel
+     */
+    final Channel channel() {
+        return channel;
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Registry where the client metrics are published. Allows exporting them into any monitoring system, such as
+ * Micrometer, where counters map to function counters and gauges to gauges.
+ * <p>
+ * The values are read when the registry needs them, and can be read from any thread.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Registers a counter. Its value only grows.
+     *
+     * @param name
+     *            metric name
+     * @param description
+     *            metric description
+     * @param value
+     *            reads the current value
+     */
+    public void counter(final String name, final String description, final LongSupplier value);
+
+    /**
+     * Registers a gauge. Its value can go up and down.
+     *
+     * @param name
+     *            metric name
+     * @param description
+     *            metric description
+     * @param value
+     *            reads the current value
+     */
+    public void gauge(final String name, final String description, final LongSupplier value);
+
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+/**
+ * Response correlator which records the latency of each request into the received metrics. The latency is the time
+ * between a request being registered and its response being matched.
+ * <p>
+ * Only the requests waiting for a response, sent as exchanges, are registered. Plain requests have no response to
+ * match, so no latency is recorded for them, even if the server answers.
+ * <p>
+ * Correlators are created for each channel, so responses are never matched with requests sent through other
+ * connections. No timestamps are kept, each request takes its own when registered, so requests which time out or
+ * fail just record nothing.
+ * <p>
+ * Matching is left to the wrapped correlator.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class MetricsResponseCorrelator implements ResponseCorrelator {
+
+    /**
+     * Wrapped correlator.
+     */
+    private final ResponseCorrelator delegate;
+
+    /**
+     * Metrics where the latencies are recorded.
+     */
+    private final TransactionMetrics metrics;
+
+    /**
+     * Constructs a correlator which records the latencies of the wrapped correlator into the received metrics.
+     *
+     * @param dlgt
+     *            wrapped correlator
+     * @param mtrcs
+     *            metrics where the latencies are recorded
+     */
+    public MetricsResponseCorrelator(final ResponseCorrelator dlgt, final TransactionMetrics mtrcs) {
+        super();
+
+        delegate = Objects.requireNonNull(dlgt);
+        metrics = Objects.requireNonNull(mtrcs);
+    }
+
+    @Override
+    public final boolean complete(final String response) {
+        return delegate.complete(response);
+    }
+
+    @Override
+    public final boolean expire(final CompletableFuture<String> response) {
+        return delegate.expire(response);
+    }
+
+    @Override
+    public final void failAll(final Throwable cause) {
+        delegate.failAll(cause);
+    }
+
+    @Override
+    public final int getInFlight() {
+        return delegate.getInFlight();
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public final void register(final String request, final CompletableFuture<String> response) {
+        final long registered;
+
+        registered = System.nanoTime();
+        delegate.register(request, response);
+        response.whenComplete((result, error) -> {
+            if (error == null) {
+                metrics.recordLatency(System.nanoTime() - registered);
+            }
+        });
+    }
+
+    @Override
+    public final void skip() {
+        delegate.skip();
+    }
+
+    @Override
+    public final void unregister(final CompletableFuture<String> response) {
+        delegate.unregister(response);
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Metrics recorded during an interval.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class MetricsSnapshot {
+
+    /**
+     * Bytes received during the interval.
+     */
+    private final long     bytesReceived;
+
+    /**
+     * Bytes sent during the interval.
+     */
+    private final long     bytesSent;
+
+    /**
+     * Interval length.
+     */
+    @NonNull
+    private final Duration interval;
+
+    /**
+     * Highest latency, in nanoseconds.
+     */
+    private final long     maxLatency;
+
+    /**
+     * Median latency, in nanoseconds.
+     */
+    private final long     p50Latency;
+
+    /**
+     * 99th percentile latency, in nanoseconds.
+     */
+    private final long     p99Latency;
+
+    /**
+     * 99.9th percentile latency, in nanoseconds.
+     */
+    private final long     p999Latency;
+
+    /**
+     * Messages received during the interval.
+     */
+    private final long     received;
+
+    /**
+     * Messages sent during the interval.
+     */
+    private final long     sent;
+
+    /**
+     * Interval end.
+     */
+    @NonNull
+    private final Instant  timestamp;
+
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.util.Objects;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.TransactionMetricsHandler;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Transaction listener which counts the messages sent and received. Latencies are recorded by the
+ * {@link MetricsResponseCorrelator}, which knows the request each response belongs to. Bytes are recorded by the
+ * {@link TransactionMetricsHandler}, which sees the messages as buffers, before decoding them or after encoding them.
+ * <p>
+ * It keeps no state, so it can be shared between connections.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class MetricsTransactionListener implements TransactionListener {
+
+    /**
+     * Metrics where the messages are recorded.
+     */
+    private final TransactionMetrics metrics;
+
+    /**
+     * Constructs a listener recording into the received metrics.
+     *
+     * @param mtrcs
+     *            metrics where the messages are recorded
+     */
+    public MetricsTransactionListener(final TransactionMetrics mtrcs) {
+        super();
+
+        metrics = Objects.requireNonNull(mtrcs);
+    }
+
+    @Override
+    public final void onReceive(final ByteBuf message) {
+        metrics.recordReceived();
+    }
+
+    @Override
+    public final void onReceive(final String message) {
+        metrics.recordReceived();
+    }
+
+    @Override
+    public final void onSend(final ByteBuf message) {
+        metrics.recordSent();
+    }
+
+    @Override
+    public final void onSend(final String message) {
+        metrics.recordSent();
+    }
+
+    @Override
+    public final void onStart() {}
+
+    @Override
+    public final void onStop() {}
+
+}
@@ -0,0 +1,122 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics reporter which prints each snapshot into a {@link PrintWriter}, in the received format.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class PrintMetricsReporter implements MetricsReporter {
+
+    /**
+     * Output format.
+     */
+    private final MetricsFormat format;
+
+    /**
+     * Flags that the CSV header was already printed.
+     */
+    private boolean             headerPrinted;
+
+    /**
+     * Print writer, where the snapshots will be sent.
+     */
+    private final PrintWriter   writer;
+
+    /**
+     * Constructs a reporter for the received writer and format.
+     *
+     * @param wrt
+     *            writer where the snapshots are printed
+     * @param frmt
+     *            output format
+     */
+    public PrintMetricsReporter(final PrintWriter wrt, final MetricsFormat frmt) {
+        super();
+
+        writer = Objects.requireNonNull(wrt);
+        format = Objects.requireNonNull(frmt);
+    }
+
+    @Override
+    public final void report(final MetricsSnapshot snapshot) {
+        switch (format) {
+            case CSV:
+                if (!headerPrinted) {
+                    writer.println(
+                        "timestamp,interval_ms,sent,received,bytes_sent,bytes_received,p50_us,p99_us,p999_us,max_us");
+                    headerPrinted = true;
+                }
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.1f,%.1f,%.1f,%.1f", snapshot.getTimestamp(),
+                    snapshot.getInterval()
+                        .toMillis(),
+                    snapshot.getSent(), snapshot.getReceived(), snapshot.getBytesSent(), snapshot.getBytesReceived(),
+                    toMicros(snapshot.getP50Latency()), toMicros(snapshot.getP99Latency()),
+                    toMicros(snapshot.getP999Latency()), toMicros(snapshot.getMaxLatency()));
+                break;
+            case JSON:
+                writer.printf(Locale.ROOT,
+                    "{\"timestamp\":\"%s\",\"intervalMs\":%d,\"sent\":%d,\"received\":%d,\"bytesSent\":%d,"
+                            + "\"bytesReceived\":%d,\"p50Us\":%.1f,\"p99Us\":%.1f,\"p999Us\":%.1f,\"maxUs\":%.1f}",
+                    snapshot.getTimestamp(), snapshot.getInterval()
+                        .toMillis(),
+                    snapshot.getSent(), snapshot.getReceived(), snapshot.getBytesSent(), snapshot.getBytesReceived(),
+                    toMicros(snapshot.getP50Latency()), toMicros(snapshot.getP99Latency()),
+                    toMicros(snapshot.getP999Latency()), toMicros(snapshot.getMaxLatency()));
+                break;
+            case TEXT:
+            default:
+                writer.printf(Locale.ROOT,
+                    "%s | sent: %d (%d bytes) | received: %d (%d bytes) | latency (us) p50: %.1f, p99: %.1f, "
+                            + "p99.9: %.1f, max: %.1f",
+                    snapshot.getTimestamp(), snapshot.getSent(), snapshot.getBytesSent(), snapshot.getReceived(),
+                    snapshot.getBytesReceived(), toMicros(snapshot.getP50Latency()),
+                    toMicros(snapshot.getP99Latency()), toMicros(snapshot.getP999Latency()),
+                    toMicros(snapshot.getMaxLatency()));
+                break;
+        }
+        writer.println();
+        writer.flush();
+    }
+
+    /**
+     * Transforms nanoseconds into microseconds.
+     *
+     * @param nanos
+     *            nanoseconds to transform
+     * @return the received time in microseconds
+     */
+    private final double toMicros(final long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+}
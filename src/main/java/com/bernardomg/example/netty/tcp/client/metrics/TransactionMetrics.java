@@ -0,0 +1,236 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transaction metrics. Records latencies and message and byte counters, and sends a snapshot to the reporter after
+ * each interval.
+ * <p>
+ * Recording is lock-free, so it can be done from the event loop. Snapshots are taken and reported in a thread of their
+ * own, so a slow reporter never blocks the event loop.
+ * <p>
+ * Can be shared by several {@link MetricsTransactionListener} and {@link MetricsResponseCorrelator}, for all the
+ * connections.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class TransactionMetrics {
+
+    /**
+     * Bytes received since the last snapshot.
+     */
+    private final LongAdder          bytesReceived = new LongAdder();
+
+    /**
+     * Bytes sent since the last snapshot.
+     */
+    private final LongAdder          bytesSent     = new LongAdder();
+
+    /**
+     * Time between snapshots.
+     */
+    private final Duration           interval;
+
+    /**
+     * Time of the last snapshot, in nanoseconds.
+     */
+    private long                     lastSnapshot  = System.nanoTime();
+
+    /**
+     * Messages received since the last snapshot.
+     */
+    private final LongAdder          received      = new LongAdder();
+
+    /**
+     * Latency recorder, in nanoseconds.
+     */
+    private final Recorder           recorder      = new Recorder(3);
+
+    /**
+     * Histogram from the last snapshot. Reused for the next one.
+     */
+    private Histogram                recycled;
+
+    /**
+     * Receives the snapshots.
+     */
+    private final MetricsReporter    reporter;
+
+    /**
+     * Takes the snapshots.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Messages sent since the last snapshot.
+     */
+    private final LongAdder          sent          = new LongAdder();
+
+    /**
+     * Constructs metrics which are reported periodically.
+     *
+     * @param intrvl
+     *            time between snapshots
+     * @param rprtr
+     *            receives the snapshots
+     */
+    public TransactionMetrics(final Duration intrvl, final MetricsReporter rprtr) {
+        super();
+
+        interval = Objects.requireNonNull(intrvl);
+        reporter = Objects.requireNonNull(rprtr);
+
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("The interval should be positive");
+        }
+    }
+
+    /**
+     * Records the latency of a transaction.
+     *
+     * @param latency
+     *            time between the request and its response, in nanoseconds
+     */
+    public final void recordLatency(final long latency) {
+        recorder.recordValue(latency);
+    }
+
+    /**
+     * Records the bytes of a received message.
+     *
+     * @param bytes
+     *            message length in bytes
+     */
+    public final void recordBytesReceived(final int bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * Records the bytes of a sent message.
+     *
+     * @param bytes
+     *            message length in bytes
+     */
+    public final void recordBytesSent(final int bytes) {
+        bytesSent.add(bytes);
+    }
+
+    /**
+     * Records a received message.
+     */
+    public final void recordReceived() {
+        received.increment();
+    }
+
+    /**
+     * Records a sent message.
+     */
+    public final void recordSent() {
+        sent.increment();
+    }
+
+    /**
+     * Returns the metrics recorded since the last snapshot, and starts a new interval.
+     *
+     * @return the metrics since the last snapshot
+     */
+    public final synchronized MetricsSnapshot snapshot() {
+        final Histogram latencies;
+        final long      now;
+        final Duration  elapsed;
+
+        now = System.nanoTime();
+        elapsed = Duration.ofNanos(now - lastSnapshot);
+        lastSnapshot = now;
+
+        latencies = recorder.getIntervalHistogram(recycled);
+        recycled = latencies;
+
+        return MetricsSnapshot.builder()
+            .timestamp(Instant.now())
+            .interval(elapsed)
+            .sent(sent.sumThenReset())
+            .received(received.sumThenReset())
+            .bytesSent(bytesSent.sumThenReset())
+            .bytesReceived(bytesReceived.sumThenReset())
+            .p50Latency(latencies.getValueAtPercentile(50))
+            .p99Latency(latencies.getValueAtPercentile(99))
+            .p999Latency(latencies.getValueAtPercentile(99.9))
+            .maxLatency(latencies.getMaxValue())
+            .build();
+    }
+
+    /**
+     * Starts reporting snapshots periodically.
+     */
+    public final synchronized void start() {
+        if (scheduler == null) {
+            log.debug("Reporting metrics every {}", interval);
+            scheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("metrics", true));
+            scheduler.scheduleAtFixedRate(() -> reporter.report(snapshot()), interval.toNanos(), interval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops reporting snapshots, and reports the metrics recorded since the last one.
+     */
+    public final void stop() {
+        final ScheduledExecutorService stopped;
+
+        synchronized (this) {
+            stopped = scheduler;
+            scheduler = null;
+        }
+
+        if (stopped != null) {
+            stopped.shutdown();
+            try {
+                stopped.awaitTermination(interval.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                log.error(e.getLocalizedMessage(), e);
+                throw new RuntimeException(e);
+            }
+            reporter.report(snapshot());
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Recorder;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipeline profiler. Measures the time and allocation of each pipeline stage, and the scheduling lag of the event
+ * loops.
+ * <p>
+ * Instrumented pipelines get a {@link ProfilingHandler} between each pair of handlers, and one before the first
+ * handler, which measures writing into the socket. The same stage in all the channels is recorded together. Handlers
+ * added after instrumenting the pipeline are not measured.
+ * <p>
+ * The lag is measured by scheduling a task in each event loop used by an instrumented channel, and recording how late
+ * it runs. A busy event loop runs its tasks late, delaying the reads and writes of all its channels.
+ * <p>
+ * Profiling adds a cost to each event, so it is meant for finding where the time goes, not for production.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class PipelineProfiler {
+
+    /**
+     * Name of the stage for the socket.
+     */
+    private static final String                   HEAD       = "socket";
+
+    /**
+     * Prefix for the probe names.
+     */
+    private static final String                   PROBE      = "profiler";
+
+    /**
+     * Measures the allocated bytes of each thread. If {@code null}, allocation is not measured.
+     */
+    private final com.sun.management.ThreadMXBean allocation;
+
+    /**
+     * Event loops whose lag is being measured.
+     */
+    private final Set<EventLoop>                  eventLoops = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Lag of the event loop tasks, in nanoseconds.
+     */
+    private final Recorder                        lag        = new Recorder(3);
+
+    /**
+     * Time between lag probes, in nanoseconds.
+     */
+    private final long                            lagInterval;
+
+    /**
+     * Stages, by name.
+     */
+    private final Map<String, StageProfile>       stages     = new ConcurrentHashMap<>();
+
+    /**
+     * Flags the profiler is stopped. Lag probes are no longer scheduled.
+     */
+    private volatile boolean                      stopped;
+
+    /**
+     * Constructs a profiler which probes the event loop lag after each interval.
+     *
+     * @param interval
+     *            time between lag probes
+     */
+    public PipelineProfiler(final Duration interval) {
+        super();
+
+        final ThreadMXBean threads;
+
+        lagInterval = Objects.requireNonNull(interval)
+            .toNanos();
+        if (lagInterval <= 0) {
+            throw new IllegalArgumentException("Lag interval should be positive, received " + interval);
+        }
+
+        threads = ManagementFactory.getThreadMXBean();
+        if ((threads instanceof com.sun.management.ThreadMXBean)
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocation = (com.sun.management.ThreadMXBean) threads;
+            allocation.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            log.warn("Allocation can't be measured in this JVM");
+            allocation = null;
+        }
+    }
+
+    /**
+     * Instruments the channel pipeline, and starts measuring the lag of the channel event loop. Should be called once
+     * the pipeline has all its handlers.
+     *
+     * @param channel
+     *            channel to instrument
+     */
+    public final void instrument(final Channel channel) {
+        final ChannelPipeline                         pipeline;
+        final List<Map.Entry<String, ChannelHandler>> handlers;
+        final int                                     size;
+        Map.Entry<String, ChannelHandler>             handler;
+        Map.Entry<String, ChannelHandler>             previous;
+        StageProfile                                  inbound;
+        StageProfile                                  outbound;
+        ProfilingHandler                              probe;
+
+        pipeline = channel.pipeline();
+        // Initializers remove themselves once done
+        handlers = pipeline.toMap()
+            .entrySet()
+            .stream()
+            .filter(entry -> !(entry.getValue() instanceof ChannelInitializer))
+            .collect(Collectors.toList());
+
+        // A probe before each handler, and one after the last handler
+        // Stages are sorted in the order events go through them, reads from the head and writes from the tail
+        size = handlers.size();
+        previous = null;
+        for (int i = 0; i <= size; i++) {
+            if (i < size) {
+                handler = handlers.get(i);
+                inbound = stage(handler, ChannelInboundHandler.class, "read", i);
+            } else {
+                handler = null;
+                inbound = null;
+            }
+
+            if (previous == null) {
+                // Writes from here go into the socket
+                probe = new ProfilingHandler(this, inbound, stage(HEAD + " write", (2 * size) + 1),
+                    stage(HEAD + " flush", (2 * size) + 2));
+                pipeline.addFirst(PROBE + i, probe);
+            } else {
+                outbound = stage(previous, ChannelOutboundHandler.class, "write", (2 * size) - i);
+                probe = new ProfilingHandler(this, inbound, outbound, null);
+                pipeline.addAfter(previous.getKey(), PROBE + i, probe);
+            }
+
+            previous = handler;
+        }
+
+        watch(channel.eventLoop());
+    }
+
+    /**
+     * Returns the profile recorded since the last report.
+     *
+     * @return the profile recorded since the last report
+     */
+    public final ProfileReport report() {
+        final List<StageReport> reports;
+
+        reports = new ArrayList<>();
+        stages.values()
+            .stream()
+            .sorted(Comparator.comparingInt(StageProfile::getPosition))
+            .map(StageProfile::report)
+            .filter(report -> report.getTime()
+                .getTotalCount() > 0)
+            .forEach(reports::add);
+
+        return ProfileReport.builder()
+            .stages(reports)
+            .lag(lag.getIntervalHistogram())
+            .allocationMeasured(allocation != null)
+            .build();
+    }
+
+    /**
+     * Stops probing the event loop lag.
+     */
+    public final void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread, since it started. Always zero if allocation is not measured.
+     *
+     * @return the bytes allocated by the current thread
+     */
+    final long allocatedBytes() {
+        final long bytes;
+
+        if (allocation == null) {
+            bytes = 0;
+        } else {
+            bytes = allocation.getThreadAllocatedBytes(Thread.currentThread()
+                .getId());
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Schedules the next lag probe in the event loop.
+     *
+     * @param eventLoop
+     *            event loop to probe
+     */
+    private final void probeLag(final EventLoop eventLoop) {
+        final long scheduled;
+
+        if (!stopped) {
+            scheduled = System.nanoTime() + lagInterval;
+            try {
+                eventLoop.schedule(() -> {
+                    lag.recordValue(Math.max(System.nanoTime() - scheduled, 0));
+                    probeLag(eventLoop);
+                }, lagInterval, TimeUnit.NANOSECONDS);
+            } catch (final RejectedExecutionException e) {
+                // The event loop is shutting down
+                log.debug("Stopped probing lag of {}", eventLoop);
+            }
+        }
+    }
+
+    /**
+     * Returns the stage for the received name, created if needed.
+     *
+     * @param name
+     *            stage name
+     * @param position
+     *            position for the stage, if created
+     * @return the stage for the name
+     */
+    private final StageProfile stage(final String name, final int position) {
+        return stages.computeIfAbsent(name, key -> new StageProfile(key, position));
+    }
+
+    /**
+     * Returns the stage of the handler for an event, if the handler takes part in that event.
+     *
+     * @param handler
+     *            handler, with its name
+     * @param type
+     *            handler type which takes part in the event
+     * @param event
+     *            event name
+     * @param position
+     *            position for the stage, if created
+     * @return the stage of the handler for the event, or {@code null} if the handler doesn't take part in it
+     */
+    private final StageProfile stage(final Map.Entry<String, ChannelHandler> handler, final Class<?> type,
+            final String event, final int position) {
+        final StageProfile stage;
+
+        if (type.isInstance(handler.getValue())) {
+            stage = stage(handler.getKey() + " " + event, position);
+        } else {
+            stage = null;
+        }
+
+        return stage;
+    }
+
+    /**
+     * Starts probing the lag of the event loop, unless it is already probed.
+     *
+     * @param eventLoop
+     *            event loop to probe
+     */
+    private final void watch(final EventLoop eventLoop) {
+        if (eventLoops.add(eventLoop)) {
+            probeLag(eventLoop);
+        }
+    }
+
+}
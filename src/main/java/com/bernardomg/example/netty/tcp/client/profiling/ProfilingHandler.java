@@ -0,0 +1,209 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.profiling;
+
+import java.util.Objects;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Profiling channel handler. A probe placed between two pipeline handlers, which measures the handler after it for
+ * reads, and the handler before it for writes.
+ * <p>
+ * Events go through the pipeline as nested calls, so the time measured by a probe includes all the following stages.
+ * Each probe tells the probe before it how long it took, so each stage is recorded excluding the following ones. The
+ * same is done for the allocated bytes.
+ * <p>
+ * Events without a stage go through untouched.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class ProfilingHandler extends ChannelDuplexHandler {
+
+    /**
+     * Pipeline event.
+     *
+     * @author Bernardo Mart&iacute;nez Garrido
+     *
+     */
+    private enum Event {
+        /**
+         * Flush.
+         */
+        FLUSH,
+        /**
+         * Read.
+         */
+        READ,
+        /**
+         * Write.
+         */
+        WRITE
+    }
+
+    /**
+     * Time and bytes taken by the nested stages of the current event, for each thread.
+     */
+    private static final FastThreadLocal<long[]> NESTED = new FastThreadLocal<>() {
+
+        @Override
+        protected final long[] initialValue() {
+            return new long[2];
+        }
+
+    };
+
+    /**
+     * Stage measured for flushes. If {@code null}, flushes are not measured.
+     */
+    private final StageProfile                   flushStage;
+
+    /**
+     * Stage measured for reads. If {@code null}, reads are not measured.
+     */
+    private final StageProfile                   inboundStage;
+
+    /**
+     * Stage measured for writes. If {@code null}, writes are not measured.
+     */
+    private final StageProfile                   outboundStage;
+
+    /**
+     * Profiler. Measures the allocated bytes.
+     */
+    private final PipelineProfiler               profiler;
+
+    /**
+     * Constructs a probe for the received stages.
+     *
+     * @param prflr
+     *            profiler
+     * @param inbound
+     *            stage measured for reads, {@code null} to not measure them
+     * @param outbound
+     *            stage measured for writes, {@code null} to not measure them
+     * @param flush
+     *            stage measured for flushes, {@code null} to not measure them
+     */
+    public ProfilingHandler(final PipelineProfiler prflr, final StageProfile inbound, final StageProfile outbound,
+            final StageProfile flush) {
+        super();
+
+        profiler = Objects.requireNonNull(prflr);
+        inboundStage = inbound;
+        outboundStage = outbound;
+        flushStage = flush;
+    }
+
+    @Override
+    public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (inboundStage == null) {
+            ctx.fireChannelRead(msg);
+        } else {
+            profile(ctx, inboundStage, Event.READ, msg, null);
+        }
+    }
+
+    @Override
+    public final void flush(final ChannelHandlerContext ctx) throws Exception {
+        if (flushStage == null) {
+            ctx.flush();
+        } else {
+            profile(ctx, flushStage, Event.FLUSH, null, null);
+        }
+    }
+
+    @Override
+    public final void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise)
+            throws Exception {
+        if (outboundStage == null) {
+            ctx.write(msg, promise);
+        } else {
+            profile(ctx, outboundStage, Event.WRITE, msg, promise);
+        }
+    }
+
+    /**
+     * Sends the event to the next stage, and records how long it took, excluding the nested stages.
+     *
+     * @param ctx
+     *            channel context
+     * @param stage
+     *            stage to record
+     * @param event
+     *            event to send
+     * @param msg
+     *            message read or written, if any
+     * @param promise
+     *            write promise, if any
+     */
+    private final void profile(final ChannelHandlerContext ctx, final StageProfile stage, final Event event,
+            final Object msg, final ChannelPromise promise) {
+        final long[] nested;
+        final long   outerNanos;
+        final long   outerBytes;
+        final long   startBytes;
+        final long   start;
+        final long   elapsed;
+        final long   allocated;
+
+        // Keeps the totals of the outer stage, which is waiting for this one to end
+        nested = NESTED.get();
+        outerNanos = nested[0];
+        outerBytes = nested[1];
+        nested[0] = 0;
+        nested[1] = 0;
+
+        startBytes = profiler.allocatedBytes();
+        start = System.nanoTime();
+        try {
+            switch (event) {
+                case READ:
+                    ctx.fireChannelRead(msg);
+                    break;
+                case WRITE:
+                    ctx.write(msg, promise);
+                    break;
+                case FLUSH:
+                default:
+                    ctx.flush();
+                    break;
+            }
+        } finally {
+            elapsed = System.nanoTime() - start;
+            allocated = profiler.allocatedBytes() - startBytes;
+            stage.record(elapsed - nested[0], allocated - nested[1]);
+
+            // The outer stage excludes this one
+            nested[0] = outerNanos + elapsed;
+            nested[1] = outerBytes + allocated;
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.profiling;
+
+import java.util.Objects;
+
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records the events handled by a pipeline stage. Shared by the same stage in all the channels, so it can be recorded
+ * from several event loops at once.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class StageProfile {
+
+    /**
+     * Bytes allocated by each event.
+     */
+    private final Recorder allocation = new Recorder(3);
+
+    /**
+     * Stage name.
+     */
+    private final String   name;
+
+    /**
+     * Position in the pipeline. Keeps the stages in order when reporting them.
+     */
+    private final int      position;
+
+    /**
+     * Time taken by each event, in nanoseconds.
+     */
+    private final Recorder time       = new Recorder(3);
+
+    /**
+     * Constructs a stage profile.
+     *
+     * @param nm
+     *            stage name
+     * @param pstn
+     *            position in the pipeline
+     */
+    StageProfile(final String nm, final int pstn) {
+        super();
+
+        name = Objects.requireNonNull(nm);
+        position = pstn;
+    }
+
+    /**
+     * Returns the stage name.
+     *
+     * @return the stage name
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the position in the pipeline.
+     *
+     * @return the position in the pipeline
+     */
+    public final int getPosition() {
+        return position;
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param nanos
+     *            time taken, in nanoseconds
+     * @param bytes
+     *            bytes allocated
+     */
+    public final void record(final long nanos, final long bytes) {
+        // Measurement noise may take the nested stages over the total
+        time.recordValue(Math.max(nanos, 0));
+        allocation.recordValue(Math.max(bytes, 0));
+    }
+
+    /**
+     * Returns the events recorded since the last report.
+     *
+     * @return the events recorded since the last report
+     */
+    final StageReport report() {
+        return StageReport.builder()
+            .name(name)
+            .time(time.getIntervalHistogram())
+            .allocation(allocation.getIntervalHistogram())
+            .build();
+    }
+
+}
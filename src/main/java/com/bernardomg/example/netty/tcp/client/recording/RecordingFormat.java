@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.recording;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * Recording file format. Each format knows how to write a record.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum RecordingFormat {
+
+    /**
+     * Binary records. Each one has the timestamp, as an 8 byte integer in microseconds, the connection id, as a 4 byte
+     * integer, the direction, as a single byte which is 1 for sent and 0 for received, the message length, as a 4 byte
+     * integer, and then the message. All integers are big-endian.
+     */
+    BINARY {
+
+        @Override
+        public final void write(final ByteBuf out, final long timestamp, final int connection, final boolean sent,
+                final ByteBuf payload) {
+            out.writeLong(timestamp)
+                .writeInt(connection)
+                .writeByte(sent ? 1 : 0)
+                .writeInt(payload.readableBytes())
+                .writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+        }
+
+    },
+    /**
+     * Newline delimited JSON. Each record is a JSON object in a line of its own, with the timestamp in microseconds,
+     * the connection id, the direction and the message.
+     * <p>
+     * The message bytes are written as they are, only escaping the characters JSON requires. So UTF-8 messages are
+     * kept, and are not decoded.
+     */
+    NDJSON {
+
+        @Override
+        public final void write(final ByteBuf out, final long timestamp, final int connection, final boolean sent,
+                final ByteBuf payload) {
+            ByteBufUtil.writeAscii(out, "{\"ts\":");
+            ByteBufUtil.writeAscii(out, Long.toString(timestamp));
+            ByteBufUtil.writeAscii(out, ",\"conn\":");
+            ByteBufUtil.writeAscii(out, Integer.toString(connection));
+            if (sent) {
+                ByteBufUtil.writeAscii(out, ",\"dir\":\"sent\",\"payload\":\"");
+            } else {
+                ByteBufUtil.writeAscii(out, ",\"dir\":\"received\",\"payload\":\"");
+            }
+            writeEscaped(out, payload);
+            ByteBufUtil.writeAscii(out, "\"}\n");
+        }
+
+    };
+
+    /**
+     * Hexadecimal digits, for escaping control characters.
+     */
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Writes the payload as the contents of a JSON string. Quotes, backslashes and control characters are escaped, and
+     * any other byte is copied as it is.
+     *
+     * @param out
+     *            buffer to write into
+     * @param payload
+     *            payload to write
+     */
+    private static final void writeEscaped(final ByteBuf out, final ByteBuf payload) {
+        final int end;
+        int       run;
+        byte      value;
+
+        end = payload.writerIndex();
+        run = payload.readerIndex();
+        for (int i = payload.readerIndex(); i < end; i++) {
+            value = payload.getByte(i);
+            if ((value == '"') || (value == '\\') || ((value >= 0) && (value < 0x20))) {
+                // Copies the bytes which need no escaping at once
+                out.writeBytes(payload, run, i - run);
+                run = i + 1;
+                out.writeByte('\\');
+                switch (value) {
+                    case '"':
+                    case '\\':
+                        out.writeByte(value);
+                        break;
+                    case '\n':
+                        out.writeByte('n');
+                        break;
+                    case '\r':
+                        out.writeByte('r');
+                        break;
+                    case '\t':
+                        out.writeByte('t');
+                        break;
+                    default:
+                        out.writeByte('u')
+                            .writeByte('0')
+                            .writeByte('0')
+                            .writeByte(HEX[value >> 4])
+                            .writeByte(HEX[value & 0xF]);
+                        break;
+                }
+            }
+        }
+        out.writeBytes(payload, run, end - run);
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param out
+     *            buffer to write into
+     * @param timestamp
+     *            time at which the message was sent or received, in microseconds since the epoch
+     * @param connection
+     *            id of the connection
+     * @param sent
+     *            {@code true} if the message was sent, {@code false} if it was received
+     * @param payload
+     *            message, which is not consumed
+     */
+    public abstract void write(final ByteBuf out, final long timestamp, final int connection, final boolean sent,
+            final ByteBuf payload);
+
+}
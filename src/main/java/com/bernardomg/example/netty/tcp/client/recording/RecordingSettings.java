@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.recording;
+
+import java.nio.file.Path;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for a {@link TrafficRecorder}.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class RecordingSettings {
+
+    /**
+     * Size of the buffer gathering records before writing them into the file.
+     */
+    @Builder.Default
+    private final int             bufferSize      = 1024 * 1024;
+
+    /**
+     * Recording file. When rotating, each file adds its number to this name.
+     */
+    @NonNull
+    private final Path            file;
+
+    /**
+     * Recording format.
+     */
+    @NonNull
+    @Builder.Default
+    private final RecordingFormat format          = RecordingFormat.NDJSON;
+
+    /**
+     * Size after which the file is rotated. Zero to never rotate.
+     */
+    @Builder.Default
+    private final long            maxFileSize     = 256L * 1024 * 1024;
+
+    /**
+     * Rotated files kept, older ones are deleted. Zero to keep all of them.
+     */
+    @Builder.Default
+    private final int             maxFiles        = 10;
+
+    /**
+     * Bytes of the records waiting to be written, at most. Records over this are dropped.
+     */
+    @Builder.Default
+    private final long            maxPendingBytes = 64L * 1024 * 1024;
+
+    /**
+     * Records waiting to be written, at most. Records over this are dropped.
+     */
+    @Builder.Default
+    private final int             queueCapacity   = 64 * 1024;
+
+}
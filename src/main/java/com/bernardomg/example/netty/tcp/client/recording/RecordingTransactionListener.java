@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.recording;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Transaction listener which records the messages sent and received through a connection, and passes all the events
+ * to another listener.
+ * <p>
+ * Recording only encodes and queues each message, so it can run in the event loop.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class RecordingTransactionListener implements TransactionListener {
+
+    /**
+     * Id of the connection.
+     */
+    private final int                 connection;
+
+    /**
+     * Listener receiving all the events.
+     */
+    private final TransactionListener delegate;
+
+    /**
+     * Recorder for the messages.
+     */
+    private final TrafficRecorder     recorder;
+
+    /**
+     * Constructs a listener recording the messages of a connection.
+     *
+     * @param dlgt
+     *            listener receiving all the events
+     * @param rcrdr
+     *            recorder for the messages, which can be shared by several connections
+     * @param cnnctn
+     *            id of the connection
+     */
+    public RecordingTransactionListener(final TransactionListener dlgt, final TrafficRecorder rcrdr,
+            final int cnnctn) {
+        super();
+
+        delegate = Objects.requireNonNull(dlgt);
+        recorder = Objects.requireNonNull(rcrdr);
+        connection = cnnctn;
+    }
+
+    @Override
+    public final void onDisconnect() {
+        delegate.onDisconnect();
+    }
+
+    @Override
+    public final void onIdle() {
+        delegate.onIdle();
+    }
+
+    @Override
+    public final void onReceive(final ByteBuf message) {
+        recorder.record(connection, false, message);
+        delegate.onReceive(message);
+    }
+
+    @Override
+    public final void onReceive(final String message) {
+        recorder.record(connection, false, message);
+        delegate.onReceive(message);
+    }
+
+    @Override
+    public final void onReconnect() {
+        delegate.onReconnect();
+    }
+
+    @Override
+    public final void onReconnecting(final int attempt, final Duration delay) {
+        delegate.onReconnecting(attempt, delay);
+    }
+
+    @Override
+    public final void onSend(final ByteBuf message) {
+        recorder.record(connection, true, message);
+        delegate.onSend(message);
+    }
+
+    @Override
+    public final void onSend(final String message) {
+        recorder.record(connection, true, message);
+        delegate.onSend(message);
+    }
+
+    @Override
+    public final void onStart() {
+        delegate.onStart();
+    }
+
+    @Override
+    public final void onStop() {
+        delegate.onStop();
+    }
+
+    @Override
+    public final void onWritabilityChanged(final boolean writable) {
+        delegate.onWritabilityChanged(writable);
+    }
+
+}
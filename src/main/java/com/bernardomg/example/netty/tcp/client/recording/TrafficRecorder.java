@@ -0,0 +1,463 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.internal.PlatformDependent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records messages into files, in a thread of its own. So recording never blocks the event loop on disk writes.
+ * <p>
+ * Each record is encoded into a pooled direct buffer by the caller, and queued for the writer thread. This thread
+ * gathers them into a large direct buffer, which is written into the file once full, or once there is nothing else to
+ * write. The queue is bounded both by records and by bytes, and records over those limits are dropped, so a slow disk
+ * can't make the memory grow.
+ * <p>
+ * Files are rotated once they reach the maximum size, and the oldest ones deleted once there are too many.
+ * <p>
+ * Once done, the recorder should be closed, so the pending records are written and the thread stops.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class TrafficRecorder implements AutoCloseable {
+
+    /**
+     * Maximum time the writer thread sleeps while idle, in nanoseconds.
+     */
+    private static final long       IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Allocates the buffers for the records.
+     */
+    private final ByteBufAllocator  allocator = PooledByteBufAllocator.DEFAULT;
+
+    /**
+     * Wall clock time when the recorder started, in microseconds.
+     */
+    private final long              baseMicros;
+
+    /**
+     * Monotonic time when the recorder started, in nanoseconds.
+     */
+    private final long              baseNanos;
+
+    /**
+     * Gathers records before writing them into the file. Only used by the writer thread.
+     */
+    private final ByteBuffer        buffer;
+
+    /**
+     * Current file. Only used by the writer thread, after opening the first file.
+     */
+    private FileChannel             channel;
+
+    /**
+     * Records lost due to a full queue, or to a failed write.
+     */
+    private final LongAdder         dropped   = new LongAdder();
+
+    /**
+     * Flags that writing failed. Once failed, records are dropped.
+     */
+    private volatile boolean        failed;
+
+    /**
+     * Number of the current file.
+     */
+    private int                     fileNumber;
+
+    /**
+     * Files written, oldest first.
+     */
+    private final Deque<Path>       files     = new ArrayDeque<>();
+
+    /**
+     * Bytes written into the current file.
+     */
+    private long                    fileSize;
+
+    /**
+     * Flags that the writer thread is sleeping.
+     */
+    private volatile boolean        idle;
+
+    /**
+     * Bytes of the records waiting to be written.
+     */
+    private final AtomicLong        pending   = new AtomicLong();
+
+    /**
+     * Records waiting to be written.
+     */
+    private final Queue<ByteBuf>    queue;
+
+    /**
+     * Records written.
+     */
+    private final LongAdder         recorded  = new LongAdder();
+
+    /**
+     * Flags that the recorder is still open.
+     */
+    private volatile boolean        running   = true;
+
+    /**
+     * Recording settings.
+     */
+    private final RecordingSettings settings;
+
+    /**
+     * Writer thread.
+     */
+    private final Thread            writer;
+
+    /**
+     * Constructs a recorder with the received settings. It opens the first file and starts the writer thread.
+     *
+     * @param sttngs
+     *            recording settings
+     */
+    public TrafficRecorder(final RecordingSettings sttngs) {
+        super();
+
+        settings = Objects.requireNonNull(sttngs);
+
+        if (settings.getBufferSize() <= 0) {
+            throw new IllegalArgumentException("The buffer size should be positive");
+        }
+        if (settings.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("The queue capacity should be positive");
+        }
+
+        baseMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        baseNanos = System.nanoTime();
+
+        buffer = ByteBuffer.allocateDirect(settings.getBufferSize());
+        queue = PlatformDependent.newFixedMpscQueue(settings.getQueueCapacity());
+
+        open();
+
+        writer = new DefaultThreadFactory("recorder", true).newThread(this::write);
+        writer.start();
+    }
+
+    /**
+     * Writes the pending records, closes the file and stops the writer thread.
+     */
+    @Override
+    public final void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the number of records lost due to a full queue, or to a failed write.
+     *
+     * @return the number of records lost
+     */
+    public final long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of records written.
+     *
+     * @return the number of records written
+     */
+    public final long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * Records a message. The message is not consumed, nor released.
+     *
+     * @param connection
+     *            id of the connection
+     * @param sent
+     *            {@code true} if the message was sent, {@code false} if it was received
+     * @param message
+     *            message to record
+     */
+    public final void record(final int connection, final boolean sent, final ByteBuf message) {
+        final long    timestamp;
+        final ByteBuf record;
+        final int     size;
+
+        if (!running || failed) {
+            dropped.increment();
+        } else {
+            timestamp = baseMicros + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - baseNanos);
+            record = allocator.directBuffer(message.readableBytes() + 64);
+            settings.getFormat()
+                .write(record, timestamp, connection, sent, message);
+
+            size = record.readableBytes();
+            if ((pending.addAndGet(size) > settings.getMaxPendingBytes()) || !queue.offer(record)) {
+                pending.addAndGet(-size);
+                record.release();
+                dropped.increment();
+            } else if (idle) {
+                LockSupport.unpark(writer);
+            }
+        }
+    }
+
+    /**
+     * Records a message, encoded as UTF-8.
+     *
+     * @param connection
+     *            id of the connection
+     * @param sent
+     *            {@code true} if the message was sent, {@code false} if it was received
+     * @param message
+     *            message to record
+     */
+    public final void record(final int connection, final boolean sent, final String message) {
+        final ByteBuf encoded;
+
+        encoded = ByteBufUtil.writeUtf8(allocator, message);
+        try {
+            record(connection, sent, encoded);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    /**
+     * Adds a record to the buffer. The buffer is written first if the record doesn't fit, and the file is rotated if
+     * the record would take it over the maximum size.
+     *
+     * @param record
+     *            record to add
+     * @throws IOException
+     *             if writing fails
+     */
+    private final void append(final ByteBuf record) throws IOException {
+        final int  size;
+        final long written;
+
+        size = record.readableBytes();
+        written = fileSize + buffer.position();
+        if ((settings.getMaxFileSize() > 0) && (written > 0) && ((written + size) > settings.getMaxFileSize())) {
+            flushBuffer();
+            rotate();
+        }
+
+        if (size > buffer.remaining()) {
+            flushBuffer();
+        }
+
+        if (size > buffer.remaining()) {
+            // Too large for the buffer, written on its own
+            writeFully(record.nioBuffer());
+        } else {
+            buffer.put(record.nioBuffer());
+        }
+    }
+
+    /**
+     * Returns the path of the received file number. Without rotation this is the configured file. Otherwise, the
+     * number is added to its name, before the extension.
+     *
+     * @param number
+     *            file number
+     * @return the path of the file
+     */
+    private final Path fileFor(final int number) {
+        final Path   path;
+        final String name;
+        final int    extension;
+        final String numbered;
+
+        path = settings.getFile();
+        if (settings.getMaxFileSize() <= 0) {
+            numbered = path.getFileName()
+                .toString();
+        } else {
+            name = path.getFileName()
+                .toString();
+            extension = name.lastIndexOf('.');
+            if (extension > 0) {
+                numbered = String.format("%s-%05d%s", name.substring(0, extension), number,
+                    name.substring(extension));
+            } else {
+                numbered = String.format("%s-%05d", name, number);
+            }
+        }
+
+        return path.resolveSibling(numbered);
+    }
+
+    /**
+     * Writes the buffer contents into the file.
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    private final void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Opens the file for the current file number.
+     */
+    private final void open() {
+        final Path file;
+
+        file = fileFor(fileNumber);
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (final IOException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+        fileSize = 0;
+        files.addLast(file);
+
+        log.debug("Recording into {}", file);
+    }
+
+    /**
+     * Closes the current file, and opens the next one. Deletes the oldest files, if there are too many.
+     *
+     * @throws IOException
+     *             if closing or deleting fails
+     */
+    private final void rotate() throws IOException {
+        channel.close();
+        fileNumber++;
+        open();
+
+        while ((settings.getMaxFiles() > 0) && (files.size() > settings.getMaxFiles())) {
+            Files.deleteIfExists(files.removeFirst());
+        }
+    }
+
+    /**
+     * Writer loop. Runs until the recorder is closed and all the records are written.
+     */
+    private final void write() {
+        ByteBuf record;
+
+        while (running || !queue.isEmpty()) {
+            record = queue.poll();
+            if (record != null) {
+                try {
+                    if (failed) {
+                        dropped.increment();
+                    } else {
+                        append(record);
+                        recorded.increment();
+                    }
+                } catch (final IOException e) {
+                    log.error("Recording failed, no more messages will be recorded", e);
+                    failed = true;
+                    dropped.increment();
+                } finally {
+                    pending.addAndGet(-record.readableBytes());
+                    record.release();
+                }
+            } else if (buffer.position() > 0) {
+                // Nothing else to gather, so the buffer is written
+                writeBuffer();
+            } else if (running) {
+                idle = true;
+                // Checked again, in case a record arrived before flagging
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_WAIT);
+                }
+                idle = false;
+            }
+        }
+
+        writeBuffer();
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            log.error(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the buffer contents into the file, logging any failure.
+     */
+    private final void writeBuffer() {
+        try {
+            if (!failed) {
+                flushBuffer();
+            }
+        } catch (final IOException e) {
+            log.error("Recording failed, no more messages will be recorded", e);
+            failed = true;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes all the contents of the buffer into the file.
+     *
+     * @param source
+     *            buffer to write
+     * @throws IOException
+     *             if writing fails
+     */
+    private final void writeFully(final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            fileSize += channel.write(source);
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Capture file format. Each format knows how to read a record from a buffer.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum CaptureFormat {
+
+    /**
+     * Binary records. Each one starts with the timestamp, as an 8 byte integer in microseconds, followed by the
+     * message length, as a 4 byte integer, and then the message. Both integers are big-endian.
+     * <p>
+     * This is the format to use for payloads extracted from packet captures, as they can contain any byte.
+     */
+    LENGTH_FIELD {
+
+        @Override
+        public final CaptureRecord read(final ByteBuffer buffer, final boolean last) {
+            final int  start;
+            final long offset;
+            final int  length;
+            CaptureRecord record;
+
+            start = buffer.position();
+            if (buffer.remaining() < HEADER_LENGTH) {
+                record = null;
+            } else {
+                offset = buffer.getLong(start);
+                length = buffer.getInt(start + Long.BYTES);
+                if (length < 0) {
+                    throw new IllegalStateException(String.format("Negative record length at byte %d", start));
+                }
+                if ((buffer.remaining() - HEADER_LENGTH) < length) {
+                    record = null;
+                } else {
+                    record = new CaptureRecord(offset, view(buffer, start + HEADER_LENGTH, length));
+                    buffer.position(start + HEADER_LENGTH + length);
+                }
+            }
+
+            return record;
+        }
+
+    },
+    /**
+     * Text records, one for each line. A line can start with the timestamp in microseconds, separated from the message
+     * by a tab. Lines without a timestamp are sent right after the previous one.
+     */
+    LINE {
+
+        @Override
+        public final CaptureRecord read(final ByteBuffer buffer, final boolean last) {
+            final int start;
+            int           end;
+            int           next;
+            int           separator;
+            CaptureRecord record;
+
+            start = buffer.position();
+
+            // Looks for the line end
+            end = start;
+            while ((end < buffer.limit()) && (buffer.get(end) != '\n')) {
+                end++;
+            }
+
+            if (end < buffer.limit()) {
+                next = end + 1;
+            } else if (last && (end > start)) {
+                // Last line, without a line break
+                next = end;
+            } else {
+                next = -1;
+            }
+
+            if (next < 0) {
+                record = null;
+            } else {
+                if ((end > start) && (buffer.get(end - 1) == '\r')) {
+                    end--;
+                }
+
+                separator = start;
+                while ((separator < end) && (buffer.get(separator) != '\t')) {
+                    separator++;
+                }
+
+                if (separator < end) {
+                    record = new CaptureRecord(parseOffset(buffer, start, separator),
+                        view(buffer, separator + 1, end - separator - 1));
+                } else {
+                    record = new CaptureRecord(CaptureRecord.UNTIMED, view(buffer, start, end - start));
+                }
+                buffer.position(next);
+            }
+
+            return record;
+        }
+
+    };
+
+    /**
+     * Length of the header of each binary record.
+     */
+    private static final int HEADER_LENGTH = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Parses a timestamp written as decimal digits.
+     *
+     * @param buffer
+     *            buffer with the timestamp
+     * @param start
+     *            index of the first digit
+     * @param end
+     *            index after the last digit
+     * @return the timestamp
+     */
+    private static final long parseOffset(final ByteBuffer buffer, final int start, final int end) {
+        long  offset;
+        byte  digit;
+
+        if (start == end) {
+            throw new IllegalStateException(String.format("Empty timestamp at byte %d", start));
+        }
+
+        offset = 0;
+        for (int i = start; i < end; i++) {
+            digit = buffer.get(i);
+            if ((digit < '0') || (digit > '9')) {
+                throw new IllegalStateException(String.format("Invalid timestamp at byte %d", start));
+            }
+            offset = (offset * 10) + (digit - '0');
+        }
+
+        return offset;
+    }
+
+    /**
+     * Returns a view of part of the buffer. The contents are shared, not copied.
+     *
+     * @param buffer
+     *            buffer to view
+     * @param index
+     *            index of the view start
+     * @param length
+     *            view length
+     * @return a view of the buffer
+     */
+    private static final ByteBuffer view(final ByteBuffer buffer, final int index, final int length) {
+        final ByteBuffer view;
+
+        view = buffer.duplicate();
+        view.limit(index + length)
+            .position(index);
+
+        return view.slice();
+    }
+
+    /**
+     * Reads the next record from the buffer, starting at its position. If there is a whole record, the position is
+     * moved after it. Otherwise, the position is left as it was.
+     *
+     * @param buffer
+     *            buffer to read
+     * @param last
+     *            flags the buffer reaches the end of the file, so there are no more bytes to wait for
+     * @return the next record, or {@code null} if the buffer doesn't contain a whole record
+     * @throws IllegalStateException
+     *             if the record is malformed
+     */
+    public abstract CaptureRecord read(final ByteBuffer buffer, final boolean last);
+
+}
@@ -0,0 +1,177 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the records in a capture file, one after the other.
+ * <p>
+ * The file is memory mapped through a window which moves along the file, so files of any size can be read without
+ * loading them into the heap. The records are views of the mapped file, and they stay valid after the window moves.
+ * Each record has to fit in the window.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class CaptureReader implements Closeable {
+
+    /**
+     * Capture file channel.
+     */
+    private final FileChannel   channel;
+
+    /**
+     * Capture format.
+     */
+    private final CaptureFormat format;
+
+    /**
+     * Capture file size.
+     */
+    private final long          size;
+
+    /**
+     * Mapped part of the file.
+     */
+    private MappedByteBuffer    window;
+
+    /**
+     * Maximum size of the mapped part of the file.
+     */
+    private final int           windowSize;
+
+    /**
+     * Position in the file of the window start.
+     */
+    private long                windowStart;
+
+    /**
+     * Constructs a reader for the received capture file. It opens the file.
+     *
+     * @param file
+     *            capture file
+     * @param frmt
+     *            capture format
+     * @param wndwSize
+     *            maximum size of the mapped part of the file. Records can't be longer than this
+     */
+    public CaptureReader(final Path file, final CaptureFormat frmt, final int wndwSize) {
+        super();
+
+        format = Objects.requireNonNull(frmt);
+        windowSize = wndwSize;
+
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("The window size should be positive");
+        }
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            size = channel.size();
+        } catch (final IOException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+
+        map(0);
+    }
+
+    /**
+     * Closes the capture file.
+     */
+    @Override
+    public final void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next record, or {@code null} once the file is fully read
+     * @throws IllegalStateException
+     *             if the record is malformed, longer than the window, or cut by the end of the file
+     */
+    public final CaptureRecord next() {
+        CaptureRecord record;
+
+        record = format.read(window, isLastWindow());
+        if ((record == null) && !isLastWindow()) {
+            // Moves the window to the start of the record
+            map(windowStart + window.position());
+            record = format.read(window, isLastWindow());
+            if (record == null) {
+                throw new IllegalStateException(
+                    String.format("Record at byte %d is longer than the %d bytes window", windowStart, windowSize));
+            }
+        } else if ((record == null) && window.hasRemaining()) {
+            throw new IllegalStateException(
+                String.format("Record at byte %d is cut by the end of the file", windowStart + window.position()));
+        }
+
+        return record;
+    }
+
+    /**
+     * Checks if the window reaches the end of the file.
+     *
+     * @return {@code true} if the window reaches the end of the file, {@code false} otherwise
+     */
+    private final boolean isLastWindow() {
+        return (windowStart + window.limit()) >= size;
+    }
+
+    /**
+     * Maps the window starting at the received position in the file.
+     *
+     * @param position
+     *            position in the file of the window start
+     */
+    private final void map(final long position) {
+        try {
+            window = channel.map(MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+        } catch (final IOException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+        windowStart = position;
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.replay;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for a {@link Replayer} run.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class ReplaySettings {
+
+    /**
+     * Capture format.
+     */
+    @NonNull
+    @Builder.Default
+    private final CaptureFormat format          = CaptureFormat.LINE;
+
+    /**
+     * Replay speed, as a multiple of the original speed. Zero to send the messages as fast as possible.
+     */
+    @Builder.Default
+    private final double        speed           = 1;
+
+    /**
+     * Maximum size of the mapped part of the capture file. Records can't be longer than this.
+     */
+    @Builder.Default
+    private final int           windowSize      = 64 * 1024 * 1024;
+
+    /**
+     * Time to wait for the connection to be writable before each message. If the server doesn't read for this long,
+     * the message is skipped.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration      writableTimeout = Duration.ofSeconds(30);
+
+}
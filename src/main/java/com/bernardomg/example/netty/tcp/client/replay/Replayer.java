@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.replay;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends the messages in a capture file through a client, keeping their original timing, or a multiple of it.
+ * <p>
+ * The capture is streamed through a {@link CaptureReader}, and each message is sent as a view of the mapped file, so
+ * it is never copied into the heap. Before each message it waits for the connection to be writable, so a slow server
+ * doesn't pile up messages in the client.
+ * <p>
+ * Messages are scheduled from the start of the replay, not from the previous message. So, if a message is sent late,
+ * the next ones catch up, instead of being delayed as well.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class Replayer {
+
+    /**
+     * Client sending the messages.
+     */
+    private final NettyTcpClient client;
+
+    /**
+     * Replay settings.
+     */
+    private final ReplaySettings settings;
+
+    /**
+     * Constructs a replayer with the received client and settings. The client should be connected before replaying.
+     *
+     * @param clnt
+     *            client sending the messages
+     * @param sttngs
+     *            replay settings
+     */
+    public Replayer(final NettyTcpClient clnt, final ReplaySettings sttngs) {
+        super();
+
+        client = Objects.requireNonNull(clnt);
+        settings = Objects.requireNonNull(sttngs);
+
+        if (settings.getSpeed() < 0) {
+            throw new IllegalArgumentException("The speed can't be negative");
+        }
+    }
+
+    /**
+     * Replays the received capture file, and returns the results once all the messages are sent.
+     *
+     * @param capture
+     *            capture file
+     * @return the replay results
+     */
+    public final ReplayReport run(final Path capture) {
+        final long start;
+        CaptureRecord record;
+        boolean       timed;
+        long          first;
+        long          offset;
+        long          scheduled;
+        long          lag;
+        long          maxLag;
+        long          records;
+        long          skipped;
+        long          bytes;
+
+        log.debug("Replaying {} at {} times the original speed", capture, settings.getSpeed());
+
+        timed = false;
+        first = 0;
+        offset = 0;
+        maxLag = 0;
+        records = 0;
+        skipped = 0;
+        bytes = 0;
+        try (CaptureReader reader = new CaptureReader(capture, settings.getFormat(), settings.getWindowSize())) {
+            start = System.nanoTime();
+            record = reader.next();
+            while (record != null) {
+                // Untimed records keep the previous offset
+                if (record.getOffset() != CaptureRecord.UNTIMED) {
+                    if (!timed) {
+                        first = record.getOffset();
+                        timed = true;
+                    }
+                    offset = record.getOffset() - first;
+                }
+
+                if (settings.getSpeed() > 0) {
+                    scheduled = start + (long) (TimeUnit.MICROSECONDS.toNanos(offset) / settings.getSpeed());
+                    waitUntil(scheduled);
+                    lag = System.nanoTime() - scheduled;
+                    maxLag = Math.max(maxLag, lag);
+                }
+
+                if (awaitWritable()) {
+                    bytes += record.getPayload()
+                        .remaining();
+                    records++;
+                    // Wraps the mapped file, without copying it
+                    client.request(Unpooled.wrappedBuffer(record.getPayload()));
+                } else {
+                    skipped++;
+                }
+
+                record = reader.next();
+            }
+
+            return ReplayReport.builder()
+                .records(records)
+                .skipped(skipped)
+                .bytes(bytes)
+                .elapsed(Duration.ofNanos(System.nanoTime() - start))
+                .maxLag(Duration.ofNanos(maxLag))
+                .build();
+        }
+    }
+
+    /**
+     * Waits until the connection is writable, up to the writable timeout.
+     *
+     * @return {@code true} if the connection is writable, {@code false} if it wasn't writable in time
+     */
+    private final boolean awaitWritable() {
+        boolean writable;
+
+        try {
+            client.whenWritable()
+                .get(settings.getWritableTimeout()
+                    .toNanos(), TimeUnit.NANOSECONDS);
+            writable = true;
+        } catch (final TimeoutException e) {
+            log.debug("Connection not writable after {}, skipping message", settings.getWritableTimeout());
+            writable = false;
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        return writable;
+    }
+
+    /**
+     * Waits until the received time.
+     *
+     * @param time
+     *            time to wait for, in nanoseconds
+     */
+    private final void waitUntil(final long time) {
+        long remaining;
+
+        remaining = time - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = time - System.nanoTime();
+        }
+    }
+
+}
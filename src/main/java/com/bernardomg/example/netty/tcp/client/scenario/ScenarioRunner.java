@@ -0,0 +1,168 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.scenario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Recorder;
+
+import com.bernardomg.example.netty.tcp.client.BlockingClient;
+import com.bernardomg.example.netty.tcp.client.Client;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a scenario through many sessions at the same time. Each session runs in a thread of its own, and blocks while
+ * waiting for its responses.
+ * <p>
+ * With virtual threads every session is started at once, and a blocked session only takes some memory. With platform
+ * threads, sessions over the thread limit wait for a free thread.
+ * <p>
+ * The sessions share a few connections, assigned in turns. Responses are matched with their requests through
+ * {@link Client#exchange(String, Duration)}, so the pipeline should use framing.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class ScenarioRunner {
+
+    /**
+     * Creates the clients. One for each connection.
+     */
+    private final Supplier<Client> clientFactory;
+
+    /**
+     * Scenario settings.
+     */
+    private final ScenarioSettings settings;
+
+    /**
+     * Constructs a scenario runner with the received client factory and settings.
+     *
+     * @param clients
+     *            creates a client for each connection
+     * @param sttngs
+     *            scenario settings
+     */
+    public ScenarioRunner(final Supplier<Client> clients, final ScenarioSettings sttngs) {
+        super();
+
+        clientFactory = Objects.requireNonNull(clients);
+        settings = Objects.requireNonNull(sttngs);
+
+        if (settings.getSessions() <= 0) {
+            throw new IllegalArgumentException("The number of sessions should be positive");
+        }
+        if (settings.getConnections() <= 0) {
+            throw new IllegalArgumentException("The number of connections should be positive");
+        }
+        if (settings.getMaxPlatformThreads() <= 0) {
+            throw new IllegalArgumentException("The maximum platform threads should be positive");
+        }
+    }
+
+    /**
+     * Runs the scenario in all the sessions, and returns the results once all of them end.
+     *
+     * @param scenario
+     *            scenario for each session
+     * @return the scenario results
+     */
+    public final ScenarioReport run(final Scenario scenario) {
+        final List<BlockingClient> clients;
+        final SessionThreads       threads;
+        final ExecutorService      executor;
+        final Recorder             durations;
+        final LongAdder            completed;
+        final LongAdder            failed;
+        final long                 start;
+        final long                 end;
+
+        clients = new ArrayList<>(settings.getConnections());
+        for (int i = 0; i < settings.getConnections(); i++) {
+            clients.add(new BlockingClient(clientFactory.get(), settings.getTimeout()));
+        }
+        clients.forEach(BlockingClient::connect);
+
+        durations = new Recorder(3);
+        completed = new LongAdder();
+        failed = new LongAdder();
+
+        threads = settings.getThreads()
+            .resolve();
+        executor = threads.createExecutor(settings.getMaxPlatformThreads());
+
+        log.debug("Running {} sessions in {} threads through {} connections", settings.getSessions(), threads,
+            settings.getConnections());
+
+        start = System.nanoTime();
+        for (int i = 0; i < settings.getSessions(); i++) {
+            final int session;
+
+            session = i;
+            executor.execute(() -> {
+                final long begin;
+
+                begin = System.nanoTime();
+                try {
+                    scenario.run(clients.get(session % clients.size()), session);
+                    durations.recordValue(System.nanoTime() - begin);
+                    completed.increment();
+                } catch (final Exception e) {
+                    log.debug("Session {} failed: {}", session, e.getLocalizedMessage());
+                    failed.increment();
+                }
+            });
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+        end = System.nanoTime();
+
+        clients.forEach(BlockingClient::close);
+
+        return ScenarioReport.builder()
+            .completed(completed.sum())
+            .failed(failed.sum())
+            .elapsed(Duration.ofNanos(end - start))
+            .durations(durations.getIntervalHistogram())
+            .threads(threads)
+            .build();
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.scenario;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for a {@link ScenarioRunner} run.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class ScenarioSettings {
+
+    /**
+     * Number of connections. Sessions are spread evenly among them.
+     */
+    @Builder.Default
+    private final int            connections        = 1;
+
+    /**
+     * Maximum platform threads, when not using virtual threads.
+     */
+    @Builder.Default
+    private final int            maxPlatformThreads = 256;
+
+    /**
+     * Number of sessions, all of them running at the same time.
+     */
+    @Builder.Default
+    private final int            sessions           = 1;
+
+    /**
+     * Threads running the sessions.
+     */
+    @NonNull
+    @Builder.Default
+    private final SessionThreads threads            = SessionThreads.AUTO;
+
+    /**
+     * Time to wait for each response.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration       timeout            = Duration.ofSeconds(5);
+
+}
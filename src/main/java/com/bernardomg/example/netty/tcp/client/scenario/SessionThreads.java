@@ -0,0 +1,175 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.scenario;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Threads running the scenario sessions.
+ * <p>
+ * Virtual threads require Java 21. As the client is built for older versions, they are looked up when running, and
+ * platform threads are used as the fallback.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum SessionThreads {
+
+    /**
+     * Automatic selection. Picks virtual threads if available.
+     */
+    AUTO {
+
+        @Override
+        public final ExecutorService createExecutor(final int maxPlatformThreads) {
+            return resolve().createExecutor(maxPlatformThreads);
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public final SessionThreads resolve() {
+            final SessionThreads threads;
+
+            if (VIRTUAL.isAvailable()) {
+                threads = VIRTUAL;
+            } else {
+                threads = PLATFORM;
+            }
+
+            return threads;
+        }
+
+    },
+    /**
+     * Platform threads. Each one is an OS thread, so their number is limited, and sessions over that limit wait for a
+     * free thread.
+     */
+    PLATFORM {
+
+        @Override
+        public final ExecutorService createExecutor(final int maxPlatformThreads) {
+            return Executors.newFixedThreadPool(maxPlatformThreads, new DefaultThreadFactory("session", true));
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+    },
+    /**
+     * Virtual threads. One for each session, parked while waiting for responses. Requires Java 21.
+     */
+    VIRTUAL {
+
+        @Override
+        public final ExecutorService createExecutor(final int maxPlatformThreads) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invoke();
+            } catch (final Throwable e) {
+                throw new IllegalStateException("Virtual threads are not available", e);
+            }
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return VIRTUAL_EXECUTOR != null;
+        }
+
+    };
+
+    /**
+     * Creates an executor with a virtual thread for each task. {@code null} if virtual threads are not available.
+     */
+    private static final MethodHandle VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    /**
+     * Looks for the virtual thread executor factory. It only exists, without preview features, since Java 21.
+     *
+     * @return the executor factory, or {@code null} if virtual threads are not available
+     */
+    private static final MethodHandle findVirtualExecutor() {
+        MethodHandle factory;
+
+        if (Runtime.version()
+            .feature() < 21) {
+            factory = null;
+        } else {
+            try {
+                factory = MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                        MethodType.methodType(ExecutorService.class));
+            } catch (final NoSuchMethodException | IllegalAccessException e) {
+                factory = null;
+            }
+        }
+
+        return factory;
+    }
+
+    /**
+     * Creates an executor running each session in a thread of this kind.
+     *
+     * @param maxPlatformThreads
+     *            maximum platform threads, ignored by virtual threads
+     * @return a new executor
+     */
+    public abstract ExecutorService createExecutor(final int maxPlatformThreads);
+
+    /**
+     * Indicates if these threads can be used in the current JVM.
+     *
+     * @return {@code true} if these threads can be used, {@code false} otherwise
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * Returns the actual threads to use. If these threads are not available, it falls back to platform threads.
+     *
+     * @return the threads to use
+     */
+    public SessionThreads resolve() {
+        final SessionThreads threads;
+
+        if (isAvailable()) {
+            threads = this;
+        } else {
+            threads = PLATFORM;
+        }
+
+        return threads;
+    }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.tls;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the TLS handler for each channel.
+ * <p>
+ * All the handlers share a single SSL context, which holds the session cache. So the same factory should be used for
+ * all the connections of a client, otherwise sessions can't be resumed.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Slf4j
+public final class TlsHandlerFactory {
+
+    /**
+     * SSL context. Shared by all the handlers.
+     */
+    private final SslContext  context;
+
+    /**
+     * Provider actually used.
+     */
+    private final TlsProvider provider;
+
+    /**
+     * TLS settings.
+     */
+    private final TlsSettings settings;
+
+    /**
+     * Constructs a factory with the received settings. If the chosen provider is not available, the JDK engine is used.
+     *
+     * @param sttngs
+     *            TLS settings
+     */
+    public TlsHandlerFactory(final TlsSettings sttngs) {
+        super();
+
+        final SslContextBuilder builder;
+
+        settings = Objects.requireNonNull(sttngs);
+        provider = settings.getProvider()
+            .resolve();
+        if (!settings.getProvider()
+            .isAvailable()) {
+            log.warn("TLS provider {} is not available, using {}", settings.getProvider(), provider);
+        }
+
+        builder = SslContextBuilder.forClient()
+            .sslProvider(provider.toSslProvider());
+        if (settings.isInsecure()) {
+            builder.trustManager(InsecureTrustManagerFactory.INSTANCE);
+        } else if (settings.getTrustCertificates() != null) {
+            builder.trustManager(settings.getTrustCertificates()
+                .toFile());
+        }
+        if (!settings.getCiphers()
+            .isEmpty()) {
+            builder.ciphers(settings.getCiphers());
+        }
+        if (!settings.getProtocols()
+            .isEmpty()) {
+            builder.protocols(settings.getProtocols());
+        }
+        if (!settings.getApplicationProtocols()
+            .isEmpty()) {
+            builder.applicationProtocolConfig(new ApplicationProtocolConfig(Protocol.ALPN,
+                SelectorFailureBehavior.NO_ADVERTISE, SelectedListenerFailureBehavior.ACCEPT,
+                settings.getApplicationProtocols()));
+        }
+        if (settings.getSessionCacheSize() > 0) {
+            builder.sessionCacheSize(settings.getSessionCacheSize());
+        }
+        if (!settings.getSessionTimeout()
+            .isZero()) {
+            builder.sessionTimeout(settings.getSessionTimeout()
+                .toSeconds());
+        }
+
+        try {
+            context = builder.build();
+        } catch (final SSLException e) {
+            log.error(e.getLocalizedMessage(), e);
+            throw new RuntimeException(e);
+        }
+
+        log.debug("Using {} TLS provider", provider);
+    }
+
+    /**
+     * Creates a TLS handler for a connection to the received server. The server is used to look for a cached session,
+     * and for the SNI extension.
+     *
+     * @param alloc
+     *            allocator for the handler buffers
+     * @param host
+     *            server host
+     * @param port
+     *            server port
+     * @return a new TLS handler
+     */
+    public final SslHandler create(final ByteBufAllocator alloc, final String host, final int port) {
+        final SslHandler    handler;
+        final SSLEngine     engine;
+        final SSLParameters parameters;
+
+        handler = context.newHandler(alloc, host, port);
+        handler.setHandshakeTimeout(settings.getHandshakeTimeout()
+            .toMillis(), TimeUnit.MILLISECONDS);
+
+        if (!settings.isInsecure()) {
+            // Checks the certificate belongs to the server
+            engine = handler.engine();
+            parameters = engine.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            engine.setSSLParameters(parameters);
+        }
+
+        handler.handshakeFuture()
+            .addListener((final Future<Channel> future) -> {
+                final SSLSession session;
+
+                if (future.isSuccess()) {
+                    session = handler.engine()
+                        .getSession();
+                    log.debug("TLS handshake with {}:{} using {} and {}, application protocol {}", host, port,
+                        session.getProtocol(), session.getCipherSuite(), handler.applicationProtocol());
+                } else {
+                    log.warn("TLS handshake with {}:{} failed: {}", host, port, future.cause()
+                        .getLocalizedMessage());
+                }
+            });
+
+        return handler;
+    }
+
+    /**
+     * Returns the shared SSL context.
+     *
+     * @return the SSL context
+     */
+    public final SslContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns the provider actually used. This may be the JDK engine, if the chosen one is not available.
+     *
+     * @return the provider used
+     */
+    public final TlsProvider getProvider() {
+        return provider;
+    }
+
+}
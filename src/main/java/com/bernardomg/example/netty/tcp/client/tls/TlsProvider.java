@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.tls;
+
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslProvider;
+
+/**
+ * TLS engine provider.
+ * <p>
+ * OpenSSL, through netty-tcnative and BoringSSL, is faster than the JDK engine, both on handshakes and encryption, and
+ * allocates less. It is only available when the native library could be loaded. The JDK engine is always available,
+ * and is used as the fallback.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum TlsProvider {
+
+    /**
+     * Automatic selection. Picks OpenSSL if available, and the JDK engine otherwise.
+     */
+    AUTO {
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public final TlsProvider resolve() {
+            final TlsProvider provider;
+
+            if (OPENSSL.isAvailable()) {
+                provider = OPENSSL;
+            } else {
+                provider = JDK;
+            }
+
+            return provider;
+        }
+
+        @Override
+        public final SslProvider toSslProvider() {
+            return resolve().toSslProvider();
+        }
+
+    },
+    /**
+     * JDK engine.
+     */
+    JDK {
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public final SslProvider toSslProvider() {
+            return SslProvider.JDK;
+        }
+
+    },
+    /**
+     * OpenSSL engine, through netty-tcnative.
+     */
+    OPENSSL {
+
+        @Override
+        public final boolean isAvailable() {
+            return OpenSsl.isAvailable();
+        }
+
+        @Override
+        public final SslProvider toSslProvider() {
+            return SslProvider.OPENSSL;
+        }
+
+    };
+
+    /**
+     * Indicates if the provider can be used in the current platform.
+     *
+     * @return {@code true} if the provider can be used, {@code false} otherwise
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * Returns the actual provider to use. If this provider is not available, it falls back to the JDK engine.
+     *
+     * @return the provider to use
+     */
+    public TlsProvider resolve() {
+        final TlsProvider provider;
+
+        if (isAvailable()) {
+            provider = this;
+        } else {
+            provider = JDK;
+        }
+
+        return provider;
+    }
+
+    /**
+     * Returns the Netty SSL provider matching this provider.
+     *
+     * @return the Netty SSL provider
+     */
+    public abstract SslProvider toSslProvider();
+
+}
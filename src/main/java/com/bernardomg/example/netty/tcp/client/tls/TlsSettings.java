@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.tls;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for encrypting the connection with TLS.
+ * <p>
+ * Sessions are cached by server, so a new connection to the same server, after reconnecting or from a pool, resumes
+ * the previous session instead of going through a full handshake. Empty lists keep the provider defaults.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class TlsSettings {
+
+    /**
+     * No TLS. The connection is plaintext.
+     */
+    public static final TlsSettings DISABLED             = TlsSettings.builder()
+        .enabled(false)
+        .build();
+
+    /**
+     * Application protocols offered through ALPN. Empty to skip ALPN.
+     */
+    @NonNull
+    @Builder.Default
+    private final List<String>      applicationProtocols = List.of();
+
+    /**
+     * Cipher suites to use. Empty for the provider defaults.
+     */
+    @NonNull
+    @Builder.Default
+    private final List<String>      ciphers              = List.of();
+
+    /**
+     * Flags that the connection should use TLS.
+     */
+    @Builder.Default
+    private final boolean           enabled              = true;
+
+    /**
+     * Time to wait for the handshake to end. Once passed, the connection is closed.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration          handshakeTimeout     = Duration.ofSeconds(10);
+
+    /**
+     * Flags trusting any server certificate, and skipping the host name verification. Only for testing, as it allows
+     * anyone to impersonate the server.
+     */
+    @Builder.Default
+    private final boolean           insecure             = false;
+
+    /**
+     * Protocol versions to use, such as TLSv1.3. Empty for the provider defaults.
+     */
+    @NonNull
+    @Builder.Default
+    private final List<String>      protocols            = List.of();
+
+    /**
+     * TLS engine provider.
+     */
+    @NonNull
+    @Builder.Default
+    private final TlsProvider       provider             = TlsProvider.AUTO;
+
+    /**
+     * Maximum sessions cached for resumption. Zero for the provider default.
+     */
+    @Builder.Default
+    private final long              sessionCacheSize     = 0;
+
+    /**
+     * Time a cached session can be resumed. Zero for the provider default.
+     */
+    @NonNull
+    @Builder.Default
+    private final Duration          sessionTimeout       = Duration.ZERO;
+
+    /**
+     * PEM file with the certificates to trust. If not set, the JDK trusted certificates are used.
+     */
+    private final Path              trustCertificates;
+
+}
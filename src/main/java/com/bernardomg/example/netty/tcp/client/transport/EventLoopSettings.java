@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.transport;
+
+import java.util.concurrent.ThreadFactory;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Settings for the event loop group created by a client.
+ * <p>
+ * Netty doesn't pin threads to CPUs. For that, a thread factory which takes care of the CPU affinity can be received,
+ * and it will be used instead of the default one.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@Value
+@Builder
+public final class EventLoopSettings {
+
+    /**
+     * Default settings. Netty's default number of threads, named after the client.
+     */
+    public static final EventLoopSettings DEFAULT    = EventLoopSettings.builder()
+        .build();
+
+    /**
+     * Creates the event loop threads. If set, the thread name is ignored. Allows pinning the threads to CPUs.
+     */
+    private final ThreadFactory           threadFactory;
+
+    /**
+     * Prefix for the name of the event loop threads.
+     */
+    @NonNull
+    @Builder.Default
+    private final String                  threadName = "client";
+
+    /**
+     * Number of event loop threads. Zero for Netty's default, which is twice the number of cores.
+     */
+    @Builder.Default
+    private final int                     threads    = 0;
+
+}
@@ -0,0 +1,275 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.client.transport;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Transport used by the client. Each transport knows how to create its event loop group and which channel class
+ * matches it.
+ * <p>
+ * The native transports are only available on Linux, and only when the native libraries could be loaded. NIO is
+ * always available, and is used as the fallback.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public enum Transport {
+
+    /**
+     * Automatic selection. Picks the best transport available on the current platform.
+     */
+    AUTO {
+
+        @Override
+        public final EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+            return resolve().createEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public final Class<? extends SocketChannel> getChannelClass() {
+            return resolve().getChannelClass();
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public final Transport resolve() {
+            final Transport transport;
+
+            if (IO_URING.isAvailable()) {
+                transport = IO_URING;
+            } else if (EPOLL.isAvailable()) {
+                transport = EPOLL;
+            } else {
+                transport = NIO;
+            }
+
+            return transport;
+        }
+
+        @Override
+        public final boolean setNativeTcpOptions(final Bootstrap bootstrap, final boolean quickAck,
+                final boolean fastOpenConnect) {
+            return resolve().setNativeTcpOptions(bootstrap, quickAck, fastOpenConnect);
+        }
+
+    },
+    /**
+     * Linux epoll native transport.
+     */
+    EPOLL {
+
+        @Override
+        public final EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+            return new EpollEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public final Class<? extends SocketChannel> getChannelClass() {
+            return EpollSocketChannel.class;
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public final boolean setNativeTcpOptions(final Bootstrap bootstrap, final boolean quickAck,
+                final boolean fastOpenConnect) {
+            bootstrap.option(EpollChannelOption.TCP_QUICKACK, quickAck)
+                .option(ChannelOption.TCP_FASTOPEN_CONNECT, fastOpenConnect);
+
+            return true;
+        }
+
+    },
+    /**
+     * Linux io_uring native transport. Requires a recent kernel.
+     */
+    IO_URING {
+
+        @Override
+        public final EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+            return new IOUringEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public final Class<? extends SocketChannel> getChannelClass() {
+            return IOUringSocketChannel.class;
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return IOUring.isAvailable();
+        }
+
+        @Override
+        public final boolean setNativeTcpOptions(final Bootstrap bootstrap, final boolean quickAck,
+                final boolean fastOpenConnect) {
+            bootstrap.option(IOUringChannelOption.TCP_QUICKACK, quickAck)
+                .option(ChannelOption.TCP_FASTOPEN_CONNECT, fastOpenConnect);
+
+            return true;
+        }
+
+    },
+    /**
+     * JDK NIO transport. Always available.
+     */
+    NIO {
+
+        @Override
+        public final EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+            return new NioEventLoopGroup(threads, threadFactory);
+        }
+
+        @Override
+        public final Class<? extends SocketChannel> getChannelClass() {
+            return NioSocketChannel.class;
+        }
+
+        @Override
+        public final boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public final boolean setNativeTcpOptions(final Bootstrap bootstrap, final boolean quickAck,
+                final boolean fastOpenConnect) {
+            // Not supported by the JDK
+            return false;
+        }
+
+    };
+
+    /**
+     * Creates an event loop group for this transport, with the received settings.
+     *
+     * @param settings
+     *            event loop settings
+     * @return a new event loop group
+     */
+    public final EventLoopGroup createEventLoopGroup(final EventLoopSettings settings) {
+        final ThreadFactory threadFactory;
+
+        if (settings.getThreadFactory() == null) {
+            threadFactory = new DefaultThreadFactory(settings.getThreadName());
+        } else {
+            threadFactory = settings.getThreadFactory();
+        }
+
+        return createEventLoopGroup(settings.getThreads(), threadFactory);
+    }
+
+    /**
+     * Creates an event loop group for this transport. If the number of threads is zero, then Netty's default is used.
+     *
+     * @param threads
+     *            number of threads for the group
+     * @return a new event loop group
+     */
+    public final EventLoopGroup createEventLoopGroup(final int threads) {
+        return createEventLoopGroup(threads, null);
+    }
+
+    /**
+     * Creates an event loop group for this transport, with threads from the received factory. If the number of threads
+     * is zero, then Netty's default is used. If the factory is {@code null}, then Netty's default is used.
+     *
+     * @param threads
+     *            number of threads for the group
+     * @param threadFactory
+     *            creates the threads for the group
+     * @return a new event loop group
+     */
+    public abstract EventLoopGroup createEventLoopGroup(final int threads, final ThreadFactory threadFactory);
+
+    /**
+     * Returns the socket channel class matching this transport.
+     *
+     * @return the socket channel class
+     */
+    public abstract Class<? extends SocketChannel> getChannelClass();
+
+    /**
+     * Indicates if the transport can be used in the current platform.
+     *
+     * @return {@code true} if the transport can be used, {@code false} otherwise
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * Sets the Linux specific TCP options on the bootstrap, if this transport supports them.
+     *
+     * @param bootstrap
+     *            bootstrap to configure
+     * @param quickAck
+     *            enables TCP quick ack
+     * @param fastOpenConnect
+     *            enables TCP fast open when connecting
+     * @return {@code true} if the options are supported, {@code false} otherwise
+     */
+    public abstract boolean setNativeTcpOptions(final Bootstrap bootstrap, final boolean quickAck,
+            final boolean fastOpenConnect);
+
+    /**
+     * Returns the actual transport to use. If this transport is not available, it falls back to NIO.
+     *
+     * @return the transport to use
+     */
+    public Transport resolve() {
+        final Transport transport;
+
+        if (isAvailable()) {
+            transport = this;
+        } else {
+            transport = NIO;
+        }
+
+        return transport;
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.benchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+/**
+ * Round trip throughput for each payload size, against a loopback echo server. Each operation is a single message,
+ * sent in bursts which are flushed together.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientThroughputBenchmark {
+
+    /**
+     * Messages sent on each burst.
+     */
+    private static final int BURST     = 32;
+
+    /**
+     * Client under test.
+     */
+    private Client           client;
+
+    /**
+     * Message to send.
+     */
+    private String           message;
+
+    /**
+     * Message length.
+     */
+    @Param({ "16", "256", "4096" })
+    private int              payloadSize;
+
+    /**
+     * Released for each response.
+     */
+    private final Semaphore  responses = new Semaphore(0);
+
+    /**
+     * Echo server.
+     */
+    private EchoServer       server;
+
+    /**
+     * Default constructor.
+     */
+    public ClientThroughputBenchmark() {
+        super();
+    }
+
+    /**
+     * Sends a burst, and waits for all its responses.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the responses
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void roundTrip() throws InterruptedException {
+        for (int i = 0; i < BURST; i++) {
+            client.write(message);
+        }
+        client.flush();
+        responses.acquire(BURST);
+    }
+
+    /**
+     * Prepares the server and client.
+     *
+     * @throws InterruptedException
+     *             if interrupted while starting the server
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        final PipelineSettings settings;
+
+        message = "x".repeat(payloadSize);
+        settings = PipelineSettings.builder()
+            .framing(Framing.LENGTH_FIELD)
+            .build();
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {
+                responses.release();
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(settings)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+    }
+
+    /**
+     * Closes the server and client.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+}
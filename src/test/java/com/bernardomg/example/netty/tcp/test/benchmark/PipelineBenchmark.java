@@ -0,0 +1,208 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelInitializer;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Cost of the client pipeline, without any I/O. The pipeline built by {@link MessageListenerChannelInitializer} is
+ * run over an embedded channel.
+ * <p>
+ * Encoding writes a request through the outbound handlers. Decoding reads a response through the inbound handlers, up
+ * to the listener. Each wire logging mode is measured, to show the overhead of its handler while logging is disabled.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+    /**
+     * Channel running the pipeline.
+     */
+    private EmbeddedChannel channel;
+
+    /**
+     * Framing mode.
+     */
+    @Param({ "NONE", "LENGTH_FIELD" })
+    private Framing         framing;
+
+    /**
+     * Response, as read from the socket.
+     */
+    private ByteBuf         frame;
+
+    /**
+     * Wire logging mode.
+     */
+    @Param({ "NONE", "SAMPLED", "FULL" })
+    private WireLogging     wireLogging;
+
+    /**
+     * Request to encode.
+     */
+    private String          message;
+
+    /**
+     * Message length.
+     */
+    @Param({ "16", "256", "4096" })
+    private int             payloadSize;
+
+    /**
+     * Messages received by the listener.
+     */
+    private long            received;
+
+    /**
+     * Default constructor.
+     */
+    public PipelineBenchmark() {
+        super();
+    }
+
+    /**
+     * Reads a response, up to the listener.
+     *
+     * @return the number of messages received by the listener
+     */
+    @Benchmark
+    public long decode() {
+        channel.writeInbound(frame.retainedDuplicate());
+        return received;
+    }
+
+    /**
+     * Writes a request, down to the socket.
+     *
+     * @return the number of encoded buffers
+     */
+    @Benchmark
+    public int encode() {
+        Object encoded;
+        int    count;
+
+        channel.writeOutbound(message);
+
+        count = 0;
+        encoded = channel.readOutbound();
+        while (encoded != null) {
+            ReferenceCountUtil.release(encoded);
+            count++;
+            encoded = channel.readOutbound();
+        }
+
+        return count;
+    }
+
+    /**
+     * Prepares the pipeline and messages.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final PipelineSettings settings;
+        final ByteBuf          payload;
+
+        settings = PipelineSettings.builder()
+            .framing(framing)
+            .wireLogging(wireLogging)
+            .build();
+        channel = new EmbeddedChannel(
+            new MessageListenerChannelInitializer(new TransactionListener() {
+
+                @Override
+                public final void onReceive(final String message) {
+                    received++;
+                }
+
+                @Override
+                public final void onSend(final String message) {}
+
+                @Override
+                public final void onStart() {}
+
+                @Override
+                public final void onStop() {}
+
+            }, FifoResponseCorrelator::new, ClientConfiguration.builder()
+                .pipeline(settings)
+                .build()));
+
+        message = "x".repeat(payloadSize);
+        payload = Unpooled.copiedBuffer(message, CharsetUtil.UTF_8);
+        if (Framing.LENGTH_FIELD.equals(framing)) {
+            frame = Unpooled.buffer()
+                .writeInt(payload.readableBytes())
+                .writeBytes(payload);
+            payload.release();
+        } else {
+            frame = payload;
+        }
+    }
+
+    /**
+     * Closes the channel.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        frame.release();
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.bernardomg.example.netty.tcp.client.MessageBuffers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Cost of turning a request into a buffer. Compares the original heap copy against the pooled paths used by the
+ * client.
+ * <p>
+ * The allocation rate is reported by the GC profiler, which the benchmarks profile activates.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestEncodingBenchmark {
+
+    /**
+     * Pooled allocator, as used by the client.
+     */
+    private final ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+    /**
+     * Message to encode.
+     */
+    private String                 message;
+
+    /**
+     * Message length.
+     */
+    @Param({ "16", "256", "4096" })
+    private int                    payloadSize;
+
+    /**
+     * Default constructor.
+     */
+    public RequestEncodingBenchmark() {
+        super();
+    }
+
+    /**
+     * Heap copy. This is how requests were encoded before using the pooled allocator.
+     *
+     * @return the buffer capacity, so the work is not removed
+     */
+    @Benchmark
+    public int heapCopy() {
+        final ByteBuf buffer;
+
+        buffer = Unpooled.wrappedBuffer(message.getBytes(MessageBuffers.CHARSET));
+        return release(buffer);
+    }
+
+    /**
+     * Heap copy, then moved into a direct buffer. The socket transports do this with any heap buffer before writing
+     * it, so this is the actual cost of the original encoding.
+     *
+     * @return the buffer capacity, so the work is not removed
+     */
+    @Benchmark
+    public int heapCopyToDirect() {
+        final ByteBuf heap;
+        final ByteBuf direct;
+
+        heap = Unpooled.wrappedBuffer(message.getBytes(MessageBuffers.CHARSET));
+        direct = allocator.directBuffer(heap.readableBytes())
+            .writeBytes(heap);
+        heap.release();
+        return release(direct);
+    }
+
+    /**
+     * UTF-8 into a pooled direct buffer. Used by {@code request(String)} and {@code request(CharSequence)}.
+     *
+     * @return the buffer capacity, so the work is not removed
+     */
+    @Benchmark
+    public int pooledDirectUtf8() {
+        return release(MessageBuffers.encodeUtf8(allocator, message));
+    }
+
+    /**
+     * Prepares the message.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        message = "x".repeat(payloadSize);
+    }
+
+    /**
+     * Releases the buffer, as the channel would after writing it.
+     *
+     * @param buffer
+     *            buffer to release
+     * @return the buffer capacity
+     */
+    private final int release(final ByteBuf buffer) {
+        final int capacity;
+
+        capacity = buffer.capacity();
+        buffer.release();
+
+        return capacity;
+    }
+
+}
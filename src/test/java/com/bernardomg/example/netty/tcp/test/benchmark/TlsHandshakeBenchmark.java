@@ -0,0 +1,189 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
+import com.bernardomg.example.netty.tcp.client.tls.TlsProvider;
+import com.bernardomg.example.netty.tcp.client.tls.TlsSettings;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+import com.bernardomg.example.netty.tcp.test.util.SelfSignedTls;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+
+/**
+ * TLS handshake rate for each provider, against a loopback server using the same provider. Each operation opens a
+ * connection, waits for the handshake, and closes it.
+ * <p>
+ * Resumed handshakes reuse the session of a previous connection, full handshakes don't tell the server to the engine,
+ * so no session can be found.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TlsHandshakeBenchmark {
+
+    /**
+     * Bootstrap for each connection.
+     */
+    private Bootstrap         bootstrap;
+
+    /**
+     * Client event loop.
+     */
+    private EventLoopGroup    eventLoopGroup;
+
+    /**
+     * Creates the TLS handlers.
+     */
+    private TlsHandlerFactory factory;
+
+    /**
+     * TLS provider, for both the client and the server.
+     */
+    @Param({ "JDK", "OPENSSL" })
+    private TlsProvider       provider;
+
+    /**
+     * Resumes the previous session, instead of a full handshake.
+     */
+    @Param({ "false", "true" })
+    private boolean           resume;
+
+    /**
+     * Echo server.
+     */
+    private EchoServer        server;
+
+    /**
+     * Default constructor.
+     */
+    public TlsHandshakeBenchmark() {
+        super();
+    }
+
+    /**
+     * Opens a connection, waits for the handshake, and closes it.
+     *
+     * @throws InterruptedException
+     *             if interrupted while connecting
+     */
+    @Benchmark
+    public void handshake() throws InterruptedException {
+        final Channel channel;
+
+        channel = bootstrap.connect()
+            .sync()
+            .channel();
+        channel.pipeline()
+            .get(SslHandler.class)
+            .handshakeFuture()
+            .sync();
+        channel.close()
+            .sync();
+    }
+
+    /**
+     * Prepares the server and client.
+     *
+     * @throws InterruptedException
+     *             if interrupted while starting the server
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        if (!provider.isAvailable()) {
+            throw new IllegalStateException(provider + " TLS provider is not available");
+        }
+
+        server = new EchoServer(0, SelfSignedTls.serverContext(provider.toSslProvider()));
+        // TLS 1.3 sessions arrive after the handshake, and the connection is closed before they do
+        factory = new TlsHandlerFactory(TlsSettings.builder()
+            .provider(provider)
+            .protocols(List.of("TLSv1.2"))
+            .trustCertificates(SelfSignedTls.certificate())
+            .build());
+        eventLoopGroup = new NioEventLoopGroup(1);
+        bootstrap = new Bootstrap().group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .remoteAddress(server.getHost(), server.getPort())
+            .handler(new ChannelInitializer<SocketChannel>() {
+
+                @Override
+                protected final void initChannel(final SocketChannel ch) {
+                    final SslHandler handler;
+
+                    if (resume) {
+                        handler = factory.create(ch.alloc(), server.getHost(), server.getPort());
+                    } else {
+                        handler = factory.getContext()
+                            .newHandler(ch.alloc());
+                    }
+                    ch.pipeline()
+                        .addLast(handler);
+                }
+
+            });
+    }
+
+    /**
+     * Closes the server and client.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+            .syncUninterruptibly();
+        server.close();
+    }
+
+}
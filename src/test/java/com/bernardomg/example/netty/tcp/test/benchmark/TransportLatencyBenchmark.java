@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.benchmark;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+/**
+ * Request/response latency for each transport, against a loopback echo server.
+ * <p>
+ * Transports which are not available on the current platform fail on setup, instead of silently falling back to NIO.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportLatencyBenchmark {
+
+    /**
+     * Responses received by the client.
+     */
+    private final BlockingQueue<String> responses = new ArrayBlockingQueue<>(16);
+
+    /**
+     * Client under test.
+     */
+    private Client                      client;
+
+    /**
+     * Echo server.
+     */
+    private EchoServer                  server;
+
+    /**
+     * Transport to benchmark.
+     */
+    @Param({ "NIO", "EPOLL", "IO_URING" })
+    private Transport                   transport;
+
+    /**
+     * Default constructor.
+     */
+    public TransportLatencyBenchmark() {
+        super();
+    }
+
+    @Benchmark
+    public String requestResponse() throws InterruptedException {
+        client.request("ping");
+        return responses.take();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        if (!transport.isAvailable()) {
+            throw new IllegalStateException(String.format("Transport %s is not available", transport));
+        }
+
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {
+                responses.add(message);
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(transport)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+}
@@ -0,0 +1,301 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.balance.BalancedNettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.balance.Balancing;
+import com.bernardomg.example.netty.tcp.client.balance.BalancingSettings;
+import com.bernardomg.example.netty.tcp.client.balance.Endpoint;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Balanced Netty TCP client")
+public final class ITBalancedNettyTcpClient {
+
+    private BalancedNettyTcpClient client;
+
+    private final AtomicInteger    disconnects = new AtomicInteger();
+
+    private EchoServer             first;
+
+    private final AtomicInteger    responses   = new AtomicInteger();
+
+    private EchoServer             second;
+
+    private final AtomicInteger    starts      = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     */
+    public ITBalancedNettyTcpClient() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        client.close();
+        first.close();
+        second.close();
+    }
+
+    @BeforeEach
+    public final void start() throws InterruptedException {
+        first = new EchoServer();
+        second = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("The listener is told once about starting")
+    public final void testConnect_StartsOnce() {
+        client = client(BalancingSettings.DEFAULT);
+        client.connect();
+
+        Assertions.assertEquals(1, starts.get());
+    }
+
+    @Test
+    @DisplayName("Skips the endpoints which can't be reached")
+    public final void testConnect_Unreachable() throws InterruptedException, ExecutionException, TimeoutException {
+        second.close();
+        client = client(BalancingSettings.DEFAULT);
+        client.connect();
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("message" + i, client.exchange("message" + i, Duration.ofSeconds(5))
+                .get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Connects to the endpoints which couldn't be reached once the ejection ends")
+    public final void testConnect_Unreachable_Readmitted() throws InterruptedException {
+        final int port;
+
+        port = second.getPort();
+        second.close();
+        client = client(BalancingSettings.builder()
+            .ejectionTime(Duration.ofMillis(100))
+            .build());
+        client.connect();
+
+        Assertions.assertEquals(1, client.getEndpoints()
+            .stream()
+            .filter(Endpoint::isConnected)
+            .count());
+
+        second = new EchoServer(port);
+        await(() -> client.getEndpoints()
+            .stream()
+            .allMatch(Endpoint::isConnected));
+
+        Assertions.assertTrue(client.getEndpoints()
+            .stream()
+            .allMatch(Endpoint::isConnected));
+    }
+
+    @Test
+    @DisplayName("Stops sending to the endpoints which lose their connection")
+    public final void testDisconnect() throws InterruptedException, ExecutionException, TimeoutException {
+        client = client(BalancingSettings.DEFAULT);
+        client.connect();
+
+        second.close();
+        await(() -> client.getEndpoints()
+            .stream()
+            .filter(Endpoint::isConnected)
+            .count() == 1);
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("message" + i, client.exchange("message" + i, Duration.ofSeconds(5))
+                .get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(0, disconnects.get());
+
+        first.close();
+        await(() -> disconnects.get() > 0);
+
+        Assertions.assertEquals(1, disconnects.get());
+        Assertions.assertTrue(client.getEndpoints()
+            .stream()
+            .noneMatch(Endpoint::isConnected));
+    }
+
+    @Test
+    @DisplayName("Ejects the endpoints which fail")
+    public final void testExchange_Ejects()
+            throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        try (final ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            // The silent server accepts the connection, but never answers
+            client = client(BalancingSettings.builder()
+                .failureThreshold(1)
+                .build(), InetSocketAddress.createUnresolved(first.getHost(), first.getPort()),
+                InetSocketAddress.createUnresolved(silent.getInetAddress()
+                    .getHostAddress(), silent.getLocalPort()));
+            client.connect();
+
+            // One of them goes to the silent server, and ejects it
+            for (int i = 0; i < 2; i++) {
+                client.exchange("message", Duration.ofMillis(500))
+                    .handle((response, error) -> response)
+                    .get(5, TimeUnit.SECONDS);
+            }
+
+            for (int i = 0; i < 4; i++) {
+                Assertions.assertEquals("message" + i, client.exchange("message" + i, Duration.ofSeconds(5))
+                    .get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, client.getEndpoints()
+                .stream()
+                .filter(e -> e.isEjected(System.nanoTime()))
+                .count());
+        }
+    }
+
+    @Test
+    @DisplayName("Plain requests count as in flight until answered")
+    public final void testRequest_InFlight() throws InterruptedException, IOException {
+        final Endpoint silentEndpoint;
+        final Endpoint echoEndpoint;
+
+        try (final ServerSocket silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            client = client(BalancingSettings.builder()
+                .balancing(Balancing.LEAST_IN_FLIGHT)
+                .build(), InetSocketAddress.createUnresolved(silent.getInetAddress()
+                    .getHostAddress(), silent.getLocalPort()),
+                InetSocketAddress.createUnresolved(first.getHost(), first.getPort()));
+            client.connect();
+            silentEndpoint = client.getEndpoints()
+                .get(0);
+            echoEndpoint = client.getEndpoints()
+                .get(1);
+
+            // Ties go to the first endpoint, which never answers
+            client.request("message");
+            for (int i = 0; i < 4; i++) {
+                final int sent;
+
+                sent = i + 1;
+                client.request("message" + i);
+                // Told after the response takes the request out of flight
+                await(() -> responses.get() == sent);
+            }
+
+            Assertions.assertEquals(1, silentEndpoint.getInFlight());
+            Assertions.assertEquals(0, echoEndpoint.getInFlight());
+            Assertions.assertEquals(4, responses.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Spreads the exchanges across the endpoints")
+    public final void testExchange_Spreads() throws InterruptedException, ExecutionException, TimeoutException {
+        client = client(BalancingSettings.DEFAULT);
+        client.connect();
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals("message" + i, client.exchange("message" + i, Duration.ofSeconds(5))
+                .get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(2, client.getEndpoints()
+            .stream()
+            .filter(e -> e.isAvailable(System.nanoTime()))
+            .count());
+    }
+
+    private final void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline;
+
+        // The connection is lost in the event loop
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && (System.nanoTime() < deadline)) {
+            Thread.sleep(10);
+        }
+    }
+
+    private final BalancedNettyTcpClient client(final BalancingSettings settings) {
+        return client(settings, InetSocketAddress.createUnresolved(first.getHost(), first.getPort()),
+            InetSocketAddress.createUnresolved(second.getHost(), second.getPort()));
+    }
+
+    private final BalancedNettyTcpClient client(final BalancingSettings settings, final InetSocketAddress... targets) {
+        final ClientConfiguration config;
+
+        config = ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(PipelineSettings.builder()
+                .framing(Framing.LINE)
+                .build())
+            .build();
+
+        return new BalancedNettyTcpClient(List.of(targets), new TransactionListener() {
+
+            @Override
+            public final void onDisconnect() {
+                disconnects.incrementAndGet();
+            }
+
+            @Override
+            public final void onReceive(final String message) {
+                responses.incrementAndGet();
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {
+                starts.incrementAndGet();
+            }
+
+            @Override
+            public final void onStop() {}
+
+        }, config, settings, FifoResponseCorrelator::new);
+    }
+
+}
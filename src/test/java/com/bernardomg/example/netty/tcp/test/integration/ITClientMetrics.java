@@ -0,0 +1,212 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.ClientMetrics;
+import com.bernardomg.example.netty.tcp.client.metrics.ConnectionMetrics;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Client metrics")
+public final class ITClientMetrics {
+
+    private final ClientMetrics metrics = new ClientMetrics();
+
+    private EchoServer          server;
+
+    /**
+     * Default constructor.
+     */
+    public ITClientMetrics() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        metrics.unregisterMBean();
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("Failed connection attempts are counted")
+    public final void testConnect_Failure() throws IOException, InterruptedException {
+        final NettyTcpClient client;
+        final int            port;
+
+        // Nothing listens on this port once it is closed
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        client = client(port);
+
+        try {
+            Assertions.assertThrows(Exception.class, client::connect);
+        } finally {
+            client.close();
+        }
+
+        // Counted by a listener on the connection future, which may run after the caller is released
+        await(() -> metrics.getConnectFailures() > 0);
+        Assertions.assertEquals(0, metrics.getConnects());
+        Assertions.assertEquals(1, metrics.getConnectFailures());
+        Assertions.assertEquals(0, metrics.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Messages and bytes are counted for the client and the connection")
+    public final void testExchange_Counted()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        final NettyTcpClient          client;
+        final List<ConnectionMetrics> connections;
+
+        client = client(server.getPort());
+        client.connect();
+        try {
+            exchange(client, "first");
+            exchange(client, "second");
+
+            Assertions.assertEquals(1, metrics.getConnects());
+            Assertions.assertEquals(0, metrics.getConnectFailures());
+            Assertions.assertEquals(1, metrics.getActiveConnections());
+            Assertions.assertEquals(2, metrics.getMessagesWritten());
+            Assertions.assertEquals(2, metrics.getMessagesRead());
+            // Including the line separators
+            Assertions.assertEquals(13, metrics.getBytesWritten());
+            Assertions.assertEquals(13, metrics.getBytesRead());
+            Assertions.assertEquals(0, metrics.getWriteFailures());
+
+            connections = metrics.getConnections();
+            Assertions.assertEquals(1, connections.size());
+            Assertions.assertEquals(2, connections.get(0)
+                .getMessagesRead());
+            Assertions.assertEquals(13, connections.get(0)
+                .getBytesWritten());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    @DisplayName("The metrics are exported through JMX")
+    public final void testRegisterMBean() throws JMException, InterruptedException, ExecutionException,
+            TimeoutException {
+        final NettyTcpClient  client;
+        final MBeanServer     mbeans;
+        final ObjectName      name;
+        final CompositeData[] connections;
+
+        mbeans = ManagementFactory.getPlatformMBeanServer();
+        name = ObjectName.getInstance(ClientMetrics.JMX_DOMAIN + ":type=ClientMetrics,name=\"test\"");
+        metrics.registerMBean("test");
+
+        client = client(server.getPort());
+        client.connect();
+        try {
+            exchange(client, "first");
+
+            Assertions.assertEquals(1L, mbeans.getAttribute(name, "MessagesWritten"));
+            connections = (CompositeData[]) mbeans.getAttribute(name, "Connections");
+            Assertions.assertEquals(1, connections.length);
+            Assertions.assertEquals(1L, connections[0].get("messagesRead"));
+        } finally {
+            client.close();
+        }
+
+        metrics.unregisterMBean();
+        Assertions.assertFalse(mbeans.isRegistered(name));
+    }
+
+    private final void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline;
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && (System.nanoTime() < deadline)) {
+            Thread.sleep(10);
+        }
+    }
+
+    private final NettyTcpClient client(final int port) {
+        return new NettyTcpClient(server.getHost(), port, new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(PipelineSettings.builder()
+                .framing(Framing.LINE)
+                .build())
+            .metrics(metrics)
+            .build(), FifoResponseCorrelator::new);
+    }
+
+    private final void exchange(final NettyTcpClient client, final String message)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        client.exchange(message, Duration.ofSeconds(5))
+            .get(5, TimeUnit.SECONDS);
+    }
+
+}
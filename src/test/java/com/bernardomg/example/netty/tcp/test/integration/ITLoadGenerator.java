@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.load.LoadGenerator;
+import com.bernardomg.example.netty.tcp.client.load.LoadReport;
+import com.bernardomg.example.netty.tcp.client.load.LoadSettings;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Load generator")
+public final class ITLoadGenerator {
+
+    private EchoServer server;
+
+    /**
+     * Default constructor.
+     */
+    public ITLoadGenerator() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("All the scheduled requests are sent and answered")
+    public final void testRun() {
+        final LoadSettings     settings;
+        final PipelineSettings pipeline;
+        final LoadReport       report;
+
+        settings = LoadSettings.builder()
+            .rate(500)
+            .connections(2)
+            .depth(4)
+            .duration(Duration.ofSeconds(1))
+            .warmUp(Duration.ZERO)
+            .build();
+        pipeline = PipelineSettings.builder()
+            .framing(Framing.LINE)
+            .build();
+
+        report = new LoadGenerator(() -> new NettyTcpClient(server.getHost(), server.getPort(),
+            new TransactionListener() {
+
+                @Override
+                public final void onReceive(final String message) {}
+
+                @Override
+                public final void onSend(final String message) {}
+
+                @Override
+                public final void onStart() {}
+
+                @Override
+                public final void onStop() {}
+
+            }, ClientConfiguration.builder()
+                .transport(Transport.NIO)
+                .pipeline(pipeline)
+                .build(), FifoResponseCorrelator::new), settings).run();
+
+        Assertions.assertEquals(500, report.getSent());
+        Assertions.assertEquals(500, report.getCompleted());
+        Assertions.assertEquals(0, report.getFailed());
+        Assertions.assertEquals(500, report.getLatencies()
+            .getTotalCount());
+    }
+
+}
@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Client exchanges and batched writes with framing")
+public final class ITNettyTcpClientExchange {
+
+    private NettyTcpClient client;
+
+    private EchoServer     server;
+
+    /**
+     * Default constructor.
+     */
+    public ITNettyTcpClientExchange() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        client.close();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Framing.class, names = { "LENGTH_FIELD", "LINE" })
+    @DisplayName("Pipelined requests receive their own responses")
+    public final void testExchange_Pipelined(final Framing framing) throws InterruptedException {
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+        final PipelineSettings          settings;
+
+        settings = PipelineSettings.builder()
+            .framing(framing)
+            .build();
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(settings)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+
+        first = client.exchange("first", Duration.ofSeconds(5));
+        second = client.exchange("second", Duration.ofSeconds(5));
+
+        Assertions.assertEquals("first", first.join());
+        Assertions.assertEquals("second", second.join());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Framing.class, names = { "LENGTH_FIELD", "LINE" })
+    @DisplayName("Exchanges mixed with plain requests receive their own responses")
+    public final void testExchange_WithRequests(final Framing framing) throws InterruptedException {
+        final List<CompletableFuture<String>> responses;
+        final PipelineSettings                settings;
+
+        responses = new ArrayList<>();
+        settings = PipelineSettings.builder()
+            .framing(framing)
+            .build();
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(settings)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+
+        for (int i = 0; i < 100; i++) {
+            client.request(String.format("request %d", i));
+            responses.add(client.exchange(String.format("exchange %d", i), Duration.ofSeconds(5)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(String.format("exchange %d", i), responses.get(i)
+                .join());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 100 })
+    @DisplayName("Batched writes are sent when flushing")
+    public final void testWrite_Flush(final long flushAfterMicros) throws InterruptedException {
+        final BlockingQueue<String> responses;
+        final PipelineSettings      settings;
+
+        responses = new LinkedBlockingQueue<>();
+        settings = PipelineSettings.builder()
+            .framing(Framing.LINE)
+            .flushAfterMessages(4)
+            .flushAfterMicros(flushAfterMicros)
+            .build();
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {
+                responses.add(message);
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(settings)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+
+        for (int i = 0; i < 10; i++) {
+            client.write(String.format("message %d", i));
+        }
+        client.flush();
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(String.format("message %d", i), responses.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.ReconnectSettings;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Client reconnection")
+public final class ITNettyTcpClientReconnect {
+
+    private NettyTcpClient              client;
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+    private EchoServer                  server;
+
+    /**
+     * Default constructor.
+     */
+    public ITNettyTcpClientReconnect() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Requests sent while reconnecting are delivered once reconnected")
+    public final void testReconnect_BufferedRequest() throws InterruptedException {
+        final Integer port;
+
+        start(ReconnectSettings.builder()
+            .initialDelay(Duration.ofMillis(20))
+            .maxDelay(Duration.ofMillis(100))
+            .build());
+        port = server.getPort();
+
+        server.close();
+        Assertions.assertEquals("disconnect", events.poll(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("reconnecting", events.poll(5, TimeUnit.SECONDS));
+
+        client.request("buffered");
+
+        server = new EchoServer(port);
+
+        Assertions.assertEquals("reconnect", nextIgnoringAttempts());
+        Assertions.assertEquals("send:buffered", events.poll(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("receive:buffered", events.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Stops reconnecting after the maximum attempts")
+    public final void testReconnect_MaxAttempts() throws InterruptedException {
+        start(ReconnectSettings.builder()
+            .initialDelay(Duration.ofMillis(10))
+            .maxAttempts(2)
+            .build());
+
+        server.close();
+
+        Assertions.assertEquals("disconnect", events.poll(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("reconnecting", events.poll(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("reconnecting", events.poll(5, TimeUnit.SECONDS));
+        Assertions.assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Closing the client doesn't reconnect")
+    public final void testReconnect_Closed() throws InterruptedException {
+        start(ReconnectSettings.builder()
+            .build());
+
+        client.close();
+
+        Assertions.assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private final String nextIgnoringAttempts() throws InterruptedException {
+        String event;
+
+        event = events.poll(5, TimeUnit.SECONDS);
+        while ("reconnecting".equals(event)) {
+            event = events.poll(5, TimeUnit.SECONDS);
+        }
+
+        return event;
+    }
+
+    private final void start(final ReconnectSettings reconnect) throws InterruptedException {
+        server = new EchoServer();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onDisconnect() {
+                events.add("disconnect");
+            }
+
+            @Override
+            public final void onReceive(final String message) {
+                events.add("receive:" + message);
+            }
+
+            @Override
+            public final void onReconnect() {
+                events.add("reconnect");
+            }
+
+            @Override
+            public final void onReconnecting(final int attempt, final Duration delay) {
+                events.add("reconnecting");
+            }
+
+            @Override
+            public final void onSend(final String message) {
+                events.add("send:" + message);
+            }
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .reconnect(reconnect)
+            .build(), FifoResponseCorrelator::new);
+        client.connect();
+    }
+
+}
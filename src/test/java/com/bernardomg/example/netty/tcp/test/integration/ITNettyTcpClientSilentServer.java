@@ -0,0 +1,129 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+@DisplayName("Client exchanges with a server which never answers")
+public final class ITNettyTcpClientSilentServer {
+
+    private NettyTcpClient client;
+
+    /**
+     * Accepts connections, through the backlog, but never reads or answers.
+     */
+    private ServerSocket   server;
+
+    /**
+     * Default constructor.
+     */
+    public ITNettyTcpClientSilentServer() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @Test
+    @DisplayName("The connection is closed once too many requests time out")
+    public final void testExchange_TimedOut() throws InterruptedException {
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+        final CountDownLatch            disconnected;
+        final PipelineSettings          settings;
+
+        disconnected = new CountDownLatch(1);
+        settings = PipelineSettings.builder()
+            .framing(Framing.LINE)
+            .build();
+        client = new NettyTcpClient(server.getInetAddress()
+            .getHostAddress(), server.getLocalPort(), new TransactionListener() {
+
+                @Override
+                public final void onDisconnect() {
+                    disconnected.countDown();
+                }
+
+                @Override
+                public final void onReceive(final String message) {}
+
+                @Override
+                public final void onSend(final String message) {}
+
+                @Override
+                public final void onStart() {}
+
+                @Override
+                public final void onStop() {}
+
+            }, ClientConfiguration.builder()
+                .transport(Transport.NIO)
+                .pipeline(settings)
+                .build(), () -> new FifoResponseCorrelator(2));
+        client.connect();
+
+        first = client.exchange("first", Duration.ofMillis(100));
+        second = client.exchange("second", Duration.ofMillis(100));
+
+        Assertions.assertInstanceOf(TimeoutException.class, Assertions.assertThrows(CompletionException.class,
+            first::join)
+            .getCause());
+        Assertions.assertInstanceOf(TimeoutException.class, Assertions.assertThrows(CompletionException.class,
+            second::join)
+            .getCause());
+        Assertions.assertTrue(disconnected.await(5, TimeUnit.SECONDS));
+    }
+
+}
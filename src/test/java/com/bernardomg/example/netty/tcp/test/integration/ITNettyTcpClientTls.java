@@ -0,0 +1,208 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.tls.TlsHandlerFactory;
+import com.bernardomg.example.netty.tcp.client.tls.TlsProvider;
+import com.bernardomg.example.netty.tcp.client.tls.TlsSettings;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+import com.bernardomg.example.netty.tcp.test.util.SelfSignedTls;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+
+@DisplayName("Netty TCP client over TLS")
+public final class ITNettyTcpClientTls {
+
+    private NettyTcpClient client;
+
+    private EchoServer     server;
+
+    /**
+     * Default constructor.
+     */
+    public ITNettyTcpClientTls() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TlsProvider.class, names = { "JDK", "OPENSSL" })
+    @DisplayName("Exchanges messages over TLS")
+    public final void testExchange(final TlsProvider provider)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Assumptions.assumeTrue(provider.isAvailable());
+
+        server = new EchoServer(0, SelfSignedTls.serverContext(provider.toSslProvider()));
+        client = client(TlsSettings.builder()
+            .provider(provider)
+            .trustCertificates(SelfSignedTls.certificate())
+            .build());
+        client.connect();
+
+        Assertions.assertEquals("message", client.exchange("message", Duration.ofSeconds(5))
+            .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Rejects servers with untrusted certificates")
+    public final void testExchange_Untrusted() throws InterruptedException {
+        server = new EchoServer(0, SelfSignedTls.serverContext(TlsProvider.JDK.toSslProvider()));
+        client = client(TlsSettings.builder()
+            .provider(TlsProvider.JDK)
+            .build());
+        client.connect();
+
+        Assertions.assertThrows(ExecutionException.class, () -> client.exchange("message", Duration.ofSeconds(5))
+            .get(5, TimeUnit.SECONDS));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TlsProvider.class, names = { "JDK", "OPENSSL" })
+    @DisplayName("New connections resume the previous session")
+    public final void testHandshake_Resumed(final TlsProvider provider) throws InterruptedException {
+        final TlsHandlerFactory factory;
+        final EventLoopGroup    eventLoopGroup;
+        final byte[]            first;
+        final byte[]            second;
+
+        Assumptions.assumeTrue(provider.isAvailable());
+
+        server = new EchoServer(0, SelfSignedTls.serverContext(provider.toSslProvider()));
+        // TLS 1.2 sessions keep their id when resumed
+        factory = new TlsHandlerFactory(TlsSettings.builder()
+            .provider(provider)
+            .protocols(List.of("TLSv1.2"))
+            .trustCertificates(SelfSignedTls.certificate())
+            .build());
+        eventLoopGroup = new NioEventLoopGroup(1);
+        try {
+            first = handshake(eventLoopGroup, factory);
+            second = handshake(eventLoopGroup, factory);
+        } finally {
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+                .syncUninterruptibly();
+        }
+
+        Assertions.assertTrue(first.length > 0);
+        Assertions.assertArrayEquals(first, second);
+    }
+
+    private final NettyTcpClient client(final TlsSettings tls) {
+        final ClientConfiguration config;
+
+        config = ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(PipelineSettings.builder()
+                .framing(Framing.LINE)
+                .build())
+            .tls(tls)
+            .build();
+
+        return new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, config, FifoResponseCorrelator::new);
+    }
+
+    private final byte[] handshake(final EventLoopGroup eventLoopGroup, final TlsHandlerFactory factory)
+            throws InterruptedException {
+        final Channel    channel;
+        final SslHandler handler;
+        final byte[]     id;
+
+        channel = new Bootstrap().group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .handler(new ChannelInitializer<SocketChannel>() {
+
+                @Override
+                protected final void initChannel(final SocketChannel ch) {
+                    ch.pipeline()
+                        .addLast(factory.create(ch.alloc(), server.getHost(), server.getPort()));
+                }
+
+            })
+            .connect(server.getHost(), server.getPort())
+            .sync()
+            .channel();
+        handler = channel.pipeline()
+            .get(SslHandler.class);
+        handler.handshakeFuture()
+            .sync();
+        id = handler.engine()
+            .getSession()
+            .getId();
+        channel.close()
+            .sync();
+
+        return id;
+    }
+
+}
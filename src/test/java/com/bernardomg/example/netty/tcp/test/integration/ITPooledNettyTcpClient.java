@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ChannelPoolSettings;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.PooledNettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Pooled client")
+public final class ITPooledNettyTcpClient {
+
+    private PooledNettyTcpClient client;
+
+    private final CountDownLatch received = new CountDownLatch(100);
+
+    private final CountDownLatch sent     = new CountDownLatch(100);
+
+    private EchoServer           server;
+
+    /**
+     * Default constructor.
+     */
+    public ITPooledNettyTcpClient() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        client.close();
+        server.close();
+    }
+
+    @BeforeEach
+    public final void initialize() throws InterruptedException {
+        final ChannelPoolSettings settings;
+
+        server = new EchoServer();
+        settings = ChannelPoolSettings.builder()
+            .maxConnections(4)
+            .build();
+        client = new PooledNettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {
+                for (int i = 0; i < message.length(); i++) {
+                    received.countDown();
+                }
+            }
+
+            @Override
+            public final void onSend(final String message) {
+                sent.countDown();
+            }
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .build(), settings, FifoResponseCorrelator::new);
+        client.connect();
+    }
+
+    @Test
+    @DisplayName("All the messages are sent and echoed through the pooled channels")
+    public final void testRequest_Multiple() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            client.request("x");
+        }
+
+        Assertions.assertTrue(sent.await(5, TimeUnit.SECONDS), "Not all the messages were sent");
+        Assertions.assertTrue(received.await(5, TimeUnit.SECONDS), "Not all the messages were echoed");
+    }
+
+}
@@ -0,0 +1,160 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.replay.ReplayReport;
+import com.bernardomg.example.netty.tcp.client.replay.ReplaySettings;
+import com.bernardomg.example.netty.tcp.client.replay.Replayer;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Replayer")
+public final class ITReplayer {
+
+    @TempDir
+    private Path               directory;
+
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    private EchoServer         server;
+
+    /**
+     * Default constructor.
+     */
+    public ITReplayer() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("As fast as possible, all the messages are sent in order")
+    public final void testRun_AsFastAsPossible() throws IOException, InterruptedException {
+        final ReplayReport report;
+
+        report = replay("0\tfirst\n500000\tsecond\n1000000\tthird\n", 0, 3);
+
+        Assertions.assertEquals(3, report.getRecords());
+        Assertions.assertEquals(16, report.getBytes());
+        Assertions.assertTrue(report.getElapsed()
+            .compareTo(Duration.ofMillis(500)) < 0);
+        Assertions.assertIterableEquals(List.of("first", "second", "third"), received);
+    }
+
+    @Test
+    @DisplayName("At a multiple of the original speed, the messages keep their relative timing")
+    public final void testRun_Speed() throws IOException, InterruptedException {
+        final ReplayReport report;
+
+        // Originally 400 ms, replayed in 200 ms
+        report = replay("1000\tfirst\n401000\tsecond\n", 2, 2);
+
+        Assertions.assertEquals(2, report.getRecords());
+        Assertions.assertTrue(report.getElapsed()
+            .compareTo(Duration.ofMillis(200)) >= 0);
+        Assertions.assertTrue(report.getElapsed()
+            .compareTo(Duration.ofMillis(400)) < 0);
+    }
+
+    private final ReplayReport replay(final String capture, final double speed, final int messages)
+            throws IOException, InterruptedException {
+        final CountDownLatch   echoed;
+        final Path             file;
+        final PipelineSettings pipeline;
+        final NettyTcpClient   client;
+        final ReplayReport     report;
+
+        echoed = new CountDownLatch(messages);
+        file = Files.write(directory.resolve("capture"), capture.getBytes(StandardCharsets.UTF_8));
+        pipeline = PipelineSettings.builder()
+            .framing(Framing.LINE)
+            .build();
+        client = new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {
+                received.add(message);
+                echoed.countDown();
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(pipeline)
+            .build(), FifoResponseCorrelator::new);
+
+        client.connect();
+        try {
+            report = new Replayer(client, ReplaySettings.builder()
+                .speed(speed)
+                .build()).run(file);
+            Assertions.assertTrue(echoed.await(5, TimeUnit.SECONDS), "Not all the messages were echoed");
+        } finally {
+            client.close();
+        }
+
+        return report;
+    }
+
+}
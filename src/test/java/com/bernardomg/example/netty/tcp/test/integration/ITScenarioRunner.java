@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.scenario.Scenario;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioReport;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioRunner;
+import com.bernardomg.example.netty.tcp.client.scenario.ScenarioSettings;
+import com.bernardomg.example.netty.tcp.client.scenario.SessionThreads;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+@DisplayName("Scenario runner")
+public final class ITScenarioRunner {
+
+    private EchoServer server;
+
+    /**
+     * Default constructor.
+     */
+    public ITScenarioRunner() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("All the sessions run to the end")
+    public final void testRun() {
+        final ScenarioSettings settings;
+        final ScenarioReport   report;
+
+        settings = ScenarioSettings.builder()
+            .sessions(300)
+            .connections(2)
+            .build();
+
+        report = new ScenarioRunner(this::client, settings).run(echo(3));
+
+        Assertions.assertEquals(300, report.getCompleted());
+        Assertions.assertEquals(0, report.getFailed());
+        Assertions.assertEquals(300, report.getDurations()
+            .getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Failed sessions are counted apart")
+    public final void testRun_Failed() {
+        final ScenarioSettings settings;
+        final ScenarioReport   report;
+
+        settings = ScenarioSettings.builder()
+            .sessions(10)
+            .build();
+
+        report = new ScenarioRunner(this::client, settings).run((client, session) -> {
+            client.exchange("Hello");
+            if ((session % 2) == 1) {
+                throw new IllegalStateException("Failed session");
+            }
+        });
+
+        Assertions.assertEquals(5, report.getCompleted());
+        Assertions.assertEquals(5, report.getFailed());
+    }
+
+    @Test
+    @DisplayName("With platform threads the sessions over the thread limit wait for a free thread")
+    public final void testRun_Platform() {
+        final ScenarioSettings settings;
+        final ScenarioReport   report;
+
+        settings = ScenarioSettings.builder()
+            .sessions(50)
+            .threads(SessionThreads.PLATFORM)
+            .maxPlatformThreads(4)
+            .build();
+
+        report = new ScenarioRunner(this::client, settings).run(echo(2));
+
+        Assertions.assertEquals(SessionThreads.PLATFORM, report.getThreads());
+        Assertions.assertEquals(50, report.getCompleted());
+        Assertions.assertEquals(0, report.getFailed());
+    }
+
+    private final Client client() {
+        final PipelineSettings pipeline;
+
+        pipeline = PipelineSettings.builder()
+            .framing(Framing.LINE)
+            .build();
+
+        return new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .pipeline(pipeline)
+            .build(), FifoResponseCorrelator::new);
+    }
+
+    private final Scenario echo(final int messages) {
+        return (client, session) -> {
+            String message;
+
+            for (int i = 0; i < messages; i++) {
+                message = String.format("Session %d message %d", session, i);
+                Assertions.assertEquals(message, client.exchange(message));
+            }
+        };
+    }
+
+}
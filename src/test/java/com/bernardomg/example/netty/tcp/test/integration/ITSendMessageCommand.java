@@ -0,0 +1,128 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.cli.command.SendEmptyMessageCommand;
+import com.bernardomg.example.netty.tcp.cli.command.SendMessageCommand;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+import picocli.CommandLine;
+
+@DisplayName("Send message commands")
+public final class ITSendMessageCommand {
+
+    private EchoServer server;
+
+    /**
+     * Default constructor.
+     */
+    public ITSendMessageCommand() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("An empty message without framing ends once nothing is read")
+    public final void testRun_Empty() {
+        final String output;
+
+        output = run(new SendEmptyMessageCommand(), "--wait=30");
+
+        Assertions.assertTrue(output.contains("Finished waiting, nothing read for the idle timeout"), output);
+    }
+
+    @Test
+    @DisplayName("With framing the command ends once the response arrives")
+    public final void testRun_Framed() {
+        final String output;
+
+        output = run(new SendMessageCommand(), "--message=Hello", "--framing=LINE", "--wait=30");
+
+        Assertions.assertTrue(output.contains("Received message: Hello"), output);
+        Assertions.assertTrue(output.contains("Finished waiting, all responses received"), output);
+    }
+
+    @Test
+    @DisplayName("Without framing responses are not counted, and the command ends once nothing is read")
+    public final void testRun_NoFraming() {
+        final String output;
+
+        output = run(new SendMessageCommand(), "--message=Hello", "--expect=1", "--wait=30");
+
+        Assertions.assertTrue(output.contains("Received message: Hello"), output);
+        Assertions.assertTrue(output.contains("Finished waiting, nothing read for the idle timeout"), output);
+    }
+
+    private final String run(final Runnable runnable, final String... args) {
+        final StringWriter output;
+        final CommandLine  command;
+        final String[]     arguments;
+        final long         start;
+        final long         elapsed;
+        final int          exitCode;
+
+        output = new StringWriter();
+        command = new CommandLine(runnable);
+        command.setOut(new PrintWriter(output, true));
+
+        arguments = new String[args.length + 4];
+        arguments[0] = "--host";
+        arguments[1] = server.getHost();
+        arguments[2] = "--port";
+        arguments[3] = String.valueOf(server.getPort());
+        System.arraycopy(args, 0, arguments, 4, args.length);
+
+        start = System.nanoTime();
+        exitCode = command.execute(arguments);
+        elapsed = System.nanoTime() - start;
+
+        Assertions.assertEquals(0, exitCode, output::toString);
+        // Far from the waiting time
+        Assertions.assertTrue(Duration.ofNanos(elapsed)
+            .compareTo(Duration.ofSeconds(10)) < 0, () -> "Took " + Duration.ofNanos(elapsed));
+
+        return output.toString();
+    }
+
+}
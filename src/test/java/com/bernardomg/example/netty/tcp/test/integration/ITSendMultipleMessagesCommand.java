@@ -0,0 +1,158 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bernardomg.example.netty.tcp.cli.command.SendMultipleMessagesCommand;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+import picocli.CommandLine;
+
+@DisplayName("Send multiple messages command")
+public final class ITSendMultipleMessagesCommand {
+
+    @TempDir
+    private Path       directory;
+
+    private EchoServer server;
+
+    /**
+     * Default constructor.
+     */
+    public ITSendMultipleMessagesCommand() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        server.close();
+    }
+
+    @BeforeEach
+    public final void setUp() throws InterruptedException {
+        server = new EchoServer();
+    }
+
+    @Test
+    @DisplayName("Without framing only the messages sent are reported")
+    public final void testRun_NoFraming() {
+        final String output;
+
+        output = run("--count=3", "--idle-timeout=200");
+
+        Assertions.assertTrue(output.contains("Sent 3 of 3 messages"), output);
+        Assertions.assertFalse(output.contains("responses in"), output);
+    }
+
+    @Test
+    @DisplayName("Without framing the command ends once the server stops answering, without waiting for the timeout")
+    public final void testRun_NoFraming_EndsWhenIdle() {
+        final long   start;
+        final String output;
+        final long   elapsed;
+
+        start = System.nanoTime();
+        output = run("--count=3", "--wait=30");
+        elapsed = System.nanoTime() - start;
+
+        Assertions.assertTrue(output.contains("Received message: Message 1"), output);
+        Assertions.assertTrue(Duration.ofNanos(elapsed)
+            .compareTo(Duration.ofSeconds(10)) < 0, () -> "Took " + Duration.ofNanos(elapsed));
+    }
+
+    @Test
+    @DisplayName("The messages are read from the payload file, in a loop")
+    public final void testRun_PayloadFile() throws IOException {
+        final Path   file;
+        final String output;
+
+        file = Files.write(directory.resolve("payload"), List.of("First", "Second"), StandardCharsets.UTF_8);
+
+        output = run("--framing=LINE", "--count=3", "--payload-file=" + file);
+
+        Assertions.assertEquals(2, count(output, "Sent message: First"), output);
+        Assertions.assertEquals(1, count(output, "Sent message: Second"), output);
+        Assertions.assertTrue(output.contains("Received 3 of 3 responses"), output);
+    }
+
+    @Test
+    @DisplayName("The messages are built from the template, and all the responses are reported")
+    public final void testRun_Template() {
+        final String output;
+
+        output = run("--framing=LINE", "--count=20", "--template=Request %d");
+
+        Assertions.assertEquals(1, count(output, "Sent message: Request 1"), output);
+        Assertions.assertEquals(1, count(output, "Sent message: Request 20"), output);
+        Assertions.assertTrue(output.contains("Received 20 of 20 responses"), output);
+        Assertions.assertFalse(output.contains("Not all the responses arrived"), output);
+    }
+
+    private final int count(final String output, final String text) {
+        return (int) output.lines()
+            .filter(text::equals)
+            .count();
+    }
+
+    private final String run(final String... args) {
+        final StringWriter output;
+        final CommandLine  command;
+        final String[]     arguments;
+        final int          exitCode;
+
+        output = new StringWriter();
+        command = new CommandLine(new SendMultipleMessagesCommand());
+        command.setOut(new PrintWriter(output, true));
+
+        arguments = new String[args.length + 4];
+        arguments[0] = "--host";
+        arguments[1] = server.getHost();
+        arguments[2] = "--port";
+        arguments[3] = String.valueOf(server.getPort());
+        System.arraycopy(args, 0, arguments, 4, args.length);
+
+        exitCode = command.execute(arguments);
+
+        Assertions.assertEquals(0, exitCode, output::toString);
+
+        return output.toString();
+    }
+
+}
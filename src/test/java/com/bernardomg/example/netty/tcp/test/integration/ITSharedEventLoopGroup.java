@@ -0,0 +1,127 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.integration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.NettyTcpClient;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.Framing;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.transport.EventLoopSettings;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+import com.bernardomg.example.netty.tcp.test.util.EchoServer;
+
+import io.netty.channel.EventLoopGroup;
+
+@DisplayName("Clients sharing an event loop group")
+public final class ITSharedEventLoopGroup {
+
+    private EventLoopGroup eventLoopGroup;
+
+    private EchoServer     server;
+
+    /**
+     * Default constructor.
+     */
+    public ITSharedEventLoopGroup() {
+        super();
+    }
+
+    @AfterEach
+    public final void close() {
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+            .syncUninterruptibly();
+        server.close();
+    }
+
+    @BeforeEach
+    public final void start() throws InterruptedException {
+        server = new EchoServer();
+        eventLoopGroup = Transport.NIO.createEventLoopGroup(EventLoopSettings.builder()
+            .threads(1)
+            .build());
+    }
+
+    @Test
+    @DisplayName("Closing a client keeps the shared group running for the others")
+    public final void testClose_KeepsGroup() throws InterruptedException, ExecutionException, TimeoutException {
+        final NettyTcpClient first;
+        final NettyTcpClient second;
+
+        first = client();
+        second = client();
+        first.connect();
+        second.connect();
+
+        first.close();
+
+        Assertions.assertFalse(eventLoopGroup.isShuttingDown());
+        Assertions.assertEquals("message", second.exchange("message", Duration.ofSeconds(5))
+            .get(5, TimeUnit.SECONDS));
+
+        second.close();
+    }
+
+    private final NettyTcpClient client() {
+        final ClientConfiguration config;
+
+        config = ClientConfiguration.builder()
+            .transport(Transport.NIO)
+            .eventLoopGroup(eventLoopGroup)
+            .pipeline(PipelineSettings.builder()
+                .framing(Framing.LINE)
+                .build())
+            .build();
+
+        return new NettyTcpClient(server.getHost(), server.getPort(), new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, config, FifoResponseCorrelator::new);
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.balance;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.balance.Endpoint;
+
+@DisplayName("Endpoint")
+public final class TestEndpoint {
+
+    /**
+     * Default constructor.
+     */
+    public TestEndpoint() {
+        super();
+    }
+
+    @Test
+    @DisplayName("An ejected endpoint is not available")
+    public final void testEject_NotAvailable() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        Assertions.assertTrue(endpoint.eject(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        Assertions.assertFalse(endpoint.isAvailable(System.nanoTime()));
+    }
+
+    @Test
+    @DisplayName("An ejected endpoint is available again once the ejection time passes")
+    public final void testEject_Passed() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.eject(Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+        Assertions.assertTrue(endpoint.isAvailable(System.nanoTime() + Duration.ofMinutes(2)
+            .toNanos()));
+    }
+
+    @Test
+    @DisplayName("An endpoint which is already ejected can't be ejected again")
+    public final void testEject_Twice() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.eject(Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+        Assertions.assertFalse(endpoint.eject(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    @DisplayName("Counts the consecutive failures")
+    public final void testOnFailure_Consecutive() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.onRequest();
+        endpoint.onRequest();
+        endpoint.onFailure();
+
+        Assertions.assertEquals(2, endpoint.onFailure());
+        Assertions.assertEquals(0, endpoint.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Responses take the requests out of flight")
+    public final void testOnResponse() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.onRequest();
+        endpoint.onRequest();
+        endpoint.onResponse();
+
+        Assertions.assertEquals(1, endpoint.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Responses for requests already out of flight are ignored")
+    public final void testOnResponse_Late() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.onRequest();
+        endpoint.onFailure();
+        endpoint.onResponse();
+        endpoint.onRequest();
+
+        Assertions.assertEquals(1, endpoint.getInFlight());
+    }
+
+    @Test
+    @DisplayName("A success resets the failures")
+    public final void testOnSuccess_ResetsFailures() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.onRequest();
+        endpoint.onRequest();
+        endpoint.onRequest();
+        endpoint.onFailure();
+        endpoint.onSuccess();
+
+        Assertions.assertEquals(1, endpoint.onFailure());
+    }
+
+    @Test
+    @DisplayName("Requests in flight are lost along with the connection")
+    public final void testSetConnected_Disconnected() {
+        final Endpoint endpoint;
+
+        endpoint = connected();
+
+        endpoint.onRequest();
+        endpoint.setConnected(false);
+
+        Assertions.assertEquals(0, endpoint.getInFlight());
+    }
+
+    @Test
+    @DisplayName("An endpoint which is not connected is not available")
+    public final void testIsAvailable_NotConnected() {
+        final Endpoint endpoint;
+
+        endpoint = new Endpoint(InetSocketAddress.createUnresolved("localhost", 8080));
+
+        Assertions.assertFalse(endpoint.isAvailable(System.nanoTime()));
+    }
+
+    private final Endpoint connected() {
+        final Endpoint endpoint;
+
+        endpoint = new Endpoint(InetSocketAddress.createUnresolved("localhost", 8080));
+        endpoint.setConnected(true);
+
+        return endpoint;
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.balance;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.balance.Endpoint;
+import com.bernardomg.example.netty.tcp.client.balance.LeastInFlightLoadBalancer;
+import com.bernardomg.example.netty.tcp.client.balance.LoadBalancer;
+import com.bernardomg.example.netty.tcp.client.balance.PowerOfTwoChoicesLoadBalancer;
+import com.bernardomg.example.netty.tcp.client.balance.RoundRobinLoadBalancer;
+
+@DisplayName("Load balancers")
+public final class TestLoadBalancers {
+
+    /**
+     * Default constructor.
+     */
+    public TestLoadBalancers() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Least in flight chooses the endpoint with less requests in flight")
+    public final void testLeastInFlight() {
+        final LoadBalancer   balancer;
+        final List<Endpoint> endpoints;
+
+        balancer = new LeastInFlightLoadBalancer();
+        endpoints = List.of(endpoint(2), endpoint(0), endpoint(1));
+
+        Assertions.assertSame(endpoints.get(1), balancer.choose(endpoints));
+    }
+
+    @Test
+    @DisplayName("Power of two choices never chooses the endpoint with most requests in flight")
+    public final void testPowerOfTwoChoices() {
+        final LoadBalancer   balancer;
+        final List<Endpoint> endpoints;
+
+        balancer = new PowerOfTwoChoicesLoadBalancer();
+        endpoints = List.of(endpoint(0), endpoint(5), endpoint(1));
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNotSame(endpoints.get(1), balancer.choose(endpoints));
+        }
+    }
+
+    @Test
+    @DisplayName("Power of two choices chooses the only endpoint")
+    public final void testPowerOfTwoChoices_Single() {
+        final LoadBalancer   balancer;
+        final List<Endpoint> endpoints;
+
+        balancer = new PowerOfTwoChoicesLoadBalancer();
+        endpoints = List.of(endpoint(3));
+
+        Assertions.assertSame(endpoints.get(0), balancer.choose(endpoints));
+    }
+
+    @Test
+    @DisplayName("Round robin takes the endpoints in turns")
+    public final void testRoundRobin() {
+        final LoadBalancer   balancer;
+        final List<Endpoint> endpoints;
+
+        balancer = new RoundRobinLoadBalancer();
+        endpoints = List.of(endpoint(0), endpoint(0));
+
+        Assertions.assertSame(endpoints.get(0), balancer.choose(endpoints));
+        Assertions.assertSame(endpoints.get(1), balancer.choose(endpoints));
+        Assertions.assertSame(endpoints.get(0), balancer.choose(endpoints));
+    }
+
+    private final Endpoint endpoint(final int inFlight) {
+        final Endpoint endpoint;
+
+        endpoint = new Endpoint(InetSocketAddress.createUnresolved("localhost", 8080));
+        for (int i = 0; i < inFlight; i++) {
+            endpoint.onRequest();
+        }
+
+        return endpoint;
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.channel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.channel.DelayedFlushHandler;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+@DisplayName("Delayed flush handler")
+public final class TestDelayedFlushHandler {
+
+    /**
+     * Default constructor.
+     */
+    public TestDelayedFlushHandler() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Closing flushes the pending messages")
+    public final void testClose() {
+        final EmbeddedChannel channel;
+
+        channel = new EmbeddedChannel(new DelayedFlushHandler(100, 0));
+        channel.writeAndFlush("message");
+
+        channel.close();
+
+        Assertions.assertEquals("message", channel.readOutbound());
+    }
+
+    @Test
+    @DisplayName("Messages are flushed after the delay")
+    public final void testFlush_Delay() {
+        final EmbeddedChannel channel;
+
+        channel = new EmbeddedChannel(new DelayedFlushHandler(100, 0));
+        channel.freezeTime();
+        channel.writeAndFlush("first");
+        channel.writeAndFlush("second");
+
+        Assertions.assertNull(channel.readOutbound());
+
+        channel.advanceTimeBy(100, TimeUnit.MICROSECONDS);
+        channel.runScheduledPendingTasks();
+
+        Assertions.assertEquals("first", channel.readOutbound());
+        Assertions.assertEquals("second", channel.readOutbound());
+    }
+
+    @Test
+    @DisplayName("Messages are flushed once the pending limit is reached")
+    public final void testFlush_Limit() {
+        final EmbeddedChannel channel;
+
+        channel = new EmbeddedChannel(new DelayedFlushHandler(TimeUnit.SECONDS.toMicros(10), 2));
+        channel.writeAndFlush("first");
+
+        Assertions.assertNull(channel.readOutbound());
+
+        channel.writeAndFlush("second");
+
+        Assertions.assertEquals("first", channel.readOutbound());
+        Assertions.assertEquals("second", channel.readOutbound());
+    }
+
+}
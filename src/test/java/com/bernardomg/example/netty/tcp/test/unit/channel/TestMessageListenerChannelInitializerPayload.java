@@ -0,0 +1,196 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.channel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.MessageBuffers;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelInitializer;
+import com.bernardomg.example.netty.tcp.client.channel.Payload;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.channel.ResponseCorrelationHandler;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.string.StringDecoder;
+
+@DisplayName("Payload mode in the channel initializer")
+public final class TestMessageListenerChannelInitializerPayload {
+
+    private final Collection<Integer> binary = new ArrayList<>();
+
+    private final Collection<String>  text   = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public TestMessageListenerChannelInitializerPayload() {
+        super();
+    }
+
+    @Test
+    @DisplayName("With binary payloads the listener receives the buffer, which is released afterwards")
+    public final void testRead_Binary() {
+        final EmbeddedChannel channel;
+        final ByteBuf         message;
+
+        channel = channel(Payload.BINARY);
+        message = Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8);
+
+        channel.writeInbound(message);
+
+        Assertions.assertNull(channel.pipeline()
+            .get(StringDecoder.class));
+        Assertions.assertIterableEquals(List.of(3), binary);
+        Assertions.assertTrue(text.isEmpty());
+        Assertions.assertEquals(0, message.refCnt());
+    }
+
+    @Test
+    @DisplayName("With binary payloads responses are still correlated")
+    public final void testRead_Binary_Correlated() throws Exception {
+        final EmbeddedChannel           channel;
+        final CompletableFuture<String> response;
+
+        channel = channel(Payload.BINARY);
+        response = new CompletableFuture<>();
+        channel.attr(ResponseCorrelationHandler.CORRELATOR)
+            .get()
+            .register("abc", response);
+
+        channel.writeInbound(Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8));
+
+        Assertions.assertEquals("abc", response.getNow(null));
+    }
+
+    @Test
+    @DisplayName("With text payloads the listener receives the decoded string")
+    public final void testRead_Text() {
+        final EmbeddedChannel channel;
+
+        channel = channel(Payload.TEXT);
+
+        channel.writeInbound(Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8));
+
+        Assertions.assertIterableEquals(List.of("abc"), text);
+        Assertions.assertTrue(binary.isEmpty());
+    }
+
+    @Test
+    @DisplayName("With binary payloads responses are correlated on their UTF-8 text")
+    public final void testRead_Binary_Correlated_NonAscii() throws Exception {
+        final EmbeddedChannel           channel;
+        final CompletableFuture<String> response;
+
+        channel = channel(Payload.BINARY);
+        response = new CompletableFuture<>();
+        channel.attr(ResponseCorrelationHandler.CORRELATOR)
+            .get()
+            .register("\u00f1and\u00fa", response);
+
+        channel.writeInbound(Unpooled.copiedBuffer("\u00f1and\u00fa", StandardCharsets.UTF_8));
+
+        Assertions.assertEquals("\u00f1and\u00fa", response.getNow(null));
+    }
+
+    @Test
+    @DisplayName("With text payloads the listener receives the string decoded as UTF-8")
+    public final void testRead_Text_NonAscii() {
+        final EmbeddedChannel channel;
+
+        channel = channel(Payload.TEXT);
+
+        channel.writeInbound(Unpooled.copiedBuffer("\u00f1and\u00fa", StandardCharsets.UTF_8));
+
+        Assertions.assertIterableEquals(List.of("\u00f1and\u00fa"), text);
+    }
+
+    @Test
+    @DisplayName("Strings are written as UTF-8, the same as the encoded buffers")
+    public final void testWrite_Text_NonAscii() {
+        final EmbeddedChannel channel;
+        final ByteBuf         written;
+        final ByteBuf         encoded;
+
+        channel = channel(Payload.TEXT);
+
+        channel.writeOutbound("\u00f1and\u00fa");
+
+        written = channel.readOutbound();
+        encoded = MessageBuffers.encode(UnpooledByteBufAllocator.DEFAULT, "\u00f1and\u00fa");
+        try {
+            Assertions.assertEquals(encoded, written);
+        } finally {
+            written.release();
+            encoded.release();
+        }
+    }
+
+    private final EmbeddedChannel channel(final Payload payload) {
+        final PipelineSettings settings;
+
+        settings = PipelineSettings.builder()
+            .payload(payload)
+            .build();
+        return new EmbeddedChannel(new MessageListenerChannelInitializer(new TransactionListener() {
+
+            @Override
+            public final void onReceive(final ByteBuf message) {
+                binary.add(message.readableBytes());
+            }
+
+            @Override
+            public final void onReceive(final String message) {
+                text.add(message);
+            }
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        }, FifoResponseCorrelator::new, ClientConfiguration.builder()
+            .pipeline(settings)
+            .build()));
+    }
+
+}
@@ -0,0 +1,168 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.channel;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.ClientConfiguration;
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelInitializer;
+import com.bernardomg.example.netty.tcp.client.channel.MessageListenerChannelPoolHandler;
+import com.bernardomg.example.netty.tcp.client.channel.PipelineSettings;
+import com.bernardomg.example.netty.tcp.client.channel.SampledLoggingHandler;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.logging.LoggingHandler;
+
+@DisplayName("Wire logging in the channel initializer")
+public final class TestMessageListenerChannelInitializerWireLogging {
+
+    /**
+     * Default constructor.
+     */
+    public TestMessageListenerChannelInitializerWireLogging() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Without wire logging there is no logging handler")
+    public final void testInit_None() {
+        final EmbeddedChannel channel;
+
+        channel = channel(WireLogging.NONE);
+
+        Assertions.assertNull(channel.pipeline()
+            .get(LoggingHandler.class));
+        Assertions.assertNull(channel.pipeline()
+            .get(SampledLoggingHandler.class));
+    }
+
+    @Test
+    @DisplayName("With sampled wire logging the sampling handler is added")
+    public final void testInit_Sampled() {
+        final EmbeddedChannel channel;
+
+        channel = channel(WireLogging.SAMPLED);
+
+        Assertions.assertNotNull(channel.pipeline()
+            .get(SampledLoggingHandler.class));
+    }
+
+    @Test
+    @DisplayName("A changed mode is used for the channels initialized afterwards")
+    public final void testInit_Changed() {
+        final MessageListenerChannelInitializer initializer;
+        final EmbeddedChannel                   channel;
+
+        initializer = initializer(WireLogging.NONE);
+        initializer.setWireLogging(WireLogging.FULL);
+
+        channel = new EmbeddedChannel(initializer);
+
+        Assertions.assertNotNull(channel.pipeline()
+            .get(LoggingHandler.class));
+    }
+
+    @Test
+    @DisplayName("A changed mode is applied to pooled channels when acquired")
+    public final void testPool_Acquired() throws Exception {
+        final MessageListenerChannelPoolHandler handler;
+        final AtomicReference<WireLogging>      mode;
+        final EmbeddedChannel                   channel;
+
+        mode = new AtomicReference<>(WireLogging.NONE);
+        handler = new MessageListenerChannelPoolHandler(listener(), FifoResponseCorrelator::new,
+            ClientConfiguration.DEFAULT, mode::get, Duration.ZERO, null, null);
+        channel = new EmbeddedChannel();
+        handler.channelCreated(channel);
+
+        Assertions.assertNull(channel.pipeline()
+            .get(LoggingHandler.class));
+
+        mode.set(WireLogging.FULL);
+        handler.channelAcquired(channel);
+
+        Assertions.assertNotNull(channel.pipeline()
+            .get(LoggingHandler.class));
+    }
+
+    @Test
+    @DisplayName("Wire logging can be enabled and disabled on an active channel")
+    public final void testSetWireLogging() {
+        final EmbeddedChannel channel;
+
+        channel = channel(WireLogging.NONE);
+
+        MessageListenerChannelInitializer.setWireLogging(channel.pipeline(), WireLogging.FULL, 1, 16);
+        Assertions.assertNotNull(channel.pipeline()
+            .get(LoggingHandler.class));
+
+        MessageListenerChannelInitializer.setWireLogging(channel.pipeline(), WireLogging.NONE, 1, 16);
+        Assertions.assertNull(channel.pipeline()
+            .get(LoggingHandler.class));
+    }
+
+    private final EmbeddedChannel channel(final WireLogging wireLogging) {
+        return new EmbeddedChannel(initializer(wireLogging));
+    }
+
+    private final MessageListenerChannelInitializer initializer(final WireLogging wireLogging) {
+        final PipelineSettings settings;
+
+        settings = PipelineSettings.builder()
+            .wireLogging(wireLogging)
+            .build();
+        return new MessageListenerChannelInitializer(listener(), FifoResponseCorrelator::new,
+            ClientConfiguration.builder()
+                .pipeline(settings)
+                .build());
+    }
+
+    private final TransactionListener listener() {
+        return new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        };
+    }
+
+}
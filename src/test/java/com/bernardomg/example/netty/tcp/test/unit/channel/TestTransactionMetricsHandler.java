@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.channel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.channel.TransactionMetricsHandler;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsSnapshot;
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.string.StringEncoder;
+
+@DisplayName("Transaction metrics handler")
+public final class TestTransactionMetricsHandler {
+
+    /**
+     * Default constructor.
+     */
+    public TestTransactionMetricsHandler() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Counts the bytes read")
+    public final void testRead() {
+        final TransactionMetrics metrics;
+        final EmbeddedChannel    channel;
+        final MetricsSnapshot    snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        channel = new EmbeddedChannel(new TransactionMetricsHandler(metrics));
+
+        channel.writeInbound(Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8));
+        channel.writeInbound(Unpooled.copiedBuffer("ñandú", StandardCharsets.UTF_8));
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertEquals(10, snapshot.getBytesReceived());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Counts the bytes written, as encoded")
+    public final void testWrite() {
+        final TransactionMetrics metrics;
+        final EmbeddedChannel    channel;
+        final MetricsSnapshot    snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        channel = new EmbeddedChannel(new TransactionMetricsHandler(metrics),
+            new StringEncoder(StandardCharsets.ISO_8859_1));
+
+        channel.writeOutbound("ñandú");
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertEquals(5, snapshot.getBytesSent());
+        channel.finishAndReleaseAll();
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.channel;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.channel.WritabilityHandler;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+@DisplayName("Writability handler")
+public final class TestWritabilityHandler {
+
+    /**
+     * Default constructor.
+     */
+    public TestWritabilityHandler() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Closing the channel releases the waiters")
+    public final void testWhenWritable_Closed() {
+        final EmbeddedChannel         channel;
+        final WritabilityHandler      handler;
+        final CompletableFuture<Void> writable;
+
+        handler = new WritabilityHandler();
+        channel = channel(handler);
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+
+        writable = handler.whenWritable();
+
+        channel.close();
+
+        Assertions.assertTrue(writable.isDone());
+    }
+
+    @Test
+    @DisplayName("Waiters are released once the outbound buffer is flushed")
+    public final void testWhenWritable_Flushed() {
+        final EmbeddedChannel         channel;
+        final WritabilityHandler      handler;
+        final CompletableFuture<Void> writable;
+
+        handler = new WritabilityHandler();
+        channel = channel(handler);
+        channel.write(Unpooled.wrappedBuffer(new byte[32]));
+
+        writable = handler.whenWritable();
+
+        Assertions.assertFalse(channel.isWritable());
+        Assertions.assertFalse(writable.isDone());
+
+        channel.flush();
+        channel.runPendingTasks();
+
+        Assertions.assertTrue(writable.isDone());
+    }
+
+    @Test
+    @DisplayName("Writable channels don't wait")
+    public final void testWhenWritable_Writable() {
+        final EmbeddedChannel    channel;
+        final WritabilityHandler handler;
+
+        handler = new WritabilityHandler();
+        channel = channel(handler);
+
+        Assertions.assertTrue(handler.whenWritable()
+            .isDone());
+    }
+
+    private final EmbeddedChannel channel(final WritabilityHandler handler) {
+        final EmbeddedChannel channel;
+
+        channel = new EmbeddedChannel(handler);
+        channel.config()
+            .setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+
+        return channel;
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.client;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.SocketSettings;
+import com.bernardomg.example.netty.tcp.client.transport.Transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedRecvByteBufAllocator;
+import io.netty.channel.epoll.EpollChannelOption;
+
+@DisplayName("Socket settings")
+public final class TestSocketSettings {
+
+    /**
+     * Default constructor.
+     */
+    public TestSocketSettings() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The options are set on the bootstrap")
+    public final void testApply() {
+        final Bootstrap                bootstrap;
+        final Map<ChannelOption<?>, ?> options;
+
+        bootstrap = new Bootstrap();
+        SocketSettings.builder()
+            .connectTimeout(Duration.ofMillis(500))
+            .keepAlive(false)
+            .pooledAllocator(false)
+            .readBufferSize(4096)
+            .receiveBufferSize(1024)
+            .sendBufferSize(2048)
+            .tcpNoDelay(false)
+            .build()
+            .apply(bootstrap, Transport.NIO);
+        options = bootstrap.config()
+            .options();
+
+        Assertions.assertEquals(500, options.get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+        Assertions.assertEquals(false, options.get(ChannelOption.SO_KEEPALIVE));
+        Assertions.assertEquals(false, options.get(ChannelOption.TCP_NODELAY));
+        Assertions.assertEquals(1024, options.get(ChannelOption.SO_RCVBUF));
+        Assertions.assertEquals(2048, options.get(ChannelOption.SO_SNDBUF));
+        Assertions.assertSame(UnpooledByteBufAllocator.DEFAULT, options.get(ChannelOption.ALLOCATOR));
+        Assertions.assertInstanceOf(FixedRecvByteBufAllocator.class, options.get(ChannelOption.RCVBUF_ALLOCATOR));
+    }
+
+    @Test
+    @DisplayName("Buffer sizes are left to the system by default")
+    public final void testApply_Default() {
+        final Bootstrap                bootstrap;
+        final Map<ChannelOption<?>, ?> options;
+
+        bootstrap = new Bootstrap();
+        SocketSettings.DEFAULT.apply(bootstrap, Transport.NIO);
+        options = bootstrap.config()
+            .options();
+
+        Assertions.assertFalse(options.containsKey(ChannelOption.SO_RCVBUF));
+        Assertions.assertFalse(options.containsKey(ChannelOption.SO_SNDBUF));
+        Assertions.assertEquals(true, options.get(ChannelOption.TCP_NODELAY));
+    }
+
+    @Test
+    @DisplayName("Native options are ignored by NIO")
+    public final void testApply_NativeOnNio() {
+        final Bootstrap bootstrap;
+
+        bootstrap = new Bootstrap();
+        SocketSettings.builder()
+            .quickAck(true)
+            .fastOpenConnect(true)
+            .build()
+            .apply(bootstrap, Transport.NIO);
+
+        Assertions.assertFalse(bootstrap.config()
+            .options()
+            .containsKey(EpollChannelOption.TCP_QUICKACK));
+        Assertions.assertFalse(bootstrap.config()
+            .options()
+            .containsKey(ChannelOption.TCP_FASTOPEN_CONNECT));
+    }
+
+}
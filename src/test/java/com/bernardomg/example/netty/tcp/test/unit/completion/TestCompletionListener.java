@@ -0,0 +1,127 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.completion;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.completion.Completion;
+import com.bernardomg.example.netty.tcp.client.completion.CompletionListener;
+
+@DisplayName("Completion listener")
+public final class TestCompletionListener {
+
+    /**
+     * Default constructor.
+     */
+    public TestCompletionListener() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Completes when the connection is closed")
+    public final void testAwait_Closed() {
+        final CompletionListener listener;
+
+        listener = new CompletionListener(getDelegate(), 2);
+
+        listener.onDisconnect();
+
+        Assertions.assertEquals(Completion.CLOSED, listener.await(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Doesn't complete when the connection is closed and the client reconnects")
+    public final void testAwait_Closed_Reconnect() {
+        final CompletionListener listener;
+
+        listener = new CompletionListener(getDelegate(), 2, true);
+
+        listener.onDisconnect();
+
+        Assertions.assertEquals(Completion.TIMEOUT, listener.await(Duration.ofMillis(10)));
+    }
+
+    @Test
+    @DisplayName("Completes when the connection goes idle")
+    public final void testAwait_Idle() {
+        final CompletionListener listener;
+
+        listener = new CompletionListener(getDelegate(), 2);
+
+        listener.onReceive("abc");
+        listener.onIdle();
+
+        Assertions.assertEquals(Completion.IDLE, listener.await(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Completes when all the responses are received")
+    public final void testAwait_Responses() {
+        final CompletionListener listener;
+
+        listener = new CompletionListener(getDelegate(), 2);
+
+        listener.onReceive("abc");
+        listener.onReceive("def");
+
+        Assertions.assertEquals(Completion.RESPONSES, listener.await(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Times out when not all the responses are received")
+    public final void testAwait_Timeout() {
+        final CompletionListener listener;
+
+        listener = new CompletionListener(getDelegate(), 2);
+
+        listener.onReceive("abc");
+
+        Assertions.assertEquals(Completion.TIMEOUT, listener.await(Duration.ofMillis(10)));
+    }
+
+    private final TransactionListener getDelegate() {
+        return new TransactionListener() {
+
+            @Override
+            public final void onReceive(final String message) {}
+
+            @Override
+            public final void onSend(final String message) {}
+
+            @Override
+            public final void onStart() {}
+
+            @Override
+            public final void onStop() {}
+
+        };
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.correlation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+@DisplayName("FIFO response correlator")
+public final class TestFifoResponseCorrelator {
+
+    private final ResponseCorrelator correlator = new FifoResponseCorrelator();
+
+    /**
+     * Default constructor.
+     */
+    public TestFifoResponseCorrelator() {
+        super();
+    }
+
+    @Test
+    @DisplayName("A late response is consumed by the request it belongs to")
+    public final void testComplete_Cancelled() {
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+        correlator.register("a", first);
+        correlator.register("b", second);
+        first.cancel(false);
+
+        correlator.complete("A");
+        correlator.complete("B");
+
+        Assertions.assertEquals("B", second.join());
+        Assertions.assertEquals(0, correlator.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Responses are matched in order")
+    public final void testComplete_Ordered() {
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+        correlator.register("a", first);
+        correlator.register("b", second);
+
+        correlator.complete("A");
+        correlator.complete("B");
+
+        Assertions.assertEquals("A", first.join());
+        Assertions.assertEquals("B", second.join());
+    }
+
+    @Test
+    @DisplayName("The response to a skipped request is discarded")
+    public final void testComplete_Skipped() {
+        final CompletableFuture<String> response;
+
+        response = new CompletableFuture<>();
+        correlator.skip();
+        correlator.register("b", response);
+
+        Assertions.assertFalse(correlator.complete("A"));
+        Assertions.assertFalse(response.isDone());
+
+        correlator.complete("B");
+
+        Assertions.assertEquals("B", response.join());
+        Assertions.assertEquals(0, correlator.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Once too many requests time out the channel should be closed")
+    public final void testExpire_Max() {
+        final ResponseCorrelator        limited;
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+
+        limited = new FifoResponseCorrelator(2);
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+        limited.register("a", first);
+        limited.register("b", second);
+        first.completeExceptionally(new TimeoutException());
+        second.completeExceptionally(new TimeoutException());
+
+        Assertions.assertFalse(limited.expire(first));
+        Assertions.assertTrue(limited.expire(second));
+    }
+
+    @Test
+    @DisplayName("Late responses stop counting their requests as timed out")
+    public final void testExpire_Released() {
+        final ResponseCorrelator        limited;
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+
+        limited = new FifoResponseCorrelator(2);
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+        limited.register("a", first);
+        first.completeExceptionally(new TimeoutException());
+        limited.expire(first);
+        limited.complete("A");
+
+        limited.register("b", second);
+        second.completeExceptionally(new TimeoutException());
+
+        Assertions.assertFalse(limited.expire(second));
+    }
+
+}
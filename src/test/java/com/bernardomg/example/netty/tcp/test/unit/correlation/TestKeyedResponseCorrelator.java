@@ -0,0 +1,81 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.correlation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.correlation.KeyedResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+
+@DisplayName("Keyed response correlator")
+public final class TestKeyedResponseCorrelator {
+
+    private final ResponseCorrelator correlator = new KeyedResponseCorrelator(m -> m.substring(0, m.indexOf(':')));
+
+    /**
+     * Default constructor.
+     */
+    public TestKeyedResponseCorrelator() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Responses are matched by id, in any order")
+    public final void testComplete_OutOfOrder() {
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+        correlator.register("1:a", first);
+        correlator.register("2:b", second);
+
+        correlator.complete("2:B");
+        correlator.complete("1:A");
+
+        Assertions.assertEquals("1:A", first.join());
+        Assertions.assertEquals("2:B", second.join());
+        Assertions.assertEquals(0, correlator.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Timed out requests are removed")
+    public final void testRegister_Timeout() {
+        final CompletableFuture<String> response;
+
+        response = new CompletableFuture<>();
+        correlator.register("1:a", response);
+        response.completeExceptionally(new TimeoutException());
+
+        Assertions.assertEquals(0, correlator.getInFlight());
+        Assertions.assertFalse(correlator.complete("1:A"));
+    }
+
+}
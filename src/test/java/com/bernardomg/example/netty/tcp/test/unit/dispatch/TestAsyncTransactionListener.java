@@ -0,0 +1,259 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.dispatch;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.AsyncTransactionListener;
+import com.bernardomg.example.netty.tcp.client.dispatch.OverflowPolicy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+
+@DisplayName("Asynchronous transaction listener")
+public final class TestAsyncTransactionListener {
+
+    /**
+     * Default constructor.
+     */
+    public TestAsyncTransactionListener() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Buffers are released once delivered or dropped")
+    public final void testBuffers_Released() {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+        final CountDownLatch           release;
+        final List<ByteBuf>            buffers;
+        ByteBuf                        buffer;
+
+        received = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        buffers = new ArrayList<>();
+        listener = new AsyncTransactionListener(new RecordingListener(received, release), 2, OverflowPolicy.DROP);
+
+        for (int i = 0; i < 100; i++) {
+            buffer = Unpooled.copiedBuffer(String.valueOf(i), StandardCharsets.UTF_8);
+            buffers.add(buffer);
+            listener.onReceive(buffer);
+            // As the event loop does after the listener returns
+            buffer.release();
+        }
+        release.countDown();
+        listener.close();
+
+        Assertions.assertEquals(100, received.size() + listener.getDropped());
+        Assertions.assertTrue(buffers.stream()
+            .allMatch(b -> b.refCnt() == 0));
+    }
+
+    @Test
+    @DisplayName("When blocking all the events are delivered in order")
+    public final void testOverflow_Block() {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+
+        received = new CopyOnWriteArrayList<>();
+        listener = new AsyncTransactionListener(new RecordingListener(received, new CountDownLatch(0)), 2,
+            OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 100; i++) {
+            listener.onReceive(String.valueOf(i));
+        }
+        listener.close();
+
+        Assertions.assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(String.valueOf(i), received.get(i));
+        }
+        Assertions.assertEquals(0, listener.getDropped());
+    }
+
+    @Test
+    @DisplayName("When blocking the events from an event loop don't wait, and the latest one is delivered")
+    public final void testOverflow_Block_EventLoop() throws Exception {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+        final CountDownLatch           release;
+        final EventLoopGroup           group;
+
+        received = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        listener = new AsyncTransactionListener(new RecordingListener(received, release), 2, OverflowPolicy.BLOCK);
+        group = new DefaultEventLoopGroup(1);
+
+        try {
+            // The listener is stuck, so the queue fills up
+            group.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    listener.onReceive(String.valueOf(i));
+                }
+            })
+                .get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            listener.close();
+            group.shutdownGracefully();
+        }
+
+        Assertions.assertEquals("99", received.get(received.size() - 1));
+        Assertions.assertEquals(100, received.size() + listener.getDropped());
+    }
+
+    @Test
+    @DisplayName("When coalescing the latest event is delivered")
+    public final void testOverflow_Coalesce() {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+        final CountDownLatch           release;
+
+        received = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        listener = new AsyncTransactionListener(new RecordingListener(received, release), 2, OverflowPolicy.COALESCE);
+
+        for (int i = 0; i < 100; i++) {
+            listener.onReceive(String.valueOf(i));
+        }
+        release.countDown();
+        listener.close();
+
+        Assertions.assertEquals("99", received.get(received.size() - 1));
+        Assertions.assertTrue(listener.getDropped() > 0);
+        Assertions.assertEquals(100, received.size() + listener.getDropped());
+    }
+
+    @Test
+    @DisplayName("When dropping a slow listener doesn't block the sender")
+    public final void testOverflow_Drop() {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+        final CountDownLatch           release;
+
+        received = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        listener = new AsyncTransactionListener(new RecordingListener(received, release), 2, OverflowPolicy.DROP);
+
+        for (int i = 0; i < 100; i++) {
+            listener.onReceive(String.valueOf(i));
+        }
+        release.countDown();
+        listener.close();
+
+        Assertions.assertTrue(listener.getDropped() > 0);
+        Assertions.assertEquals(100, received.size() + listener.getDropped());
+    }
+
+    @Test
+    @DisplayName("When the queue is full writability events don't wait, and the latest one is delivered")
+    public final void testWritability_Coalesced() {
+        final AsyncTransactionListener listener;
+        final List<String>             received;
+        final CountDownLatch           release;
+
+        received = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(1);
+        listener = new AsyncTransactionListener(new RecordingListener(received, release), 2, OverflowPolicy.DROP);
+
+        // The listener is stuck, so the queue is full
+        for (int i = 0; i < 10; i++) {
+            listener.onReceive(String.valueOf(i));
+        }
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 100; i++) {
+                listener.onWritabilityChanged((i % 2) == 0);
+            }
+            listener.onWritabilityChanged(true);
+        });
+        release.countDown();
+        listener.close();
+
+        Assertions.assertEquals("writable true", received.get(received.size() - 1));
+    }
+
+    /**
+     * Listener which stores the received messages. It waits for the latch before each message, to simulate a slow
+     * listener.
+     */
+    private static final class RecordingListener implements TransactionListener {
+
+        /**
+         * Received messages.
+         */
+        private final List<String>   received;
+
+        /**
+         * Released to let the listener go on.
+         */
+        private final CountDownLatch release;
+
+        public RecordingListener(final List<String> rcvd, final CountDownLatch rls) {
+            super();
+
+            received = rcvd;
+            release = rls;
+        }
+
+        @Override
+        public final void onReceive(final String message) {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            received.add(message);
+        }
+
+        @Override
+        public final void onSend(final String message) {}
+
+        @Override
+        public final void onStart() {}
+
+        @Override
+        public final void onStop() {}
+
+        @Override
+        public final void onWritabilityChanged(final boolean writable) {
+            received.add("writable " + writable);
+        }
+
+    }
+
+}
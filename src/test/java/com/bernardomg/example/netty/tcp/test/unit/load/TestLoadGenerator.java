@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.load;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.Client;
+import com.bernardomg.example.netty.tcp.client.channel.WireLogging;
+import com.bernardomg.example.netty.tcp.client.load.LoadGenerator;
+import com.bernardomg.example.netty.tcp.client.load.LoadReport;
+import com.bernardomg.example.netty.tcp.client.load.LoadSettings;
+
+import io.netty.buffer.ByteBuf;
+
+@DisplayName("Load generator")
+public final class TestLoadGenerator {
+
+    /**
+     * Default constructor.
+     */
+    public TestLoadGenerator() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The highest rate sends a request each nanosecond")
+    public final void testRun_MaxRate() {
+        final LoadSettings settings;
+        final LoadReport   report;
+
+        settings = LoadSettings.builder()
+            .rate(LoadSettings.MAX_RATE)
+            .duration(Duration.ofNanos(10_000))
+            .warmUp(Duration.ZERO)
+            .build();
+
+        report = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> new LoadGenerator(AnsweringClient::new, settings).run());
+
+        Assertions.assertEquals(10_000, report.getSent());
+        Assertions.assertEquals(10_000, report.getCompleted());
+    }
+
+    @Test
+    @DisplayName("Sends as many requests as the rate allows, even when the interval is not a whole number")
+    public final void testRun_Rate() {
+        final LoadSettings settings;
+        final LoadReport   report;
+
+        settings = LoadSettings.builder()
+            .rate(3)
+            .duration(Duration.ofSeconds(1))
+            .warmUp(Duration.ZERO)
+            .build();
+
+        report = new LoadGenerator(AnsweringClient::new, settings).run();
+
+        Assertions.assertEquals(3, report.getSent());
+    }
+
+    @Test
+    @DisplayName("A rate above one request each nanosecond is rejected")
+    public final void testSettings_RateAboveMax() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadSettings.builder()
+            .rate(LoadSettings.MAX_RATE + 1)
+            .build());
+    }
+
+    @Test
+    @DisplayName("A rate of zero is rejected")
+    public final void testSettings_RateZero() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LoadSettings.builder()
+            .rate(0)
+            .build());
+    }
+
+    /**
+     * Client which answers each request at once.
+     */
+    private static final class AnsweringClient implements Client {
+
+        @Override
+        public final void close() {}
+
+        @Override
+        public final void connect() {}
+
+        @Override
+        public final CompletableFuture<String> exchange(final String message, final Duration timeout) {
+            return CompletableFuture.completedFuture(message);
+        }
+
+        @Override
+        public final void flush() {}
+
+        @Override
+        public final void request(final ByteBuf message) {}
+
+        @Override
+        public final void request(final String message) {}
+
+        @Override
+        public final void setWireLogging(final WireLogging mode) {}
+
+        @Override
+        public final void write(final String message) {}
+
+    }
+
+}
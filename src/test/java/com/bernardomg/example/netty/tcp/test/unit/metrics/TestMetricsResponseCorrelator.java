@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.correlation.FifoResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.correlation.ResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsResponseCorrelator;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsSnapshot;
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+
+@DisplayName("Metrics response correlator")
+public final class TestMetricsResponseCorrelator {
+
+    /**
+     * Default constructor.
+     */
+    public TestMetricsResponseCorrelator() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Records the latency between registering and matching the response")
+    public final void testSnapshot_Latency() throws InterruptedException {
+        final TransactionMetrics metrics;
+        final ResponseCorrelator correlator;
+        final MetricsSnapshot    snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        correlator = new MetricsResponseCorrelator(new FifoResponseCorrelator(), metrics);
+
+        correlator.register("abc", new CompletableFuture<>());
+        Thread.sleep(10);
+        correlator.complete("abc");
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertTrue(snapshot.getMaxLatency() >= Duration.ofMillis(10)
+            .toNanos());
+    }
+
+    @Test
+    @DisplayName("Requests which time out record no latency, and their late response is not matched")
+    public final void testSnapshot_TimedOut() {
+        final TransactionMetrics        metrics;
+        final ResponseCorrelator        correlator;
+        final CompletableFuture<String> first;
+        final CompletableFuture<String> second;
+        final MetricsSnapshot           snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        correlator = new MetricsResponseCorrelator(new FifoResponseCorrelator(), metrics);
+        first = new CompletableFuture<>();
+        second = new CompletableFuture<>();
+
+        correlator.register("a", first);
+        first.completeExceptionally(new TimeoutException());
+        correlator.register("b", second);
+        correlator.complete("A");
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertFalse(second.isDone());
+        Assertions.assertEquals(0, snapshot.getMaxLatency());
+    }
+
+}
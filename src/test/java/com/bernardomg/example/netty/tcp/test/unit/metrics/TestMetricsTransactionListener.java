@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.metrics;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.TransactionListener;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsSnapshot;
+import com.bernardomg.example.netty.tcp.client.metrics.MetricsTransactionListener;
+import com.bernardomg.example.netty.tcp.client.metrics.TransactionMetrics;
+
+@DisplayName("Metrics transaction listener")
+public final class TestMetricsTransactionListener {
+
+    /**
+     * Default constructor.
+     */
+    public TestMetricsTransactionListener() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Counts the messages, but not their bytes")
+    public final void testSnapshot_Counters() {
+        final TransactionMetrics  metrics;
+        final TransactionListener listener;
+        final MetricsSnapshot     snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        listener = new MetricsTransactionListener(metrics);
+
+        listener.onSend("abc");
+        listener.onSend("de");
+        listener.onReceive("abc");
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertEquals(2, snapshot.getSent());
+        Assertions.assertEquals(0, snapshot.getBytesSent());
+        Assertions.assertEquals(1, snapshot.getReceived());
+        Assertions.assertEquals(0, snapshot.getBytesReceived());
+    }
+
+    @Test
+    @DisplayName("Each snapshot only includes its own interval")
+    public final void testSnapshot_Interval() {
+        final TransactionMetrics  metrics;
+        final TransactionListener listener;
+        final MetricsSnapshot     snapshot;
+
+        metrics = new TransactionMetrics(Duration.ofSeconds(1), s -> {});
+        listener = new MetricsTransactionListener(metrics);
+
+        listener.onSend("abc");
+        listener.onReceive("abc");
+        metrics.snapshot();
+
+        snapshot = metrics.snapshot();
+
+        Assertions.assertEquals(0, snapshot.getSent());
+        Assertions.assertEquals(0, snapshot.getReceived());
+        Assertions.assertEquals(0, snapshot.getMaxLatency());
+    }
+
+}
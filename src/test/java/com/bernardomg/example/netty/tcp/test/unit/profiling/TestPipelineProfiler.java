@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.profiling;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.bernardomg.example.netty.tcp.client.profiling.PipelineProfiler;
+import com.bernardomg.example.netty.tcp.client.profiling.ProfileReport;
+import com.bernardomg.example.netty.tcp.client.profiling.StageReport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.codec.string.StringEncoder;
+
+@DisplayName("Pipeline profiler")
+public final class TestPipelineProfiler {
+
+    /**
+     * Default constructor.
+     */
+    public TestPipelineProfiler() {
+        super();
+    }
+
+    @Test
+    @DisplayName("The event loop lag is measured")
+    public final void testInstrument_Lag() throws InterruptedException {
+        final PipelineProfiler profiler;
+        final EmbeddedChannel  channel;
+        final ProfileReport    report;
+
+        profiler = new PipelineProfiler(Duration.ofMillis(1));
+        channel = new EmbeddedChannel();
+        channel.pipeline()
+            .addLast("decoder", new StringDecoder());
+        profiler.instrument(channel);
+
+        // The probe is due in 1 ms, but the event loop is busy for longer
+        Thread.sleep(50);
+        channel.runScheduledPendingTasks();
+        profiler.stop();
+        channel.finishAndReleaseAll();
+
+        report = profiler.report();
+        // The probe reschedules itself, so a second one may be due before the first one ends
+        Assertions.assertTrue(report.getLag()
+            .getTotalCount() >= 1);
+        Assertions.assertTrue(report.getLag()
+            .getMaxValue() >= TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    @Test
+    @DisplayName("Each stage is measured excluding the following ones")
+    public final void testInstrument_Read() {
+        final PipelineProfiler         profiler;
+        final EmbeddedChannel          channel;
+        final Map<String, StageReport> stages;
+
+        profiler = new PipelineProfiler(Duration.ofSeconds(1));
+        channel = new EmbeddedChannel();
+        channel.pipeline()
+            .addLast("decoder", new StringDecoder())
+            .addLast("slow", new ChannelInboundHandlerAdapter() {
+
+                @Override
+                public final void channelRead(final ChannelHandlerContext ctx, final Object msg)
+                        throws InterruptedException {
+                    Thread.sleep(20);
+                    ctx.fireChannelRead(msg);
+                }
+
+            });
+        profiler.instrument(channel);
+
+        channel.writeInbound(Unpooled.copiedBuffer("Message", StandardCharsets.UTF_8));
+        Assertions.assertEquals("Message", channel.readInbound());
+        channel.finishAndReleaseAll();
+
+        stages = stages(profiler);
+        Assertions.assertEquals(1, stages.get("decoder read")
+            .getTime()
+            .getTotalCount());
+        Assertions.assertTrue(stages.get("slow read")
+            .getTime()
+            .getMaxValue() >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(stages.get("decoder read")
+            .getTime()
+            .getMaxValue() < TimeUnit.MILLISECONDS.toNanos(20), "The decoder includes the following stage");
+    }
+
+    @Test
+    @DisplayName("Writes are measured for outbound handlers and the socket")
+    public final void testInstrument_Write() {
+        final PipelineProfiler         profiler;
+        final EmbeddedChannel          channel;
+        final Map<String, StageReport> stages;
+
+        profiler = new PipelineProfiler(Duration.ofSeconds(1));
+        channel = new EmbeddedChannel();
+        channel.pipeline()
+            .addLast("encoder", new StringEncoder())
+            .addLast("decoder", new StringDecoder());
+        profiler.instrument(channel);
+
+        channel.writeOutbound("Message");
+        ((ByteBuf) channel.readOutbound()).release();
+        channel.finishAndReleaseAll();
+
+        stages = stages(profiler);
+        Assertions.assertEquals(1, stages.get("encoder write")
+            .getTime()
+            .getTotalCount());
+        Assertions.assertEquals(1, stages.get("socket write")
+            .getTime()
+            .getTotalCount());
+        Assertions.assertTrue(stages.get("socket flush")
+            .getTime()
+            .getTotalCount() > 0);
+        Assertions.assertFalse(stages.containsKey("decoder write"), "Inbound handlers are not measured for writes");
+    }
+
+    private final Map<String, StageReport> stages(final PipelineProfiler profiler) {
+        return profiler.report()
+            .getStages()
+            .stream()
+            .collect(Collectors.toMap(StageReport::getName, Function.identity()));
+    }
+
+}
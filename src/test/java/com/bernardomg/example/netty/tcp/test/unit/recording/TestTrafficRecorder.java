@@ -0,0 +1,166 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bernardomg.example.netty.tcp.client.recording.RecordingFormat;
+import com.bernardomg.example.netty.tcp.client.recording.RecordingSettings;
+import com.bernardomg.example.netty.tcp.client.recording.TrafficRecorder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+@DisplayName("Traffic recorder")
+public final class TestTrafficRecorder {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Default constructor.
+     */
+    public TestTrafficRecorder() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Binary records keep the connection, direction and payload")
+    public final void testRecord_Binary() throws IOException {
+        final Path       file;
+        final ByteBuffer content;
+        final byte[]     payload;
+        final ByteBuf    message;
+
+        file = directory.resolve("traffic.bin");
+        message = Unpooled.wrappedBuffer(new byte[] { 0, 1, 2 });
+        try (TrafficRecorder recorder = new TrafficRecorder(RecordingSettings.builder()
+            .file(file)
+            .format(RecordingFormat.BINARY)
+            .maxFileSize(0)
+            .build())) {
+            recorder.record(7, false, message);
+        }
+
+        content = ByteBuffer.wrap(Files.readAllBytes(file));
+        Assertions.assertTrue(content.getLong() > 0);
+        Assertions.assertEquals(7, content.getInt());
+        Assertions.assertEquals(0, content.get());
+        Assertions.assertEquals(3, content.getInt());
+        payload = new byte[3];
+        content.get(payload);
+        Assertions.assertArrayEquals(new byte[] { 0, 1, 2 }, payload);
+        Assertions.assertFalse(content.hasRemaining());
+        Assertions.assertEquals(3, message.readableBytes(), "The message was consumed");
+    }
+
+    @Test
+    @DisplayName("Records over the pending limit are dropped")
+    public final void testRecord_Dropped() throws IOException {
+        final TrafficRecorder recorder;
+
+        recorder = new TrafficRecorder(RecordingSettings.builder()
+            .file(directory.resolve("traffic.ndjson"))
+            .maxPendingBytes(1)
+            .build());
+        for (int i = 0; i < 10; i++) {
+            recorder.record(0, true, "Message");
+        }
+        recorder.close();
+
+        Assertions.assertEquals(0, recorder.getRecorded());
+        Assertions.assertEquals(10, recorder.getDropped());
+    }
+
+    @Test
+    @DisplayName("NDJSON records escape the payload")
+    public final void testRecord_Ndjson() throws IOException {
+        final Path         file;
+        final List<String> lines;
+
+        file = directory.resolve("traffic.ndjson");
+        try (TrafficRecorder recorder = new TrafficRecorder(RecordingSettings.builder()
+            .file(file)
+            .maxFileSize(0)
+            .build())) {
+            recorder.record(3, true, "a\"b\\c\n\u0001");
+            recorder.record(4, false, "\u00e9");
+        }
+
+        lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertTrue(lines.get(0)
+            .matches("\\{\"ts\":\\d+,\"conn\":3,\"dir\":\"sent\",\"payload\":\"a\\\\\"b\\\\\\\\c\\\\n\\\\u0001\"\\}"),
+            lines.get(0));
+        Assertions.assertTrue(lines.get(1)
+            .matches("\\{\"ts\":\\d+,\"conn\":4,\"dir\":\"received\",\"payload\":\"\u00e9\"\\}"), lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Files are rotated, keeping only the latest ones, and records are never split")
+    public final void testRecord_Rotation() throws IOException {
+        final List<Path> files;
+
+        try (TrafficRecorder recorder = new TrafficRecorder(RecordingSettings.builder()
+            .file(directory.resolve("traffic.ndjson"))
+            .maxFileSize(200)
+            .maxFiles(2)
+            .build())) {
+            for (int i = 0; i < 20; i++) {
+                recorder.record(0, true, "Message " + i);
+            }
+        }
+
+        try (Stream<Path> listed = Files.list(directory)) {
+            files = listed.sorted()
+                .collect(Collectors.toList());
+        }
+        Assertions.assertEquals(2, files.size());
+        for (final Path file : files) {
+            Assertions.assertTrue(file.getFileName()
+                .toString()
+                .matches("traffic-\\d{5}\\.ndjson"), file.toString());
+            Assertions.assertTrue(Files.size(file) <= 200);
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Assertions.assertTrue(line.startsWith("{") && line.endsWith("}"), line);
+            }
+        }
+        Assertions.assertTrue(Files.readString(files.get(1))
+            .contains("Message 19"));
+    }
+
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.unit.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.bernardomg.example.netty.tcp.client.replay.CaptureFormat;
+import com.bernardomg.example.netty.tcp.client.replay.CaptureReader;
+import com.bernardomg.example.netty.tcp.client.replay.CaptureRecord;
+
+@DisplayName("Capture reader")
+public final class TestCaptureReader {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Default constructor.
+     */
+    public TestCaptureReader() {
+        super();
+    }
+
+    @Test
+    @DisplayName("Binary records are read with their timestamps")
+    public final void testNext_LengthField() throws IOException {
+        final List<CaptureRecord> records;
+
+        records = read(binary(100, "abc", 250, "de"), CaptureFormat.LENGTH_FIELD, 1024);
+
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertEquals(100, records.get(0)
+            .getOffset());
+        Assertions.assertEquals("abc", text(records.get(0)));
+        Assertions.assertEquals(250, records.get(1)
+            .getOffset());
+        Assertions.assertEquals("de", text(records.get(1)));
+    }
+
+    @Test
+    @DisplayName("A binary record cut by the end of the file is rejected")
+    public final void testNext_LengthField_Cut() throws IOException {
+        final byte[] content;
+        final byte[] cut;
+
+        content = binary(100, "abc");
+        cut = new byte[content.length - 1];
+        System.arraycopy(content, 0, cut, 0, cut.length);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> read(cut, CaptureFormat.LENGTH_FIELD, 1024));
+    }
+
+    @Test
+    @DisplayName("Lines are read with and without timestamps")
+    public final void testNext_Line() throws IOException {
+        final List<CaptureRecord> records;
+
+        records = read("10\tfirst\r\nsecond\n30\tthird".getBytes(StandardCharsets.UTF_8), CaptureFormat.LINE, 1024);
+
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals(10, records.get(0)
+            .getOffset());
+        Assertions.assertEquals("first", text(records.get(0)));
+        Assertions.assertEquals(CaptureRecord.UNTIMED, records.get(1)
+            .getOffset());
+        Assertions.assertEquals("second", text(records.get(1)));
+        Assertions.assertEquals(30, records.get(2)
+            .getOffset());
+        Assertions.assertEquals("third", text(records.get(2)));
+    }
+
+    @Test
+    @DisplayName("A line with an invalid timestamp is rejected")
+    public final void testNext_Line_InvalidTimestamp() throws IOException {
+        Assertions.assertThrows(IllegalStateException.class,
+            () -> read("1x\tfirst\n".getBytes(StandardCharsets.UTF_8), CaptureFormat.LINE, 1024));
+    }
+
+    @Test
+    @DisplayName("A record longer than the window is rejected")
+    public final void testNext_LongerThanWindow() throws IOException {
+        Assertions.assertThrows(IllegalStateException.class,
+            () -> read("a very long line\n".getBytes(StandardCharsets.UTF_8), CaptureFormat.LINE, 8));
+    }
+
+    @Test
+    @DisplayName("Records crossing the window end are read whole, and stay valid after the window moves")
+    public final void testNext_MovingWindow() throws IOException {
+        final StringBuilder       content;
+        final List<CaptureRecord> records;
+
+        content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append(i)
+                .append("\tmessage ")
+                .append(i)
+                .append('\n');
+        }
+
+        records = read(content.toString()
+            .getBytes(StandardCharsets.UTF_8), CaptureFormat.LINE, 32);
+
+        Assertions.assertEquals(100, records.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i, records.get(i)
+                .getOffset());
+            Assertions.assertEquals("message " + i, text(records.get(i)));
+        }
+    }
+
+    private final byte[] binary(final Object... records) {
+        final ByteBuffer buffer;
+        byte[]           payload;
+
+        buffer = ByteBuffer.allocate(1024);
+        for (int i = 0; i < records.length; i += 2) {
+            payload = ((String) records[i + 1]).getBytes(StandardCharsets.UTF_8);
+            buffer.putLong(((Integer) records[i]).longValue())
+                .putInt(payload.length)
+                .put(payload);
+        }
+
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private final List<CaptureRecord> read(final byte[] content, final CaptureFormat format, final int windowSize)
+            throws IOException {
+        final Path                file;
+        final List<CaptureRecord> records;
+        CaptureRecord             record;
+
+        file = Files.write(directory.resolve("capture"), content);
+        records = new ArrayList<>();
+        try (CaptureReader reader = new CaptureReader(file, format, windowSize)) {
+            record = reader.next();
+            while (record != null) {
+                records.add(record);
+                record = reader.next();
+            }
+        }
+
+        return records;
+    }
+
+    private final String text(final CaptureRecord record) {
+        return StandardCharsets.UTF_8.decode(record.getPayload()
+            .duplicate())
+            .toString();
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.util;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.ssl.SslContext;
+
+/**
+ * Loopback echo server. Returns every byte it receives. Binds to a random port, unless one is received, and encrypts the
+ * connections if it receives an SSL context.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class EchoServer implements Closeable {
+
+    /**
+     * Echo handler. Writes back anything read.
+     *
+     * @author Bernardo Mart&iacute;nez Garrido
+     *
+     */
+    @Sharable
+    private static final class EchoHandler extends ChannelInboundHandlerAdapter {
+
+        /**
+         * Default constructor.
+         */
+        public EchoHandler() {
+            super();
+        }
+
+        @Override
+        public final void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+            ctx.write(msg);
+        }
+
+        @Override
+        public final void channelReadComplete(final ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+
+    }
+
+    /**
+     * Server channel.
+     */
+    private final Channel        channel;
+
+    /**
+     * Server event loop.
+     */
+    private final EventLoopGroup eventLoopGroup = new NioEventLoopGroup(1);
+
+    /**
+     * Starts the echo server.
+     *
+     * @throws InterruptedException
+     *             if interrupted while binding
+     */
+    public EchoServer() throws InterruptedException {
+        this(0);
+    }
+
+    /**
+     * Starts the echo server on the received port.
+     *
+     * @param port
+     *            port to bind, or zero for a random one
+     * @throws InterruptedException
+     *             if interrupted while binding
+     */
+    public EchoServer(final int port) throws InterruptedException {
+        this(port, null);
+    }
+
+    /**
+     * Starts the echo server on the received port, encrypting the connections with the received SSL context.
+     *
+     * @param port
+     *            port to bind, or zero for a random one
+     * @param tls
+     *            SSL context, {@code null} for plaintext
+     * @throws InterruptedException
+     *             if interrupted while binding
+     */
+    public EchoServer(final int port, final SslContext tls) throws InterruptedException {
+        super();
+
+        final EchoHandler handler;
+
+        handler = new EchoHandler();
+        channel = new ServerBootstrap().group(eventLoopGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+
+                @Override
+                protected final void initChannel(final SocketChannel ch) {
+                    if (tls != null) {
+                        ch.pipeline()
+                            .addLast(tls.newHandler(ch.alloc()));
+                    }
+                    ch.pipeline()
+                        .addLast(handler);
+                }
+
+            })
+            .bind("localhost", port)
+            .sync()
+            .channel();
+    }
+
+    @Override
+    public final void close() {
+        // May be closed more than once
+        if (channel.isOpen()) {
+            channel.close()
+                .syncUninterruptibly();
+        }
+        eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS)
+            .syncUninterruptibly();
+    }
+
+    /**
+     * Returns the host the server is bound to.
+     *
+     * @return the server host
+     */
+    public final String getHost() {
+        return "localhost";
+    }
+
+    /**
+     * Returns the port the server is bound to.
+     *
+     * @return the server port
+     */
+    public final Integer getPort() {
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+
+}
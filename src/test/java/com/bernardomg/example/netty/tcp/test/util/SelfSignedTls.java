@@ -0,0 +1,83 @@
+/**
+ * The MIT License (MIT)
+ * <p>
+ * Copyright (c) 2023 the original author or authors.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bernardomg.example.netty.tcp.test.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+
+/**
+ * Self-signed certificate for localhost, kept in the test resources. Valid for long enough to never expire.
+ *
+ * @author Bernardo Mart&iacute;nez Garrido
+ *
+ */
+public final class SelfSignedTls {
+
+    /**
+     * Returns the path to the certificate, so clients can trust it.
+     *
+     * @return the certificate path
+     */
+    public static final Path certificate() {
+        try {
+            return Path.of(SelfSignedTls.class.getResource("/tls/server.crt")
+                .toURI());
+        } catch (final URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a server SSL context with the certificate, using the received provider.
+     *
+     * @param provider
+     *            SSL provider
+     * @return a server SSL context
+     */
+    public static final SslContext serverContext(final SslProvider provider) {
+        try (InputStream certificate = SelfSignedTls.class.getResourceAsStream("/tls/server.crt");
+                InputStream key = SelfSignedTls.class.getResourceAsStream("/tls/server.key")) {
+            return SslContextBuilder.forServer(certificate, key)
+                .sslProvider(provider)
+                .build();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Utility class.
+     */
+    private SelfSignedTls() {
+        super();
+    }
+
+}